@@ -1,4 +1,6 @@
-﻿INSERT INTO cartoon (title, description) VALUES ('Masters of the Universe', 
+﻿-- the pooled identifier sequences step by 50, so the generated identifiers are 1, 51, 101...
+
+INSERT INTO cartoon (title, description) VALUES ('Masters of the Universe', 
 'This series follows the struggles between the forces of good and evil on the planet Eternia. The planet is ruled by King Randor and Queen Marlena. He-Man, the secret identity of their son, Prince Adam, is known only to the Sorceress of Castle Grayskull, Man-At-Arms, and Orko. He-Man and his allies must constantly battle with the evil warlord, Skeletor, and his henchmen to protect Eternia.');
 
 INSERT INTO cartoon_location (location_name, description, cartoon_id) VALUES ('Planet Eternia', 
@@ -12,33 +14,33 @@ INSERT INTO cartoon_location (location_name, description, cartoon_id) VALUES ('P
 INSERT INTO cartoon_character (character_name, description, character_home) VALUES ('He-Man', 
 'He-Man is the main character of the Masters of the Universe series. His true identity, Prince Adam, is known only to the Sorceress, Mana-At-Arms, and Orko. Prince Adam transforms into He-Man by holding the Power Sword aloft and declaring, "By the power of Grayskull... I have the power!".', 1), 
 ('Skeletor', 
-'Skeletor, the primary antagonist of the series, is a powerful sorcerer skilled in black magic. He resides at Snake Mountain, plotting to defeat He-Man and conquer Eternia. His origins are uncertain, known only to have come from another dimension.', 4), 
+'Skeletor, the primary antagonist of the series, is a powerful sorcerer skilled in black magic. He resides at Snake Mountain, plotting to defeat He-Man and conquer Eternia. His origins are uncertain, known only to have come from another dimension.', 151), 
 ('Teela', 
-'The biological daughter of the Sorceress and the adopted daughter of Man-At-Arms, Teela is the Captain of the Royal Guard and resposible for the protection and training of Prince Adam.', 3), 
+'The biological daughter of the Sorceress and the adopted daughter of Man-At-Arms, Teela is the Captain of the Royal Guard and resposible for the protection and training of Prince Adam.', 101), 
 ('Man-At-Arms', 
-'Man-At-Arms is the title given to Duncan, an ally of He-Man and the master of arms and combat instruction for the royal family of Eternia. Man-At-Arms also uses his engineering skills to devlop new weapons.', 3), 
+'Man-At-Arms is the title given to Duncan, an ally of He-Man and the master of arms and combat instruction for the royal family of Eternia. Man-At-Arms also uses his engineering skills to devlop new weapons.', 101), 
 ('Sorceress of Castle Grayskull', 
-'The Sorceress, guardian of the wisdom and secrets of Castle Grayskull, resides in the castle and is counselor to the heroes on Eternia. She gave Prince Adam the ability to become He-Man with the Sword of Power and also allowed Princess Adora to become She-Ra by proving her the Sword of Protection. She is able to communicate telepathically with allies and transform into the falcon, Zoar, to travel outside the castle.', 2), 
+'The Sorceress, guardian of the wisdom and secrets of Castle Grayskull, resides in the castle and is counselor to the heroes on Eternia. She gave Prince Adam the ability to become He-Man with the Sword of Power and also allowed Princess Adora to become She-Ra by proving her the Sword of Protection. She is able to communicate telepathically with allies and transform into the falcon, Zoar, to travel outside the castle.', 51), 
 ('Mer-Man', 
 'Mer-Man is an ocean warlord with the ability to control aquatic life. He is one of Skeletor''s loyal henchmen, so is often employed to do battle against Eternia''s heroes.', 1), 
 ('Beast-Man', 
 'Beast-Man is Skeletor''s most loyal henchman involved frequently in his master''s plots. In conflict, he uses his brute strength and his ability to control wild animals.', 1);
 
 INSERT INTO character_quote (character_id, quote) VALUES (1, 'By the power of Grayskull... I have the power!'), 
-(2, 'I am not nice, I am not kind, and I am not wonderful!﻿');
+(51, 'I am not nice, I am not kind, and I am not wonderful!﻿');
 
 INSERT INTO cartoon_picture (picture_location, cartoon_id) VALUES ('/img/Masters of the Universe/masters-of-the-universe.jpg', 1);
 
-INSERT INTO location_picture (picture_location, location_id) VALUES ('/img/Masters of the Universe/eternia.jpg', 1), ('/img/Masters of the Universe/castle-grayskull.jpg', 2), 
-('/img/Masters of the Universe/royal-palace.jpg', 3), ('/img/Masters of the Universe/snake-mountain.jpg', 4);
+INSERT INTO location_picture (picture_location, location_id) VALUES ('/img/Masters of the Universe/eternia.jpg', 1), ('/img/Masters of the Universe/castle-grayskull.jpg', 51), 
+('/img/Masters of the Universe/royal-palace.jpg', 101), ('/img/Masters of the Universe/snake-mountain.jpg', 151);
 
-INSERT INTO character_picture (picture_location, character_id) VALUES ('/img/Masters of the Universe/he-man.jpg', 1), ('/img/Masters of the Universe/skeletor-attacking.jpg', 2), 
-('/img/Masters of the Universe/teela.png', 3), ('/img/Masters of the Universe/man-at-arms.jpg', 4), 
-('/img/Masters of the Universe/sorceress.png', 5), ('/img/Masters of the Universe/mer-man-vs-he-man.jpg', 6), 
-('/img/Masters of the Universe/beast-man-vs-he-man.jpg', 7), ('/img/Masters of the Universe/battle-cat-and-he-man.jpg', 1), 
+INSERT INTO character_picture (picture_location, character_id) VALUES ('/img/Masters of the Universe/he-man.jpg', 1), ('/img/Masters of the Universe/skeletor-attacking.jpg', 51), 
+('/img/Masters of the Universe/teela.png', 101), ('/img/Masters of the Universe/man-at-arms.jpg', 151), 
+('/img/Masters of the Universe/sorceress.png', 201), ('/img/Masters of the Universe/mer-man-vs-he-man.jpg', 251), 
+('/img/Masters of the Universe/beast-man-vs-he-man.jpg', 301), ('/img/Masters of the Universe/battle-cat-and-he-man.jpg', 1), 
 ('/img/Masters of the Universe/he-man-defending-with-sword.png', 1);
 
 INSERT INTO gender (gender, description) VALUES ('M', 'male'), ('F', 'female'), ('U', 'unknown'), ('N','not applicable');
 
-INSERT INTO character_demographic (gender, villain, character_id) VALUES ('M', FALSE, 1), ('M', TRUE, 2), ('F', FALSE, 3), ('M', FALSE, 4), 
-('F', FALSE, 5), ('M', TRUE, 6), ('M', TRUE, 7);
+INSERT INTO character_demographic (gender, villain, character_id) VALUES ('M', FALSE, 1), ('M', TRUE, 51), ('F', FALSE, 101), ('M', FALSE, 151), 
+('F', FALSE, 201), ('M', TRUE, 251), ('M', TRUE, 301);
@@ -82,6 +82,190 @@ CREATE TABLE cartoons_schema.character_demographic (
 	CONSTRAINT FK_demographic_character_id FOREIGN KEY (character_id) REFERENCES cartoons_schema.cartoon_character (character_id)
 );
 
+-- identifier sequences step by the allocation size of the pooled Hibernate generators (allocationSize = 50)
+-- these statements may also be run on an existing database
+
+ALTER SEQUENCE cartoons_schema.cartoon_cartoon_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE cartoons_schema.cartoon_location_location_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE cartoons_schema.cartoon_character_character_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE cartoons_schema.cartoon_picture_picture_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE cartoons_schema.location_picture_picture_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE cartoons_schema.character_picture_picture_id_seq INCREMENT BY 50;
+
+-- trigram indexes for the character search (characterSearchMode trigram)
+-- these statements may also be run on an existing database
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IX_character_name_trgm ON cartoons_schema.cartoon_character USING GIN (character_name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS IX_cartoon_title_trgm ON cartoons_schema.cartoon USING GIN (title gin_trgm_ops);
+
+-- keyset pagination index for the paged character search
+
+CREATE INDEX IF NOT EXISTS IX_character_name_id ON cartoons_schema.cartoon_character (character_name, character_id);
+
+-- details of each picture file, one row per picture path (PictureMetadataDataAccess)
+-- width, height, and format are null for files that are not recognized images
+-- original_name is the name of the file a stored picture was first added from
+-- these statements may also be run on an existing database
+
+CREATE TABLE IF NOT EXISTS cartoons_schema.picture_metadata (
+	picture_location VARCHAR(100) NOT NULL,
+	byte_size BIGINT NOT NULL,
+	width INTEGER,
+	height INTEGER,
+	format VARCHAR(10),
+	content_hash VARCHAR(64),
+	modified_time TIMESTAMP NOT NULL,
+	original_name VARCHAR(255),
+	CONSTRAINT PK_picture_metadata PRIMARY KEY (picture_location)
+);
+
+ALTER TABLE cartoons_schema.picture_metadata ADD COLUMN IF NOT EXISTS original_name VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS IX_picture_metadata_hash ON cartoons_schema.picture_metadata (content_hash);
+
+-- character statistics rollup kept current by triggers (StatisticsDataAccess)
+-- villain is stored as Y, N, or U for unknown so that it can be part of the key
+-- groups whose count drops to zero are deleted, and deleting a cartoon deletes its groups
+-- these statements may also be run on an existing database
+
+CREATE TABLE IF NOT EXISTS cartoons_schema.character_statistics_rollup (
+	cartoon_id BIGINT NOT NULL,
+	gender VARCHAR(1) NOT NULL,
+	villain VARCHAR(1) NOT NULL,
+	character_count BIGINT NOT NULL,
+	CONSTRAINT PK_statistics_rollup PRIMARY KEY (cartoon_id, gender, villain),
+	CONSTRAINT FK_rollup_cartoon_id FOREIGN KEY (cartoon_id) REFERENCES cartoons_schema.cartoon (cartoon_id) 
+		ON DELETE CASCADE
+);
+
+ALTER TABLE cartoons_schema.character_statistics_rollup DROP CONSTRAINT IF EXISTS FK_rollup_cartoon_id, 
+	ADD CONSTRAINT FK_rollup_cartoon_id FOREIGN KEY (cartoon_id) REFERENCES cartoons_schema.cartoon (cartoon_id) 
+		ON DELETE CASCADE;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.villain_code(p_villain BOOLEAN) RETURNS VARCHAR AS $$
+	SELECT CASE WHEN p_villain THEN 'Y' WHEN NOT p_villain THEN 'N' ELSE 'U' END;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.adjust_character_statistics(p_cartoon_id BIGINT, p_gender VARCHAR, 
+		p_villain BOOLEAN, p_delta BIGINT) RETURNS VOID AS $$
+	INSERT INTO cartoons_schema.character_statistics_rollup AS r (cartoon_id, gender, villain, character_count)
+	SELECT p_cartoon_id, p_gender, cartoons_schema.villain_code(p_villain), p_delta
+	WHERE p_cartoon_id IS NOT NULL
+	ON CONFLICT (cartoon_id, gender, villain)
+	DO UPDATE SET character_count = r.character_count + EXCLUDED.character_count;
+	DELETE FROM cartoons_schema.character_statistics_rollup 
+	WHERE cartoon_id = p_cartoon_id AND gender = p_gender AND villain = cartoons_schema.villain_code(p_villain) 
+	AND character_count = 0;
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.character_cartoon_id(p_character_id BIGINT) RETURNS BIGINT AS $$
+	SELECT l.cartoon_id FROM cartoons_schema.cartoon_character ch 
+	JOIN cartoons_schema.cartoon_location l ON ch.character_home = l.location_id 
+	WHERE ch.character_id = p_character_id;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.demographic_statistics_trigger() RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP IN ('UPDATE', 'DELETE') THEN
+		PERFORM cartoons_schema.adjust_character_statistics(cartoons_schema.character_cartoon_id(OLD.character_id), 
+			OLD.gender, OLD.villain, -1);
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		PERFORM cartoons_schema.adjust_character_statistics(cartoons_schema.character_cartoon_id(NEW.character_id), 
+			NEW.gender, NEW.villain, 1);
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.character_home_statistics_trigger() RETURNS TRIGGER AS $$
+DECLARE
+	old_cartoon_id BIGINT;
+	new_cartoon_id BIGINT;
+	demographic RECORD;
+BEGIN
+	SELECT cartoon_id INTO old_cartoon_id FROM cartoons_schema.cartoon_location WHERE location_id = OLD.character_home;
+	SELECT cartoon_id INTO new_cartoon_id FROM cartoons_schema.cartoon_location WHERE location_id = NEW.character_home;
+	IF old_cartoon_id IS DISTINCT FROM new_cartoon_id THEN
+		FOR demographic IN SELECT gender, villain FROM cartoons_schema.character_demographic 
+				WHERE character_id = NEW.character_id LOOP
+			PERFORM cartoons_schema.adjust_character_statistics(old_cartoon_id, demographic.gender, demographic.villain, -1);
+			PERFORM cartoons_schema.adjust_character_statistics(new_cartoon_id, demographic.gender, demographic.villain, 1);
+		END LOOP;
+	END IF;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION cartoons_schema.location_cartoon_statistics_trigger() RETURNS TRIGGER AS $$
+DECLARE
+	statistic RECORD;
+BEGIN
+	FOR statistic IN SELECT cd.gender, cd.villain, COUNT(*) AS character_count 
+			FROM cartoons_schema.character_demographic cd 
+			JOIN cartoons_schema.cartoon_character ch ON cd.character_id = ch.character_id 
+			WHERE ch.character_home = NEW.location_id GROUP BY cd.gender, cd.villain LOOP
+		PERFORM cartoons_schema.adjust_character_statistics(OLD.cartoon_id, statistic.gender, statistic.villain, 
+			-statistic.character_count);
+		PERFORM cartoons_schema.adjust_character_statistics(NEW.cartoon_id, statistic.gender, statistic.villain, 
+			statistic.character_count);
+	END LOOP;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- recounts the rollup from the demographic table and returns the number of groups that had drifted
+
+CREATE OR REPLACE FUNCTION cartoons_schema.rebuild_character_statistics_rollup() RETURNS BIGINT AS $$
+DECLARE
+	drifted_groups BIGINT;
+BEGIN
+	LOCK TABLE cartoons_schema.character_statistics_rollup IN EXCLUSIVE MODE;
+	CREATE TEMPORARY TABLE actual_statistics ON COMMIT DROP AS 
+		SELECT l.cartoon_id, cd.gender, cartoons_schema.villain_code(cd.villain) AS villain, COUNT(*) AS character_count 
+		FROM cartoons_schema.character_demographic cd 
+		JOIN cartoons_schema.cartoon_character ch ON cd.character_id = ch.character_id 
+		JOIN cartoons_schema.cartoon_location l ON ch.character_home = l.location_id 
+		GROUP BY l.cartoon_id, cd.gender, cartoons_schema.villain_code(cd.villain);
+	SELECT COUNT(*) INTO drifted_groups 
+		FROM actual_statistics a 
+		FULL JOIN cartoons_schema.character_statistics_rollup r USING (cartoon_id, gender, villain) 
+		WHERE COALESCE(a.character_count, 0) <> COALESCE(r.character_count, 0);
+	DELETE FROM cartoons_schema.character_statistics_rollup;
+	INSERT INTO cartoons_schema.character_statistics_rollup (cartoon_id, gender, villain, character_count) 
+		SELECT cartoon_id, gender, villain, character_count FROM actual_statistics;
+	DROP TABLE actual_statistics;
+	RETURN drifted_groups;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS TR_demographic_statistics ON cartoons_schema.character_demographic;
+
+CREATE TRIGGER TR_demographic_statistics AFTER INSERT OR UPDATE OR DELETE ON cartoons_schema.character_demographic 
+	FOR EACH ROW EXECUTE PROCEDURE cartoons_schema.demographic_statistics_trigger();
+
+DROP TRIGGER IF EXISTS TR_character_home_statistics ON cartoons_schema.cartoon_character;
+
+CREATE TRIGGER TR_character_home_statistics AFTER UPDATE OF character_home ON cartoons_schema.cartoon_character 
+	FOR EACH ROW WHEN (OLD.character_home IS DISTINCT FROM NEW.character_home) 
+	EXECUTE PROCEDURE cartoons_schema.character_home_statistics_trigger();
+
+DROP TRIGGER IF EXISTS TR_location_cartoon_statistics ON cartoons_schema.cartoon_location;
+
+CREATE TRIGGER TR_location_cartoon_statistics AFTER UPDATE OF cartoon_id ON cartoons_schema.cartoon_location 
+	FOR EACH ROW WHEN (OLD.cartoon_id IS DISTINCT FROM NEW.cartoon_id) 
+	EXECUTE PROCEDURE cartoons_schema.location_cartoon_statistics_trigger();
+
+SELECT cartoons_schema.rebuild_character_statistics_rollup();
+
 DROP USER IF EXISTS cartoons_schema;
 
 CREATE USER cartoons_schema with password 'cartoon_user_password';
@@ -15,7 +15,25 @@
  */
 package com.daniel.cartooncharacters;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
+import com.daniel.cartooncharacters.data.CharacterStatisticsDataAccess;
+import com.daniel.cartooncharacters.data.CharacterSearchIndex;
+import com.daniel.cartooncharacters.data.DataAccessExecutor;
+import com.daniel.cartooncharacters.image.ImageCache;
+import com.daniel.cartooncharacters.image.PictureDirectoryWatcher;
+import com.daniel.cartooncharacters.image.PictureMetadataScanner;
+import com.daniel.cartooncharacters.task.TaskBenchmark;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.transfer.CatalogExporter;
+import com.daniel.cartooncharacters.transfer.CatalogImporter;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.Arrays;
 import javafx.application.Application;
+import javafx.application.Platform;
 import static javafx.application.Application.launch;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -23,6 +41,7 @@ import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import org.apache.logging.log4j.LogManager;
 
 /**
  * This is the application class for the cartoon characters program.
@@ -41,6 +60,35 @@ public class CartoonCharacters extends Application {
      */
     public static final int MIN_STAGE_HEIGHT = 500;
 
+    /**
+     * The command line option to rebuild the statistics rollup and exit
+     */
+    public static final String REBUILD_STATISTICS_OPTION = "--rebuild-statistics";
+
+    /**
+     * The command line option to import the catalog file that follows it and
+     * exit
+     */
+    public static final String IMPORT_OPTION = "--import";
+
+    /**
+     * The command line option to export the catalog to the directory that
+     * follows it, optionally followed by the csv or ndjson format, and exit
+     */
+    public static final String EXPORT_OPTION = "--export";
+
+    /**
+     * The command line option to benchmark the task thread modes, optionally
+     * followed by the number of requests, and exit
+     */
+    public static final String BENCHMARK_TASKS_OPTION = "--benchmark-tasks";
+
+    /**
+     * The default number of searches and of picture loads of the task
+     * benchmark
+     */
+    public static final int DEFAULT_BENCHMARK_REQUESTS = 500;
+
     /**
      * The location of a mouse press on the x-axis
      */
@@ -82,14 +130,145 @@ public class CartoonCharacters extends Application {
         stage.setMinHeight(MIN_STAGE_HEIGHT);
         stage.setMinWidth(MIN_STAGE_WIDTH);
         stage.show();
+        loadCatalogCache();
+        loadCharacterSearchIndex();
+        loadPictureMetadata();
+        watchPictureDirectory();
+    }
+
+    /**
+     * Executed when the program exits to stop the catalog refresh and the
+     * images directory watcher, write pending changes to the character search
+     * index file, and log the second-level cache and image cache statistics.
+     *
+     * @throws Exception
+     */
+    @Override
+    public void stop() throws Exception {
+        TaskScheduler.shutdown();
+        DataAccessExecutor.shutdown();
+        CatalogCache.shutdown();
+        PictureDirectoryWatcher.shutdown();
+        CharacterSearchIndex index = CharacterSearchIndex.getInstance();
+        if (index != null) {
+            index.saveIfModified();
+        }
+        SessionUtil.logCacheStatistics();
+        ImageCache.logStatistics();
     }
 
     /**
-     * The main method launches the program.
+     * Loads the catalog of cartoon, location, and character names in a
+     * background thread. The selection combo boxes query the database until
+     * the catalog is ready.
+     */
+    private void loadCatalogCache() {
+        Thread thread = new Thread(CatalogCache::initialize);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Loads the character search index in a background thread if the index
+     * search mode is configured. Searches use the database until the index is
+     * ready.
+     */
+    private void loadCharacterSearchIndex() {
+        if (ApplicationProperties.SEARCH_MODE_INDEX.equals(ConfigurationManager.getApplicationProperties()
+                .getString(ApplicationProperties.CHARACTER_SEARCH_MODE))) {
+            Thread thread = new Thread(CharacterSearchIndex::initialize);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Records the details of the pictures that have none recorded in a
+     * background thread if the backfill is configured.
+     */
+    private void loadPictureMetadata() {
+        if (!ConfigurationManager.getApplicationProperties().getBoolean(
+                ApplicationProperties.PICTURE_METADATA_BACKFILL)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                new PictureMetadataScanner().backfill(TaskScheduler.getInstance().getPictureExecutor());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts following the images directory for pictures added or deleted
+     * outside the application if the directory watch is configured.
+     */
+    private void watchPictureDirectory() {
+        if (ConfigurationManager.getApplicationProperties().getBoolean(
+                ApplicationProperties.PICTURE_DIRECTORY_WATCH)) {
+            PictureDirectoryWatcher.start();
+        }
+    }
+
+    /**
+     * The main method launches the program. With the rebuild statistics
+     * option, the statistics rollup is rebuilt instead and the program exits.
+     * With the import option, the named catalog file is imported instead and
+     * the program exits. With the export option, the catalog is exported to
+     * the named directory instead and the program exits. With the benchmark
+     * option, the task thread modes are compared instead and the program
+     * exits.
      *
      * @param args the command line arguments
      */
     public static void main(String[] args) {
+        int benchmarkIndex = Arrays.asList(args).indexOf(BENCHMARK_TASKS_OPTION);
+        if (benchmarkIndex >= 0) {
+            int requests = DEFAULT_BENCHMARK_REQUESTS;
+            if (benchmarkIndex + 1 < args.length) {
+                try {
+                    requests = Integer.parseInt(args[benchmarkIndex + 1]);
+                } catch (NumberFormatException nfe) {
+                    LogManager.getLogger(CartoonCharacters.class).error("The benchmark option requires a number.");
+                    System.exit(1);
+                }
+            }
+            Platform.startup(() -> {
+            });
+            boolean completed = new TaskBenchmark().run(requests);
+            Platform.exit();
+            System.exit(completed ? 0 : 1);
+        }
+        int exportIndex = Arrays.asList(args).indexOf(EXPORT_OPTION);
+        if (exportIndex >= 0) {
+            if (exportIndex + 1 >= args.length) {
+                LogManager.getLogger(CartoonCharacters.class).error("The export option requires a directory name.");
+                System.exit(1);
+            }
+            String format = exportIndex + 2 < args.length ? args[exportIndex + 2] : CatalogExporter.FORMAT_NDJSON;
+            boolean exported = new CatalogExporter().exportCatalog(Paths.get(args[exportIndex + 1]), format);
+            System.exit(exported ? 0 : 1);
+        }
+        int importIndex = Arrays.asList(args).indexOf(IMPORT_OPTION);
+        if (importIndex >= 0) {
+            if (importIndex + 1 >= args.length) {
+                LogManager.getLogger(CartoonCharacters.class).error("The import option requires a file name.");
+                System.exit(1);
+            }
+            boolean imported = new CatalogImporter().importFile(Paths.get(args[importIndex + 1]));
+            System.exit(imported ? 0 : 1);
+        }
+        if (Arrays.asList(args).contains(REBUILD_STATISTICS_OPTION)) {
+            long driftedGroups = new CharacterStatisticsDataAccess().rebuildStatisticsRollup();
+            if (driftedGroups >= 0) {
+                LogManager.getLogger(CartoonCharacters.class).info(MessageFormat.format(
+                        "Statistics rollup rebuilt, {0} groups corrected.", driftedGroups));
+            }
+            System.exit(driftedGroups >= 0 ? 0 : 1);
+        }
         launch(args);
     }
 }
@@ -0,0 +1,35 @@
+/* 
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters;
+
+/**
+ * This class starts the program from the class path. The Java launcher
+ * refuses to start a main class extending Application unless the JavaFX
+ * modules are on the module path, so the jar names this class instead.
+ *
+ * @author Bryan Daniel
+ */
+public class Launcher {
+
+    /**
+     * Passes the command line arguments to the application class.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        CartoonCharacters.main(args);
+    }
+}
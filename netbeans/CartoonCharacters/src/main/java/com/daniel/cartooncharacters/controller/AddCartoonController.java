@@ -16,6 +16,9 @@
 package com.daniel.cartooncharacters.controller;
 
 import com.daniel.cartooncharacters.task.SaveCartoonTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import com.daniel.cartooncharacters.validation.InputValidator;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -57,12 +60,14 @@ public class AddCartoonController {
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -77,8 +82,7 @@ public class AddCartoonController {
 
         if (validator.inputValidForCartoonCreation(cartoonNameTextField.getText(), cartoonDescriptionTextArea.getText())) {
             SaveCartoonTask task = new SaveCartoonTask(cartoonNameTextField.getText(), cartoonDescriptionTextArea.getText());
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
         }
     }
 }
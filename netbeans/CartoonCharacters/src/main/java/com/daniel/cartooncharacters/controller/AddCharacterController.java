@@ -15,6 +15,7 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
 import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
 import com.daniel.cartooncharacters.data.SimpleGenderDataAccess;
 import com.daniel.cartooncharacters.data.SimpleLocationDataAccess;
@@ -24,12 +25,16 @@ import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.CharacterDemographic;
 import com.daniel.cartooncharacters.entity.Gender;
 import com.daniel.cartooncharacters.task.SaveCharacterTask;
-import com.daniel.cartooncharacters.task.SelectCartoonTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
+import java.util.ArrayList;
 import java.util.List;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -134,17 +139,18 @@ public class AddCharacterController {
         characterDescriptionTextArea.clear();
         characterDescriptionTextArea.setDisable(true);
         createListeners();
-        List<String> cartoonNames = new SimpleCartoonDataAccess().findAllCartoonNames();
-        cartoonNameComboBox.getItems().clear();
-        cartoonNameComboBox.getItems().add("");
-        cartoonNameComboBox.getItems().addAll(cartoonNames);
-        cartoonNameComboBox.getSelectionModel().selectFirst();
-        genders = new SimpleGenderDataAccess().findAllGenders();
-        genderChoiceBox.getItems().clear();
-        genders.forEach((g) -> {
-            genderChoiceBox.getItems().add(g.getDescription());
-        });
-        genderChoiceBox.getSelectionModel().selectFirst();
+        genders = new ArrayList<>();
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+        }, Platform::runLater);
+        new SimpleGenderDataAccess().findAllGendersAsync().thenAcceptAsync(allGenders -> {
+            genders = allGenders;
+            genderChoiceBox.getItems().clear();
+            genders.forEach((g) -> {
+                genderChoiceBox.getItems().add(g.getDescription());
+            });
+            genderChoiceBox.getSelectionModel().selectFirst();
+        }, Platform::runLater);
         goodOrEvilChoiceBox.getItems().clear();
         goodOrEvilChoiceBox.getItems().add("good");
         goodOrEvilChoiceBox.getItems().add("evil");
@@ -152,12 +158,14 @@ public class AddCharacterController {
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     public void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -179,8 +187,7 @@ public class AddCharacterController {
             setVillain(goodOrEvilChoiceBox.getSelectionModel().getSelectedItem());
             SaveCharacterTask task = new SaveCharacterTask(cartoonCharacter, cartoonLocation.get(), 
                     characterDemographic);
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
             initialize();
         }
     }
@@ -193,26 +200,19 @@ public class AddCharacterController {
     private void createListeners() {
         locationNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                Thread thread = new Thread(new Task() {
-
-                    @Override
-                    protected Void call() throws Exception {
-                        cartoonLocation.set(new SimpleLocationDataAccess().findCartoonLocation(newValue, cartoon.get()));
-                        cartoonCharacter.setCharacterHome(cartoonLocation.get());
-                        return null;
-                    }
-
-                    @Override
-                    protected void succeeded() {
-                        characterNameTextField.clear();
-                        characterNameTextField.setDisable(false);
-                        genderChoiceBox.setDisable(false);
-                        goodOrEvilChoiceBox.setDisable(false);
-                        characterDescriptionTextArea.clear();
-                        characterDescriptionTextArea.setDisable(false);
-                    }
-                });
-                thread.start();
+                new SimpleLocationDataAccess().findCartoonLocationAsync(newValue, cartoon.get())
+                        .thenAcceptAsync(selectedLocation -> {
+                            if (newValue.equals(locationNameComboBox.getValue())) {
+                                cartoonLocation.set(selectedLocation);
+                                cartoonCharacter.setCharacterHome(selectedLocation);
+                                characterNameTextField.clear();
+                                characterNameTextField.setDisable(false);
+                                genderChoiceBox.setDisable(false);
+                                goodOrEvilChoiceBox.setDisable(false);
+                                characterDescriptionTextArea.clear();
+                                characterDescriptionTextArea.setDisable(false);
+                            }
+                        }, Platform::runLater);
             } else {
                 characterNameTextField.clear();
                 characterNameTextField.setDisable(true);
@@ -224,10 +224,14 @@ public class AddCharacterController {
         });
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SelectCartoonTask task = new SelectCartoonTask(newValue, locationNameComboBox);
-                cartoon.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
+                cartoon.set(null);
+                new SimpleCartoonDataAccess().findCartoonAsync(newValue).thenCompose(selectedCartoon -> CatalogCache
+                        .findLocationNamesAsync(selectedCartoon).thenAcceptAsync(locationNames -> {
+                            if (newValue.equals(cartoonNameComboBox.getValue())) {
+                                cartoon.set(selectedCartoon);
+                                ComboBoxUtil.setChoices(locationNameComboBox, locationNames);
+                            }
+                        }, Platform::runLater));
                 locationNameComboBox.setDisable(false);
                 characterNameTextField.clear();
                 characterNameTextField.setDisable(true);
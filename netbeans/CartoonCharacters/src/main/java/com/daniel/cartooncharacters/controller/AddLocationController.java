@@ -15,10 +15,14 @@
  */
 package com.daniel.cartooncharacters.controller;
 
-import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.data.CatalogCache;
 import com.daniel.cartooncharacters.task.SaveLocationTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
-import java.util.List;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -69,11 +73,9 @@ public class AddLocationController {
         locationNameTextField.setDisable(true);
         locationDescriptionTextArea.clear();
         locationDescriptionTextArea.setDisable(true);
-        List<String> cartoonNames = new SimpleCartoonDataAccess().findAllCartoonNames();
-        cartoonNameComboBox.getItems().clear();
-        cartoonNameComboBox.getItems().add("");
-        cartoonNameComboBox.getItems().addAll(cartoonNames);
-        cartoonNameComboBox.getSelectionModel().selectFirst();
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+        }, Platform::runLater);
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
                 locationNameTextField.setDisable(false);
@@ -83,12 +85,14 @@ public class AddLocationController {
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -104,8 +108,7 @@ public class AddLocationController {
                 locationNameTextField.getText(), locationDescriptionTextArea.getText())) {
             SaveLocationTask task = new SaveLocationTask(cartoonNameComboBox.getSelectionModel().getSelectedItem(),
                     locationNameTextField.getText(), locationDescriptionTextArea.getText());
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
         }
     }
 }
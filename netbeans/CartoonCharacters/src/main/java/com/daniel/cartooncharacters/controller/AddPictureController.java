@@ -15,22 +15,27 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
+import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.data.SimpleCharacterDataAccess;
+import com.daniel.cartooncharacters.data.SimpleLocationDataAccess;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
-import com.daniel.cartooncharacters.task.FindAllCartoonsTask;
-import com.daniel.cartooncharacters.task.SavePictureTask;
+import com.daniel.cartooncharacters.task.IngestPicturesTask;
+import com.daniel.cartooncharacters.task.PreviewImageTask;
 import com.daniel.cartooncharacters.task.SavePictureTask.PictureType;
-import com.daniel.cartooncharacters.task.SelectCartoonTask;
-import com.daniel.cartooncharacters.task.SelectCharacterTask;
-import com.daniel.cartooncharacters.task.SelectLocationTask;
+import com.daniel.cartooncharacters.task.SavePictureTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
@@ -40,11 +45,11 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.ImageView;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javax.imageio.ImageIO;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -93,6 +98,24 @@ public class AddPictureController {
     @FXML
     private Button selectPictureButton;
 
+    /**
+     * The button for selecting a directory of pictures to add
+     */
+    @FXML
+    private Button selectFolderButton;
+
+    /**
+     * The progress bar of the pictures being added
+     */
+    @FXML
+    private ProgressBar ingestProgressBar;
+
+    /**
+     * The label for the selection and the progress of the pictures to add
+     */
+    @FXML
+    private Label ingestStatusLabel;
+
     /**
      * The node displaying the picture to add
      */
@@ -133,19 +156,19 @@ public class AddPictureController {
     private ObjectProperty<CartoonLocation> cartoonLocation;
 
     /**
-     * The image file
+     * The image file, if a single picture is chosen
      */
     private File imageFile;
 
     /**
-     * The format of the image file
+     * The chosen image files and directories
      */
-    private String formatName;
+    private List<File> imageFiles;
 
     /**
-     * The image to save
+     * The task decoding the preview of the chosen picture, or null
      */
-    private BufferedImage newImage;
+    private PreviewImageTask previewTask;
 
     /**
      * The input validation object
@@ -176,17 +199,22 @@ public class AddPictureController {
         characterNameComboBox.setVisible(false);
         chooseCharacterLabel.setVisible(false);
         selectPictureButton.setVisible(false);
+        selectFolderButton.visibleProperty().bind(selectPictureButton.visibleProperty());
+        ingestProgressBar.setVisible(false);
+        imageFiles = new ArrayList<>();
         pictureTypeChoiceBox.getItems().setAll(PictureType.values());
         createListeners();
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     public void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -198,10 +226,40 @@ public class AddPictureController {
      */
     @FXML
     void handleSaveAction(ActionEvent event) {
-        SavePictureTask task = new SavePictureTask(imageFile, pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().get(),
-                cartoon.get(), cartoonLocation.get(), cartoonCharacter.get());
-        Thread thread = new Thread(task);
-        thread.start();
+        if (imageFile != null) {
+            SavePictureTask task = new SavePictureTask(imageFile, pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().get(),
+                    cartoon.get(), cartoonLocation.get(), cartoonCharacter.get());
+            TaskScheduler.getInstance().submit(task, Pool.FILE, Priority.HIGH, null);
+        } else if (!imageFiles.isEmpty()) {
+            IngestPicturesTask task = new IngestPicturesTask(imageFiles, pictureTypeChoiceBox.getSelectionModel()
+                    .selectedItemProperty().get(), cartoon.get(), cartoonLocation.get(), cartoonCharacter.get());
+            savePictureButton.setDisable(true);
+            ingestProgressBar.setVisible(true);
+            ingestProgressBar.progressProperty().bind(task.progressProperty());
+            task.messageProperty().addListener((observable, oldValue, newValue) -> ingestStatusLabel.setText(newValue));
+            task.runningProperty().addListener((observable, oldValue, newValue) -> {
+                if (!newValue) {
+                    ingestProgressBar.progressProperty().unbind();
+                    ingestProgressBar.setVisible(false);
+                    savePictureButton.setDisable(false);
+                }
+            });
+            TaskScheduler.getInstance().submit(task, Pool.FILE, Priority.HIGH, null);
+        }
+    }
+
+    /**
+     * Loads the cartoon titles into the cartoon combo box unless another
+     * picture type is chosen before they arrive.
+     *
+     * @param pictureType the picture type chosen
+     */
+    private void loadCartoonNames(PictureType pictureType) {
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            if (pictureType == pictureTypeChoiceBox.getValue()) {
+                ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+            }
+        }, Platform::runLater);
     }
 
     /**
@@ -211,16 +269,13 @@ public class AddPictureController {
     private void createListeners() {
         pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             savePictureButton.setDisable(true);
-            imageFile = null;
-            formatName = null;
-            newImage = null;
-            imagePreview.setImage(null);
+            clearChosenPictures();
             cartoonNameComboBox.getItems().clear();
             locationNameComboBox.getItems().clear();
             characterNameComboBox.getItems().clear();
             switch (newValue) {
                 case CARTOON:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(false);
@@ -230,7 +285,7 @@ public class AddPictureController {
                     selectPictureButton.setVisible(false);
                     break;
                 case LOCATION:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(true);
@@ -241,7 +296,7 @@ public class AddPictureController {
                     selectPictureButton.setVisible(false);
                     break;
                 case CHARACTER:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(true);
@@ -258,16 +313,16 @@ public class AddPictureController {
         });
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectCartoonTask task = new SelectCartoonTask(newValue, locationNameComboBox);
-                cartoon.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
-                formatName = null;
-                newImage = null;
-                imagePreview.setImage(null);
+                cartoon.set(null);
+                new SimpleCartoonDataAccess().findCartoonAsync(newValue).thenCompose(selectedCartoon -> CatalogCache
+                        .findLocationNamesAsync(selectedCartoon).thenAcceptAsync(locationNames -> {
+                            if (newValue.equals(cartoonNameComboBox.getValue())) {
+                                cartoon.set(selectedCartoon);
+                                ComboBoxUtil.setChoices(locationNameComboBox, locationNames);
+                            }
+                        }, Platform::runLater));
+                clearChosenPictures();
                 savePictureButton.setDisable(true);
-                imagePreview.setImage(null);
                 if (PictureType.CARTOON == pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().get()) {
                     selectPictureButton.setVisible(true);
                 } else {
@@ -279,16 +334,17 @@ public class AddPictureController {
         });
         locationNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectLocationTask task = new SelectLocationTask(newValue, characterNameComboBox, cartoon.get());
-                cartoonLocation.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
-                formatName = null;
-                newImage = null;
-                imagePreview.setImage(null);
+                cartoonLocation.set(null);
+                new SimpleLocationDataAccess().findCartoonLocationAsync(newValue, cartoon.get())
+                        .thenCompose(selectedLocation -> CatalogCache.findCharacterNamesAsync(selectedLocation)
+                        .thenAcceptAsync(characterNames -> {
+                            if (newValue.equals(locationNameComboBox.getValue())) {
+                                cartoonLocation.set(selectedLocation);
+                                ComboBoxUtil.setChoices(characterNameComboBox, characterNames);
+                            }
+                        }, Platform::runLater));
+                clearChosenPictures();
                 savePictureButton.setDisable(true);
-                imagePreview.setImage(null);
                 if (PictureType.LOCATION == pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().get()) {
                     selectPictureButton.setVisible(true);
                 } else {
@@ -298,46 +354,95 @@ public class AddPictureController {
         });
         characterNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectCharacterTask task = new SelectCharacterTask(newValue, cartoonLocation.get());
-                cartoonCharacter.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
-                formatName = null;
-                newImage = null;
-                imagePreview.setImage(null);
+                cartoonCharacter.set(null);
+                new SimpleCharacterDataAccess().findCartoonCharacterAsync(newValue, cartoonLocation.get())
+                        .thenAcceptAsync(selectedCharacter -> {
+                            if (newValue.equals(characterNameComboBox.getValue())) {
+                                cartoonCharacter.set(selectedCharacter);
+                            }
+                        }, Platform::runLater);
+                clearChosenPictures();
                 selectPictureButton.setVisible(true);
             }
         });
         selectPictureButton.setOnAction(event -> {
             FileChooser fileChooser = new FileChooser();
-            imageFile = fileChooser.showOpenDialog(((Node) event.getTarget()).getScene().getWindow());
-            if (imageFile != null) {
-                openImageFile(imageFile);
+            List<File> chosenFiles = fileChooser.showOpenMultipleDialog(((Node) event.getTarget()).getScene()
+                    .getWindow());
+            if (chosenFiles != null && !chosenFiles.isEmpty()) {
+                clearChosenPictures();
+                imageFiles = new ArrayList<>(chosenFiles);
+                if (chosenFiles.size() == 1) {
+                    savePictureButton.setDisable(true);
+                    openImageFile(chosenFiles.get(0));
+                } else {
+                    ingestStatusLabel.setText(MessageFormat.format("{0} pictures selected", chosenFiles.size()));
+                    savePictureButton.setDisable(false);
+                }
+            }
+        });
+        selectFolderButton.setOnAction(event -> {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            File directory = directoryChooser.showDialog(((Node) event.getTarget()).getScene().getWindow());
+            if (directory != null) {
+                clearChosenPictures();
+                imageFiles.add(directory);
+                ingestStatusLabel.setText("All pictures in " + directory.getName());
                 savePictureButton.setDisable(false);
             }
         });
     }
 
     /**
-     * Opens and displays the given image in the image view.
+     * Forgets the chosen pictures and stops decoding the preview.
+     */
+    private void clearChosenPictures() {
+        if (previewTask != null) {
+            previewTask.cancel();
+            previewTask = null;
+        }
+        imageFile = null;
+        imageFiles.clear();
+        ingestStatusLabel.setText("");
+        imagePreview.setImage(null);
+    }
+
+    /**
+     * Decodes the given image in a background thread, at the size of the
+     * image view, and displays it. The picture can be saved once it is known
+     * to be a valid image.
      *
-     * @param imageFile the image to open
-     * @return true if successful, false otherwise
+     * @param chosenFile the image to open
      */
-    private boolean openImageFile(File imageFile) {
-        if ((formatName = validator.imageFileValid(imageFile)) != null) {
-            try {
-                newImage = ImageIO.read(imageFile);
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                ImageIO.write(newImage, formatName, byteArrayOutputStream);
-                InputStream inputStream = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-                imagePreview.setImage(new Image(inputStream));
-                return true;
-            } catch (IOException ex) {
-                logger.error("IOException occurred in openImageFile method.", ex);
+    private void openImageFile(File chosenFile) {
+        int size = (int) Math.max(imagePreview.getFitWidth(), imagePreview.getFitHeight());
+        PreviewImageTask task = new PreviewImageTask(chosenFile, size);
+        task.setOnSucceeded((event) -> {
+            if (task != previewTask) {
+                return;
             }
-        }
-        return false;
+            previewTask = null;
+            if (task.getValue() == null) {
+                imageFiles.clear();
+                validator.showImageFileInvalid("The image could not be decoded.");
+            } else {
+                imageFile = chosenFile;
+                imagePreview.setImage(task.getValue());
+                savePictureButton.setDisable(false);
+            }
+        });
+        task.setOnFailed((event) -> {
+            if (task == previewTask) {
+                previewTask = null;
+                imageFiles.clear();
+                if (task.getException() instanceof IllegalArgumentException) {
+                    validator.showImageFileInvalid(task.getException().getMessage());
+                } else {
+                    logger.error("Exception occurred in openImageFile method.", task.getException());
+                    validator.showImageFileInvalid("The file could not be read.");
+                }
+            }
+        });
+        previewTask = TaskScheduler.getInstance().submitLatest(task, Pool.FILE, Priority.INTERACTIVE, this);
     }
 }
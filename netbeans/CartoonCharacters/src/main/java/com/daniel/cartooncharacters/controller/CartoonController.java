@@ -15,19 +15,20 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import static com.daniel.cartooncharacters.controller.CharacterController.HALF_OPAQUE;
 import com.daniel.cartooncharacters.util.ScreenChangeManager;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonPicture;
 import com.daniel.cartooncharacters.task.SearchPictureTask;
-import com.daniel.cartooncharacters.util.FileUtil;
-import java.util.List;
+import com.daniel.cartooncharacters.image.PictureStore;
 import javafx.beans.property.SimpleListProperty;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 
@@ -106,6 +107,11 @@ public class CartoonController {
      */
     private int currentPictureIndex;
 
+    /**
+     * The loader showing the pictures in the image view
+     */
+    private PictureLoader pictureLoader;
+
     /**
      * This constructor sets the value for the cartoon to view and the value for
      * the screen change manager.
@@ -123,6 +129,7 @@ public class CartoonController {
      */
     @FXML
     public void initialize() {
+        pictureLoader = new PictureLoader(cartoonImage, this);
         cartoonIdTextArea.setText(cartoon.getCartoonId().toString());
         titleTextArea.setText(cartoon.getTitle());
         descriptionTextArea.setText(cartoon.getDescription());
@@ -132,19 +139,15 @@ public class CartoonController {
         pictureList.bind(task.valueProperty());
         pictureList.addListener((observable, oldValue, newValue) -> {
             currentPictureIndex = 0;
-            pictureLocationTextArea.setText(((List<CartoonPicture>) newValue).get(0).getPictureLocation());
+            showPicture(currentPictureIndex);
             if (pictureList.size() > 1) {
                 rightArrowButton.setDisable(false);
                 rightArrowButton.setVisible(true);
             }
         });
-        pictureLocationTextArea.textProperty().addListener((observable, oldValue, newValue) -> {
-            cartoonImage.setImage(new Image(FileUtil.getImageFile(newValue).toURI().toString()));
-        });
         cartoonHideButton.setOnAction((event) -> this.handleCartoonHide(event));
 
-        Thread thread = new Thread(task);
-        thread.start();
+        TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.INTERACTIVE, this);
     }
 
     /**
@@ -154,6 +157,8 @@ public class CartoonController {
      * @param event the action event
      */
     private void handleCartoonHide(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
+        pictureLoader.cancel();
         screenChangeManager.hideCartoonDetails(event);
     }
 
@@ -184,8 +189,7 @@ public class CartoonController {
      */
     @FXML
     void handleLeftArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((CartoonPicture) pictureList.get(--currentPictureIndex))
-                .getPictureLocation());
+        showPicture(--currentPictureIndex);
         rightArrowButton.setDisable(false);
         rightArrowButton.setVisible(true);
         if (currentPictureIndex == 0) {
@@ -201,8 +205,7 @@ public class CartoonController {
      */
     @FXML
     void handleRightArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((CartoonPicture) pictureList.get(++currentPictureIndex))
-                .getPictureLocation());
+        showPicture(++currentPictureIndex);
         leftArrowButton.setDisable(false);
         leftArrowButton.setVisible(true);
         if (pictureList.size() <= (currentPictureIndex + 1)) {
@@ -210,4 +213,32 @@ public class CartoonController {
             rightArrowButton.setVisible(false);
         }
     }
+
+    /**
+     * Shows the picture at the given index and the name of the file it was
+     * added from.
+     *
+     * @param index the index of the picture
+     */
+    private void showPicture(int index) {
+        CartoonPicture picture = (CartoonPicture) pictureList.get(index);
+        pictureLocationTextArea.setText(PictureStore.getDisplayName(picture.getPictureLocation(),
+                picture.getMetadata()));
+        pictureLoader.show(picture.getPictureLocation(), getPictureLocation(index - 1),
+                getPictureLocation(index + 1));
+    }
+
+    /**
+     * Returns the path of the picture at the given index, or null if the index
+     * is outside the list of pictures.
+     *
+     * @param index the index of the picture
+     * @return the path of the picture or null
+     */
+    private String getPictureLocation(int index) {
+        if (index < 0 || index >= pictureList.size()) {
+            return null;
+        }
+        return ((CartoonPicture) pictureList.get(index)).getPictureLocation();
+    }
 }
@@ -15,19 +15,20 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import com.daniel.cartooncharacters.util.ScreenChangeManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CharacterPicture;
 import com.daniel.cartooncharacters.task.SearchPictureTask;
-import com.daniel.cartooncharacters.util.FileUtil;
-import java.util.List;
+import com.daniel.cartooncharacters.image.PictureStore;
 import javafx.beans.property.SimpleListProperty;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Button;
 import javafx.scene.control.Hyperlink;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 
@@ -117,6 +118,11 @@ public class CharacterController {
      */
     private int currentPictureIndex;
 
+    /**
+     * The loader showing the pictures in the image view
+     */
+    private PictureLoader pictureLoader;
+
     /**
      * This constructor sets the value for the character to view and the value
      * for the screen change manager.
@@ -134,6 +140,7 @@ public class CharacterController {
      */
     @FXML
     public void initialize() {
+        pictureLoader = new PictureLoader(characterImage, this);
         characterIdTextArea.setText(character.getCharacterId().toString());
         characterNameTextArea.setText(character.getCharacterName());
         descriptionTextArea.setText(character.getDescription());
@@ -143,22 +150,17 @@ public class CharacterController {
         pictureList.bind(task.valueProperty());
         pictureList.addListener((observable, oldValue, newValue) -> {
             currentPictureIndex = 0;
-            pictureLocationTextArea.setText(((List<CharacterPicture>) newValue).get(currentPictureIndex)
-                    .getPictureLocation());
+            showPicture(currentPictureIndex);
             if (pictureList.size() > 1) {
                 rightArrowButton.setDisable(false);
                 rightArrowButton.setVisible(true);
             }
         });
-        pictureLocationTextArea.textProperty().addListener((observable, oldValue, newValue) -> {
-            characterImage.setImage(new Image(FileUtil.getImageFile(newValue).toURI().toString()));
-        });
         characterHomeHyperlink.setText(character.getCharacterHome().getLocationName());
         characterHomeHyperlink.setOnAction((event) -> this.handleHomeSelect(event));
         characterHideButton.setOnAction((event) -> this.handleCharacterHide(event));
 
-        Thread thread = new Thread(task);
-        thread.start();
+        TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.INTERACTIVE, this);
     }
 
     /**
@@ -177,6 +179,8 @@ public class CharacterController {
      * @param event the action event
      */
     private void handleCharacterHide(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
+        pictureLoader.cancel();
         screenChangeManager.hideCharacterDetails(event);
     }
 
@@ -207,8 +211,7 @@ public class CharacterController {
      */
     @FXML
     void handleLeftArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((CharacterPicture) pictureList.get(--currentPictureIndex))
-                .getPictureLocation());
+        showPicture(--currentPictureIndex);
         rightArrowButton.setDisable(false);
         rightArrowButton.setVisible(true);
         if (currentPictureIndex == 0) {
@@ -224,8 +227,7 @@ public class CharacterController {
      */
     @FXML
     void handleRightArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((CharacterPicture) pictureList.get(++currentPictureIndex))
-                .getPictureLocation());
+        showPicture(++currentPictureIndex);
         leftArrowButton.setDisable(false);
         leftArrowButton.setVisible(true);
         if (pictureList.size() <= (currentPictureIndex + 1)) {
@@ -233,4 +235,32 @@ public class CharacterController {
             rightArrowButton.setVisible(false);
         }
     }
+
+    /**
+     * Shows the picture at the given index and the name of the file it was
+     * added from.
+     *
+     * @param index the index of the picture
+     */
+    private void showPicture(int index) {
+        CharacterPicture picture = (CharacterPicture) pictureList.get(index);
+        pictureLocationTextArea.setText(PictureStore.getDisplayName(picture.getPictureLocation(),
+                picture.getMetadata()));
+        pictureLoader.show(picture.getPictureLocation(), getPictureLocation(index - 1),
+                getPictureLocation(index + 1));
+    }
+
+    /**
+     * Returns the path of the picture at the given index, or null if the index
+     * is outside the list of pictures.
+     *
+     * @param index the index of the picture
+     * @return the path of the picture or null
+     */
+    private String getPictureLocation(int index) {
+        if (index < 0 || index >= pictureList.size()) {
+            return null;
+        }
+        return ((CharacterPicture) pictureList.get(index)).getPictureLocation();
+    }
 }
@@ -15,25 +15,35 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
+import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.data.SimpleCharacterDataAccess;
+import com.daniel.cartooncharacters.data.SimpleLocationDataAccess;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.CartoonPicture;
 import com.daniel.cartooncharacters.entity.CharacterPicture;
 import com.daniel.cartooncharacters.entity.LocationPicture;
+import com.daniel.cartooncharacters.image.PictureStore;
 import com.daniel.cartooncharacters.task.DeletePictureTask;
-import com.daniel.cartooncharacters.task.FindAllCartoonsTask;
+import com.daniel.cartooncharacters.task.LoadImageTask;
 import com.daniel.cartooncharacters.task.SavePictureTask.PictureType;
 import com.daniel.cartooncharacters.task.SearchPictureTask;
-import com.daniel.cartooncharacters.task.SelectCartoonTask;
-import com.daniel.cartooncharacters.task.SelectCharacterTask;
-import com.daniel.cartooncharacters.task.SelectLocationTask;
-import com.daniel.cartooncharacters.util.FileUtil;
-import java.io.File;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -41,7 +51,9 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import org.apache.commons.lang3.StringUtils;
@@ -103,10 +115,12 @@ public class DeletePictureController {
     private ComboBox<String> characterNameComboBox;
 
     /**
-     * The combo box for the picture selection
+     * The list for the picture selection, allowing several pictures to be
+     * chosen. The items are the picture paths, shown by the names of the
+     * files the pictures were added from.
      */
     @FXML
-    private ComboBox<String> selectPictureComboBox;
+    private ListView<String> selectPictureListView;
 
     /**
      * The delete button
@@ -141,9 +155,9 @@ public class DeletePictureController {
     private final SimpleListProperty pictureList = new SimpleListProperty();
 
     /**
-     * The image file
+     * The names shown for the pictures in the picture list, by picture path
      */
-    private File imageFile;
+    private final Map<String, String> pictureNames = new HashMap<>();
 
     /**
      * Called after construction to instantiate the input validation object and
@@ -161,70 +175,88 @@ public class DeletePictureController {
         chooseLocationLabel.setVisible(false);
         characterNameComboBox.setVisible(false);
         chooseCharacterLabel.setVisible(false);
-        selectPictureComboBox.setVisible(false);
+        selectPictureListView.setVisible(false);
+        selectPictureListView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        selectPictureListView.setCellFactory((listView) -> new ListCell<String>() {
+            @Override
+            protected void updateItem(String pictureLocation, boolean empty) {
+                super.updateItem(pictureLocation, empty);
+                setText(empty || pictureLocation == null ? null : pictureNames.getOrDefault(pictureLocation,
+                        PictureStore.getDisplayName(pictureLocation, null)));
+            }
+        });
         pictureTypeChoiceBox.getItems().setAll(PictureType.values());
         createListeners();
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     public void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
 
     /**
-     * Handles the action for the delete button.
+     * Handles the action for the delete button, deleting all chosen pictures
+     * of the chosen cartoon, location, or character at once.
      *
      * @param event the action event
      */
     @FXML
     void handleDeleteAction(ActionEvent event) {
-        PictureType type = pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().get();
-        switch (type) {
+        List<String> pictureLocations = new ArrayList<>(selectPictureListView.getSelectionModel().getSelectedItems());
+        if (pictureLocations.isEmpty()) {
+            return;
+        }
+        PictureTable table;
+        Long ownerId;
+        switch (pictureTypeChoiceBox.getValue()) {
             case CARTOON:
-                for (CartoonPicture picture : (List<CartoonPicture>) pictureList) {
-                    if (picture.getPictureLocation().equals(selectPictureComboBox.getSelectionModel()
-                            .selectedItemProperty().get())) {
-                        DeletePictureTask task = new DeletePictureTask(imageFile, type,
-                                picture, null, null);
-                        Thread thread = new Thread(task);
-                        thread.start();
-                        break;
-                    }
-                }
+                table = PictureTable.CARTOON;
+                ownerId = cartoon.get() != null ? cartoon.get().getCartoonId() : null;
                 break;
             case LOCATION:
-                for (LocationPicture picture : (List<LocationPicture>) pictureList) {
-                    if (picture.getPictureLocation().equals(selectPictureComboBox.getSelectionModel()
-                            .selectedItemProperty().get())) {
-                        DeletePictureTask task = new DeletePictureTask(imageFile, type,
-                                null, picture, null);
-                        Thread thread = new Thread(task);
-                        thread.start();
-                        break;
-                    }
-                }
+                table = PictureTable.LOCATION;
+                ownerId = cartoonLocation.get() != null ? cartoonLocation.get().getLocationId() : null;
                 break;
             case CHARACTER:
-                for (CharacterPicture picture : (List<CharacterPicture>) pictureList) {
-                    if (picture.getPictureLocation().equals(selectPictureComboBox.getSelectionModel()
-                            .selectedItemProperty().get())) {
-                        DeletePictureTask task = new DeletePictureTask(imageFile, type,
-                                null, null, picture);
-                        Thread thread = new Thread(task);
-                        thread.start();
-                        break;
-                    }
-                }
+                table = PictureTable.CHARACTER;
+                ownerId = cartoonCharacter.get() != null ? cartoonCharacter.get().getCharacterId() : null;
                 break;
             default:
-                break;
+                return;
+        }
+        if (ownerId == null) {
+            return;
         }
+        DeletePictureTask task = new DeletePictureTask(table, ownerId, pictureLocations);
+        task.setOnSucceeded((WorkerStateEvent t) -> {
+            if (task.getValue()) {
+                selectPictureListView.getItems().removeAll(pictureLocations);
+                selectPictureListView.getSelectionModel().clearSelection();
+            }
+        });
+        TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
+    }
+
+    /**
+     * Loads the cartoon titles into the cartoon combo box unless another
+     * picture type is chosen before they arrive.
+     *
+     * @param pictureType the picture type chosen
+     */
+    private void loadCartoonNames(PictureType pictureType) {
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            if (pictureType == pictureTypeChoiceBox.getValue()) {
+                ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+            }
+        }, Platform::runLater);
     }
 
     /**
@@ -234,14 +266,13 @@ public class DeletePictureController {
     private void createListeners() {
         pictureTypeChoiceBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             deletePictureButton.setDisable(true);
-            imageFile = null;
             imagePreview.setImage(null);
             cartoonNameComboBox.getItems().clear();
             locationNameComboBox.getItems().clear();
             characterNameComboBox.getItems().clear();
             switch (newValue) {
                 case CARTOON:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(false);
@@ -249,10 +280,10 @@ public class DeletePictureController {
                     characterNameComboBox.setVisible(false);
                     chooseCharacterLabel.setVisible(false);
                     choosePictureLabel.setVisible(false);
-                    selectPictureComboBox.setVisible(false);
+                    selectPictureListView.setVisible(false);
                     break;
                 case LOCATION:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(true);
@@ -261,10 +292,10 @@ public class DeletePictureController {
                     characterNameComboBox.setVisible(false);
                     chooseCharacterLabel.setVisible(false);
                     choosePictureLabel.setVisible(false);
-                    selectPictureComboBox.setVisible(false);
+                    selectPictureListView.setVisible(false);
                     break;
                 case CHARACTER:
-                    new Thread(new FindAllCartoonsTask(cartoonNameComboBox)).start();
+                    loadCartoonNames(newValue);
                     cartoonNameComboBox.setVisible(true);
                     chooseCartoonLabel.setVisible(true);
                     locationNameComboBox.setVisible(true);
@@ -274,7 +305,7 @@ public class DeletePictureController {
                     chooseCharacterLabel.setVisible(true);
                     characterNameComboBox.setDisable(true);
                     choosePictureLabel.setVisible(false);
-                    selectPictureComboBox.setVisible(false);
+                    selectPictureListView.setVisible(false);
                     break;
                 default:
                     break;
@@ -282,12 +313,14 @@ public class DeletePictureController {
         });
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectCartoonTask task = new SelectCartoonTask(newValue, locationNameComboBox);
-                cartoon.unbind();
-                cartoon.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
+                cartoon.set(null);
+                new SimpleCartoonDataAccess().findCartoonAsync(newValue).thenCompose(selectedCartoon -> CatalogCache
+                        .findLocationNamesAsync(selectedCartoon).thenAcceptAsync(locationNames -> {
+                            if (newValue.equals(cartoonNameComboBox.getValue())) {
+                                cartoon.set(selectedCartoon);
+                                ComboBoxUtil.setChoices(locationNameComboBox, locationNames);
+                            }
+                        }, Platform::runLater));
                 imagePreview.setImage(null);
                 deletePictureButton.setDisable(true);
                 imagePreview.setImage(null);
@@ -303,16 +336,18 @@ public class DeletePictureController {
                     pictureList.bind(searchPictureTask.valueProperty());
                     pictureList.addListener((searchObservable, searchOldValue, searchNewValue) -> {
                         if (searchNewValue != null) {
-                            selectPictureComboBox.getItems().clear();
+                            selectPictureListView.getItems().clear();
                             ((List<CartoonPicture>) pictureList).forEach((picture) -> {
-                                selectPictureComboBox.getItems().add(picture.getPictureLocation());
+                                pictureNames.put(picture.getPictureLocation(), PictureStore.getDisplayName(
+                                        picture.getPictureLocation(), picture.getMetadata()));
+                                selectPictureListView.getItems().add(picture.getPictureLocation());
                             });
                         }
                     });
-                    Thread thread = new Thread(searchPictureTask);
-                    thread.start();
+                    TaskScheduler.getInstance().submitLatest(searchPictureTask,
+                            Pool.DATABASE, Priority.INTERACTIVE, this);
                     choosePictureLabel.setVisible(true);
-                    selectPictureComboBox.setVisible(true);
+                    selectPictureListView.setVisible(true);
                 } else {
                     locationNameComboBox.setDisable(false);
                     characterNameComboBox.getItems().clear();
@@ -322,12 +357,15 @@ public class DeletePictureController {
         });
         locationNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectLocationTask task = new SelectLocationTask(newValue, characterNameComboBox, cartoon.get());
-                cartoonLocation.unbind();
-                cartoonLocation.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
+                cartoonLocation.set(null);
+                new SimpleLocationDataAccess().findCartoonLocationAsync(newValue, cartoon.get())
+                        .thenCompose(selectedLocation -> CatalogCache.findCharacterNamesAsync(selectedLocation)
+                        .thenAcceptAsync(characterNames -> {
+                            if (newValue.equals(locationNameComboBox.getValue())) {
+                                cartoonLocation.set(selectedLocation);
+                                ComboBoxUtil.setChoices(characterNameComboBox, characterNames);
+                            }
+                        }, Platform::runLater));
                 imagePreview.setImage(null);
                 deletePictureButton.setDisable(true);
                 imagePreview.setImage(null);
@@ -343,16 +381,18 @@ public class DeletePictureController {
                     pictureList.bind(searchPictureTask.valueProperty());
                     pictureList.addListener((searchObservable, searchOldValue, searchNewValue) -> {
                         if (searchNewValue != null) {
-                            selectPictureComboBox.getItems().clear();
+                            selectPictureListView.getItems().clear();
                             ((List<LocationPicture>) pictureList).forEach((picture) -> {
-                                selectPictureComboBox.getItems().add(picture.getPictureLocation());
+                                pictureNames.put(picture.getPictureLocation(), PictureStore.getDisplayName(
+                                        picture.getPictureLocation(), picture.getMetadata()));
+                                selectPictureListView.getItems().add(picture.getPictureLocation());
                             });
                         }
                     });
-                    Thread thread = new Thread(searchPictureTask);
-                    thread.start();
+                    TaskScheduler.getInstance().submitLatest(searchPictureTask,
+                            Pool.DATABASE, Priority.INTERACTIVE, this);
                     choosePictureLabel.setVisible(true);
-                    selectPictureComboBox.setVisible(true);
+                    selectPictureListView.setVisible(true);
                 } else {
                     characterNameComboBox.setDisable(false);
                 }
@@ -360,16 +400,17 @@ public class DeletePictureController {
         });
         characterNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                SelectCharacterTask task = new SelectCharacterTask(newValue, cartoonLocation.get());
-                cartoonCharacter.unbind();
-                cartoonCharacter.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
-                imageFile = null;
+                cartoonCharacter.set(null);
+                new SimpleCharacterDataAccess().findCartoonCharacterAsync(newValue, cartoonLocation.get())
+                        .thenAcceptAsync(selectedCharacter -> {
+                            if (newValue.equals(characterNameComboBox.getValue())) {
+                                cartoonCharacter.set(selectedCharacter);
+                            }
+                        }, Platform::runLater);
                 imagePreview.setImage(null);
                 deletePictureButton.setDisable(true);
                 choosePictureLabel.setVisible(true);
-                selectPictureComboBox.setVisible(true);
+                selectPictureListView.setVisible(true);
             }
         });
         cartoonCharacter.addListener((observable, oldValue, newValue) -> {
@@ -381,21 +422,30 @@ public class DeletePictureController {
                 pictureList.bind(searchPictureTask.valueProperty());
                 pictureList.addListener((searchObservable, searchOldValue, searchNewValue) -> {
                     if (searchNewValue != null) {
-                        selectPictureComboBox.getItems().clear();
+                        selectPictureListView.getItems().clear();
                         ((List<CharacterPicture>) pictureList).forEach((picture) -> {
-                            selectPictureComboBox.getItems().add(picture.getPictureLocation());
+                            pictureNames.put(picture.getPictureLocation(), PictureStore.getDisplayName(
+                                    picture.getPictureLocation(), picture.getMetadata()));
+                            selectPictureListView.getItems().add(picture.getPictureLocation());
                         });
                     }
                 });
-                Thread thread = new Thread(searchPictureTask);
-                thread.start();
+                TaskScheduler.getInstance().submitLatest(searchPictureTask, Pool.DATABASE, Priority.INTERACTIVE, this);
             }
         });
-        selectPictureComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+        selectPictureListView.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (!StringUtils.isBlank(newValue)) {
-                imageFile = FileUtil.getImageFile(newValue);
-                imagePreview.setImage(new Image(imageFile.toURI().toString()));
+                LoadImageTask imageTask = new LoadImageTask(newValue);
+                imageTask.setOnSucceeded((WorkerStateEvent t) -> {
+                    if (newValue.equals(selectPictureListView.getSelectionModel().getSelectedItem())) {
+                        imagePreview.setImage(imageTask.getValue());
+                    }
+                });
+                TaskScheduler.getInstance().submitLatest(imageTask, Pool.FILE, Priority.INTERACTIVE, this);
                 deletePictureButton.setDisable(false);
+            } else {
+                imagePreview.setImage(null);
+                deletePictureButton.setDisable(true);
             }
         });
     }
@@ -15,20 +15,21 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import static com.daniel.cartooncharacters.controller.CharacterController.HALF_OPAQUE;
 import com.daniel.cartooncharacters.util.ScreenChangeManager;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.LocationPicture;
 import com.daniel.cartooncharacters.task.SearchPictureTask;
-import com.daniel.cartooncharacters.util.FileUtil;
-import java.util.List;
+import com.daniel.cartooncharacters.image.PictureStore;
 import javafx.beans.property.SimpleListProperty;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 
@@ -113,6 +114,11 @@ public class HomeController {
      */
     private int currentPictureIndex;
 
+    /**
+     * The loader showing the pictures in the image view
+     */
+    private PictureLoader pictureLoader;
+
     /**
      * This constructor sets the value for the cartoon location to view and the
      * value for the screen change manager.
@@ -130,6 +136,7 @@ public class HomeController {
      */
     @FXML
     public void initialize() {
+        pictureLoader = new PictureLoader(locationImage, this);
         locationIdTextArea.setText(location.getLocationId().toString());
         locationNameTextArea.setText(location.getLocationName());
         descriptionTextArea.setText(location.getDescription());
@@ -139,21 +146,17 @@ public class HomeController {
         pictureList.bind(task.valueProperty());
         pictureList.addListener((observable, oldValue, newValue) -> {
             currentPictureIndex = 0;
-            pictureLocationTextArea.setText(((List<LocationPicture>) newValue).get(0).getPictureLocation());
+            showPicture(currentPictureIndex);
             if (pictureList.size() > 1) {
                 rightArrowButton.setDisable(false);
                 rightArrowButton.setVisible(true);
             }
         });
-        pictureLocationTextArea.textProperty().addListener((observable, oldValue, newValue) -> {
-            locationImage.setImage(new Image(FileUtil.getImageFile(newValue).toURI().toString()));
-        });
         cartoonHyperlink.setText(location.getCartoon().getTitle());
         cartoonHyperlink.setOnAction((event) -> this.handleCartoonSelect(event));
         locationHideButton.setOnAction((event) -> this.handleLocationHide(event));
 
-        Thread thread = new Thread(task);
-        thread.start();
+        TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.INTERACTIVE, this);
     }
 
     /**
@@ -172,6 +175,8 @@ public class HomeController {
      * @param event the action event
      */
     private void handleLocationHide(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
+        pictureLoader.cancel();
         screenChangeManager.hideLocationDetails(event);
     }
 
@@ -202,8 +207,7 @@ public class HomeController {
      */
     @FXML
     void handleLeftArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((LocationPicture) pictureList.get(--currentPictureIndex))
-                .getPictureLocation());
+        showPicture(--currentPictureIndex);
         rightArrowButton.setDisable(false);
         rightArrowButton.setVisible(true);
         if (currentPictureIndex == 0) {
@@ -219,8 +223,7 @@ public class HomeController {
      */
     @FXML
     void handleRightArrowClick(ActionEvent event) {
-        pictureLocationTextArea.setText(((LocationPicture) pictureList.get(++currentPictureIndex))
-                .getPictureLocation());
+        showPicture(++currentPictureIndex);
         leftArrowButton.setDisable(false);
         leftArrowButton.setVisible(true);
         if (pictureList.size() <= (currentPictureIndex + 1)) {
@@ -228,4 +231,32 @@ public class HomeController {
             rightArrowButton.setVisible(false);
         }
     }
+
+    /**
+     * Shows the picture at the given index and the name of the file it was
+     * added from.
+     *
+     * @param index the index of the picture
+     */
+    private void showPicture(int index) {
+        LocationPicture picture = (LocationPicture) pictureList.get(index);
+        pictureLocationTextArea.setText(PictureStore.getDisplayName(picture.getPictureLocation(),
+                picture.getMetadata()));
+        pictureLoader.show(picture.getPictureLocation(), getPictureLocation(index - 1),
+                getPictureLocation(index + 1));
+    }
+
+    /**
+     * Returns the path of the picture at the given index, or null if the index
+     * is outside the list of pictures.
+     *
+     * @param index the index of the picture
+     * @return the path of the picture or null
+     */
+    private String getPictureLocation(int index) {
+        if (index < 0 || index >= pictureList.size()) {
+            return null;
+        }
+        return ((LocationPicture) pictureList.get(index)).getPictureLocation();
+    }
 }
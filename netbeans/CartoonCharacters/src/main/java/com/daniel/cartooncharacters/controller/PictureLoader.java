@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.controller;
+
+import com.daniel.cartooncharacters.image.ImageCache;
+import com.daniel.cartooncharacters.task.LoadImageTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * This class shows the pictures of a picture carousel in an image view. A
+ * cached picture is shown at once; any other picture is loaded in a
+ * background thread. The pictures next to the one shown are prefetched into
+ * the image cache with background priority, so paging to them shows them
+ * without waiting.
+ *
+ * @author Bryan Daniel
+ */
+class PictureLoader {
+
+    /**
+     * The image view showing the pictures
+     */
+    private final ImageView imageView;
+
+    /**
+     * The owner of the tasks loading the picture shown
+     */
+    private final Object owner;
+
+    /**
+     * The path of the picture to show
+     */
+    private String currentPictureLocation;
+
+    /**
+     * Sets the image view and the owner of the loading tasks.
+     *
+     * @param imageView the image view showing the pictures
+     * @param owner the owner of the tasks loading the picture shown
+     */
+    PictureLoader(ImageView imageView, Object owner) {
+        this.imageView = imageView;
+        this.owner = owner;
+    }
+
+    /**
+     * Shows the picture with the given path and prefetches the given
+     * neighboring pictures. This method is called on the JavaFX application
+     * thread.
+     *
+     * @param pictureLocation the path of the picture to show
+     * @param neighborLocations the paths of the pictures next to it, which may
+     * be null at either end of the carousel
+     */
+    void show(String pictureLocation, String... neighborLocations) {
+        currentPictureLocation = pictureLocation;
+        Image image = ImageCache.getInstance().get(pictureLocation);
+        if (image != null) {
+            imageView.setImage(image);
+        } else {
+            LoadImageTask imageTask = new LoadImageTask(pictureLocation);
+            imageTask.setOnSucceeded((event) -> {
+                if (pictureLocation.equals(currentPictureLocation)) {
+                    imageView.setImage(imageTask.getValue());
+                }
+            });
+            TaskScheduler.getInstance().submitLatest(imageTask, Pool.FILE, Priority.INTERACTIVE, owner);
+        }
+        for (String neighborLocation : neighborLocations) {
+            if (neighborLocation != null && !ImageCache.getInstance().contains(neighborLocation)) {
+                TaskScheduler.getInstance().submit(new LoadImageTask(neighborLocation), Pool.FILE,
+                        Priority.BACKGROUND, this);
+            }
+        }
+    }
+
+    /**
+     * Cancels the unfinished prefetches when the carousel closes.
+     */
+    void cancel() {
+        TaskScheduler.getInstance().cancelAll(this);
+    }
+}
@@ -15,7 +15,13 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CharacterPage;
 import com.daniel.cartooncharacters.task.SearchCharacterTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
 import com.daniel.cartooncharacters.util.ScreenChangeManager;
 
 import javafx.event.ActionEvent;
@@ -25,59 +31,80 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
-import com.daniel.cartooncharacters.entity.CartoonCharacter;
-import com.daniel.cartooncharacters.task.StatisticsTask;
+import com.daniel.cartooncharacters.data.CharacterSearchResult;
+import com.daniel.cartooncharacters.data.GenderStatisticsDataAccess;
+import com.daniel.cartooncharacters.data.GoodVsEvilStatisticsDataAccess;
+import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.validation.InputValidator;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleListProperty;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.chart.PieChart;
 import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.SelectionMode;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * This controller handles events for character searches, resetting of form
- * fields, and displaying character details.
+ * fields, and displaying character details. With incremental search enabled,
+ * a search starts whenever the user stops typing for the configured delay.
+ * Each new search cancels the previous one, including its running query.
  *
  * @author Bryan Daniel
  */
 public class SearchController {
 
+    /**
+     * The scroll position, as a fraction of the scroll range, at which the
+     * next page of search results is loaded
+     */
+    public static final double NEXT_PAGE_SCROLL_POSITION = 0.9;
+
     /**
      * The table to display cartoon character search results
      */
     @FXML
-    private TableView<CartoonCharacter> characterTable;
+    private TableView<CharacterSearchResult> characterTable;
 
     /**
      * The ID column for the cartoon character
      */
     @FXML
-    private TableColumn<CartoonCharacter, Long> idColumn;
+    private TableColumn<CharacterSearchResult, Long> idColumn;
 
     /**
      * The character name column
      */
     @FXML
-    private TableColumn<CartoonCharacter, String> characterNameColumn;
+    private TableColumn<CharacterSearchResult, String> characterNameColumn;
 
     /**
      * The column containing the cartoon title
      */
     @FXML
-    private TableColumn<CartoonCharacter, String> cartoonTitleColumn;
+    private TableColumn<CharacterSearchResult, String> cartoonTitleColumn;
 
     /**
      * The column for selecting character details
      */
     @FXML
-    private TableColumn<CartoonCharacter, Button> selectColumn;
+    private TableColumn<CharacterSearchResult, Button> selectColumn;
 
     /**
      * The cartoon character name search field
@@ -100,7 +127,60 @@ public class SearchController {
     /**
      * The list of characters to show in the search results table
      */
-    private final SimpleListProperty characterList = new SimpleListProperty();
+    private final SimpleListProperty<CharacterSearchResult> characterList
+            = new SimpleListProperty<>(FXCollections.observableArrayList());
+
+    /**
+     * The character name of the current search
+     */
+    private String searchCharacterName;
+
+    /**
+     * The cartoon title of the current search
+     */
+    private String searchCartoonTitle;
+
+    /**
+     * The continuation token for the next page of the current search
+     */
+    private String continuationToken;
+
+    /**
+     * The number of the current search, used to discard pages of earlier
+     * searches
+     */
+    private int searchNumber;
+
+    /**
+     * The task loading the latest page, or null
+     */
+    private SearchCharacterTask pageTask;
+
+    /**
+     * The permit letting only one search query run at a time
+     */
+    private final Semaphore searchPermit = new Semaphore(1);
+
+    /**
+     * The delay between the last key typed and an incremental search, or null
+     * if incremental search is disabled
+     */
+    private PauseTransition searchDelay;
+
+    /**
+     * The indication of a page being loaded
+     */
+    private boolean pageLoading;
+
+    /**
+     * The indication of the scroll listener being attached to the table
+     */
+    private boolean scrollListenerAttached;
+
+    /**
+     * The number of characters loaded per page
+     */
+    private int pageSize;
 
     /**
      * The input validation object
@@ -132,6 +212,20 @@ public class SearchController {
         selectColumn.setCellValueFactory(new PropertyValueFactory<>("viewButton"));
         validator = new InputValidator();
         screenChangeManager = new ScreenChangeManager();
+        pageSize = ConfigurationManager.getApplicationProperties().getInt(ApplicationProperties.SEARCH_PAGE_SIZE,
+                ApplicationProperties.DEFAULT_SEARCH_PAGE_SIZE);
+        if (ConfigurationManager.getApplicationProperties().getBoolean(ApplicationProperties.INCREMENTAL_SEARCH)) {
+            searchDelay = new PauseTransition(Duration.millis(ConfigurationManager.getApplicationProperties()
+                    .getInt(ApplicationProperties.SEARCH_DEBOUNCE_MILLIS,
+                            ApplicationProperties.DEFAULT_SEARCH_DEBOUNCE_MILLIS)));
+            searchDelay.setOnFinished((event) -> handleIncrementalSearch());
+            characterNameTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+                searchDelay.playFromStart();
+            });
+            cartoonTitleTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+                searchDelay.playFromStart();
+            });
+        }
         cartoonTitleTextField.sceneProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
                 cartoonTitleTextField.requestFocus();
@@ -141,26 +235,124 @@ public class SearchController {
 
     /**
      * This method validates input data and shows an Alert dialog if the data is
-     * invalid. Otherwise, the data access object is used to find matching
-     * characters.
+     * invalid. Otherwise, the data access object is used to find the first page
+     * of matching characters.
      *
      * @param event the action event
      */
     @FXML
     public void handleSearchAction(ActionEvent event) {
-        characterList.clear();
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
+        clearSearch();
         String characterName = characterNameTextField.getText();
         String cartoonTitle = cartoonTitleTextField.getText();
         if (validator.inputValidForSearch(characterName, cartoonTitle)) {
-            SearchCharacterTask task = new SearchCharacterTask(characterName, cartoonTitle,
-                    screenChangeManager);
-            characterList.bind(task.valueProperty());
-            progressIndicator.visibleProperty().bind(task.runningProperty());
-            Thread thread = new Thread(task);
-            thread.start();
+            searchCharacterName = characterName;
+            searchCartoonTitle = cartoonTitle;
+            loadPage();
+        }
+    }
+
+    /**
+     * Starts a search for the text of the search fields once the user has
+     * stopped typing. Nothing is searched if the text matches the current
+     * search, and the results are cleared if both fields are empty.
+     */
+    private void handleIncrementalSearch() {
+        String characterName = characterNameTextField.getText();
+        String cartoonTitle = cartoonTitleTextField.getText();
+        if (characterName.equals(searchCharacterName) && cartoonTitle.equals(searchCartoonTitle)) {
+            return;
+        }
+        clearSearch();
+        if (!characterName.isEmpty() || !cartoonTitle.isEmpty()) {
+            searchCharacterName = characterName;
+            searchCartoonTitle = cartoonTitle;
+            loadPage();
+        }
+    }
+
+    /**
+     * Loads the next page of the current search unless a page is already
+     * loading. The characters found are appended to the table.
+     */
+    private void loadPage() {
+        if (pageLoading) {
+            return;
+        }
+        pageLoading = true;
+        int pageSearchNumber = searchNumber;
+        SearchCharacterTask task = new SearchCharacterTask(searchCharacterName, searchCartoonTitle,
+                continuationToken, pageSize, screenChangeManager, searchPermit);
+        pageTask = task;
+        task.setOnSucceeded((workerEvent) -> {
+            if (pageSearchNumber == searchNumber) {
+                CharacterPage page = task.getValue();
+                characterList.addAll(page.getResults());
+                continuationToken = page.getContinuationToken();
+                pageLoading = false;
+                attachScrollListener();
+            }
+        });
+        task.setOnFailed((workerEvent) -> {
+            if (pageSearchNumber == searchNumber) {
+                logger.error("An exception occurred while loading search results.", task.getException());
+                continuationToken = null;
+                pageLoading = false;
+            }
+        });
+        task.setOnCancelled((workerEvent) -> {
+            if (pageSearchNumber == searchNumber) {
+                pageLoading = false;
+            }
+        });
+        progressIndicator.visibleProperty().bind(task.runningProperty());
+        TaskScheduler.getInstance().submitLatest(task, Pool.DATABASE, Priority.INTERACTIVE, this);
+    }
+
+    /**
+     * Attaches a listener to the vertical scroll bar of the character table so
+     * that the next page is loaded when the user scrolls near the end of the
+     * loaded results. The scroll bar only exists once the table is shown.
+     */
+    private void attachScrollListener() {
+        if (scrollListenerAttached) {
+            return;
+        }
+        for (Node node : characterTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    if (continuationToken != null
+                            && newValue.doubleValue() >= scrollBar.getMax() * NEXT_PAGE_SCROLL_POSITION) {
+                        loadPage();
+                    }
+                });
+                scrollListenerAttached = true;
+                break;
+            }
         }
     }
 
+    /**
+     * Clears the search results and cancels the page still loading for the
+     * previous search.
+     */
+    private void clearSearch() {
+        if (pageTask != null) {
+            pageTask.cancel(false);
+            pageTask = null;
+        }
+        searchCharacterName = null;
+        searchCartoonTitle = null;
+        searchNumber++;
+        pageLoading = false;
+        continuationToken = null;
+        characterList.clear();
+    }
+
     /**
      * This method clears the character table and the text fields.
      *
@@ -168,9 +360,12 @@ public class SearchController {
      */
     @FXML
     public void handleResetAction(ActionEvent event) {
-        characterList.clear();
+        clearSearch();
         characterNameTextField.clear();
         cartoonTitleTextField.clear();
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
     }
 
     /**
@@ -181,11 +376,9 @@ public class SearchController {
     @FXML
     public void handleGenderStatistics(ActionEvent event) {
         if (validator.validateStatisticsSelection(characterList, characterTable)) {
-            StatisticsTask task = new StatisticsTask(characterTable.getSelectionModel().getSelectedItem()
-                    .getCharacterHome().getCartoon(), StatisticsTask.StatisticsType.GENDER,
-                    (Stage) characterTable.getScene().getWindow());
-            Thread thread = new Thread(task);
-            thread.start();
+            Cartoon cartoon = characterTable.getSelectionModel().getSelectedItem().toCartoon();
+            showStatistics(new GenderStatisticsDataAccess().findStatisticsAsync(cartoon),
+                    cartoon.getTitle() + " Gender Statistics");
         }
     }
 
@@ -198,14 +391,34 @@ public class SearchController {
     @FXML
     public void handleGoodVsEvilStatistics(ActionEvent event) {
         if (validator.validateStatisticsSelection(characterList, characterTable)) {
-            StatisticsTask task = new StatisticsTask(characterTable.getSelectionModel().getSelectedItem()
-                    .getCharacterHome().getCartoon(), StatisticsTask.StatisticsType.GOOD_VS_EVIL,
-                    (Stage) characterTable.getScene().getWindow());
-            Thread thread = new Thread(task);
-            thread.start();
+            Cartoon cartoon = characterTable.getSelectionModel().getSelectedItem().toCartoon();
+            showStatistics(new GoodVsEvilStatisticsDataAccess().findStatisticsAsync(cartoon),
+                    cartoon.getTitle() + " Good vs. Evil Statistics");
         }
     }
 
+    /**
+     * Shows the statistics in a pie chart window once they arrive.
+     *
+     * @param statistics the future of the chart data
+     * @param title the window title
+     */
+    private void showStatistics(CompletableFuture<List<PieChart.Data>> statistics, String title) {
+        Stage primaryStage = (Stage) characterTable.getScene().getWindow();
+        statistics.thenAcceptAsync(pieData -> {
+            Stage chartStage = new Stage();
+            chartStage.initModality(Modality.WINDOW_MODAL);
+            chartStage.initOwner(primaryStage);
+            PieChart pieChart = new PieChart();
+            pieChart.setData(FXCollections.observableArrayList(pieData));
+            chartStage.setTitle(title);
+            StackPane root = new StackPane();
+            root.getChildren().add(pieChart);
+            chartStage.setScene(new Scene(root, 400, 250));
+            chartStage.show();
+        }, Platform::runLater);
+    }
+
     /**
      * Handles the action for the menu option to add a new cartoon to the
      * database.
@@ -15,12 +15,16 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
 import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
-import com.daniel.cartooncharacters.task.SearchCartoonTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import com.daniel.cartooncharacters.task.UpdateCartoonTask;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -60,29 +64,33 @@ public class UpdateCartoonController {
     @FXML
     public void initialize() {
         validator = new InputValidator();
-        ArrayList<String> cartoonNames = new ArrayList<>();
-        List<String> cartoons = new SimpleCartoonDataAccess().findAllCartoonNames();
-        cartoons.forEach((cartoon) -> {
-            cartoonNames.add(cartoon);
-        });
-        cartoonNameComboBox.getItems().add("");
-        cartoonNameComboBox.getItems().addAll(cartoonNames);
-        cartoonNameComboBox.getSelectionModel().selectFirst();
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+        }, Platform::runLater);
         cartoonNameComboBox.setOnAction((event) -> {
             String selectedCartoon = cartoonNameComboBox.getSelectionModel().getSelectedItem();
-            SearchCartoonTask cartoonSearchTask = new SearchCartoonTask(selectedCartoon, cartoonDescriptionTextArea);
-            Thread thread = new Thread(cartoonSearchTask);
-            thread.start();
+            new SimpleCartoonDataAccess().findCartoonAsync(selectedCartoon).thenAcceptAsync(cartoon -> {
+                if (!Objects.equals(selectedCartoon, cartoonNameComboBox.getValue())) {
+                    return;
+                }
+                if (cartoon != null) {
+                    cartoonDescriptionTextArea.setText(cartoon.getDescription());
+                } else {
+                    cartoonDescriptionTextArea.setText("Cartoon search failed.");
+                }
+            }, Platform::runLater);
         });
     }
 
     /**
-     * Handles the action for the close button by closing the update window.
+     * Handles the action for the close button by closing the update window and
+     * cancelling its unfinished tasks.
      *
      * @param event the action event
      */
     @FXML
     void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -98,8 +106,7 @@ public class UpdateCartoonController {
 
         if (validator.inputValidForCartoonCreation(cartoonNameComboBox.getValue(), cartoonDescriptionTextArea.getText())) {
             UpdateCartoonTask task = new UpdateCartoonTask(cartoonNameComboBox.getValue(), cartoonDescriptionTextArea.getText());
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
         }
     }
 }
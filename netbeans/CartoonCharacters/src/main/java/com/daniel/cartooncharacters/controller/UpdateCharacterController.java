@@ -15,22 +15,27 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
 import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.data.SimpleCharacterDataAccess;
 import com.daniel.cartooncharacters.data.SimpleCharacterDemographicDataAccess;
 import com.daniel.cartooncharacters.data.SimpleGenderDataAccess;
+import com.daniel.cartooncharacters.data.SimpleLocationDataAccess;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.CharacterDemographic;
 import com.daniel.cartooncharacters.entity.Gender;
-import com.daniel.cartooncharacters.task.SelectCartoonTask;
-import com.daniel.cartooncharacters.task.SelectCharacterTask;
-import com.daniel.cartooncharacters.task.SelectLocationTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import com.daniel.cartooncharacters.task.UpdateCharacterTask;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
+import java.util.ArrayList;
 import java.util.List;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -132,17 +137,18 @@ public class UpdateCharacterController {
         goodOrEvilChoiceBox.setDisable(true);
         characterDescriptionTextArea.setDisable(true);
         createListeners();
-        List<String> cartoonNames = new SimpleCartoonDataAccess().findAllCartoonNames();
-        cartoonNameComboBox.getItems().clear();
-        cartoonNameComboBox.getItems().add("");
-        cartoonNameComboBox.getItems().addAll(cartoonNames);
-        cartoonNameComboBox.getSelectionModel().selectFirst();
-        genders = new SimpleGenderDataAccess().findAllGenders();
-        genderChoiceBox.getItems().clear();
-        genders.forEach((g) -> {
-            genderChoiceBox.getItems().add(g.getDescription());
-        });
-        genderChoiceBox.getSelectionModel().selectFirst();
+        genders = new ArrayList<>();
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+        }, Platform::runLater);
+        new SimpleGenderDataAccess().findAllGendersAsync().thenAcceptAsync(allGenders -> {
+            genders = allGenders;
+            genderChoiceBox.getItems().clear();
+            genders.forEach((g) -> {
+                genderChoiceBox.getItems().add(g.getDescription());
+            });
+            genderChoiceBox.getSelectionModel().selectFirst();
+        }, Platform::runLater);
         goodOrEvilChoiceBox.getItems().clear();
         goodOrEvilChoiceBox.getItems().add("good");
         goodOrEvilChoiceBox.getItems().add("evil");
@@ -150,12 +156,14 @@ public class UpdateCharacterController {
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     public void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -176,8 +184,7 @@ public class UpdateCharacterController {
             setVillain(goodOrEvilChoiceBox.getSelectionModel().getSelectedItem());
             UpdateCharacterTask task = new UpdateCharacterTask(cartoonCharacter.get(), cartoonLocation.get(), 
                     characterDemographic.get());
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
             initialize();
         }
     }
@@ -190,10 +197,13 @@ public class UpdateCharacterController {
     private void createListeners() {
         characterNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SelectCharacterTask task = new SelectCharacterTask(newValue, cartoonLocation.get());
-                cartoonCharacter.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
+                cartoonCharacter.set(null);
+                new SimpleCharacterDataAccess().findCartoonCharacterAsync(newValue, cartoonLocation.get())
+                        .thenAcceptAsync(selectedCharacter -> {
+                            if (newValue.equals(characterNameComboBox.getValue())) {
+                                cartoonCharacter.set(selectedCharacter);
+                            }
+                        }, Platform::runLater);
             }
         });
         cartoonCharacter.addListener((observable, oldValue, newValue) -> {
@@ -202,38 +212,37 @@ public class UpdateCharacterController {
                 goodOrEvilChoiceBox.setDisable(false);
                 characterDescriptionTextArea.setDisable(false);
                 characterDescriptionTextArea.setText(newValue.getDescription());
-                Thread thread = new Thread(new Task() {
-
-                    @Override
-                    protected Void call() throws Exception {
-                        characterDemographic.set(new SimpleCharacterDemographicDataAccess().getCharacterDemographic(newValue));
-                        return null;
-                    }
-
-                    @Override
-                    protected void succeeded() {
-                        if (characterDemographic.get() != null) {
-                            genderChoiceBox.getItems().stream().filter((gender) -> (gender.equals(characterDemographic.get().getGender().getDescription())))
-                                    .forEachOrdered((gender) -> {
-                                        genderChoiceBox.getSelectionModel().select(gender);
-                                    });
-                            if (characterDemographic.get().getVillain()) {
-                                goodOrEvilChoiceBox.getSelectionModel().select("evil");
-                            } else {
-                                goodOrEvilChoiceBox.getSelectionModel().select("good");
+                new SimpleCharacterDemographicDataAccess().getCharacterDemographicAsync(newValue)
+                        .thenAcceptAsync(demographic -> {
+                            if (newValue != cartoonCharacter.get()) {
+                                return;
                             }
-                        }
-                    }
-                });
-                thread.start();
+                            characterDemographic.set(demographic);
+                            if (characterDemographic.get() != null) {
+                                genderChoiceBox.getItems().stream().filter((gender) -> (gender.equals(characterDemographic.get().getGender().getDescription())))
+                                        .forEachOrdered((gender) -> {
+                                            genderChoiceBox.getSelectionModel().select(gender);
+                                        });
+                                if (characterDemographic.get().getVillain()) {
+                                    goodOrEvilChoiceBox.getSelectionModel().select("evil");
+                                } else {
+                                    goodOrEvilChoiceBox.getSelectionModel().select("good");
+                                }
+                            }
+                        }, Platform::runLater);
             }
         });
         locationNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SelectLocationTask task = new SelectLocationTask(newValue, characterNameComboBox, cartoon.get());
-                cartoonLocation.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
+                cartoonLocation.set(null);
+                new SimpleLocationDataAccess().findCartoonLocationAsync(newValue, cartoon.get())
+                        .thenCompose(selectedLocation -> CatalogCache.findCharacterNamesAsync(selectedLocation)
+                        .thenAcceptAsync(characterNames -> {
+                            if (newValue.equals(locationNameComboBox.getValue())) {
+                                cartoonLocation.set(selectedLocation);
+                                ComboBoxUtil.setChoices(characterNameComboBox, characterNames);
+                            }
+                        }, Platform::runLater));
                 characterNameComboBox.setDisable(false);
                 genderChoiceBox.setDisable(true);
                 goodOrEvilChoiceBox.setDisable(true);
@@ -249,10 +258,14 @@ public class UpdateCharacterController {
         });
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SelectCartoonTask task = new SelectCartoonTask(newValue, locationNameComboBox);
-                cartoon.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
+                cartoon.set(null);
+                new SimpleCartoonDataAccess().findCartoonAsync(newValue).thenCompose(selectedCartoon -> CatalogCache
+                        .findLocationNamesAsync(selectedCartoon).thenAcceptAsync(locationNames -> {
+                            if (newValue.equals(cartoonNameComboBox.getValue())) {
+                                cartoon.set(selectedCartoon);
+                                ComboBoxUtil.setChoices(locationNameComboBox, locationNames);
+                            }
+                        }, Platform::runLater));
                 locationNameComboBox.setDisable(false);
                 characterNameComboBox.getItems().clear();
                 characterNameComboBox.setDisable(true);
@@ -15,13 +15,17 @@
  */
 package com.daniel.cartooncharacters.controller;
 
+import com.daniel.cartooncharacters.data.CatalogCache;
 import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.data.SimpleLocationDataAccess;
 import com.daniel.cartooncharacters.entity.Cartoon;
-import com.daniel.cartooncharacters.task.SelectCartoonTask;
-import com.daniel.cartooncharacters.task.SearchLocationTask;
+import com.daniel.cartooncharacters.task.TaskScheduler;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
 import com.daniel.cartooncharacters.task.UpdateLocationTask;
+import com.daniel.cartooncharacters.util.ComboBoxUtil;
 import com.daniel.cartooncharacters.validation.InputValidator;
-import java.util.List;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
@@ -79,21 +83,21 @@ public class UpdateLocationController {
         locationNameComboBox.setDisable(true);
         locationDescriptionTextArea.clear();
         locationDescriptionTextArea.setDisable(true);
-        List<String> cartoonNames = new SimpleCartoonDataAccess().findAllCartoonNames();
         createListeners();
-        cartoonNameComboBox.getItems().clear();
-        cartoonNameComboBox.getItems().add("");
-        cartoonNameComboBox.getItems().addAll(cartoonNames);
-        cartoonNameComboBox.getSelectionModel().selectFirst();
+        CatalogCache.findAllCartoonNamesAsync().thenAcceptAsync(cartoonNames -> {
+            ComboBoxUtil.setChoices(cartoonNameComboBox, cartoonNames);
+        }, Platform::runLater);
     }
 
     /**
-     * Handles the action for the close button.
+     * Handles the action for the close button, cancelling the unfinished
+     * tasks of the view.
      *
      * @param event the action event
      */
     @FXML
     public void handleCloseAction(ActionEvent event) {
+        TaskScheduler.getInstance().cancelAll(this);
         Stage stage = (Stage) ((Node) event.getTarget()).getScene().getWindow();
         stage.close();
     }
@@ -110,8 +114,7 @@ public class UpdateLocationController {
                 locationNameComboBox.getSelectionModel().getSelectedItem(), locationDescriptionTextArea.getText())) {
             UpdateLocationTask task = new UpdateLocationTask(cartoonNameComboBox.getSelectionModel().getSelectedItem(),
                     locationNameComboBox.getSelectionModel().getSelectedItem(), locationDescriptionTextArea.getText());
-            Thread thread = new Thread(task);
-            thread.start();
+            TaskScheduler.getInstance().submit(task, Pool.DATABASE, Priority.HIGH, null);
             initialize();
         }
     }
@@ -124,19 +127,31 @@ public class UpdateLocationController {
     private void createListeners() {
         locationNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SearchLocationTask task = new SearchLocationTask(newValue, locationDescriptionTextArea, cartoon.get());
-                Thread thread = new Thread(task);
-                thread.start();
+                new SimpleLocationDataAccess().findCartoonLocationAsync(newValue, cartoon.get())
+                        .thenAcceptAsync(location -> {
+                            if (!newValue.equals(locationNameComboBox.getValue())) {
+                                return;
+                            }
+                            if (location != null) {
+                                locationDescriptionTextArea.setText(location.getDescription());
+                            } else {
+                                locationDescriptionTextArea.setText("Cartoon search failed.");
+                            }
+                        }, Platform::runLater);
                 locationDescriptionTextArea.clear();
                 locationDescriptionTextArea.setDisable(false);
             }
         });
         cartoonNameComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null && !newValue.isEmpty()) {
-                SelectCartoonTask task = new SelectCartoonTask(newValue, locationNameComboBox);
-                cartoon.bind(task.valueProperty());
-                Thread thread = new Thread(task);
-                thread.start();
+                cartoon.set(null);
+                new SimpleCartoonDataAccess().findCartoonAsync(newValue).thenCompose(selectedCartoon -> CatalogCache
+                        .findLocationNamesAsync(selectedCartoon).thenAcceptAsync(locationNames -> {
+                            if (newValue.equals(cartoonNameComboBox.getValue())) {
+                                cartoon.set(selectedCartoon);
+                                ComboBoxUtil.setChoices(locationNameComboBox, locationNames);
+                            }
+                        }, Platform::runLater));
                 locationNameComboBox.setDisable(false);
                 locationDescriptionTextArea.clear();
                 locationDescriptionTextArea.setDisable(true);
@@ -17,6 +17,7 @@ package com.daniel.cartooncharacters.data;
 
 import com.daniel.cartooncharacters.entity.Cartoon;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface provides the functionality for accessing the cartoon database
@@ -57,4 +58,43 @@ public interface CartoonDataAccess {
      */
     public boolean updateCartoon(Cartoon cartoon);
 
+    /**
+     * Retrieves the names of all cartoons on the data access executor.
+     *
+     * @return the future of the list of all cartoon names
+     */
+    public default CompletableFuture<List<String>> findAllCartoonNamesAsync() {
+        return DataAccessExecutor.supply(() -> findAllCartoonNames());
+    }
+
+    /**
+     * Searches for the cartoon with a title matching the given name on the data
+     * access executor.
+     *
+     * @param cartoonName the name of the cartoon
+     * @return the future of the cartoon found
+     */
+    public default CompletableFuture<Cartoon> findCartoonAsync(String cartoonName) {
+        return DataAccessExecutor.supply(() -> findCartoon(cartoonName));
+    }
+
+    /**
+     * Adds a new cartoon on the data access executor.
+     *
+     * @param cartoon the cartoon to add
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> addCartoonAsync(Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> addCartoon(cartoon));
+    }
+
+    /**
+     * Updates an existing cartoon on the data access executor.
+     *
+     * @param cartoon the cartoon to update
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> updateCartoonAsync(Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> updateCartoon(cartoon));
+    }
 }
@@ -15,7 +15,6 @@
  */
 package com.daniel.cartooncharacters.data;
 
-import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonPicture;
 import com.daniel.cartooncharacters.util.SessionUtil;
 import java.util.ArrayList;
@@ -23,6 +22,7 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.criterion.Restrictions;
@@ -49,6 +49,8 @@ public class CartoonPictureDataAccess {
 
     /**
      * This method searches for pictures associated with a cartoon.
+     * The recorded details of each picture file are joined in the same
+     * query.
      *
      * @param entityIdentifier the identifier of the cartoon
      * @return the list of pictures found with cartoon identifiers matching the
@@ -61,6 +63,7 @@ public class CartoonPictureDataAccess {
         try {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(CartoonPicture.class);
+            criteria.setFetchMode("metadata", FetchMode.JOIN);
             criteria.add(Restrictions.eq("cartoon.cartoonId", entityIdentifier));
             List list = criteria.list();
             list.forEach((o) -> {
@@ -76,85 +79,4 @@ public class CartoonPictureDataAccess {
         }
         return pictures;
     }
-
-    /**
-     * Finds and returns the cartoon picture with values matching the given
-     * location and cartoon.
-     *
-     * @param newImagePath the image location
-     * @param cartoon the cartoon for the image
-     * @return the picture found
-     */
-    public CartoonPicture findCartoonPicture(String newImagePath, Cartoon cartoon) {
-        CartoonPicture cartoonPictureFound = null;
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            Criteria criteria = session.createCriteria(CartoonPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", newImagePath));
-            criteria.add(Restrictions.eq("cartoon", cartoon));
-            cartoonPictureFound = (CartoonPicture) criteria.uniqueResult();
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CartoonPictureDataAccess.findCartoonPicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CartoonPictureDataAccess.findCartoonPicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return cartoonPictureFound;
-    }
-
-    /**
-     * This method adds a new cartoon picture record to the database.
-     *
-     * @param picture the cartoon picture to add
-     * @return true if successful, false otherwise
-     */
-    public boolean savePicture(CartoonPicture picture) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            session.persist((CartoonPicture) picture);
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CartoonPictureDataAccess.savePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CartoonPictureDataAccess.savePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
-
-    /**
-     * This method deletes all records of the specified cartoon picture from the
-     * cartoon picture table.
-     *
-     * @param pictureLocation the path of the cartoon picture
-     * @return true if successful, false otherwise
-     */
-    public boolean deletePicture(String pictureLocation) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            Criteria criteria = session.createCriteria(CartoonPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", pictureLocation));
-            List<CartoonPicture> picturesToDelete = (List<CartoonPicture>) criteria.list();
-            for (CartoonPicture pictureToDelete : picturesToDelete) {
-                session.delete((CartoonPicture) pictureToDelete);
-            }
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CartoonPictureDataAccess.deletePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CartoonPictureDataAccess.deletePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
 }
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import com.daniel.cartooncharacters.util.ThreadUtil;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * This class holds the cartoon, location, and character names used to fill the
+ * cascading selection combo boxes. The catalog is loaded once from the
+ * database, kept current by the CatalogListener after the application's own
+ * writes are committed, and reloaded on the configured refresh interval to pick
+ * up changes made elsewhere.
+ *
+ * @author Bryan Daniel
+ */
+public class CatalogCache {
+
+    /**
+     * The number of rows fetched per round trip while loading characters
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * The loaded catalog, or null while the catalog is not available
+     */
+    private static volatile CatalogCache instance;
+
+    /**
+     * The executor reloading the catalog on the refresh interval
+     */
+    private static ScheduledExecutorService refreshExecutor;
+
+    /**
+     * The lock guarding the catalog maps
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The cartoon titles by cartoon identifier
+     */
+    private Map<Long, String> cartoonTitles = new LinkedHashMap<>();
+
+    /**
+     * The location names by location identifier for each cartoon identifier
+     */
+    private Map<Long, Map<Long, String>> locationsByCartoon = new HashMap<>();
+
+    /**
+     * The cartoon identifier for each location identifier
+     */
+    private Map<Long, Long> locationCartoonIds = new HashMap<>();
+
+    /**
+     * The character names by character identifier for each location identifier
+     */
+    private Map<Long, Map<Long, String>> charactersByLocation = new HashMap<>();
+
+    /**
+     * The home location identifier for each character identifier
+     */
+    private Map<Long, Long> characterHomeIds = new HashMap<>();
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    private CatalogCache() {
+        logger = LogManager.getLogger(CatalogCache.class);
+    }
+
+    /**
+     * Returns the loaded catalog or null if the catalog has not been
+     * initialized.
+     *
+     * @return the catalog or null
+     */
+    public static CatalogCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Loads the catalog from the database and schedules the periodic refresh
+     * if a refresh interval is configured. Calling this method after the
+     * catalog is loaded has no effect.
+     *
+     * @return the loaded catalog or null if it could not be loaded
+     */
+    public static synchronized CatalogCache initialize() {
+        if (instance == null) {
+            CatalogCache catalog = new CatalogCache();
+            if (!catalog.load()) {
+                return null;
+            }
+            instance = catalog;
+            long refreshInterval = ConfigurationManager.getApplicationProperties().getLong(
+                    ApplicationProperties.CATALOG_REFRESH_INTERVAL,
+                    ApplicationProperties.DEFAULT_CATALOG_REFRESH_INTERVAL);
+            if (refreshInterval > 0) {
+                refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                        ThreadUtil.daemonThreadFactory("catalog-refresh"));
+                refreshExecutor.scheduleWithFixedDelay(catalog::refresh, refreshInterval, refreshInterval,
+                        TimeUnit.SECONDS);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the titles of all cartoons from the catalog if it is loaded, or
+     * from the database otherwise.
+     *
+     * @return the cartoon titles
+     */
+    public static List<String> findAllCartoonNames() {
+        CatalogCache catalog = instance;
+        if (catalog != null) {
+            return catalog.getCartoonNames();
+        }
+        return new SimpleCartoonDataAccess().findAllCartoonNames();
+    }
+
+    /**
+     * Returns the titles of all cartoons from the catalog if it is loaded, or
+     * from the database otherwise, on the data access executor.
+     *
+     * @return the future of the cartoon titles
+     */
+    public static CompletableFuture<List<String>> findAllCartoonNamesAsync() {
+        return DataAccessExecutor.supply(CatalogCache::findAllCartoonNames);
+    }
+
+    /**
+     * Returns the names of the locations in the given cartoon from the catalog
+     * if it is loaded, or from the database otherwise, on the data access
+     * executor.
+     *
+     * @param cartoon the cartoon or null
+     * @return the future of the location names, empty if the cartoon is null
+     */
+    public static CompletableFuture<List<String>> findLocationNamesAsync(Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> {
+            CatalogCache catalog = instance;
+            if (cartoon == null) {
+                return new ArrayList<>();
+            } else if (catalog != null) {
+                return catalog.getLocationNames(cartoon.getCartoonId());
+            }
+            return new SimpleLocationDataAccess().findCartoonLocationNames(cartoon);
+        });
+    }
+
+    /**
+     * Returns the names of the characters living in the given location from
+     * the catalog if it is loaded, or from the database otherwise, on the data
+     * access executor.
+     *
+     * @param location the location or null
+     * @return the future of the character names, empty if the location is
+     * null
+     */
+    public static CompletableFuture<List<String>> findCharacterNamesAsync(CartoonLocation location) {
+        return DataAccessExecutor.supply(() -> {
+            CatalogCache catalog = instance;
+            if (location == null) {
+                return new ArrayList<>();
+            } else if (catalog != null) {
+                return catalog.getCharacterNames(location.getLocationId());
+            }
+            return new SimpleCharacterDataAccess().findCartoonCharacterNames(location);
+        });
+    }
+
+    /**
+     * Stops the periodic refresh of the catalog.
+     */
+    public static synchronized void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+    }
+
+    /**
+     * Returns the titles of all cartoons.
+     *
+     * @return the cartoon titles
+     */
+    public List<String> getCartoonNames() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(cartoonTitles.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the names of the locations in the given cartoon.
+     *
+     * @param cartoonId the cartoon identifier
+     * @return the location names
+     */
+    public List<String> getLocationNames(Long cartoonId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, String> locations = locationsByCartoon.get(cartoonId);
+            return locations == null ? new ArrayList<>() : new ArrayList<>(locations.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the names of the characters living in the given location.
+     *
+     * @param locationId the location identifier
+     * @return the character names
+     */
+    public List<String> getCharacterNames(Long locationId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, String> characters = charactersByLocation.get(locationId);
+            return characters == null ? new ArrayList<>() : new ArrayList<>(characters.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the title of the given cartoon.
+     *
+     * @param cartoonId the cartoon identifier
+     * @param title the cartoon title
+     */
+    public void putCartoon(Long cartoonId, String title) {
+        if (cartoonId == null || title == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            cartoonTitles.put(cartoonId, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the given location, moving it if its cartoon changed.
+     *
+     * @param locationId the location identifier
+     * @param cartoonId the cartoon identifier
+     * @param locationName the location name
+     */
+    public void putLocation(Long locationId, Long cartoonId, String locationName) {
+        if (locationId == null || cartoonId == null || locationName == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addLocation(locationId, cartoonId, locationName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the given character, moving it if its home changed.
+     *
+     * @param characterId the character identifier
+     * @param homeId the home location identifier
+     * @param characterName the character name
+     */
+    public void putCharacter(Long characterId, Long homeId, String characterName) {
+        if (characterId == null || homeId == null || characterName == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addCharacter(characterId, homeId, characterName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the catalog from the database and replaces the current maps with
+     * the result.
+     */
+    private void refresh() {
+        CatalogCache catalog = new CatalogCache();
+        if (catalog.load()) {
+            lock.writeLock().lock();
+            try {
+                cartoonTitles = catalog.cartoonTitles;
+                locationsByCartoon = catalog.locationsByCartoon;
+                locationCartoonIds = catalog.locationCartoonIds;
+                charactersByLocation = catalog.charactersByLocation;
+                characterHomeIds = catalog.characterHomeIds;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Loads the cartoons, locations, and characters from the database.
+     *
+     * @return true if the catalog was loaded, false otherwise
+     */
+    private boolean load() {
+        long startTime = System.currentTimeMillis();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            Query cartoonQuery = session.createQuery(
+                    "SELECT c.cartoonId, c.title FROM Cartoon c ORDER BY c.cartoonId");
+            for (Object o : cartoonQuery.setReadOnly(true).list()) {
+                Object[] row = (Object[]) o;
+                cartoonTitles.put((Long) row[0], (String) row[1]);
+            }
+
+            Query locationQuery = session.createQuery("SELECT l.locationId, l.cartoon.cartoonId, l.locationName "
+                    + "FROM CartoonLocation l ORDER BY l.locationId");
+            for (Object o : locationQuery.setReadOnly(true).list()) {
+                Object[] row = (Object[]) o;
+                addLocation((Long) row[0], (Long) row[1], (String) row[2]);
+            }
+
+            Query characterQuery = session.createQuery("SELECT ch.characterId, ch.characterHome.locationId, "
+                    + "ch.characterName FROM CartoonCharacter ch ORDER BY ch.characterId");
+            characterQuery.setReadOnly(true);
+            characterQuery.setFetchSize(FETCH_SIZE);
+            ScrollableResults results = characterQuery.scroll(ScrollMode.FORWARD_ONLY);
+            while (results.next()) {
+                addCharacter(results.getLong(0), results.getLong(1), results.getString(2));
+            }
+            results.close();
+
+            logger.info(MessageFormat.format("Catalog loaded with {0} cartoons, {1} locations and {2} characters "
+                    + "in {3} ms.", cartoonTitles.size(), locationCartoonIds.size(), characterHomeIds.size(),
+                    System.currentTimeMillis() - startTime));
+            return true;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CatalogCache.load.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during CatalogCache.load.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return false;
+    }
+
+    /**
+     * Adds the location to the maps, removing it from its previous cartoon.
+     * The caller must hold the write lock when the catalog is shared.
+     *
+     * @param locationId the location identifier
+     * @param cartoonId the cartoon identifier
+     * @param locationName the location name
+     */
+    private void addLocation(Long locationId, Long cartoonId, String locationName) {
+        Long previousCartoonId = locationCartoonIds.put(locationId, cartoonId);
+        if (previousCartoonId != null && !previousCartoonId.equals(cartoonId)) {
+            locationsByCartoon.get(previousCartoonId).remove(locationId);
+        }
+        locationsByCartoon.computeIfAbsent(cartoonId, (id) -> new LinkedHashMap<>()).put(locationId, locationName);
+    }
+
+    /**
+     * Adds the character to the maps, removing it from its previous home. The
+     * caller must hold the write lock when the catalog is shared.
+     *
+     * @param characterId the character identifier
+     * @param homeId the home location identifier
+     * @param characterName the character name
+     */
+    private void addCharacter(Long characterId, Long homeId, String characterName) {
+        Long previousHomeId = characterHomeIds.put(characterId, homeId);
+        if (previousHomeId != null && !previousHomeId.equals(homeId)) {
+            charactersByLocation.get(previousHomeId).remove(characterId);
+        }
+        charactersByLocation.computeIfAbsent(homeId, (id) -> new LinkedHashMap<>()).put(characterId, characterName);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Listens for committed insert and update events of cartoons, locations, and
+ * characters to keep the catalog cache current.
+ *
+ * @author Bryan Daniel
+ */
+public class CatalogListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = -3170625447265834127L;
+
+    @Override
+    public void onPostInsert(PostInsertEvent postInsertEvent) {
+        updateCatalog(postInsertEvent.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent postUpdateEvent) {
+        updateCatalog(postUpdateEvent.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    /**
+     * Applies the given cartoon, location, or character to the catalog cache
+     * if the catalog is loaded.
+     *
+     * @param entity the entity added or updated
+     */
+    private void updateCatalog(Object entity) {
+        CatalogCache catalog = CatalogCache.getInstance();
+        if (catalog == null) {
+            return;
+        }
+        if (entity instanceof Cartoon) {
+            Cartoon cartoon = (Cartoon) entity;
+            catalog.putCartoon(cartoon.getCartoonId(), cartoon.getTitle());
+        } else if (entity instanceof CartoonLocation) {
+            CartoonLocation location = (CartoonLocation) entity;
+            if (location.getCartoon() != null) {
+                catalog.putLocation(location.getLocationId(), location.getCartoon().getCartoonId(),
+                        location.getLocationName());
+            }
+        } else if (entity instanceof CartoonCharacter) {
+            CartoonCharacter character = (CartoonCharacter) entity;
+            if (character.getCharacterHome() != null) {
+                catalog.putCharacter(character.getCharacterId(), character.getCharacterHome().getLocationId(),
+                        character.getCharacterName());
+            }
+        }
+    }
+}
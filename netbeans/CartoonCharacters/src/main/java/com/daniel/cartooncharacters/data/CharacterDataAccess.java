@@ -16,6 +16,7 @@
 package com.daniel.cartooncharacters.data;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.CharacterDemographic;
@@ -38,6 +39,14 @@ public interface CharacterDataAccess {
      */
     public List<CartoonCharacter> findCartoonCharacters(String characterName, String cartoonTitle);
 
+    /**
+     * This method finds the cartoon character with the given identifier.
+     *
+     * @param characterId the character identifier
+     * @return the cartoon character found or null
+     */
+    public CartoonCharacter findCartoonCharacter(Long characterId);
+
     /**
      * This method searches for a cartoon with a name exactly matching the given
      * name.
@@ -67,6 +76,19 @@ public interface CharacterDataAccess {
      */
     public boolean addCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic);
 
+    /**
+     * This method adds many new cartoon characters to the database using JDBC
+     * batches. The characters are committed in chunks, so a failure leaves the
+     * chunks before it in the database.
+     *
+     * @param cartoonCharacters the cartoon characters to add
+     * @param characterDemographics the character demographics to add, in the
+     * same order as the characters
+     * @return the number of characters committed
+     */
+    public int addCharacters(List<CartoonCharacter> cartoonCharacters,
+            List<CharacterDemographic> characterDemographics);
+
     /**
      * This method updates an existing cartoon character in the database.
      *
@@ -75,4 +97,77 @@ public interface CharacterDataAccess {
      * @return true if successful, false otherwise
      */
     public boolean updateCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic);
+
+    /**
+     * Searches for cartoon characters with values similar to the given name
+     * and cartoon title on the data access executor.
+     *
+     * @param characterName the name of the cartoon character
+     * @param cartoonTitle the title of the cartoon
+     * @return the future of the list of characters found
+     */
+    public default CompletableFuture<List<CartoonCharacter>> findCartoonCharactersAsync(String characterName,
+            String cartoonTitle) {
+        return DataAccessExecutor.supply(() -> findCartoonCharacters(characterName, cartoonTitle));
+    }
+
+    /**
+     * Finds the character with the given identifier on the data access
+     * executor.
+     *
+     * @param characterId the character identifier
+     * @return the future of the character found
+     */
+    public default CompletableFuture<CartoonCharacter> findCartoonCharacterAsync(Long characterId) {
+        return DataAccessExecutor.supply(() -> findCartoonCharacter(characterId));
+    }
+
+    /**
+     * Finds the character with the given name living in the given location on
+     * the data access executor.
+     *
+     * @param characterName the name of the character
+     * @param cartoonLocation the home of the character
+     * @return the future of the character found
+     */
+    public default CompletableFuture<CartoonCharacter> findCartoonCharacterAsync(String characterName,
+            CartoonLocation cartoonLocation) {
+        return DataAccessExecutor.supply(() -> findCartoonCharacter(characterName, cartoonLocation));
+    }
+
+    /**
+     * Retrieves the names of the characters living in the given location on
+     * the data access executor.
+     *
+     * @param cartoonLocation the location
+     * @return the future of the list of character names
+     */
+    public default CompletableFuture<List<String>> findCartoonCharacterNamesAsync(CartoonLocation cartoonLocation) {
+        return DataAccessExecutor.supply(() -> findCartoonCharacterNames(cartoonLocation));
+    }
+
+    /**
+     * Adds a new character with its demographic on the data access executor.
+     *
+     * @param cartoonCharacter the character to add
+     * @param characterDemographic the demographic of the character
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> addCharacterAsync(CartoonCharacter cartoonCharacter,
+            CharacterDemographic characterDemographic) {
+        return DataAccessExecutor.supply(() -> addCharacter(cartoonCharacter, characterDemographic));
+    }
+
+    /**
+     * Updates an existing character and its demographic on the data access
+     * executor.
+     *
+     * @param cartoonCharacter the character to update
+     * @param characterDemographic the demographic of the character
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> updateCharacterAsync(CartoonCharacter cartoonCharacter,
+            CharacterDemographic characterDemographic) {
+        return DataAccessExecutor.supply(() -> updateCharacter(cartoonCharacter, characterDemographic));
+    }
 }
@@ -17,6 +17,7 @@ package com.daniel.cartooncharacters.data;
 
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CharacterDemographic;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Accesses the database to retrieve demographic information for a character.
@@ -32,4 +33,16 @@ public interface CharacterDemographicDataAccess {
      * @return the demographic information
      */
     public CharacterDemographic getCharacterDemographic(CartoonCharacter cartoonCharacter);
+
+    /**
+     * Retrieves the demographic of the given character on the data access
+     * executor.
+     *
+     * @param cartoonCharacter the character
+     * @return the future of the demographic found
+     */
+    public default CompletableFuture<CharacterDemographic> getCharacterDemographicAsync(
+            CartoonCharacter cartoonCharacter) {
+        return DataAccessExecutor.supply(() -> getCharacterDemographic(cartoonCharacter));
+    }
 }
@@ -15,22 +15,31 @@
  */
 package com.daniel.cartooncharacters.data;
 
+import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import java.text.MessageFormat;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
 import org.hibernate.event.spi.PreInsertEvent;
 import org.hibernate.event.spi.PreInsertEventListener;
 import org.hibernate.event.spi.PreUpdateEvent;
 import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
 
 /**
  * Listens for update and insert events to log changes to the CartoonCharacter
- * table.
+ * table, and for committed update and insert events of characters and
+ * cartoons to keep the character search index current, so changes rolled back
+ * never reach the index.
  *
  * @author Bryan Daniel
  */
-public class CharacterListener implements PreUpdateEventListener, PreInsertEventListener {
+public class CharacterListener implements PreUpdateEventListener, PreInsertEventListener,
+        PostUpdateEventListener, PostInsertEventListener {
 
     /**
      * Serial version UID
@@ -70,4 +79,45 @@ public class CharacterListener implements PreUpdateEventListener, PreInsertEvent
         }
         return false;
     }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent postUpdateEvent) {
+        if (postUpdateEvent.getEntity() instanceof CartoonCharacter) {
+            updateSearchIndex((CartoonCharacter) postUpdateEvent.getEntity());
+        } else if (postUpdateEvent.getEntity() instanceof Cartoon) {
+            Cartoon cartoon = (Cartoon) postUpdateEvent.getEntity();
+            CharacterSearchIndex index = CharacterSearchIndex.getInstance();
+            if (index != null) {
+                index.putCartoon(cartoon.getCartoonId(), cartoon.getTitle());
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent postInsertEvent) {
+        if (postInsertEvent.getEntity() instanceof CartoonCharacter) {
+            updateSearchIndex((CartoonCharacter) postInsertEvent.getEntity());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    /**
+     * Applies the name and cartoon of the given character to the search index
+     * if the index is loaded.
+     *
+     * @param character the character added or updated
+     */
+    private void updateSearchIndex(CartoonCharacter character) {
+        CharacterSearchIndex index = CharacterSearchIndex.getInstance();
+        if (index != null && character.getCharacterHome() != null
+                && character.getCharacterHome().getCartoon() != null) {
+            index.put(character.getCharacterId(), character.getCharacterName(),
+                    character.getCharacterHome().getLocationId(),
+                    character.getCharacterHome().getCartoon().getCartoonId(), character.getCartoonTitle());
+        }
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import java.util.List;
+
+/**
+ * This class holds one page of character search results and the token for
+ * requesting the next page.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterPage {
+
+    /**
+     * The search results on this page
+     */
+    private final List<CharacterSearchResult> results;
+
+    /**
+     * The token for the next page, or null if this is the last page
+     */
+    private final String continuationToken;
+
+    /**
+     * This constructor sets the values for the page.
+     *
+     * @param results the search results on this page
+     * @param continuationToken the token for the next page or null
+     */
+    public CharacterPage(List<CharacterSearchResult> results, String continuationToken) {
+        this.results = results;
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Get the value of results
+     *
+     * @return the value of results
+     */
+    public List<CharacterSearchResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the value of continuationToken
+     *
+     * @return the value of continuationToken
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Indicates whether another page follows this page.
+     *
+     * @return true if another page exists, false otherwise
+     */
+    public boolean hasNextPage() {
+        return continuationToken != null;
+    }
+}
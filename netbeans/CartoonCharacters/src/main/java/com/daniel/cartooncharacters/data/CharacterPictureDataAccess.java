@@ -15,7 +15,6 @@
  */
 package com.daniel.cartooncharacters.data;
 
-import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CharacterPicture;
 import com.daniel.cartooncharacters.util.SessionUtil;
 import java.util.ArrayList;
@@ -23,6 +22,7 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.criterion.Restrictions;
@@ -50,6 +50,8 @@ public class CharacterPictureDataAccess {
 
     /**
      * This method searches for pictures associated with a cartoon character.
+     * The recorded details of each picture file are joined in the same
+     * query.
      *
      * @param entityIdentifier the identifier of the character
      * @return the list of pictures found with character identifiers matching
@@ -62,6 +64,7 @@ public class CharacterPictureDataAccess {
         try {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(CharacterPicture.class);
+            criteria.setFetchMode("metadata", FetchMode.JOIN);
             criteria.add(Restrictions.eq("cartoonCharacter.characterId", entityIdentifier));
             List list = criteria.list();
             list.forEach((o) -> {
@@ -77,85 +80,4 @@ public class CharacterPictureDataAccess {
         }
         return pictures;
     }
-
-    /**
-     * Finds and returns the cartoon character picture with values matching the
-     * given image location and cartoon character.
-     *
-     * @param newImagePath the image location
-     * @param cartoonCharacter the cartoon character
-     * @return the picture found
-     */
-    public CharacterPicture findCharacterPicture(String newImagePath, CartoonCharacter cartoonCharacter) {
-        CharacterPicture characterPictureFound = null;
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            Criteria criteria = session.createCriteria(CharacterPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", newImagePath));
-            criteria.add(Restrictions.eq("cartoonCharacter", cartoonCharacter));
-            characterPictureFound = (CharacterPicture) criteria.uniqueResult();
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CharacterPictureDataAccess.findCharacterPicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CharacterPictureDataAccess.findCharacterPicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return characterPictureFound;
-    }
-
-    /**
-     * This method adds a new character picture record to the database.
-     *
-     * @param picture the character picture to add
-     * @return true if successful, false otherwise
-     */
-    public boolean savePicture(CharacterPicture picture) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            session.persist((CharacterPicture) picture);
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CharacterPictureDataAccess.savePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CharacterPictureDataAccess.savePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
-
-    /**
-     * This method deletes all records of the specified character picture from
-     * the character picture table.
-     *
-     * @param pictureLocation the path of the location picture
-     * @return true if successful, false otherwise
-     */
-    public boolean deletePicture(String pictureLocation) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            Criteria criteria = session.createCriteria(CharacterPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", pictureLocation));
-            List<CharacterPicture> picturesToDelete = (List<CharacterPicture>) criteria.list();
-            for (CharacterPicture pictureToDelete : picturesToDelete) {
-                session.delete((CharacterPicture) pictureToDelete);
-            }
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during CharacterPictureDataAccess.deletePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during CharacterPictureDataAccess.deletePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
 }
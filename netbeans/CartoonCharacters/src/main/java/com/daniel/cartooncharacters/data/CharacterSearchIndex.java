@@ -0,0 +1,833 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * This class holds an in-memory trigram index over character names and cartoon
+ * titles. Every character occupies a slot, and every trigram of a character
+ * name maps to the ascending list of slots containing it. A substring search
+ * intersects the posting lists of the query trigrams and verifies the few
+ * remaining candidates, so it does not touch every character. The one and two
+ * character substrings of the names are posted as well, so shorter queries
+ * read a single posting list. Only a search without a name or title visits
+ * every slot.
+ *
+ * The index is built from the database on first use and persisted to a local
+ * file with a digest of its contents. A restart only uses the file if the
+ * database computes the same digest, so changes made while the application
+ * was down or by another instance cause a rebuild. Changes made through the
+ * application are applied by the CharacterListener.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterSearchIndex {
+
+    /**
+     * The order of search result pages, by name and then identifier
+     */
+    public static final Comparator<CharacterSearchResult> RESULT_ORDER = Comparator.comparing(
+            CharacterSearchResult::getCharacterName).thenComparing(CharacterSearchResult::getCharacterId);
+
+    /**
+     * The name of the index directory
+     */
+    public static final String INDEX_DIRECTORY = "index";
+
+    /**
+     * The name of the index file
+     */
+    public static final String INDEX_FILE = "characters.idx";
+
+    /**
+     * The version of the index file format
+     */
+    private static final int FILE_VERSION = 3;
+
+    /**
+     * The number of characters in the longest n-gram
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * The initial capacity of the slot arrays
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The number of rows fetched per round trip while building the index
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * The native query computing the digest of the indexed contents, with the
+     * rows in the same form and order as computeDigest
+     */
+    private static final String DIGEST_QUERY = "SELECT encode(sha256(convert_to(COALESCE(string_agg("
+            + "ch.character_id || chr(9) || ch.character_name || chr(9) || l.location_id || chr(9) "
+            + "|| c.cartoon_id || chr(9) || c.title || chr(10), '' ORDER BY ch.character_id), ''), 'UTF8')), "
+            + "'hex') FROM cartoon_character ch JOIN cartoon_location l ON ch.character_home = l.location_id "
+            + "JOIN cartoon c ON l.cartoon_id = c.cartoon_id";
+
+    /**
+     * The loaded index, or null while the index is not available
+     */
+    private static volatile CharacterSearchIndex instance;
+
+    /**
+     * The lock guarding the index structures
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The character identifier in each slot
+     */
+    private long[] characterIds = new long[INITIAL_CAPACITY];
+
+    /**
+     * The character name in each slot
+     */
+    private String[] characterNames = new String[INITIAL_CAPACITY];
+
+    /**
+     * The lower case character name in each slot
+     */
+    private String[] lowerCaseNames = new String[INITIAL_CAPACITY];
+
+    /**
+     * The home location identifier in each slot
+     */
+    private long[] homeIds = new long[INITIAL_CAPACITY];
+
+    /**
+     * The title number for each slot
+     */
+    private int[] titleNumbers = new int[INITIAL_CAPACITY];
+
+    /**
+     * The indication of a replaced slot
+     */
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * The number of slots in use
+     */
+    private int slotCount;
+
+    /**
+     * The slot currently holding each character identifier
+     */
+    private final Map<Long, Integer> slotsByCharacterId = new HashMap<>();
+
+    /**
+     * The posting list of slots for each name n-gram of up to three characters
+     */
+    private final Map<Long, PostingList> namePostings = new HashMap<>();
+
+    /**
+     * The cartoon titles in order of title number
+     */
+    private final List<String> titles = new ArrayList<>();
+
+    /**
+     * The lower case cartoon titles in order of title number
+     */
+    private final List<String> lowerCaseTitles = new ArrayList<>();
+
+    /**
+     * The cartoon identifiers in order of title number
+     */
+    private final List<Long> titleCartoonIds = new ArrayList<>();
+
+    /**
+     * The title number for each cartoon identifier
+     */
+    private final Map<Long, Integer> titleNumbersByCartoonId = new HashMap<>();
+
+    /**
+     * The posting list of slots for each title number
+     */
+    private final List<PostingList> titlePostings = new ArrayList<>();
+
+    /**
+     * The indication of changes not yet written to the index file
+     */
+    private boolean modified;
+
+    /**
+     * The sorted results of the last paged search, kept for its next pages
+     * and discarded by any change to the index
+     */
+    private volatile SortedSearch lastSortedSearch;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    private CharacterSearchIndex() {
+        logger = LogManager.getLogger(CharacterSearchIndex.class);
+    }
+
+    /**
+     * Returns the loaded index or null if the index has not been initialized.
+     *
+     * @return the index or null
+     */
+    public static CharacterSearchIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Loads the index from the index file if the file matches the database.
+     * Otherwise, the index is built from the database and written to the file.
+     * If the index cannot be built, no index is installed or written, so the
+     * searches keep using the database. Calling this method after the index
+     * is loaded has no effect.
+     *
+     * @return the loaded index or null if it could not be built
+     */
+    public static synchronized CharacterSearchIndex initialize() {
+        if (instance == null) {
+            CharacterSearchIndex index = new CharacterSearchIndex();
+            long startTime = System.currentTimeMillis();
+            if (!index.load()) {
+                index = new CharacterSearchIndex();
+                if (!index.build()) {
+                    return null;
+                }
+                index.save();
+            }
+            index.logger.info(MessageFormat.format("Character search index ready with {0} characters in {1} ms.",
+                    index.slotsByCharacterId.size(), System.currentTimeMillis() - startTime));
+            instance = index;
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the index file.
+     *
+     * @return the index file
+     */
+    public static File getIndexFile() {
+        return new File(new File(System.getProperty("user.dir")), INDEX_DIRECTORY + File.separator + INDEX_FILE);
+    }
+
+    /**
+     * Searches for the identifiers of characters whose names contain the given
+     * character name and whose cartoon titles contain the given title. The
+     * comparison ignores case, and an empty value matches every character.
+     *
+     * @param characterName the character name to search
+     * @param cartoonTitle the cartoon title to search
+     * @return the identifiers of the matching characters
+     */
+    public List<Long> search(String characterName, String cartoonTitle) {
+        List<Long> matchingIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            findMatchingSlots(characterName, cartoonTitle, (slot) -> matchingIds.add(characterIds[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matchingIds;
+    }
+
+    /**
+     * Searches for characters in the same way as the search method and returns
+     * the search results held in the index, so no database access is needed.
+     * The results are in the order of the RESULT_ORDER comparator. The sorted
+     * results of the last search are kept until the index changes, so the
+     * following pages of a search are not searched and sorted again.
+     *
+     * @param characterName the character name to search
+     * @param cartoonTitle the cartoon title to search
+     * @return the unmodifiable list of matching search results
+     */
+    public List<CharacterSearchResult> sortedSearchResults(String characterName, String cartoonTitle) {
+        SortedSearch sortedSearch = lastSortedSearch;
+        if (sortedSearch != null && sortedSearch.characterName.equals(characterName)
+                && sortedSearch.cartoonTitle.equals(cartoonTitle)) {
+            return sortedSearch.results;
+        }
+        List<CharacterSearchResult> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            findMatchingSlots(characterName, cartoonTitle, (slot) -> results.add(new CharacterSearchResult(
+                    characterIds[slot], characterNames[slot], titles.get(titleNumbers[slot]), homeIds[slot],
+                    titleCartoonIds.get(titleNumbers[slot]))));
+            results.sort(RESULT_ORDER);
+            // kept while the read lock is held, so a later change always discards it
+            sortedSearch = new SortedSearch(characterName, cartoonTitle, Collections.unmodifiableList(results));
+            lastSortedSearch = sortedSearch;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return sortedSearch.results;
+    }
+
+    /**
+     * Adds or replaces the index entry for the given character. If the name
+     * or cartoon changed, the old slot is marked as removed and a new slot is
+     * added. A changed title of the same cartoon is applied to the cartoon.
+     *
+     * @param characterId the character identifier
+     * @param characterName the character name
+     * @param homeId the home location identifier
+     * @param cartoonId the cartoon identifier
+     * @param cartoonTitle the cartoon title for the character
+     */
+    public void put(Long characterId, String characterName, Long homeId, Long cartoonId, String cartoonTitle) {
+        if (characterId == null || characterName == null || homeId == null || cartoonId == null
+                || cartoonTitle == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existingSlot = slotsByCharacterId.get(characterId);
+            if (existingSlot != null) {
+                if (characterNames[existingSlot].equals(characterName) && homeIds[existingSlot] == homeId
+                        && titleCartoonIds.get(titleNumbers[existingSlot]).equals(cartoonId)) {
+                    if (renameTitle(titleNumbers[existingSlot], cartoonTitle)) {
+                        modified = true;
+                        lastSortedSearch = null;
+                    }
+                    return;
+                }
+                removed[existingSlot] = true;
+            }
+            addSlot(characterId, characterName, homeId, cartoonId, cartoonTitle);
+            modified = true;
+            lastSortedSearch = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the title of the given cartoon to every character of the
+     * cartoon in the index. A cartoon without characters is not indexed.
+     *
+     * @param cartoonId the cartoon identifier
+     * @param cartoonTitle the cartoon title
+     */
+    public void putCartoon(Long cartoonId, String cartoonTitle) {
+        if (cartoonId == null || cartoonTitle == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer titleNumber = titleNumbersByCartoonId.get(cartoonId);
+            if (titleNumber != null && renameTitle(titleNumber, cartoonTitle)) {
+                modified = true;
+                lastSortedSearch = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the index to the index file if it changed since it was loaded or
+     * last saved.
+     */
+    public void saveIfModified() {
+        boolean save;
+        lock.readLock().lock();
+        try {
+            save = modified;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (save) {
+            save();
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file and moves it over the index file
+     * so that a failed write never leaves a partial index behind.
+     */
+    private void save() {
+        File indexFile = getIndexFile();
+        File temporaryFile = new File(indexFile.getParentFile(), INDEX_FILE + ".tmp");
+        lock.readLock().lock();
+        try {
+            indexFile.getParentFile().mkdirs();
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(temporaryFile)))) {
+                output.writeInt(FILE_VERSION);
+                output.writeInt(slotsByCharacterId.size());
+                output.writeUTF(computeDigest());
+                for (int slot = 0; slot < slotCount; slot++) {
+                    if (!removed[slot]) {
+                        output.writeLong(characterIds[slot]);
+                        output.writeUTF(characterNames[slot]);
+                        output.writeLong(homeIds[slot]);
+                        output.writeLong(titleCartoonIds.get(titleNumbers[slot]));
+                        output.writeUTF(titles.get(titleNumbers[slot]));
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            modified = false;
+        } catch (IOException ex) {
+            logger.error("An exception occurred while saving the character search index.", ex);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the index file. The file is only used if the digest of its
+     * contents matches the digest computed by the database.
+     *
+     * @return true if the index was loaded from the file, false otherwise
+     */
+    private boolean load() {
+        File indexFile = getIndexFile();
+        if (!indexFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(indexFile)))) {
+            if (input.readInt() != FILE_VERSION) {
+                return false;
+            }
+            int characterCount = input.readInt();
+            if (!matchesDatabase(input.readUTF())) {
+                logger.info("The character search index file is out of date and will be rebuilt.");
+                return false;
+            }
+            for (int i = 0; i < characterCount; i++) {
+                addSlot(input.readLong(), input.readUTF(), input.readLong(), input.readLong(), input.readUTF());
+            }
+            return true;
+        } catch (IOException ex) {
+            logger.error("An exception occurred while loading the character search index.", ex);
+        }
+        return false;
+    }
+
+    /**
+     * Reads every character name and cartoon title from the database into the
+     * index.
+     *
+     * @return true if the index was built, false if the database could not be
+     * read
+     */
+    private boolean build() {
+        Session session = null;
+        try {
+            StringBuilder queryString = new StringBuilder();
+            queryString.append("SELECT ch.characterId, ch.characterName, l.locationId, c.cartoonId, c.title ");
+            queryString.append("FROM CartoonCharacter ch, CartoonLocation l, Cartoon c ");
+            queryString.append("WHERE ch.characterHome.locationId = l.locationId ");
+            queryString.append("AND l.cartoon.cartoonId = c.cartoonId");
+
+            session = SessionUtil.getNewSession();
+            Query query = session.createQuery(queryString.toString());
+            query.setReadOnly(true);
+            query.setFetchSize(FETCH_SIZE);
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+            while (results.next()) {
+                addSlot(results.getLong(0), results.getString(1), results.getLong(2), results.getLong(3),
+                        results.getString(4));
+            }
+            results.close();
+            return true;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CharacterSearchIndex.build.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during CharacterSearchIndex.build.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return false;
+    }
+
+    /**
+     * Compares the given digest of the index file contents with the digest of
+     * the same contents computed by the database.
+     *
+     * @param digest the digest stored in the index file
+     * @return true if the digests match, false otherwise
+     */
+    private boolean matchesDatabase(String digest) {
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            return digest.equals(session.createSQLQuery(DIGEST_QUERY).uniqueResult());
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CharacterSearchIndex.matchesDatabase.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during CharacterSearchIndex.matchesDatabase.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return false;
+    }
+
+    /**
+     * Appends a slot for the given character and adds it to the posting lists.
+     * The caller must hold the write lock or own the index exclusively.
+     *
+     * @param characterId the character identifier
+     * @param characterName the character name
+     * @param homeId the home location identifier
+     * @param cartoonId the cartoon identifier
+     * @param cartoonTitle the cartoon title
+     */
+    private void addSlot(long characterId, String characterName, long homeId, long cartoonId,
+            String cartoonTitle) {
+        if (slotCount == characterIds.length) {
+            int capacity = characterIds.length * 2;
+            characterIds = Arrays.copyOf(characterIds, capacity);
+            characterNames = Arrays.copyOf(characterNames, capacity);
+            lowerCaseNames = Arrays.copyOf(lowerCaseNames, capacity);
+            homeIds = Arrays.copyOf(homeIds, capacity);
+            titleNumbers = Arrays.copyOf(titleNumbers, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+        }
+        int slot = slotCount++;
+        String lowerCaseName = characterName.toLowerCase();
+        characterIds[slot] = characterId;
+        characterNames[slot] = characterName;
+        lowerCaseNames[slot] = lowerCaseName;
+        homeIds[slot] = homeId;
+        titleNumbers[slot] = findTitleNumber(cartoonTitle, cartoonId);
+        titlePostings.get(titleNumbers[slot]).add(slot);
+        slotsByCharacterId.put(characterId, slot);
+
+        Set<Long> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            addGrams(lowerCaseName, length, grams);
+        }
+        grams.forEach((gram) -> {
+            namePostings.computeIfAbsent(gram, (key) -> new PostingList()).add(slot);
+        });
+    }
+
+    /**
+     * Passes every current slot matching the given name and title to the
+     * consumer. The caller must hold the read lock.
+     *
+     * @param characterName the character name to search
+     * @param cartoonTitle the cartoon title to search
+     * @param consumer the consumer of matching slots
+     */
+    private void findMatchingSlots(String characterName, String cartoonTitle, IntConsumer consumer) {
+        String name = characterName.toLowerCase();
+        String title = cartoonTitle.toLowerCase();
+        boolean[] matchingTitles = null;
+        if (!title.isEmpty()) {
+            matchingTitles = findMatchingTitles(title);
+            if (matchingTitles == null) {
+                return;
+            }
+        }
+        if (!name.isEmpty()) {
+            for (int slot : intersectNamePostings(name)) {
+                acceptIfMatching(slot, name, matchingTitles, consumer);
+            }
+        } else if (matchingTitles != null) {
+            for (int titleNumber = 0; titleNumber < matchingTitles.length; titleNumber++) {
+                if (matchingTitles[titleNumber]) {
+                    PostingList postingList = titlePostings.get(titleNumber);
+                    for (int i = 0; i < postingList.size; i++) {
+                        acceptIfMatching(postingList.slots[i], name, null, consumer);
+                    }
+                }
+            }
+        } else {
+            for (int slot = 0; slot < slotCount; slot++) {
+                acceptIfMatching(slot, name, null, consumer);
+            }
+        }
+    }
+
+    /**
+     * Returns the title number for the given cartoon, adding the cartoon if it
+     * is not yet known and applying the given title if it changed.
+     *
+     * @param cartoonTitle the cartoon title
+     * @param cartoonId the cartoon identifier
+     * @return the title number
+     */
+    private int findTitleNumber(String cartoonTitle, long cartoonId) {
+        Integer titleNumber = titleNumbersByCartoonId.get(cartoonId);
+        if (titleNumber == null) {
+            titleNumber = titles.size();
+            titles.add(cartoonTitle);
+            lowerCaseTitles.add(cartoonTitle.toLowerCase());
+            titleCartoonIds.add(cartoonId);
+            titlePostings.add(new PostingList());
+            titleNumbersByCartoonId.put(cartoonId, titleNumber);
+        } else {
+            renameTitle(titleNumber, cartoonTitle);
+        }
+        return titleNumber;
+    }
+
+    /**
+     * Replaces the title with the given number if it differs from the given
+     * title. The caller must hold the write lock or own the index exclusively.
+     *
+     * @param titleNumber the title number
+     * @param cartoonTitle the cartoon title
+     * @return true if the title changed, false otherwise
+     */
+    private boolean renameTitle(int titleNumber, String cartoonTitle) {
+        if (titles.get(titleNumber).equals(cartoonTitle)) {
+            return false;
+        }
+        titles.set(titleNumber, cartoonTitle);
+        lowerCaseTitles.set(titleNumber, cartoonTitle.toLowerCase());
+        return true;
+    }
+
+    /**
+     * Marks the titles containing the given lower case title.
+     *
+     * @param title the lower case title to search
+     * @return the matching title flags or null if no title matches
+     */
+    private boolean[] findMatchingTitles(String title) {
+        boolean[] matchingTitles = new boolean[lowerCaseTitles.size()];
+        boolean found = false;
+        for (int i = 0; i < matchingTitles.length; i++) {
+            if (lowerCaseTitles.get(i).contains(title)) {
+                matchingTitles[i] = true;
+                found = true;
+            }
+        }
+        return found ? matchingTitles : null;
+    }
+
+    /**
+     * Intersects the posting lists of every trigram in the given name, or the
+     * posting list of the whole name if it is shorter than a trigram. The
+     * smallest list drives the intersection and the others are probed with a
+     * binary search.
+     *
+     * @param name the lower case name of at least one character
+     * @return the candidate slots
+     */
+    private int[] intersectNamePostings(String name) {
+        Set<Long> grams = new HashSet<>();
+        addGrams(name, Math.min(name.length(), GRAM_LENGTH), grams);
+        List<PostingList> postingLists = new ArrayList<>();
+        for (Long gram : grams) {
+            PostingList postingList = namePostings.get(gram);
+            if (postingList == null) {
+                return new int[0];
+            }
+            postingLists.add(postingList);
+        }
+        postingLists.sort((first, second) -> Integer.compare(first.size, second.size));
+
+        PostingList smallest = postingLists.get(0);
+        int[] candidates = new int[smallest.size];
+        int candidateCount = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            int slot = smallest.slots[i];
+            boolean inAll = true;
+            for (int j = 1; j < postingLists.size() && inAll; j++) {
+                PostingList other = postingLists.get(j);
+                inAll = Arrays.binarySearch(other.slots, 0, other.size, slot) >= 0;
+            }
+            if (inAll) {
+                candidates[candidateCount++] = slot;
+            }
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    /**
+     * Passes the given slot to the consumer if the slot is current and matches
+     * the name and titles.
+     *
+     * @param slot the slot
+     * @param name the lower case name to match
+     * @param matchingTitles the matching title flags or null for any title
+     * @param consumer the consumer of matching slots
+     */
+    private void acceptIfMatching(int slot, String name, boolean[] matchingTitles, IntConsumer consumer) {
+        if (!removed[slot] && (matchingTitles == null || matchingTitles[titleNumbers[slot]])
+                && lowerCaseNames[slot].contains(name)) {
+            consumer.accept(slot);
+        }
+    }
+
+    /**
+     * Returns the hexadecimal SHA-256 digest of the current slots, one line
+     * per character in identifier order as built by the DIGEST_QUERY. The
+     * caller must hold the read lock.
+     *
+     * @return the digest of the index contents
+     */
+    private String computeDigest() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available.", nsae);
+        }
+        List<Long> sortedIds = new ArrayList<>(slotsByCharacterId.keySet());
+        Collections.sort(sortedIds);
+        for (Long characterId : sortedIds) {
+            int slot = slotsByCharacterId.get(characterId);
+            String line = characterId + "\t" + characterNames[slot] + "\t" + homeIds[slot] + "\t"
+                    + titleCartoonIds.get(titleNumbers[slot]) + "\t" + titles.get(titleNumbers[slot]) + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the key of every n-gram of the given length in the given string to
+     * the set of keys.
+     *
+     * @param value the string
+     * @param length the number of characters in each n-gram
+     * @param grams the set of n-gram keys
+     */
+    private static void addGrams(String value, int length, Set<Long> grams) {
+        for (int i = 0; i + length <= value.length(); i++) {
+            grams.add(encodeGram(value, i, length));
+        }
+    }
+
+    /**
+     * Packs the n-gram starting at the given position into a single key. The
+     * length is packed above the characters so that n-grams of different
+     * lengths never share a key.
+     *
+     * @param value the string
+     * @param start the start of the n-gram
+     * @param length the number of characters in the n-gram
+     * @return the n-gram key
+     */
+    private static long encodeGram(String value, int start, int length) {
+        long key = length;
+        for (int i = start; i < start + length; i++) {
+            key = (key << 16) | value.charAt(i);
+        }
+        return key;
+    }
+
+    /**
+     * This class holds an ascending list of slots.
+     */
+    private static class PostingList {
+
+        /**
+         * The slots in ascending order
+         */
+        private int[] slots = new int[4];
+
+        /**
+         * The number of slots in the list
+         */
+        private int size;
+
+        /**
+         * Appends a slot. Slots are appended in ascending order.
+         *
+         * @param slot the slot to append
+         */
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * The sorted results of one search with the values searched.
+     */
+    private static class SortedSearch {
+
+        /**
+         * The character name searched
+         */
+        private final String characterName;
+
+        /**
+         * The cartoon title searched
+         */
+        private final String cartoonTitle;
+
+        /**
+         * The matching search results in result order
+         */
+        private final List<CharacterSearchResult> results;
+
+        /**
+         * Sets the values searched and the sorted results.
+         *
+         * @param characterName the character name searched
+         * @param cartoonTitle the cartoon title searched
+         * @param results the sorted results
+         */
+        private SortedSearch(String characterName, String cartoonTitle, List<CharacterSearchResult> results) {
+            this.characterName = characterName;
+            this.cartoonTitle = cartoonTitle;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.Cartoon;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.control.Button;
+
+/**
+ * This class holds the read-only values shown for a character in the search
+ * results table. It is built from a projection query, so no character,
+ * location, or cartoon entity is loaded for a search. The button to view the
+ * character details is only created when the table shows the row.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterSearchResult {
+
+    /**
+     * The cartoon character identifier
+     */
+    private final Long characterId;
+
+    /**
+     * The character name
+     */
+    private final String characterName;
+
+    /**
+     * The title of the character's cartoon
+     */
+    private final String cartoonTitle;
+
+    /**
+     * The identifier of the character's home location
+     */
+    private final Long homeId;
+
+    /**
+     * The identifier of the character's cartoon
+     */
+    private final Long cartoonId;
+
+    /**
+     * The handler for the button to view character details
+     */
+    private EventHandler<ActionEvent> viewHandler;
+
+    /**
+     * The button to view character details
+     */
+    private Button viewButton;
+
+    /**
+     * This constructor sets the values for the search result.
+     *
+     * @param characterId the character identifier
+     * @param characterName the character name
+     * @param cartoonTitle the cartoon title
+     * @param homeId the home location identifier
+     * @param cartoonId the cartoon identifier
+     */
+    public CharacterSearchResult(Long characterId, String characterName, String cartoonTitle, Long homeId,
+            Long cartoonId) {
+        this.characterId = characterId;
+        this.characterName = characterName;
+        this.cartoonTitle = cartoonTitle;
+        this.homeId = homeId;
+        this.cartoonId = cartoonId;
+    }
+
+    /**
+     * Get the value of characterId
+     *
+     * @return the value of characterId
+     */
+    public Long getCharacterId() {
+        return characterId;
+    }
+
+    /**
+     * Get the value of characterName
+     *
+     * @return the value of characterName
+     */
+    public String getCharacterName() {
+        return characterName;
+    }
+
+    /**
+     * Get the value of cartoonTitle
+     *
+     * @return the value of cartoonTitle
+     */
+    public String getCartoonTitle() {
+        return cartoonTitle;
+    }
+
+    /**
+     * Get the value of homeId
+     *
+     * @return the value of homeId
+     */
+    public Long getHomeId() {
+        return homeId;
+    }
+
+    /**
+     * Get the value of cartoonId
+     *
+     * @return the value of cartoonId
+     */
+    public Long getCartoonId() {
+        return cartoonId;
+    }
+
+    /**
+     * Set the handler for the button to view character details
+     *
+     * @param viewHandler the handler
+     */
+    public void setViewHandler(EventHandler<ActionEvent> viewHandler) {
+        this.viewHandler = viewHandler;
+        if (viewButton != null) {
+            viewButton.setOnAction(viewHandler);
+        }
+    }
+
+    /**
+     * Get the button to view character details, creating it on first use
+     *
+     * @return the view button
+     */
+    public Button getViewButton() {
+        if (viewButton == null) {
+            viewButton = new Button("Details");
+            viewButton.setOnAction(viewHandler);
+        }
+        return viewButton;
+    }
+
+    /**
+     * Returns a cartoon holding the identifier and title of this result's
+     * cartoon.
+     *
+     * @return the cartoon
+     */
+    public Cartoon toCartoon() {
+        Cartoon cartoon = new Cartoon();
+        cartoon.setCartoonId(cartoonId);
+        cartoon.setTitle(cartoonTitle);
+        return cartoon;
+    }
+}
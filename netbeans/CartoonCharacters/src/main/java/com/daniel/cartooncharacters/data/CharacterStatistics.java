@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class holds the number of characters for each combination of gender
+ * and villain indication in one cartoon or in all cartoons.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterStatistics {
+
+    /**
+     * The character counts by gender and villain indication
+     */
+    private final Map<String, Map<Boolean, Long>> counts = new HashMap<>();
+
+    /**
+     * The total number of characters
+     */
+    private long totalCount;
+
+    /**
+     * Adds the given number of characters to the count for the gender and
+     * villain indication.
+     *
+     * @param gender the gender code
+     * @param villain the villain indication or null if unknown
+     * @param count the number of characters
+     */
+    public void addCount(String gender, Boolean villain, long count) {
+        counts.computeIfAbsent(gender, (g) -> new HashMap<>()).merge(villain, count, Long::sum);
+        totalCount += count;
+    }
+
+    /**
+     * Get the value of totalCount
+     *
+     * @return the value of totalCount
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of characters with the given gender.
+     *
+     * @param gender the gender code
+     * @return the number of characters
+     */
+    public long getGenderCount(String gender) {
+        Map<Boolean, Long> genderCounts = counts.get(gender);
+        if (genderCounts == null) {
+            return 0;
+        }
+        return genderCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Returns the number of characters with the given villain indication.
+     *
+     * @param villain the villain indication or null for unknown
+     * @return the number of characters
+     */
+    public long getVillainCount(Boolean villain) {
+        return counts.values().stream().mapToLong((genderCounts) -> genderCounts.entrySet().stream()
+                .filter((entry) -> Objects.equals(entry.getKey(), villain))
+                .mapToLong(Map.Entry::getValue).sum()).sum();
+    }
+
+    /**
+     * Returns the given count as a fraction of the total count rounded to two
+     * decimal places.
+     *
+     * @param count the count
+     * @return the fraction of the total count
+     */
+    public double getShare(long count) {
+        return new BigDecimal(count).divide(new BigDecimal(totalCount), 2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.SQLQuery;
+import org.hibernate.Session;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+
+/**
+ * This class reads the character counts by gender and villain indication for
+ * one cartoon or for all cartoons from the character_statistics_rollup table.
+ * The rollup is kept current by database triggers on the demographic,
+ * character, and location tables, so a chart costs a primary key lookup. The
+ * statistics data access objects build their charts from this result.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterStatisticsDataAccess {
+
+    /**
+     * The logger for this class
+     */
+    private Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public CharacterStatisticsDataAccess() {
+        logger = LogManager.getLogger(CharacterStatisticsDataAccess.class);
+    }
+
+    /**
+     * Reads the character counts of the given cartoon by gender and villain
+     * indication. If the cartoon is null, the counts of all cartoons are
+     * added together.
+     *
+     * @param cartoon the cartoon or null for all cartoons
+     * @return the character statistics
+     */
+    public CharacterStatistics findCharacterStatistics(Cartoon cartoon) {
+        CharacterStatistics statistics = new CharacterStatistics();
+        Session session = null;
+        try {
+            StringBuilder queryString = new StringBuilder();
+            queryString.append("SELECT r.gender, r.villain, SUM(r.character_count) AS character_count ");
+            queryString.append("FROM character_statistics_rollup r ");
+            if (cartoon != null) {
+                queryString.append("WHERE r.cartoon_id = :cartoonId ");
+            }
+            queryString.append("GROUP BY r.gender, r.villain");
+
+            session = SessionUtil.getNewSession();
+            SQLQuery query = session.createSQLQuery(queryString.toString());
+            query.addScalar("gender", StringType.INSTANCE);
+            query.addScalar("villain", StringType.INSTANCE);
+            query.addScalar("character_count", LongType.INSTANCE);
+            if (cartoon != null) {
+                query.setLong("cartoonId", cartoon.getCartoonId());
+            }
+            for (Object o : query.list()) {
+                Object[] row = (Object[]) o;
+                statistics.addCount((String) row[0], toVillain((String) row[1]), (Long) row[2]);
+            }
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CharacterStatisticsDataAccess.findCharacterStatistics.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during CharacterStatisticsDataAccess.findCharacterStatistics.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return statistics;
+    }
+
+    /**
+     * Recounts the statistics rollup from the demographic table to reconcile
+     * any drift, for example after rows were changed with the triggers
+     * disabled.
+     *
+     * @return the number of rollup groups that were corrected, or -1 if the
+     * rebuild failed
+     */
+    public long rebuildStatisticsRollup() {
+        long driftedGroups = -1;
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            Number result = (Number) session.createSQLQuery(
+                    "SELECT rebuild_character_statistics_rollup()").uniqueResult();
+            session.getTransaction().commit();
+            driftedGroups = result.longValue();
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CharacterStatisticsDataAccess.rebuildStatisticsRollup.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during CharacterStatisticsDataAccess.rebuildStatisticsRollup.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return driftedGroups;
+    }
+
+    /**
+     * Converts the villain code stored in the rollup to the villain
+     * indication.
+     *
+     * @param villainCode Y for villains, N for other characters, or U
+     * @return the villain indication or null if unknown
+     */
+    private Boolean toVillain(String villainCode) {
+        if ("Y".equals(villainCode)) {
+            return Boolean.TRUE;
+        } else if ("N".equals(villainCode)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.ThreadUtil;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * This class runs the asynchronous counterparts of the data access methods.
+ * The lookups run on a dedicated executor, created on first use, with the
+ * configured number of platform threads, or with a virtual thread per lookup
+ * in the virtual task thread mode. Either way, the number of open sessions is
+ * limited by the connection permits of SessionUtil.
+ *
+ * @author Bryan Daniel
+ */
+public class DataAccessExecutor {
+
+    /**
+     * The executor running the lookups, or null before first use
+     */
+    private static ExecutorService executor;
+
+    /**
+     * Private constructor - not called
+     */
+    private DataAccessExecutor() {
+    }
+
+    /**
+     * Runs the given lookup on the executor. A lookup failing with an
+     * exception is logged and completes the future exceptionally.
+     *
+     * @param <T> the result type
+     * @param lookup the lookup
+     * @return the future of the lookup result
+     */
+    public static <T> CompletableFuture<T> supply(Supplier<T> lookup) {
+        return CompletableFuture.supplyAsync(lookup, getExecutor()).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                LogManager.getLogger(DataAccessExecutor.class).error(
+                        "Exception occurred during DataAccessExecutor.supply.", throwable);
+            }
+        });
+    }
+
+    /**
+     * Stops the executor, if it was created, interrupting the running
+     * lookups.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns the executor, creating it on first use.
+     *
+     * @return the executor
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ApplicationProperties properties = ConfigurationManager.getApplicationProperties();
+            if (ApplicationProperties.THREAD_MODE_VIRTUAL.equals(properties.getString(
+                    ApplicationProperties.TASK_THREAD_MODE))) {
+                executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("data-access-", 1).factory());
+            } else {
+                executor = Executors.newFixedThreadPool(Math.max(1, properties.getInt(
+                        ApplicationProperties.DATA_ACCESS_THREADS, ApplicationProperties.DEFAULT_DATA_ACCESS_THREADS)),
+                        ThreadUtil.daemonThreadFactory("data-access"));
+            }
+        }
+        return executor;
+    }
+}
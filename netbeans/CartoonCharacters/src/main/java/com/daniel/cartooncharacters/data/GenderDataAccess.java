@@ -17,6 +17,7 @@ package com.daniel.cartooncharacters.data;
 
 import com.daniel.cartooncharacters.entity.Gender;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Retrieves all gender information from the database.
@@ -31,4 +32,13 @@ public interface GenderDataAccess {
      * @return the list of genders in the database
      */
     public List<Gender> findAllGenders();
+
+    /**
+     * Retrieves all genders on the data access executor.
+     *
+     * @return the future of the list of genders
+     */
+    public default CompletableFuture<List<Gender>> findAllGendersAsync() {
+        return DataAccessExecutor.supply(() -> findAllGenders());
+    }
 }
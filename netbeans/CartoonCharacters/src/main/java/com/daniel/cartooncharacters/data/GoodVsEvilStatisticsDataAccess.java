@@ -16,41 +16,22 @@
 package com.daniel.cartooncharacters.data;
 
 import com.daniel.cartooncharacters.entity.Cartoon;
-import com.daniel.cartooncharacters.util.SessionUtil;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.PieChart.Data;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.hibernate.HibernateException;
-import org.hibernate.Query;
-import org.hibernate.Session;
 
 /**
  * This StatisticsDataAccess implementation provides the functionality for
  * accessing the cartoon database to collect statistics on good characters and
- * evil characters for a cartoon.
+ * evil characters for a cartoon. The counts come from the statistics rollup
+ * read by the CharacterStatisticsDataAccess.
  *
  * @author Bryan Daniel
  */
 public class GoodVsEvilStatisticsDataAccess implements StatisticsDataAccess {
 
-    /**
-     * The logger for this class
-     */
-    private Logger logger;
-
-    /**
-     * Sets the value for the logger.
-     */
-    public GoodVsEvilStatisticsDataAccess() {
-        logger = LogManager.getLogger(GoodVsEvilStatisticsDataAccess.class);
-    }
-
     /**
      * This method collects good/evil statistics for the given cartoon.
      *
@@ -60,45 +41,11 @@ public class GoodVsEvilStatisticsDataAccess implements StatisticsDataAccess {
     @Override
     public List<Data> findStatistics(Cartoon cartoon) {
         ObservableList<PieChart.Data> statistics = FXCollections.observableArrayList();
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-
-            StringBuilder queryString = new StringBuilder();
-            queryString.append("SELECT COUNT(*) FROM CharacterDemographic");
-            Query query = session.createQuery(queryString.toString());
-            Long longTotalCount = (Long) query.uniqueResult();
-
-            queryString.setLength(0);
-            queryString.append("SELECT COUNT(*) FROM CharacterDemographic cd ");
-            queryString.append("WHERE cd.villain = TRUE");
-            query = session.createQuery(queryString.toString());
-            Long evilCount = (Long) query.uniqueResult();
-
-            queryString.setLength(0);
-            queryString.append("SELECT COUNT(*) FROM CharacterDemographic cd ");
-            queryString.append("WHERE cd.villain = FALSE");
-            query = session.createQuery(queryString.toString());
-            Long goodCount = (Long) query.uniqueResult();
-
-            queryString.setLength(0);
-            queryString.append("SELECT COUNT(*) FROM CharacterDemographic cd ");
-            queryString.append("WHERE cd.villain = NULL");
-            query = session.createQuery(queryString.toString());
-            Long unknownCount = (Long) query.uniqueResult();
-
-            BigDecimal totalCount = new BigDecimal(longTotalCount);
-
-            statistics.addAll(new PieChart.Data("evil", new BigDecimal(evilCount).divide(totalCount, 2, RoundingMode.HALF_UP).doubleValue()),
-                    new PieChart.Data("good", new BigDecimal(goodCount).divide(totalCount, 2, RoundingMode.HALF_UP).doubleValue()),
-                    new PieChart.Data("unknown", new BigDecimal(unknownCount).divide(totalCount, 2, RoundingMode.HALF_UP).doubleValue()));
-
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during GenderStatisticsDataAccess.findStatistics.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during GenderStatisticsDataAccess.findStatistics.", e);
-        } finally {
-            SessionUtil.close(session);
+        CharacterStatistics counts = new CharacterStatisticsDataAccess().findCharacterStatistics(cartoon);
+        if (counts.getTotalCount() > 0) {
+            statistics.addAll(new PieChart.Data("evil", counts.getShare(counts.getVillainCount(Boolean.TRUE))),
+                    new PieChart.Data("good", counts.getShare(counts.getVillainCount(Boolean.FALSE))),
+                    new PieChart.Data("unknown", counts.getShare(counts.getVillainCount(null))));
         }
         return statistics;
     }
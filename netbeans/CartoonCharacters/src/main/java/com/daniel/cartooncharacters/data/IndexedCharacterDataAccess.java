@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.entity.CharacterDemographic;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+
+/**
+ * This CharacterDataAccess implementation answers character searches from the
+ * in-memory CharacterSearchIndex and loads only the matching characters by
+ * primary key. Search result pages are built from the index alone, ordered by
+ * name and identifier. The index sorts the results once per search, and the
+ * continuation token holds the identifier and name of the last character of
+ * the page in the form used by the database query, so the next page starts
+ * with a binary search. Until the index is loaded, searches fall back to the
+ * database query. All other operations are delegated to
+ * SimpleCharacterDataAccess.
+ *
+ * @author Bryan Daniel
+ */
+public class IndexedCharacterDataAccess implements PagedCharacterDataAccess {
+
+    /**
+     * The maximum number of identifiers in one IN clause
+     */
+    private static final int ID_BATCH_SIZE = 1000;
+
+    /**
+     * The data access object for operations not served by the index
+     */
+    private final PagedCharacterDataAccess databaseDataAccess;
+
+    /**
+     * The logger for this class
+     */
+    private Logger logger;
+
+    /**
+     * Sets the value for the logger and the delegate data access object.
+     */
+    public IndexedCharacterDataAccess() {
+        logger = LogManager.getLogger(IndexedCharacterDataAccess.class);
+        databaseDataAccess = new SimpleCharacterDataAccess();
+    }
+
+    @Override
+    public List<CartoonCharacter> findCartoonCharacters(String characterName, String cartoonTitle) {
+        CharacterSearchIndex index = CharacterSearchIndex.getInstance();
+        if (index == null) {
+            return databaseDataAccess.findCartoonCharacters(characterName, cartoonTitle);
+        }
+
+        List<Long> matchingIds = index.search(characterName, cartoonTitle);
+        ArrayList<CartoonCharacter> matchingCharacters = new ArrayList<>();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            Query query = session.createQuery("FROM CartoonCharacter ch WHERE ch.characterId IN (:characterIds)");
+            for (int start = 0; start < matchingIds.size(); start += ID_BATCH_SIZE) {
+                query.setParameterList("characterIds",
+                        matchingIds.subList(start, Math.min(start + ID_BATCH_SIZE, matchingIds.size())));
+                List list = query.list();
+                list.forEach((o) -> {
+                    matchingCharacters.add((CartoonCharacter) o);
+                });
+            }
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during IndexedCharacterDataAccess.findCartoonCharacters.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during IndexedCharacterDataAccess.findCartoonCharacters.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return matchingCharacters;
+    }
+
+    @Override
+    public CharacterPage findCartoonCharacterPage(String characterName, String cartoonTitle,
+            String continuationToken, int pageSize, QueryCanceller canceller) {
+        CharacterSearchIndex index = CharacterSearchIndex.getInstance();
+        if (index == null) {
+            return databaseDataAccess.findCartoonCharacterPage(characterName, cartoonTitle, continuationToken,
+                    pageSize, canceller);
+        }
+
+        List<CharacterSearchResult> matchingResults = index.sortedSearchResults(characterName, cartoonTitle);
+        int start = 0;
+        if (continuationToken != null) {
+            try {
+                String decodedToken = new String(Base64.getUrlDecoder().decode(continuationToken),
+                        StandardCharsets.UTF_8);
+                int separatorIndex = decodedToken.indexOf(SimpleCharacterDataAccess.TOKEN_SEPARATOR);
+                CharacterSearchResult lastResult = new CharacterSearchResult(
+                        Long.valueOf(decodedToken.substring(0, separatorIndex)),
+                        decodedToken.substring(separatorIndex + 1), null, null, null);
+                int position = Collections.binarySearch(matchingResults, lastResult,
+                        CharacterSearchIndex.RESULT_ORDER);
+                start = position >= 0 ? position + 1 : -position - 1;
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                logger.error("The continuation token could not be parsed in IndexedCharacterDataAccess.findCartoonCharacterPage.", e);
+            }
+        }
+        int end = Math.min(start + pageSize, matchingResults.size());
+        if (start >= end) {
+            return new CharacterPage(new ArrayList<>(), null);
+        }
+        String nextToken = null;
+        if (end < matchingResults.size()) {
+            CharacterSearchResult lastResult = matchingResults.get(end - 1);
+            nextToken = Base64.getUrlEncoder().encodeToString((lastResult.getCharacterId()
+                    + String.valueOf(SimpleCharacterDataAccess.TOKEN_SEPARATOR) + lastResult.getCharacterName())
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return new CharacterPage(new ArrayList<>(matchingResults.subList(start, end)), nextToken);
+    }
+
+    @Override
+    public CartoonCharacter findCartoonCharacter(Long characterId) {
+        return databaseDataAccess.findCartoonCharacter(characterId);
+    }
+
+    @Override
+    public CartoonCharacter findCartoonCharacter(String characterName, CartoonLocation cartoonLocation) {
+        return databaseDataAccess.findCartoonCharacter(characterName, cartoonLocation);
+    }
+
+    @Override
+    public List<String> findCartoonCharacterNames(CartoonLocation cartoonLocation) {
+        return databaseDataAccess.findCartoonCharacterNames(cartoonLocation);
+    }
+
+    @Override
+    public boolean addCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic) {
+        return databaseDataAccess.addCharacter(cartoonCharacter, characterDemographic);
+    }
+
+    @Override
+    public int addCharacters(List<CartoonCharacter> cartoonCharacters,
+            List<CharacterDemographic> characterDemographics) {
+        return databaseDataAccess.addCharacters(cartoonCharacters, characterDemographics);
+    }
+
+    @Override
+    public boolean updateCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic) {
+        return databaseDataAccess.updateCharacter(cartoonCharacter, characterDemographic);
+    }
+}
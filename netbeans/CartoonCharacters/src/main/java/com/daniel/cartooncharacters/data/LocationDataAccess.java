@@ -18,6 +18,7 @@ package com.daniel.cartooncharacters.data;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This interface provides the functionality for accessing the cartoon database
@@ -61,4 +62,47 @@ public interface LocationDataAccess {
      * @return true if successful, false otherwise
      */
     public boolean updateLocation(CartoonLocation cartoonLocation);
+
+    /**
+     * Retrieves the names of the locations in the given cartoon on the data
+     * access executor.
+     *
+     * @param cartoon the cartoon
+     * @return the future of the list of location names
+     */
+    public default CompletableFuture<List<String>> findCartoonLocationNamesAsync(Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> findCartoonLocationNames(cartoon));
+    }
+
+    /**
+     * Searches for the location with the given name in the given cartoon on
+     * the data access executor.
+     *
+     * @param locationName the name of the location
+     * @param cartoon the cartoon
+     * @return the future of the location found
+     */
+    public default CompletableFuture<CartoonLocation> findCartoonLocationAsync(String locationName, Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> findCartoonLocation(locationName, cartoon));
+    }
+
+    /**
+     * Adds a new location on the data access executor.
+     *
+     * @param cartoonLocation the location to add
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> addLocationAsync(CartoonLocation cartoonLocation) {
+        return DataAccessExecutor.supply(() -> addLocation(cartoonLocation));
+    }
+
+    /**
+     * Updates an existing location on the data access executor.
+     *
+     * @param cartoonLocation the location to update
+     * @return the future of true if successful, false otherwise
+     */
+    public default CompletableFuture<Boolean> updateLocationAsync(CartoonLocation cartoonLocation) {
+        return DataAccessExecutor.supply(() -> updateLocation(cartoonLocation));
+    }
 }
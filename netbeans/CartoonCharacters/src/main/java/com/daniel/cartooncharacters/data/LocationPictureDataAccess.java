@@ -15,7 +15,6 @@
  */
 package com.daniel.cartooncharacters.data;
 
-import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.LocationPicture;
 import com.daniel.cartooncharacters.util.SessionUtil;
 import java.util.ArrayList;
@@ -23,6 +22,7 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.criterion.Restrictions;
@@ -50,6 +50,8 @@ public class LocationPictureDataAccess {
 
     /**
      * This method searches for pictures associated with a cartoon location.
+     * The recorded details of each picture file are joined in the same
+     * query.
      *
      * @param entityIdentifier the identifier of the location
      * @return the list of pictures found with location identifiers matching the
@@ -62,6 +64,7 @@ public class LocationPictureDataAccess {
         try {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(LocationPicture.class);
+            criteria.setFetchMode("metadata", FetchMode.JOIN);
             criteria.add(Restrictions.eq("cartoonLocation.locationId", entityIdentifier));
             List list = criteria.list();
             list.forEach((o) -> {
@@ -76,85 +79,4 @@ public class LocationPictureDataAccess {
         }
         return pictures;
     }
-
-    /**
-     * Finds and returns the cartoon location picture with values matching the
-     * given image location and cartoon location.
-     *
-     * @param newImagePath the image location
-     * @param cartoonLocation the cartoon location
-     * @return the picture found
-     */
-    public LocationPicture findLocationPicture(String newImagePath, CartoonLocation cartoonLocation) {
-        LocationPicture locationPictureFound = null;
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            Criteria criteria = session.createCriteria(LocationPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", newImagePath));
-            criteria.add(Restrictions.eq("cartoonLocation", cartoonLocation));
-            locationPictureFound = (LocationPicture) criteria.uniqueResult();
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during LocationPictureDataAccess.findLocationPicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during LocationPictureDataAccess.findLocationPicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return locationPictureFound;
-    }
-
-    /**
-     * This method adds a new location picture record to the database.
-     *
-     * @param picture the location picture to add
-     * @return true if successful, false otherwise
-     */
-    public boolean savePicture(LocationPicture picture) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            session.persist((LocationPicture) picture);
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during LocationPictureDataAccess.savePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during LocationPictureDataAccess.savePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
-
-    /**
-     * This method deletes all records of the specified location picture from
-     * the location picture table.
-     *
-     * @param pictureLocation the path of the location picture
-     * @return true if successful, false otherwise
-     */
-    public boolean deletePicture(String pictureLocation) {
-        Session session = null;
-        try {
-            session = SessionUtil.getNewSession();
-            session.getTransaction().begin();
-            Criteria criteria = session.createCriteria(LocationPicture.class);
-            criteria.add(Restrictions.eq("pictureLocation", pictureLocation));
-            List<LocationPicture> picturesToDelete = (List<LocationPicture>) criteria.list();
-            for (LocationPicture pictureToDelete : picturesToDelete) {
-                session.delete((LocationPicture) pictureToDelete);
-            }
-            session.getTransaction().commit();
-            return true;
-        } catch (HibernateException he) {
-            logger.error("HibernateException exception occurred during LocationPictureDataAccess.deletePicture.", he);
-        } catch (Exception e) {
-            logger.error("Exception occurred during LocationPictureDataAccess.deletePicture.", e);
-        } finally {
-            SessionUtil.close(session);
-        }
-        return false;
-    }
 }
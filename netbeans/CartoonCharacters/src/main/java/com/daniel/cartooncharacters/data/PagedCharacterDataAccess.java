@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+/**
+ * This interface adds paginated character searches to CharacterDataAccess.
+ * Each page holds read-only search results rather than character entities and
+ * carries a continuation token marking where the next page starts.
+ *
+ * @author Bryan Daniel
+ */
+public interface PagedCharacterDataAccess extends CharacterDataAccess {
+
+    /**
+     * This method searches for one page of cartoon characters with values
+     * similar to the given name and cartoon title. A query cancelled through
+     * the canceller returns an empty page.
+     *
+     * @param characterName the name of the cartoon character
+     * @param cartoonTitle the title of the cartoon
+     * @param continuationToken the token from the previous page, or null for
+     * the first page
+     * @param pageSize the maximum number of characters on the page
+     * @param canceller the canceller of the query, or null
+     * @return the page of search results found
+     */
+    public CharacterPage findCartoonCharacterPage(String characterName, String cartoonTitle,
+            String continuationToken, int pageSize, QueryCanceller canceller);
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.SQLQuery;
+import org.hibernate.Session;
+import org.hibernate.type.StringType;
+
+/**
+ * This class records and queries the details of picture files in the picture
+ * metadata table, which holds one row per picture path used by the cartoon,
+ * location, or character picture tables.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureMetadataDataAccess {
+
+    /**
+     * The maximum number of rows written by one insert
+     */
+    private static final int SAVE_BATCH_SIZE = 500;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public PictureMetadataDataAccess() {
+        logger = LogManager.getLogger(PictureMetadataDataAccess.class);
+    }
+
+    /**
+     * This method records the given details in one transaction, with one
+     * insert per batch of pictures that replaces the details recorded earlier
+     * for the same picture paths. The original name recorded first for a
+     * picture path is kept.
+     *
+     * @param metadata the details of the picture files
+     * @return true if the details were recorded, false otherwise
+     */
+    public boolean saveMetadata(Collection<PictureMetadata> metadata) {
+        if (metadata.isEmpty()) {
+            return true;
+        }
+        Map<String, PictureMetadata> metadataByLocation = new LinkedHashMap<>();
+        metadata.forEach((pictureMetadata) -> metadataByLocation.put(pictureMetadata.getPictureLocation(),
+                pictureMetadata));
+        List<PictureMetadata> rows = new ArrayList<>(metadataByLocation.values());
+        long startTime = System.nanoTime();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            for (int from = 0; from < rows.size(); from += SAVE_BATCH_SIZE) {
+                saveBatch(session, rows.subList(from, Math.min(rows.size(), from + SAVE_BATCH_SIZE)));
+            }
+            session.getTransaction().commit();
+            logger.info(MessageFormat.format("Recorded the details of {0} pictures in {1} ms.", rows.size(),
+                    (System.nanoTime() - startTime) / 1000000));
+            return true;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureMetadataDataAccess.saveMetadata.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureMetadataDataAccess.saveMetadata.", e);
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        return false;
+    }
+
+    /**
+     * Inserts or replaces the details of the given pictures with one
+     * statement, passing each column as an array.
+     *
+     * @param session the session
+     * @param rows the details of the pictures, one per picture path
+     */
+    private void saveBatch(Session session, List<PictureMetadata> rows) {
+        session.doWork((connection) -> {
+            String[] locations = new String[rows.size()];
+            Long[] byteSizes = new Long[rows.size()];
+            Integer[] widths = new Integer[rows.size()];
+            Integer[] heights = new Integer[rows.size()];
+            String[] formats = new String[rows.size()];
+            String[] contentHashes = new String[rows.size()];
+            Timestamp[] modifiedTimes = new Timestamp[rows.size()];
+            String[] originalNames = new String[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                PictureMetadata row = rows.get(i);
+                locations[i] = row.getPictureLocation();
+                byteSizes[i] = row.getByteSize();
+                widths[i] = row.getWidth();
+                heights[i] = row.getHeight();
+                formats[i] = row.getFormat();
+                contentHashes[i] = row.getContentHash();
+                modifiedTimes[i] = row.getModifiedTime() != null ? new Timestamp(row.getModifiedTime().getTime())
+                        : null;
+                originalNames[i] = row.getOriginalName();
+            }
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO picture_metadata "
+                    + "(picture_location, byte_size, width, height, format, content_hash, modified_time, "
+                    + "original_name) SELECT * FROM unnest(?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (picture_location) DO UPDATE SET byte_size = EXCLUDED.byte_size, "
+                    + "width = EXCLUDED.width, height = EXCLUDED.height, format = EXCLUDED.format, "
+                    + "content_hash = EXCLUDED.content_hash, modified_time = EXCLUDED.modified_time, "
+                    + "original_name = COALESCE(picture_metadata.original_name, EXCLUDED.original_name)")) {
+                statement.setArray(1, connection.createArrayOf("varchar", locations));
+                statement.setArray(2, connection.createArrayOf("int8", byteSizes));
+                statement.setArray(3, connection.createArrayOf("int4", widths));
+                statement.setArray(4, connection.createArrayOf("int4", heights));
+                statement.setArray(5, connection.createArrayOf("varchar", formats));
+                statement.setArray(6, connection.createArrayOf("varchar", contentHashes));
+                statement.setArray(7, connection.createArrayOf("timestamp", modifiedTimes));
+                statement.setArray(8, connection.createArrayOf("varchar", originalNames));
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * This method finds the details recorded for the picture with the given
+     * path.
+     *
+     * @param pictureLocation the path of the picture
+     * @return the details, or null if none are recorded
+     */
+    public PictureMetadata findMetadata(String pictureLocation) {
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            return (PictureMetadata) session.get(PictureMetadata.class, pictureLocation);
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureMetadataDataAccess.findMetadata.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureMetadataDataAccess.findMetadata.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return null;
+    }
+
+    /**
+     * This method finds the paths used by the cartoon, location, or character
+     * picture tables for which no details are recorded, with one anti-join
+     * per table.
+     *
+     * @return the paths of the pictures without details
+     */
+    public List<String> findLocationsWithoutMetadata() {
+        List<String> locations = new ArrayList<>();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            SQLQuery query = session.createSQLQuery("SELECT p.picture_location FROM cartoon_picture p "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM picture_metadata m WHERE m.picture_location = p.picture_location) "
+                    + "UNION SELECT p.picture_location FROM location_picture p "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM picture_metadata m WHERE m.picture_location = p.picture_location) "
+                    + "UNION SELECT p.picture_location FROM character_picture p "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM picture_metadata m WHERE m.picture_location = p.picture_location)");
+            query.addScalar("picture_location", StringType.INSTANCE);
+            for (Object location : query.list()) {
+                locations.add((String) location);
+            }
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during "
+                    + "PictureMetadataDataAccess.findLocationsWithoutMetadata.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureMetadataDataAccess.findLocationsWithoutMetadata.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return locations;
+    }
+
+    /**
+     * This method finds the paths used by the cartoon, location, or character
+     * picture tables that lie inside the directory with the given path.
+     *
+     * @param directoryLocation the path of the directory, in the form of the
+     * picture paths
+     * @return the paths of the pictures inside the directory
+     */
+    public List<String> findLocationsUnder(String directoryLocation) {
+        List<String> locations = new ArrayList<>();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            SQLQuery query = session.createSQLQuery("SELECT picture_location FROM cartoon_picture "
+                    + "WHERE left(picture_location, length(:prefix)) = :prefix "
+                    + "UNION SELECT picture_location FROM location_picture "
+                    + "WHERE left(picture_location, length(:prefix)) = :prefix "
+                    + "UNION SELECT picture_location FROM character_picture "
+                    + "WHERE left(picture_location, length(:prefix)) = :prefix");
+            query.addScalar("picture_location", StringType.INSTANCE);
+            query.setParameter("prefix", directoryLocation.endsWith(File.separator) ? directoryLocation
+                    : directoryLocation + File.separator);
+            for (Object location : query.list()) {
+                locations.add((String) location);
+            }
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureMetadataDataAccess.findLocationsUnder.",
+                    he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureMetadataDataAccess.findLocationsUnder.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return locations;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+
+/**
+ * This class registers pictures in the cartoon, location, and character
+ * picture tables. A picture is inserted only if the table holds no record with
+ * the same path and owner, which the UK_picture_* unique constraints decide in
+ * the same statement, so registering a picture takes one round trip and
+ * concurrent registrations of the same picture cannot both succeed.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureRegistrationDataAccess {
+
+    /**
+     * The enum naming the picture tables and their owner columns
+     */
+    public enum PictureTable {
+
+        /**
+         * The pictures of cartoons
+         */
+        CARTOON("cartoon_picture", "cartoon_id"),
+        /**
+         * The pictures of cartoon locations
+         */
+        LOCATION("location_picture", "location_id"),
+        /**
+         * The pictures of cartoon characters
+         */
+        CHARACTER("character_picture", "character_id");
+
+        /**
+         * The name of the picture table
+         */
+        final String tableName;
+
+        /**
+         * The name of the column holding the owner identifier
+         */
+        final String ownerColumn;
+
+        /**
+         * Sets the table and owner column names.
+         *
+         * @param tableName the name of the picture table
+         * @param ownerColumn the name of the owner identifier column
+         */
+        private PictureTable(String tableName, String ownerColumn) {
+            this.tableName = tableName;
+            this.ownerColumn = ownerColumn;
+        }
+    }
+
+    /**
+     * The maximum number of picture paths bound to one insert statement
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public PictureRegistrationDataAccess() {
+        logger = LogManager.getLogger(PictureRegistrationDataAccess.class);
+    }
+
+    /**
+     * This method registers the picture with the given path for the given
+     * owner unless it is already registered.
+     *
+     * @param table the picture table
+     * @param ownerId the identifier of the cartoon, location, or character
+     * @param pictureLocation the path of the picture
+     * @return true if the picture was registered, false if it was already
+     * registered or the insert failed
+     */
+    public boolean registerPicture(PictureTable table, Long ownerId, String pictureLocation) {
+        List<String> registered = registerPictures(table, ownerId, Collections.singletonList(pictureLocation));
+        return registered != null && !registered.isEmpty();
+    }
+
+    /**
+     * This method registers the pictures with the given paths for the given
+     * owner in one transaction, skipping the pictures already registered. Up
+     * to 500 pictures are inserted per statement. The paths are locked for the
+     * transaction first, so the deletion of unused pictures waits for the
+     * registration and then sees it.
+     *
+     * @param table the picture table
+     * @param ownerId the identifier of the cartoon, location, or character
+     * @param pictureLocations the paths of the pictures
+     * @return the paths of the pictures registered by this call, or null if
+     * the insert failed
+     */
+    public List<String> registerPictures(PictureTable table, Long ownerId, Collection<String> pictureLocations) {
+        List<String> locations = new ArrayList<>(new LinkedHashSet<>(pictureLocations));
+        List<String> registered = new ArrayList<>();
+        if (locations.isEmpty()) {
+            return registered;
+        }
+        long startTime = System.nanoTime();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            for (int from = 0; from < locations.size(); from += INSERT_BATCH_SIZE) {
+                List<String> batch = locations.subList(from, Math.min(locations.size(), from + INSERT_BATCH_SIZE));
+                lockLocations(session, batch);
+                session.doWork((connection) -> {
+                    try (PreparedStatement statement = connection.prepareStatement("INSERT INTO "
+                            + table.tableName + " (picture_location, " + table.ownerColumn + ") "
+                            + "SELECT location, ? FROM unnest(?) AS location "
+                            + "ON CONFLICT (picture_location, " + table.ownerColumn + ") DO NOTHING "
+                            + "RETURNING picture_location")) {
+                        statement.setLong(1, ownerId);
+                        statement.setArray(2, connection.createArrayOf("varchar", batch.toArray()));
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                registered.add(resultSet.getString(1));
+                            }
+                        }
+                    }
+                });
+            }
+            session.getTransaction().commit();
+            logger.info(MessageFormat.format("Registered {0} of {1} pictures in {2} in {3} ms.", registered.size(),
+                    locations.size(), table.tableName, (System.nanoTime() - startTime) / 1000000));
+            return registered;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureRegistrationDataAccess.registerPictures.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureRegistrationDataAccess.registerPictures.", e);
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        return null;
+    }
+
+    /**
+     * Takes the advisory lock of each of the given picture paths for the
+     * transaction of the session, in the order of the lock keys so that two
+     * transactions never wait for each other. The picture registrations and
+     * the deletion of unused pictures take the same locks.
+     *
+     * @param session the session of the transaction
+     * @param locations the paths of the pictures
+     */
+    static void lockLocations(Session session, List<String> locations) {
+        session.doWork((connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT count(pg_advisory_xact_lock(k)) "
+                    + "FROM (SELECT DISTINCT hashtext(location) AS k FROM unnest(?) AS location ORDER BY k) AS keys")) {
+                statement.setArray(1, connection.createArrayOf("varchar", locations.toArray()));
+                statement.executeQuery().close();
+            }
+        });
+    }
+}
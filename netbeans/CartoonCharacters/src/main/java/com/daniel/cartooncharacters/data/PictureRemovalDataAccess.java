@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+
+/**
+ * This class removes the records of pictures from the cartoon, location, and
+ * character picture tables. The records of one owner are removed when a user
+ * deletes pictures, since a stored picture may be shared by several owners,
+ * and all records of the given paths are removed when the picture files are
+ * gone. The records are removed with set-based deletes in one transaction, and
+ * the recorded details of a picture are removed in the same transaction once
+ * no table refers to its path.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureRemovalDataAccess {
+
+    /**
+     * The entity names of the picture tables
+     */
+    private static final String[] PICTURE_ENTITIES = {"CartoonPicture", "LocationPicture", "CharacterPicture"};
+
+    /**
+     * The maximum number of picture paths bound to one delete statement
+     */
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public PictureRemovalDataAccess() {
+        logger = LogManager.getLogger(PictureRemovalDataAccess.class);
+    }
+
+    /**
+     * This method deletes the records of the pictures with the given paths
+     * that belong to the given owner, in one transaction. The files of the
+     * pictures no other record uses are deleted afterwards with
+     * deleteUnreferencedPictures, which checks the references again under
+     * lock, so two owners removing a shared picture at once cannot both leave
+     * its file behind.
+     *
+     * @param table the picture table of the owner
+     * @param ownerId the identifier of the cartoon, location, or character
+     * @param pictureLocations the paths of the pictures
+     * @return the number of picture records deleted, or -1 if the transaction
+     * failed
+     */
+    public int deletePictures(PictureTable table, Long ownerId, Collection<String> pictureLocations) {
+        List<String> locations = new ArrayList<>(new LinkedHashSet<>(pictureLocations));
+        if (locations.isEmpty()) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        int deletedCount = 0;
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            for (int from = 0; from < locations.size(); from += DELETE_BATCH_SIZE) {
+                List<String> batch = locations.subList(from, Math.min(locations.size(), from + DELETE_BATCH_SIZE));
+                // only the picture table is invalidated, not every cache region
+                deletedCount += session.createSQLQuery("DELETE FROM " + table.tableName
+                        + " WHERE picture_location IN (:locations) AND " + table.ownerColumn + " = :ownerId")
+                        .addSynchronizedQuerySpace(table.tableName)
+                        .setParameterList("locations", batch).setParameter("ownerId", ownerId).executeUpdate();
+            }
+            session.getTransaction().commit();
+            logger.info(MessageFormat.format("Deleted {0} records of {1} pictures from {2} in {3} ms.", deletedCount,
+                    locations.size(), table.tableName, (System.nanoTime() - startTime) / 1000000));
+            return deletedCount;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureRemovalDataAccess.deletePictures.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureRemovalDataAccess.deletePictures.", e);
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        return -1;
+    }
+
+    /**
+     * This method deletes all records of the pictures with the given paths
+     * from the three picture tables, and their recorded details, in one
+     * transaction.
+     *
+     * @param pictureLocations the paths of the pictures
+     * @return the number of picture records deleted, or -1 if the transaction
+     * failed
+     */
+    public int deletePictures(Collection<String> pictureLocations) {
+        List<String> locations = new ArrayList<>(new LinkedHashSet<>(pictureLocations));
+        if (locations.isEmpty()) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        int deletedCount = 0;
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            for (int from = 0; from < locations.size(); from += DELETE_BATCH_SIZE) {
+                List<String> batch = locations.subList(from, Math.min(locations.size(), from + DELETE_BATCH_SIZE));
+                for (String entity : PICTURE_ENTITIES) {
+                    deletedCount += session.createQuery("DELETE FROM " + entity
+                            + " p WHERE p.pictureLocation IN (:locations)")
+                            .setParameterList("locations", batch).executeUpdate();
+                }
+                session.createQuery("DELETE FROM PictureMetadata m WHERE m.pictureLocation IN (:locations)")
+                        .setParameterList("locations", batch).executeUpdate();
+            }
+            session.getTransaction().commit();
+            logger.info(MessageFormat.format("Deleted {0} records of {1} pictures in {2} ms.", deletedCount,
+                    locations.size(), (System.nanoTime() - startTime) / 1000000));
+            return deletedCount;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during PictureRemovalDataAccess.deletePictures.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureRemovalDataAccess.deletePictures.", e);
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        return -1;
+    }
+
+    /**
+     * This method deletes the pictures with the given paths that no picture
+     * table uses, such as the pictures whose last record was removed or the
+     * pictures stored for a registration that failed. Each batch of paths is
+     * locked for its transaction with the locks the registrations take, and
+     * the references are checked under the locks, so a picture registered
+     * concurrently is never deleted. The file of each unused picture is passed
+     * to the given deleter while the locks are held, and the recorded details
+     * are deleted for the pictures whose file it deleted.
+     *
+     * @param pictureLocations the paths of the pictures
+     * @param fileDeleter deletes the file of an unused picture and returns
+     * true, or returns false if the file is kept
+     * @return the paths of the pictures deleted, or null if a transaction
+     * failed
+     */
+    public List<String> deleteUnreferencedPictures(Collection<String> pictureLocations,
+            Predicate<String> fileDeleter) {
+        List<String> locations = new ArrayList<>(new LinkedHashSet<>(pictureLocations));
+        List<String> deleted = new ArrayList<>();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            for (int from = 0; from < locations.size(); from += DELETE_BATCH_SIZE) {
+                List<String> batch = locations.subList(from, Math.min(locations.size(), from + DELETE_BATCH_SIZE));
+                session.getTransaction().begin();
+                PictureRegistrationDataAccess.lockLocations(session, batch);
+                List<String> batchDeleted = new ArrayList<>();
+                for (String location : findUnreferenced(session, batch)) {
+                    if (fileDeleter.test(location)) {
+                        batchDeleted.add(location);
+                    }
+                }
+                if (!batchDeleted.isEmpty()) {
+                    session.createQuery("DELETE FROM PictureMetadata m WHERE m.pictureLocation IN (:locations)")
+                            .setParameterList("locations", batchDeleted).executeUpdate();
+                }
+                session.getTransaction().commit();
+                deleted.addAll(batchDeleted);
+            }
+            return deleted;
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during "
+                    + "PictureRemovalDataAccess.deleteUnreferencedPictures.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during PictureRemovalDataAccess.deleteUnreferencedPictures.", e);
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the given paths that no picture table uses, with one anti-join
+     * per table.
+     *
+     * @param session the session of the transaction
+     * @param locations the paths of the pictures
+     * @return the paths not used by any picture table
+     */
+    private List<String> findUnreferenced(Session session, List<String> locations) {
+        return session.doReturningWork((connection) -> {
+            List<String> unreferenced = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT location "
+                    + "FROM unnest(?) AS location "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM cartoon_picture p WHERE p.picture_location = location) "
+                    + "AND NOT EXISTS (SELECT 1 FROM location_picture p WHERE p.picture_location = location) "
+                    + "AND NOT EXISTS (SELECT 1 FROM character_picture p WHERE p.picture_location = location)")) {
+                statement.setArray(1, connection.createArrayOf("varchar", locations.toArray()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        unreferenced.add(resultSet.getString(1));
+                    }
+                }
+            }
+            return unreferenced;
+        });
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+
+/**
+ * This class lets another thread stop a query of a data access method. The
+ * method attaches its session before querying and detaches it afterward.
+ * Cancelling while a session is attached cancels the running statement
+ * through the JDBC driver, and cancelling before the session is attached
+ * makes the method skip its query.
+ *
+ * @author Bryan Daniel
+ */
+public class QueryCanceller {
+
+    /**
+     * The session running the query, or null
+     */
+    private Session session;
+
+    /**
+     * The indication of the query being cancelled
+     */
+    private boolean cancelled;
+
+    /**
+     * Attaches the session about to run the query unless the query was
+     * already cancelled.
+     *
+     * @param session the session
+     * @return true if the query should run, false if it was cancelled
+     */
+    public synchronized boolean attach(Session session) {
+        if (cancelled) {
+            return false;
+        }
+        this.session = session;
+        return true;
+    }
+
+    /**
+     * Detaches the session once the query has finished.
+     */
+    public synchronized void detach() {
+        session = null;
+    }
+
+    /**
+     * Cancels the query, stopping the statement of an attached session. The
+     * driver sends the cancel request over a connection of its own, so this
+     * method should not be called on the JavaFX application thread.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (session != null) {
+            try {
+                session.cancelQuery();
+            } catch (HibernateException he) {
+                LogManager.getLogger(QueryCanceller.class).error(
+                        "HibernateException exception occurred during QueryCanceller.cancel.", he);
+            }
+        }
+    }
+
+    /**
+     * Returns the indication of the query being cancelled.
+     *
+     * @return true if the query was cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -55,7 +55,7 @@ public class SimpleCartoonDataAccess implements CartoonDataAccess {
         try {
             session = SessionUtil.getNewSession();
             cartoons = session.createCriteria(Cartoon.class)
-                    .setProjection(Projections.property("title")).list();
+                    .setProjection(Projections.property("title")).setCacheable(true).list();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleCartoonDataAccess.findAllCartoons.", he);
         } catch (Exception e) {
@@ -74,7 +74,7 @@ public class SimpleCartoonDataAccess implements CartoonDataAccess {
         try {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(Cartoon.class);
-            criteria.add(Restrictions.eq("title", cartoonName));
+            criteria.add(Restrictions.eq("title", cartoonName)).setCacheable(true);
             cartoon = (Cartoon) criteria.uniqueResult();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleCartoonDataAccess.findCartoon.", he);
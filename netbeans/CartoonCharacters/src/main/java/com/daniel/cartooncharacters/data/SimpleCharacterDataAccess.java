@@ -15,11 +15,16 @@
  */
 package com.daniel.cartooncharacters.data;
 
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
 import com.daniel.cartooncharacters.entity.CharacterDemographic;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
 import com.daniel.cartooncharacters.util.SessionUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,11 +37,18 @@ import org.hibernate.criterion.Restrictions;
 
 /**
  * This CharacterDataAccess implementation provides the basic functionality for
- * accessing the cartoon database to find character data.
+ * accessing the cartoon database to find character data. Paginated searches use
+ * keyset pagination on the character name and identifier.
  *
  * @author Bryan Daniel
  */
-public class SimpleCharacterDataAccess implements CharacterDataAccess {
+public class SimpleCharacterDataAccess implements PagedCharacterDataAccess {
+
+    /**
+     * The separator between the identifier and the name in a continuation
+     * token, which IndexedCharacterDataAccess writes in the same form
+     */
+    static final char TOKEN_SEPARATOR = ':';
 
     /**
      * The logger for this class
@@ -62,19 +74,19 @@ public class SimpleCharacterDataAccess implements CharacterDataAccess {
             queryString.append("WHERE ch.characterHome.locationId = l.locationId ");
             queryString.append("AND l.cartoon.cartoonId = c.cartoonId ");
             if (!characterName.isEmpty()) {
-                queryString.append("AND LOWER(ch.characterName) LIKE :characterName ");
+                queryString.append("AND LOWER(ch.characterName) LIKE :characterName ESCAPE '\\' ");
             }
             if (!cartoonTitle.isEmpty()) {
-                queryString.append("AND LOWER(c.title) LIKE :title ");
+                queryString.append("AND LOWER(c.title) LIKE :title ESCAPE '\\' ");
             }
 
             session = SessionUtil.getNewSession();
             Query query = session.createQuery(queryString.toString());
             if (!characterName.isEmpty()) {
-                query.setString("characterName", "%" + characterName.toLowerCase() + "%");
+                query.setString("characterName", "%" + escapeLikePattern(characterName.toLowerCase()) + "%");
             }
             if (!cartoonTitle.isEmpty()) {
-                query.setString("title", "%" + cartoonTitle.toLowerCase() + "%");
+                query.setString("title", "%" + escapeLikePattern(cartoonTitle.toLowerCase()) + "%");
             }
 
             List list = query.list();
@@ -92,6 +104,107 @@ public class SimpleCharacterDataAccess implements CharacterDataAccess {
         return matchingCharacters;
     }
 
+    @Override
+    public CharacterPage findCartoonCharacterPage(String characterName, String cartoonTitle,
+            String continuationToken, int pageSize, QueryCanceller canceller) {
+
+        ArrayList<CharacterSearchResult> matchingCharacters = new ArrayList<>();
+        String nextToken = null;
+        Session session = null;
+        try {
+            Long lastCharacterId = null;
+            String lastCharacterName = null;
+            if (continuationToken != null) {
+                String decodedToken = new String(Base64.getUrlDecoder().decode(continuationToken),
+                        StandardCharsets.UTF_8);
+                int separatorIndex = decodedToken.indexOf(TOKEN_SEPARATOR);
+                lastCharacterId = Long.valueOf(decodedToken.substring(0, separatorIndex));
+                lastCharacterName = decodedToken.substring(separatorIndex + 1);
+            }
+
+            StringBuilder queryString = new StringBuilder();
+            queryString.append("SELECT ch.characterId, ch.characterName, c.title, l.locationId, c.cartoonId ");
+            queryString.append("FROM CartoonCharacter ch, CartoonLocation l, Cartoon c ");
+            queryString.append("WHERE ch.characterHome.locationId = l.locationId ");
+            queryString.append("AND l.cartoon.cartoonId = c.cartoonId ");
+            if (!characterName.isEmpty()) {
+                queryString.append("AND LOWER(ch.characterName) LIKE :characterName ESCAPE '\\' ");
+            }
+            if (!cartoonTitle.isEmpty()) {
+                queryString.append("AND LOWER(c.title) LIKE :title ESCAPE '\\' ");
+            }
+            if (lastCharacterId != null) {
+                queryString.append("AND (ch.characterName > :lastCharacterName ");
+                queryString.append("OR (ch.characterName = :lastCharacterName AND ch.characterId > :lastCharacterId)) ");
+            }
+            queryString.append("ORDER BY ch.characterName, ch.characterId");
+
+            session = SessionUtil.getNewSession();
+            if (canceller != null && !canceller.attach(session)) {
+                return new CharacterPage(new ArrayList<>(), null);
+            }
+            Query query = session.createQuery(queryString.toString());
+            query.setReadOnly(true);
+            if (!characterName.isEmpty()) {
+                query.setString("characterName", "%" + escapeLikePattern(characterName.toLowerCase()) + "%");
+            }
+            if (!cartoonTitle.isEmpty()) {
+                query.setString("title", "%" + escapeLikePattern(cartoonTitle.toLowerCase()) + "%");
+            }
+            if (lastCharacterId != null) {
+                query.setString("lastCharacterName", lastCharacterName);
+                query.setLong("lastCharacterId", lastCharacterId);
+            }
+            // one extra row shows whether another page follows
+            query.setMaxResults(pageSize + 1);
+
+            List list = query.list();
+            for (int i = 0; i < list.size() && i < pageSize; i++) {
+                Object[] row = (Object[]) list.get(i);
+                matchingCharacters.add(new CharacterSearchResult((Long) row[0], (String) row[1], (String) row[2],
+                        (Long) row[3], (Long) row[4]));
+            }
+            if (list.size() > pageSize) {
+                CharacterSearchResult lastCharacter = matchingCharacters.get(pageSize - 1);
+                nextToken = Base64.getUrlEncoder().encodeToString((lastCharacter.getCharacterId()
+                        + String.valueOf(TOKEN_SEPARATOR) + lastCharacter.getCharacterName())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+
+        } catch (HibernateException he) {
+            if (canceller != null && canceller.isCancelled()) {
+                logger.info("The character search was cancelled.");
+            } else {
+                logger.error("HibernateException exception occurred during SimpleCharacterDataAccess.findCartoonCharacterPage.", he);
+            }
+        } catch (Exception e) {
+            logger.error("Exception occurred during SimpleCharacterDataAccess.findCartoonCharacterPage.", e);
+        } finally {
+            if (canceller != null) {
+                canceller.detach();
+            }
+            SessionUtil.close(session);
+        }
+        return new CharacterPage(matchingCharacters, nextToken);
+    }
+
+    @Override
+    public CartoonCharacter findCartoonCharacter(Long characterId) {
+        CartoonCharacter cartoonCharacter = null;
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            cartoonCharacter = (CartoonCharacter) session.get(CartoonCharacter.class, characterId);
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during SimpleCharacterDataAccess.findCartoonCharacter.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during SimpleCharacterDataAccess.findCartoonCharacter.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return cartoonCharacter;
+    }
+
     @Override
     public CartoonCharacter findCartoonCharacter(String characterName, CartoonLocation cartoonLocation) {
         CartoonCharacter cartoonCharacter = null;
@@ -153,6 +266,54 @@ public class SimpleCharacterDataAccess implements CharacterDataAccess {
         return true;
     }
 
+    @Override
+    public int addCharacters(List<CartoonCharacter> cartoonCharacters,
+            List<CharacterDemographic> characterDemographics) {
+        if (cartoonCharacters.size() != characterDemographics.size()) {
+            logger.error("The numbers of characters and demographics differ in SimpleCharacterDataAccess.addCharacters.");
+            return 0;
+        }
+        ApplicationProperties properties = ConfigurationManager.getApplicationProperties();
+        int batchSize = Math.max(1, properties.getInt(ApplicationProperties.JDBC_BATCH_SIZE,
+                ApplicationProperties.DEFAULT_JDBC_BATCH_SIZE));
+        int commitSize = Math.max(1, properties.getInt(ApplicationProperties.BULK_COMMIT_SIZE,
+                ApplicationProperties.DEFAULT_BULK_COMMIT_SIZE));
+        long startTime = System.nanoTime();
+        int committedCount = 0;
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            for (int i = 0; i < cartoonCharacters.size(); i++) {
+                session.persist(cartoonCharacters.get(i));
+                session.persist(characterDemographics.get(i));
+                if ((i + 1) % commitSize == 0) {
+                    session.getTransaction().commit();
+                    session.clear();
+                    committedCount = i + 1;
+                    session.getTransaction().begin();
+                } else if ((i + 1) % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+            committedCount = cartoonCharacters.size();
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during SimpleCharacterDataAccess.addCharacters.", he);
+            rollback(session);
+        } catch (Exception e) {
+            logger.error("Exception occurred during SimpleCharacterDataAccess.addCharacters.", e);
+            rollback(session);
+        } finally {
+            SessionUtil.close(session);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Added {0} characters in {1} ms ({2} characters per second).",
+                committedCount, elapsedMillis, committedCount * 1000L / elapsedMillis));
+        return committedCount;
+    }
+
     @Override
     public boolean updateCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic) {
         Session session = null;
@@ -173,4 +334,30 @@ public class SimpleCharacterDataAccess implements CharacterDataAccess {
         }
         return true;
     }
+
+    /**
+     * Rolls back the active transaction of the given session, if any.
+     *
+     * @param session the session
+     */
+    private void rollback(Session session) {
+        if (session != null && session.getTransaction().isActive()) {
+            try {
+                session.getTransaction().rollback();
+            } catch (HibernateException he) {
+                logger.error("HibernateException exception occurred during SimpleCharacterDataAccess.rollback.", he);
+            }
+        }
+    }
+
+    /**
+     * Escapes the LIKE wildcard characters in the given value so they are
+     * matched literally with the backslash escape character.
+     *
+     * @param value the search value
+     * @return the escaped value
+     */
+    static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
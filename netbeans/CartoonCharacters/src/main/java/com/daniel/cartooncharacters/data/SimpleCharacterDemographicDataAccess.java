@@ -52,7 +52,8 @@ public class SimpleCharacterDemographicDataAccess implements CharacterDemographi
         try {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(CharacterDemographic.class);
-            criteria.add(Restrictions.eq("character.characterId", cartoonCharacter.getCharacterId()));
+            criteria.add(Restrictions.eq("character.characterId", cartoonCharacter.getCharacterId()))
+                    .setCacheable(true);
             characterDemographic = (CharacterDemographic) criteria.uniqueResult();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleCharacterDemographicDataAccess.getCharacterDemographic.", he);
@@ -49,7 +49,7 @@ public class SimpleGenderDataAccess implements GenderDataAccess {
         Session session = null;
         try {
             session = SessionUtil.getNewSession();
-            cartoons = session.createCriteria(Gender.class).list();
+            cartoons = session.createCriteria(Gender.class).setCacheable(true).list();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleGenderDataAccess.findAllGenders.", he);
         } catch (Exception e) {
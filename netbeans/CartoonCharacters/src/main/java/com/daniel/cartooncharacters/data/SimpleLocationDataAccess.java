@@ -57,6 +57,7 @@ public class SimpleLocationDataAccess implements LocationDataAccess {
             cartoonLocations = session.createCriteria(CartoonLocation.class)
                     .add(Restrictions.eq("cartoon.cartoonId", cartoon.getCartoonId()))
                     .setProjection(Projections.property("locationName"))
+                    .setCacheable(true)
                     .list();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleLocationDataAccess.findCartoonLocationNames.", he);
@@ -76,7 +77,8 @@ public class SimpleLocationDataAccess implements LocationDataAccess {
             session = SessionUtil.getNewSession();
             Criteria criteria = session.createCriteria(CartoonLocation.class);
             criteria.add(Restrictions.ilike("locationName", locationName))
-                    .add(Restrictions.eq("cartoon", cartoon));
+                    .add(Restrictions.eq("cartoon", cartoon))
+                    .setCacheable(true);
             cartoonLocation = (CartoonLocation) criteria.uniqueResult();
         } catch (HibernateException he) {
             logger.error("HibernateException exception occurred during SimpleLocationDataAccess.findCartoonLocation.", he);
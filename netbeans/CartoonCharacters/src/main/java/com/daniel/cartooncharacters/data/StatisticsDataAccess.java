@@ -17,6 +17,7 @@ package com.daniel.cartooncharacters.data;
 
 import com.daniel.cartooncharacters.entity.Cartoon;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.chart.PieChart.Data;
 
 /**
@@ -35,4 +36,15 @@ public interface StatisticsDataAccess {
      * @return the list of pie chart data
      */
     public List<Data> findStatistics(Cartoon cartoon);
+
+    /**
+     * Collects the statistics of the given cartoon on the data access
+     * executor.
+     *
+     * @param cartoon the cartoon
+     * @return the future of the list of pie chart data
+     */
+    public default CompletableFuture<List<Data>> findStatisticsAsync(Cartoon cartoon) {
+        return DataAccessExecutor.supply(() -> findStatistics(cartoon));
+    }
 }
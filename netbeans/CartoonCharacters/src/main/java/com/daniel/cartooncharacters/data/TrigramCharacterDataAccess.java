@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.entity.CharacterDemographic;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.SQLQuery;
+import org.hibernate.Session;
+import org.hibernate.type.FloatType;
+import org.hibernate.type.LongType;
+import org.hibernate.type.StringType;
+
+/**
+ * This CharacterDataAccess implementation searches characters with ILIKE
+ * predicates that are served by the pg_trgm GIN indexes on the character name
+ * and cartoon title columns. Results are ranked by trigram similarity to the
+ * search values. Search result pages are read as scalar rows with keyset
+ * pagination on the sort key of the last row, which is the continuation token,
+ * so later pages cost no more than the first. All other operations are
+ * delegated to SimpleCharacterDataAccess.
+ *
+ * @author Bryan Daniel
+ */
+public class TrigramCharacterDataAccess implements PagedCharacterDataAccess {
+
+    /**
+     * The similarity of the character name to the searched name, zero when no
+     * name is searched
+     */
+    private static final String NAME_RANK
+            = "CASE WHEN :characterName = '' THEN 0 ELSE similarity(ch.character_name, :characterName) END";
+
+    /**
+     * The similarity of the cartoon title to the searched title, zero when no
+     * title is searched
+     */
+    private static final String TITLE_RANK = "CASE WHEN :title = '' THEN 0 ELSE similarity(c.title, :title) END";
+
+    /**
+     * The data access object for operations other than the search
+     */
+    private final CharacterDataAccess databaseDataAccess;
+
+    /**
+     * The logger for this class
+     */
+    private Logger logger;
+
+    /**
+     * Sets the value for the logger and the delegate data access object.
+     */
+    public TrigramCharacterDataAccess() {
+        logger = LogManager.getLogger(TrigramCharacterDataAccess.class);
+        databaseDataAccess = new SimpleCharacterDataAccess();
+    }
+
+    @Override
+    public List<CartoonCharacter> findCartoonCharacters(String characterName, String cartoonTitle) {
+
+        ArrayList<CartoonCharacter> matchingCharacters = new ArrayList<>();
+        Session session = null;
+        try {
+            session = SessionUtil.getNewSession();
+            SQLQuery query = session.createSQLQuery("SELECT {ch.*} "
+                    + createSearchClauses(characterName, cartoonTitle, false));
+            query.addEntity("ch", CartoonCharacter.class);
+            setSearchParameters(query, characterName, cartoonTitle);
+
+            List list = query.list();
+            list.forEach((o) -> {
+                matchingCharacters.add((CartoonCharacter) o);
+            });
+
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during TrigramCharacterDataAccess.findCartoonCharacters.", he);
+        } catch (Exception e) {
+            logger.error("Exception occurred during TrigramCharacterDataAccess.findCartoonCharacters.", e);
+        } finally {
+            SessionUtil.close(session);
+        }
+        return matchingCharacters;
+    }
+
+    @Override
+    public CharacterPage findCartoonCharacterPage(String characterName, String cartoonTitle,
+            String continuationToken, int pageSize, QueryCanceller canceller) {
+
+        ArrayList<CharacterSearchResult> results = new ArrayList<>();
+        String nextToken = null;
+        Session session = null;
+        try {
+            String[] lastRow = null;
+            if (continuationToken != null) {
+                lastRow = new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8)
+                        .split(String.valueOf(SimpleCharacterDataAccess.TOKEN_SEPARATOR), 4);
+            }
+            session = SessionUtil.getNewSession();
+            if (canceller != null && !canceller.attach(session)) {
+                return new CharacterPage(new ArrayList<>(), null);
+            }
+            SQLQuery query = session.createSQLQuery("SELECT ch.character_id, ch.character_name, c.title, "
+                    + "l.location_id, c.cartoon_id, " + NAME_RANK + " AS name_rank, " + TITLE_RANK
+                    + " AS title_rank " + createSearchClauses(characterName, cartoonTitle, lastRow != null));
+            query.addScalar("character_id", LongType.INSTANCE);
+            query.addScalar("character_name", StringType.INSTANCE);
+            query.addScalar("title", StringType.INSTANCE);
+            query.addScalar("location_id", LongType.INSTANCE);
+            query.addScalar("cartoon_id", LongType.INSTANCE);
+            query.addScalar("name_rank", FloatType.INSTANCE);
+            query.addScalar("title_rank", FloatType.INSTANCE);
+            setSearchParameters(query, characterName, cartoonTitle);
+            if (lastRow != null) {
+                query.setLong("lastCharacterId", Long.parseLong(lastRow[0]));
+                query.setFloat("lastNameRank", Float.parseFloat(lastRow[1]));
+                query.setFloat("lastTitleRank", Float.parseFloat(lastRow[2]));
+                query.setString("lastCharacterName", lastRow[3]);
+            }
+            // one extra row shows whether another page follows
+            query.setMaxResults(pageSize + 1);
+
+            List list = query.list();
+            for (int i = 0; i < list.size() && i < pageSize; i++) {
+                Object[] row = (Object[]) list.get(i);
+                results.add(new CharacterSearchResult((Long) row[0], (String) row[1], (String) row[2],
+                        (Long) row[3], (Long) row[4]));
+            }
+            if (list.size() > pageSize) {
+                Object[] row = (Object[]) list.get(pageSize - 1);
+                String separator = String.valueOf(SimpleCharacterDataAccess.TOKEN_SEPARATOR);
+                nextToken = Base64.getUrlEncoder().encodeToString((row[0] + separator + row[5] + separator
+                        + row[6] + separator + row[1]).getBytes(StandardCharsets.UTF_8));
+            }
+
+        } catch (HibernateException he) {
+            if (canceller != null && canceller.isCancelled()) {
+                logger.info("The character search was cancelled.");
+            } else {
+                logger.error("HibernateException exception occurred during TrigramCharacterDataAccess.findCartoonCharacterPage.", he);
+            }
+        } catch (Exception e) {
+            logger.error("Exception occurred during TrigramCharacterDataAccess.findCartoonCharacterPage.", e);
+        } finally {
+            if (canceller != null) {
+                canceller.detach();
+            }
+            SessionUtil.close(session);
+        }
+        return new CharacterPage(results, nextToken);
+    }
+
+    @Override
+    public CartoonCharacter findCartoonCharacter(Long characterId) {
+        return databaseDataAccess.findCartoonCharacter(characterId);
+    }
+
+    @Override
+    public CartoonCharacter findCartoonCharacter(String characterName, CartoonLocation cartoonLocation) {
+        return databaseDataAccess.findCartoonCharacter(characterName, cartoonLocation);
+    }
+
+    @Override
+    public List<String> findCartoonCharacterNames(CartoonLocation cartoonLocation) {
+        return databaseDataAccess.findCartoonCharacterNames(cartoonLocation);
+    }
+
+    @Override
+    public boolean addCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic) {
+        return databaseDataAccess.addCharacter(cartoonCharacter, characterDemographic);
+    }
+
+    @Override
+    public int addCharacters(List<CartoonCharacter> cartoonCharacters,
+            List<CharacterDemographic> characterDemographics) {
+        return databaseDataAccess.addCharacters(cartoonCharacters, characterDemographics);
+    }
+
+    @Override
+    public boolean updateCharacter(CartoonCharacter cartoonCharacter, CharacterDemographic characterDemographic) {
+        return databaseDataAccess.updateCharacter(cartoonCharacter, characterDemographic);
+    }
+
+    /**
+     * Creates the FROM, WHERE, and ORDER BY clauses of the search statement.
+     * The rows are ordered by the negated similarities, the name, and the
+     * identifier, so the rows after the last row of a page are those whose
+     * sort key compares greater as a row value.
+     *
+     * @param characterName the character name to search
+     * @param cartoonTitle the cartoon title to search
+     * @param afterLastRow the indication of reading the rows after the last
+     * row of the previous page
+     * @return the search clauses
+     */
+    private String createSearchClauses(String characterName, String cartoonTitle, boolean afterLastRow) {
+        String sortKey = "-" + NAME_RANK + ", -" + TITLE_RANK + ", ch.character_name, ch.character_id";
+        StringBuilder queryString = new StringBuilder();
+        queryString.append("FROM cartoon_character ch ");
+        queryString.append("JOIN cartoon_location l ON ch.character_home = l.location_id ");
+        queryString.append("JOIN cartoon c ON l.cartoon_id = c.cartoon_id ");
+        queryString.append("WHERE TRUE ");
+        if (!characterName.isEmpty()) {
+            queryString.append("AND ch.character_name ILIKE :characterPattern ");
+        }
+        if (!cartoonTitle.isEmpty()) {
+            queryString.append("AND c.title ILIKE :titlePattern ");
+        }
+        if (afterLastRow) {
+            queryString.append("AND (").append(sortKey).append(") > (-CAST(:lastNameRank AS real), ")
+                    .append("-CAST(:lastTitleRank AS real), :lastCharacterName, :lastCharacterId) ");
+        }
+        queryString.append("ORDER BY ").append(sortKey);
+        return queryString.toString();
+    }
+
+    /**
+     * Sets the parameters used by the search clauses.
+     *
+     * @param query the search query
+     * @param characterName the character name to search
+     * @param cartoonTitle the cartoon title to search
+     */
+    private void setSearchParameters(SQLQuery query, String characterName, String cartoonTitle) {
+        query.setString("characterName", characterName);
+        query.setString("title", cartoonTitle);
+        if (!characterName.isEmpty()) {
+            query.setString("characterPattern", "%" + SimpleCharacterDataAccess.escapeLikePattern(characterName) + "%");
+        }
+        if (!cartoonTitle.isEmpty()) {
+            query.setString("titlePattern", "%" + SimpleCharacterDataAccess.escapeLikePattern(cartoonTitle) + "%");
+        }
+    }
+}
@@ -20,6 +20,7 @@ import javafx.beans.property.LongProperty;
 import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -27,6 +28,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 
 /**
@@ -36,6 +39,8 @@ import org.hibernate.annotations.NaturalId;
  */
 @Entity
 @Table(name = "cartoon")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Cartoon implements Serializable {
 
     private static final long serialVersionUID = -6896832804299724185L;
@@ -62,7 +67,7 @@ public class Cartoon implements Serializable {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CartoonSequence")
-    @SequenceGenerator(name = "CartoonSequence", sequenceName = "cartoon_cartoon_id_seq", allocationSize = 1) 
+    @SequenceGenerator(name = "CartoonSequence", sequenceName = "cartoon_cartoon_id_seq", allocationSize = 50) 
     @Column(name = "cartoon_id")
     public Long getCartoonId() {
         return cartoonId.get();
@@ -32,6 +32,8 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import javax.persistence.Transient;
 
 /**
@@ -70,13 +72,6 @@ public class CartoonCharacter implements Serializable {
      */
     private final ObjectProperty<Button> viewButton = new SimpleObjectProperty<>();
 
-    /**
-     * The default constructor creates a button to view character details.
-     */
-    public CartoonCharacter() {
-        setViewButton(new Button("Details"));
-    }
-
     /**
      * Get the value of characterId
      *
@@ -84,7 +79,7 @@ public class CartoonCharacter implements Serializable {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CharacterSequence")
-    @SequenceGenerator(name = "CharacterSequence", sequenceName = "cartoon_character_character_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "CharacterSequence", sequenceName = "cartoon_character_character_id_seq", allocationSize = 50)
     @Column(name = "character_id")
     public Long getCharacterId() {
         return characterId.get();
@@ -171,6 +166,7 @@ public class CartoonCharacter implements Serializable {
      */
     @ManyToOne
     @JoinColumn(name = "character_home")
+    @Fetch(FetchMode.SELECT)
     public CartoonLocation getCharacterHome() {
         return characterHome.get();
     }
@@ -194,12 +190,17 @@ public class CartoonCharacter implements Serializable {
     }
 
     /**
-     * Get the value of viewButton
+     * Get the value of viewButton, creating the button to view character
+     * details on first use so that characters can be loaded without a running
+     * JavaFX toolkit
      *
      * @return the value of viewButton
      */
     @Transient
     public Button getViewButton() {
+        if (viewButton.get() == null) {
+            setViewButton(new Button("Details"));
+        }
         return viewButton.get();
     }
 
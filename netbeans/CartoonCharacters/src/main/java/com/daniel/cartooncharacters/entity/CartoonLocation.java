@@ -22,6 +22,7 @@ import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -31,6 +32,10 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 /**
  * This class holds details for a cartoon location.
@@ -39,6 +44,8 @@ import javax.persistence.Table;
  */
 @Entity
 @Table(name = "cartoon_location")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CartoonLocation implements Serializable {
 
     private static final long serialVersionUID = -531718114792384574L;
@@ -70,7 +77,7 @@ public class CartoonLocation implements Serializable {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "LocationSequence")
-    @SequenceGenerator(name = "LocationSequence", sequenceName = "cartoon_location_location_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "LocationSequence", sequenceName = "cartoon_location_location_id_seq", allocationSize = 50)
     @Column(name = "location_id")
     public Long getLocationId() {
         return locationId.get();
@@ -157,6 +164,7 @@ public class CartoonLocation implements Serializable {
      */
     @ManyToOne
     @JoinColumn(name="cartoon_id")
+    @Fetch(FetchMode.SELECT)
     public Cartoon getCartoon() {
         return cartoon.get();
     }
@@ -24,6 +24,7 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -31,6 +32,8 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
 
 /**
  * This class holds details for a cartoon picture.
@@ -58,6 +61,11 @@ public class CartoonPicture implements Serializable {
      */
     private final ObjectProperty<Cartoon> cartoon = new SimpleObjectProperty<>();
     
+    /**
+     * The details of the picture file, or null if they are not recorded
+     */
+    private final ObjectProperty<PictureMetadata> metadata = new SimpleObjectProperty<>();
+    
     /**
      * Get the value of pictureId
      *
@@ -65,7 +73,7 @@ public class CartoonPicture implements Serializable {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CartoonPictureSequence")
-    @SequenceGenerator(name = "CartoonPictureSequence", sequenceName = "cartoon_picture_picture_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "CartoonPictureSequence", sequenceName = "cartoon_picture_picture_id_seq", allocationSize = 50)
     @Column(name = "picture_id")
     public Long getPictureId() {
         return pictureId.get();
@@ -145,4 +153,35 @@ public class CartoonPicture implements Serializable {
     public ObjectProperty<Cartoon> cartoonProperty() {
         return cartoon;
     }
+
+    /**
+     * Get the value of metadata, joined on the picture location
+     *
+     * @return the value of metadata
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "picture_location", referencedColumnName = "picture_location", insertable = false,
+            updatable = false)
+    @NotFound(action = NotFoundAction.IGNORE)
+    public PictureMetadata getMetadata() {
+        return metadata.get();
+    }
+
+    /**
+     * Set the value of metadata
+     *
+     * @param metadata new value of metadata
+     */
+    public void setMetadata(PictureMetadata metadata) {
+        this.metadata.set(metadata);
+    }
+
+    /**
+     * Get the metadata property
+     *
+     * @return the metadata property
+     */
+    public ObjectProperty<PictureMetadata> metadataProperty() {
+        return metadata;
+    }
 }
@@ -16,10 +16,12 @@
 package com.daniel.cartooncharacters.entity;
 
 import java.io.Serializable;
+import java.util.Objects;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -27,14 +29,22 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 /**
- * This class holds demographic data for a cartoon character.
+ * This class holds demographic data for a cartoon character. The character
+ * is the identifier, so two demographics are equal if they belong to the same
+ * character.
  *
  * @author Bryan Daniel
  */
 @Entity
 @Table(name = "character_demographic")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CharacterDemographic implements Serializable {
 
     private static final long serialVersionUID = 1044049422544578414L;
@@ -91,6 +101,7 @@ public class CharacterDemographic implements Serializable {
      */
     @ManyToOne
     @JoinColumn(name = "gender")
+    @Fetch(FetchMode.SELECT)
     public Gender getGender() {
         return gender.get();
     }
@@ -140,4 +151,35 @@ public class CharacterDemographic implements Serializable {
     public BooleanProperty villainProperty() {
         return villain;
     }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 59 * hash + Objects.hashCode(findCharacterId(getCharacter()));
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CharacterDemographic)) {
+            return false;
+        }
+        final CharacterDemographic other = (CharacterDemographic) obj;
+        Long characterId = findCharacterId(getCharacter());
+        return characterId != null && characterId.equals(findCharacterId(other.getCharacter()));
+    }
+
+    /**
+     * Returns the identifier of the given character or null if there is no
+     * character.
+     *
+     * @param cartoonCharacter the character or null
+     * @return the character identifier or null
+     */
+    private static Long findCharacterId(CartoonCharacter cartoonCharacter) {
+        return cartoonCharacter == null ? null : cartoonCharacter.getCharacterId();
+    }
 }
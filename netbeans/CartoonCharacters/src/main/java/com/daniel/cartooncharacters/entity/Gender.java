@@ -18,18 +18,26 @@ package com.daniel.cartooncharacters.entity;
 import java.io.Serializable;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 /**
- * This class holds details for a cartoon character gender.
+ * This class holds details for a cartoon character gender. The genders are
+ * never changed by the application.
  * 
  * @author Bryan Daniel
  */
 @Entity
 @Table(name = "gender")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Gender implements Serializable {
 
     private static final long serialVersionUID = 8574581741171689973L;
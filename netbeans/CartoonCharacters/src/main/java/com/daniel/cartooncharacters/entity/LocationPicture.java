@@ -24,6 +24,7 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -31,6 +32,8 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
 
 /**
  * This class holds details for a cartoon location picture.
@@ -58,6 +61,11 @@ public class LocationPicture implements Serializable {
      */
     private final ObjectProperty<CartoonLocation> cartoonLocation = new SimpleObjectProperty<>();
     
+    /**
+     * The details of the picture file, or null if they are not recorded
+     */
+    private final ObjectProperty<PictureMetadata> metadata = new SimpleObjectProperty<>();
+    
     /**
      * Get the value of pictureId
      *
@@ -65,7 +73,7 @@ public class LocationPicture implements Serializable {
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "LocationPictureSequence")
-    @SequenceGenerator(name = "LocationPictureSequence", sequenceName = "location_picture_picture_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "LocationPictureSequence", sequenceName = "location_picture_picture_id_seq", allocationSize = 50)
     @Column(name = "picture_id")
     public Long getPictureId() {
         return pictureId.get();
@@ -145,4 +153,35 @@ public class LocationPicture implements Serializable {
     public ObjectProperty<CartoonLocation> cartoonLocationProperty() {
         return cartoonLocation;
     }
+
+    /**
+     * Get the value of metadata, joined on the picture location
+     *
+     * @return the value of metadata
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "picture_location", referencedColumnName = "picture_location", insertable = false,
+            updatable = false)
+    @NotFound(action = NotFoundAction.IGNORE)
+    public PictureMetadata getMetadata() {
+        return metadata.get();
+    }
+
+    /**
+     * Set the value of metadata
+     *
+     * @param metadata new value of metadata
+     */
+    public void setMetadata(PictureMetadata metadata) {
+        this.metadata.set(metadata);
+    }
+
+    /**
+     * Get the metadata property
+     *
+     * @return the metadata property
+     */
+    public ObjectProperty<PictureMetadata> metadataProperty() {
+        return metadata;
+    }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * This class holds the details of a picture file, recorded once per picture
+ * path however many cartoons, locations, and characters use the picture. The
+ * width, height, and format are null if the file is not a recognized image.
+ *
+ * @author Bryan Daniel
+ */
+@Entity
+@Table(name = "picture_metadata")
+public class PictureMetadata implements Serializable {
+
+    private static final long serialVersionUID = 3517270964127104826L;
+
+    /**
+     * The location of the picture file
+     */
+    private final StringProperty pictureLocation = new SimpleStringProperty();
+
+    /**
+     * The size of the picture file in bytes
+     */
+    private final LongProperty byteSize = new SimpleLongProperty();
+
+    /**
+     * The width of the picture in pixels
+     */
+    private final ObjectProperty<Integer> width = new SimpleObjectProperty<>();
+
+    /**
+     * The height of the picture in pixels
+     */
+    private final ObjectProperty<Integer> height = new SimpleObjectProperty<>();
+
+    /**
+     * The format name of the picture
+     */
+    private final StringProperty format = new SimpleStringProperty();
+
+    /**
+     * The hexadecimal SHA-256 hash of the picture file
+     */
+    private final StringProperty contentHash = new SimpleStringProperty();
+
+    /**
+     * The time the picture file was last modified
+     */
+    private final ObjectProperty<Date> modifiedTime = new SimpleObjectProperty<>();
+
+    /**
+     * The name of the file the picture was first added from, or null if it is
+     * not known
+     */
+    private final StringProperty originalName = new SimpleStringProperty();
+
+    /**
+     * Get the value of pictureLocation
+     *
+     * @return the value of pictureLocation
+     */
+    @Id
+    @Column(name = "picture_location")
+    public String getPictureLocation() {
+        return pictureLocation.get();
+    }
+
+    /**
+     * Set the value of pictureLocation
+     *
+     * @param pictureLocation new value of pictureLocation
+     */
+    public void setPictureLocation(String pictureLocation) {
+        this.pictureLocation.set(pictureLocation);
+    }
+
+    /**
+     * Get the pictureLocation property
+     *
+     * @return the pictureLocation property
+     */
+    public StringProperty pictureLocationProperty() {
+        return pictureLocation;
+    }
+
+    /**
+     * Get the value of byteSize
+     *
+     * @return the value of byteSize
+     */
+    @Column(name = "byte_size")
+    public Long getByteSize() {
+        return byteSize.get();
+    }
+
+    /**
+     * Set the value of byteSize
+     *
+     * @param byteSize new value of byteSize
+     */
+    public void setByteSize(Long byteSize) {
+        this.byteSize.set(byteSize);
+    }
+
+    /**
+     * Get the byteSize property
+     *
+     * @return the byteSize property
+     */
+    public LongProperty byteSizeProperty() {
+        return byteSize;
+    }
+
+    /**
+     * Get the value of width
+     *
+     * @return the value of width
+     */
+    @Column(name = "width")
+    public Integer getWidth() {
+        return width.get();
+    }
+
+    /**
+     * Set the value of width
+     *
+     * @param width new value of width
+     */
+    public void setWidth(Integer width) {
+        this.width.set(width);
+    }
+
+    /**
+     * Get the width property
+     *
+     * @return the width property
+     */
+    public ObjectProperty<Integer> widthProperty() {
+        return width;
+    }
+
+    /**
+     * Get the value of height
+     *
+     * @return the value of height
+     */
+    @Column(name = "height")
+    public Integer getHeight() {
+        return height.get();
+    }
+
+    /**
+     * Set the value of height
+     *
+     * @param height new value of height
+     */
+    public void setHeight(Integer height) {
+        this.height.set(height);
+    }
+
+    /**
+     * Get the height property
+     *
+     * @return the height property
+     */
+    public ObjectProperty<Integer> heightProperty() {
+        return height;
+    }
+
+    /**
+     * Get the value of format
+     *
+     * @return the value of format
+     */
+    @Column(name = "format")
+    public String getFormat() {
+        return format.get();
+    }
+
+    /**
+     * Set the value of format
+     *
+     * @param format new value of format
+     */
+    public void setFormat(String format) {
+        this.format.set(format);
+    }
+
+    /**
+     * Get the format property
+     *
+     * @return the format property
+     */
+    public StringProperty formatProperty() {
+        return format;
+    }
+
+    /**
+     * Get the value of contentHash
+     *
+     * @return the value of contentHash
+     */
+    @Column(name = "content_hash")
+    public String getContentHash() {
+        return contentHash.get();
+    }
+
+    /**
+     * Set the value of contentHash
+     *
+     * @param contentHash new value of contentHash
+     */
+    public void setContentHash(String contentHash) {
+        this.contentHash.set(contentHash);
+    }
+
+    /**
+     * Get the contentHash property
+     *
+     * @return the contentHash property
+     */
+    public StringProperty contentHashProperty() {
+        return contentHash;
+    }
+
+    /**
+     * Get the value of modifiedTime
+     *
+     * @return the value of modifiedTime
+     */
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "modified_time")
+    public Date getModifiedTime() {
+        return modifiedTime.get();
+    }
+
+    /**
+     * Set the value of modifiedTime
+     *
+     * @param modifiedTime new value of modifiedTime
+     */
+    public void setModifiedTime(Date modifiedTime) {
+        this.modifiedTime.set(modifiedTime);
+    }
+
+    /**
+     * Get the modifiedTime property
+     *
+     * @return the modifiedTime property
+     */
+    public ObjectProperty<Date> modifiedTimeProperty() {
+        return modifiedTime;
+    }
+
+    /**
+     * Get the value of originalName
+     *
+     * @return the value of originalName
+     */
+    @Column(name = "original_name")
+    public String getOriginalName() {
+        return originalName.get();
+    }
+
+    /**
+     * Set the value of originalName
+     *
+     * @param originalName new value of originalName
+     */
+    public void setOriginalName(String originalName) {
+        this.originalName.set(originalName);
+    }
+
+    /**
+     * Get the originalName property
+     *
+     * @return the originalName property
+     */
+    public StringProperty originalNameProperty() {
+        return originalName;
+    }
+}
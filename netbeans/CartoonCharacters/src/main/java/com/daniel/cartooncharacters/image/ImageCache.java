@@ -0,0 +1,365 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.FileUtil;
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.image.Image;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * This class keeps the decoded pictures shown by the views, keyed by picture
+ * path, so paging back and forth or reopening a view does not decode them
+ * again. The most recently used pictures are held strongly up to the
+ * configured number of bytes, counting four bytes per pixel. Pictures evicted
+ * beyond that are held by soft references, which the garbage collector clears
+ * only under memory pressure, and are taken back when shown again.
+ * <p>
+ * Pictures are decoded from their thumbnails with background loading, so a
+ * picture can be handed to a view while it is still being decoded.
+ *
+ * @author Bryan Daniel
+ */
+public class ImageCache {
+
+    /**
+     * The cache, or null before first use
+     */
+    private static volatile ImageCache instance;
+
+    /**
+     * The maximum number of bytes of the strongly held pictures
+     */
+    private final long capacityBytes;
+
+    /**
+     * The strongly held pictures in order of use, least recent first
+     */
+    private final LinkedHashMap<String, CachedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The softly held pictures evicted from the strongly held ones
+     */
+    private final Map<String, EvictedImage> evictedImages = new HashMap<>();
+
+    /**
+     * The queue receiving the soft references cleared by the garbage
+     * collector
+     */
+    private final ReferenceQueue<Image> clearedImages = new ReferenceQueue<>();
+
+    /**
+     * The number of bytes of the strongly held pictures
+     */
+    private long sizeBytes;
+
+    /**
+     * The number of requests answered by a strongly held picture
+     */
+    private long hitCount;
+
+    /**
+     * The number of requests answered by a softly held picture
+     */
+    private long softHitCount;
+
+    /**
+     * The number of requests finding no picture
+     */
+    private long missCount;
+
+    /**
+     * The number of pictures moved to soft references
+     */
+    private long evictionCount;
+
+    /**
+     * Creates the cache with the configured capacity.
+     */
+    private ImageCache() {
+        capacityBytes = 1024L * 1024L * Math.max(1, ConfigurationManager.getApplicationProperties().getInt(
+                ApplicationProperties.IMAGE_CACHE_MEGABYTES, ApplicationProperties.DEFAULT_IMAGE_CACHE_MEGABYTES));
+    }
+
+    /**
+     * Returns the cache, creating it on first use.
+     *
+     * @return the cache
+     */
+    public static ImageCache getInstance() {
+        ImageCache cache = instance;
+        if (cache == null) {
+            synchronized (ImageCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new ImageCache();
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the cached picture with the given path and counts the request
+     * as a hit or a miss.
+     *
+     * @param pictureLocation the path of the picture
+     * @return the picture, or null if it is not cached
+     */
+    public synchronized Image get(String pictureLocation) {
+        CachedImage cachedImage = images.get(pictureLocation);
+        if (cachedImage != null) {
+            hitCount++;
+            return cachedImage.image;
+        }
+        Image image = takeEvicted(pictureLocation);
+        if (image != null) {
+            softHitCount++;
+            return image;
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Returns true if the picture with the given path is held strongly,
+     * without counting a request.
+     *
+     * @param pictureLocation the path of the picture
+     * @return true if the picture is held strongly, false otherwise
+     */
+    public synchronized boolean contains(String pictureLocation) {
+        return images.containsKey(pictureLocation);
+    }
+
+    /**
+     * Returns the picture with the given path, decoding and caching it if it
+     * is not cached. The thumbnail of the picture is decoded, created first
+     * if needed, so this method should not be called on the JavaFX
+     * application thread.
+     *
+     * @param pictureLocation the path of the picture
+     * @return the picture, which may still be loading
+     */
+    public Image load(String pictureLocation) {
+        synchronized (this) {
+            CachedImage cachedImage = images.get(pictureLocation);
+            if (cachedImage != null) {
+                return cachedImage.image;
+            }
+            Image image = takeEvicted(pictureLocation);
+            if (image != null) {
+                return image;
+            }
+        }
+        File imageFile = FileUtil.getImageFile(pictureLocation);
+        File thumbnailFile = ThumbnailStore.getThumbnail(imageFile);
+        Image image = new Image((thumbnailFile != null ? thumbnailFile : imageFile).toURI().toString(), true);
+        put(pictureLocation, image);
+        image.progressProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= 1.0) {
+                reweigh(pictureLocation, image);
+            }
+        });
+        image.errorProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                remove(pictureLocation);
+            }
+        });
+        return image;
+    }
+
+    /**
+     * Removes the picture with the given path from the cache.
+     *
+     * @param pictureLocation the path of the picture
+     */
+    public synchronized void remove(String pictureLocation) {
+        CachedImage cachedImage = images.remove(pictureLocation);
+        if (cachedImage != null) {
+            sizeBytes -= cachedImage.weight;
+        }
+        evictedImages.remove(pictureLocation);
+    }
+
+    /**
+     * Returns the share of requests answered by a strongly or softly held
+     * picture.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long requestCount = hitCount + softHitCount + missCount;
+        return requestCount == 0 ? 0 : (double) (hitCount + softHitCount) / requestCount;
+    }
+
+    /**
+     * Logs the hit rate and the size of the cache, if it was created.
+     */
+    public static void logStatistics() {
+        ImageCache cache = instance;
+        if (cache != null) {
+            synchronized (cache) {
+                LogManager.getLogger(ImageCache.class).info(MessageFormat.format("Image cache: {0} hits, "
+                        + "{1} soft-reference hits, {2} misses ({3,number,percent} hit rate), {4} evictions, "
+                        + "{5} pictures using {6} bytes.", cache.hitCount, cache.softHitCount, cache.missCount,
+                        cache.getHitRate(), cache.evictionCount, cache.images.size(), cache.sizeBytes));
+            }
+        }
+    }
+
+    /**
+     * Holds the picture strongly and evicts the least recently used pictures
+     * to soft references until the cache fits its capacity. The most recent
+     * picture is always kept.
+     *
+     * @param pictureLocation the path of the picture
+     * @param image the picture
+     */
+    private synchronized void put(String pictureLocation, Image image) {
+        CachedImage previous = images.put(pictureLocation, new CachedImage(image, weigh(image)));
+        if (previous != null) {
+            sizeBytes -= previous.weight;
+        }
+        sizeBytes += images.get(pictureLocation).weight;
+        evictedImages.remove(pictureLocation);
+        Iterator<Map.Entry<String, CachedImage>> iterator = images.entrySet().iterator();
+        while (sizeBytes > capacityBytes && images.size() > 1) {
+            Map.Entry<String, CachedImage> eldest = iterator.next();
+            iterator.remove();
+            sizeBytes -= eldest.getValue().weight;
+            evictedImages.put(eldest.getKey(), new EvictedImage(eldest.getKey(), eldest.getValue().image,
+                    clearedImages));
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Replaces the estimated weight of a picture with its actual weight once
+     * it has been decoded.
+     *
+     * @param pictureLocation the path of the picture
+     * @param image the picture
+     */
+    private synchronized void reweigh(String pictureLocation, Image image) {
+        CachedImage cachedImage = images.get(pictureLocation);
+        if (cachedImage != null && cachedImage.image == image) {
+            put(pictureLocation, image);
+        }
+    }
+
+    /**
+     * Removes the softly held picture with the given path and holds it
+     * strongly again, first forgetting the pictures the garbage collector has
+     * cleared.
+     *
+     * @param pictureLocation the path of the picture
+     * @return the picture, or null if it is not softly held
+     */
+    private Image takeEvicted(String pictureLocation) {
+        Reference<? extends Image> cleared;
+        while ((cleared = clearedImages.poll()) != null) {
+            String clearedLocation = ((EvictedImage) cleared).pictureLocation;
+            if (evictedImages.get(clearedLocation) == cleared) {
+                evictedImages.remove(clearedLocation);
+            }
+        }
+        EvictedImage evictedImage = evictedImages.remove(pictureLocation);
+        Image image = evictedImage == null ? null : evictedImage.get();
+        if (image != null) {
+            put(pictureLocation, image);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the bytes of the decoded picture, or of a thumbnail of the
+     * configured size while the picture is still loading.
+     *
+     * @param image the picture
+     * @return the weight in bytes
+     */
+    private static long weigh(Image image) {
+        if (image.getProgress() >= 1.0 && image.getWidth() > 0) {
+            return 4L * (long) image.getWidth() * (long) image.getHeight();
+        }
+        long size = ConfigurationManager.getApplicationProperties().getInt(ApplicationProperties.THUMBNAIL_SIZE,
+                ApplicationProperties.DEFAULT_THUMBNAIL_SIZE);
+        return 4L * size * size;
+    }
+
+    /**
+     * This class holds a picture strongly with its weight.
+     */
+    private static class CachedImage {
+
+        /**
+         * The picture
+         */
+        private final Image image;
+
+        /**
+         * The bytes of the decoded picture
+         */
+        private final long weight;
+
+        /**
+         * Sets the picture and its weight.
+         *
+         * @param image the picture
+         * @param weight the bytes of the decoded picture
+         */
+        CachedImage(Image image, long weight) {
+            this.image = image;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * This class holds an evicted picture softly with its path.
+     */
+    private static class EvictedImage extends SoftReference<Image> {
+
+        /**
+         * The path of the picture
+         */
+        private final String pictureLocation;
+
+        /**
+         * Sets the picture and its path and registers the reference with the
+         * given queue.
+         *
+         * @param pictureLocation the path of the picture
+         * @param image the picture
+         * @param queue the queue receiving the reference once cleared
+         */
+        EvictedImage(String pictureLocation, Image image, ReferenceQueue<Image> queue) {
+            super(image, queue);
+            this.pictureLocation = pictureLocation;
+        }
+    }
+}
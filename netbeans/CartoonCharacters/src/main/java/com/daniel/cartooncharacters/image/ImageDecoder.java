@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadProgressListener;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Provides utility methods for decoding image files at a reduced size. Large
+ * images are subsampled while they are decoded, so the full image is never
+ * held in memory, and decoding can be abandoned part way through.
+ *
+ * @author Bryan Daniel
+ */
+public class ImageDecoder {
+
+    /**
+     * Private constructor - not called
+     */
+    private ImageDecoder() {
+    }
+
+    /**
+     * Decodes the image so that its longest edge is at most the given size.
+     * The image is subsampled while it is decoded, to about twice the size,
+     * and then scaled smoothly.
+     *
+     * @param imageFile the image file
+     * @param size the longest edge of the result
+     * @param cancelled checked while decoding, which stops once it is true
+     * @return the scaled image, or null if no reader supports the file or
+     * decoding was cancelled
+     * @throws IOException if the file cannot be read
+     */
+    public static BufferedImage readScaled(File imageFile, int size, BooleanSupplier cancelled)
+            throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageFile)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                reader.addIIOReadProgressListener(new CancellationListener(cancelled));
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestEdge / (2 * size));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return cancelled.getAsBoolean() ? null : scale(image, size);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Converts the image returned by readScaled to a JavaFX image, sharing
+     * no pixels with it.
+     *
+     * @param image the image in the ARGB format
+     * @return the JavaFX image
+     */
+    public static Image toFXImage(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        WritableImage fxImage = new WritableImage(width, height);
+        fxImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return fxImage;
+    }
+
+    /**
+     * Scales the image so that its longest edge is at most the given size.
+     *
+     * @param image the image
+     * @param size the longest edge of the result
+     * @return the scaled image in the ARGB format
+     */
+    private static BufferedImage scale(BufferedImage image, int size) {
+        double factor = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * This class aborts a read as soon as the reader reports progress after
+     * decoding has been cancelled.
+     */
+    private static class CancellationListener implements IIOReadProgressListener {
+
+        /**
+         * The cancellation check
+         */
+        private final BooleanSupplier cancelled;
+
+        /**
+         * Sets the cancellation check.
+         *
+         * @param cancelled the cancellation check
+         */
+        CancellationListener(BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void imageProgress(ImageReader source, float percentageDone) {
+            if (cancelled.getAsBoolean()) {
+                source.abort();
+            }
+        }
+
+        @Override
+        public void sequenceStarted(ImageReader source, int minIndex) {
+        }
+
+        @Override
+        public void sequenceComplete(ImageReader source) {
+        }
+
+        @Override
+        public void imageStarted(ImageReader source, int imageIndex) {
+        }
+
+        @Override
+        public void imageComplete(ImageReader source) {
+        }
+
+        @Override
+        public void thumbnailStarted(ImageReader source, int imageIndex, int thumbnailIndex) {
+        }
+
+        @Override
+        public void thumbnailProgress(ImageReader source, float percentageDone) {
+        }
+
+        @Override
+        public void thumbnailComplete(ImageReader source) {
+        }
+
+        @Override
+        public void readAborted(ImageReader source) {
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.data.PictureMetadataDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
+import com.daniel.cartooncharacters.data.PictureRemovalDataAccess;
+import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.FileUtil;
+import com.daniel.cartooncharacters.validation.ImageFileValidator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class follows the images directory tree in a background thread to keep
+ * the picture tables, the picture details, the thumbnails, and the image cache
+ * consistent with pictures added or deleted outside the application. The
+ * events of the configured batch window are applied together. A picture file
+ * added to or changed in the folder of a cartoon, named after its title, is
+ * registered as a picture of the cartoon once its header is valid. A deleted
+ * picture file, or every picture of a deleted folder, is removed from all
+ * picture tables. The picture store is written only by the application and
+ * is not watched, so no watch is held on its many subdirectories.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureDirectoryWatcher {
+
+    /**
+     * The running watcher, or null while the directory is not watched
+     */
+    private static PictureDirectoryWatcher instance;
+
+    /**
+     * The watch service of the images directory tree
+     */
+    private final WatchService watchService;
+
+    /**
+     * The watched directories by watch key
+     */
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * The images directory
+     */
+    private final Path imagesDirectory;
+
+    /**
+     * The picture store directory, which is not watched
+     */
+    private final Path storeDirectory;
+
+    /**
+     * The milliseconds of events applied together
+     */
+    private final long batchMillis;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Creates the watch service and watches the images directory tree.
+     *
+     * @throws IOException if the directory tree cannot be watched
+     */
+    private PictureDirectoryWatcher() throws IOException {
+        logger = LogManager.getLogger(PictureDirectoryWatcher.class);
+        imagesDirectory = FileUtil.getImageFile(FileUtil.IMAGES_DIRECTORY).toPath().toAbsolutePath();
+        storeDirectory = PictureStore.getStoreDirectory().toPath().toAbsolutePath();
+        batchMillis = Math.max(0, ConfigurationManager.getApplicationProperties().getInt(
+                ApplicationProperties.PICTURE_WATCH_BATCH_MILLIS,
+                ApplicationProperties.DEFAULT_PICTURE_WATCH_BATCH_MILLIS));
+        Files.createDirectories(imagesDirectory);
+        watchService = imagesDirectory.getFileSystem().newWatchService();
+        try {
+            watchTree(imagesDirectory, null);
+        } catch (IOException ioe) {
+            watchService.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Starts watching the images directory tree in a background thread.
+     * Calling this method while the directory is watched has no effect.
+     */
+    public static synchronized void start() {
+        if (instance != null) {
+            return;
+        }
+        try {
+            PictureDirectoryWatcher watcher = new PictureDirectoryWatcher();
+            Thread thread = new Thread(watcher::watch, "picture-directory-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            instance = watcher;
+        } catch (IOException ioe) {
+            LogManager.getLogger(PictureDirectoryWatcher.class).error("The images directory could not be watched.",
+                    ioe);
+        }
+    }
+
+    /**
+     * Stops watching the images directory tree.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            try {
+                instance.watchService.close();
+            } catch (IOException ioe) {
+                instance.logger.warn("The images directory watch service could not be closed.", ioe);
+            }
+            instance = null;
+        }
+    }
+
+    /**
+     * Waits for events until the watch service is closed. The first event of
+     * a batch opens the batch window, and the events arriving in the window
+     * are applied together when it ends.
+     */
+    private void watch() {
+        logger.info(MessageFormat.format("Watching {0} directories of {1}.", directories.size(), imagesDirectory));
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                PictureChanges changes = new PictureChanges();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchMillis);
+                while (key != null) {
+                    collectEvents(key, changes);
+                    long remaining = deadline - System.nanoTime();
+                    key = remaining > 0 ? watchService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                }
+                try {
+                    apply(changes);
+                } catch (RuntimeException re) {
+                    logger.error("Exception occurred during PictureDirectoryWatcher.apply.", re);
+                }
+            }
+        } catch (ClosedWatchServiceException cwse) {
+            logger.info("Stopped watching the images directory.");
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds the events of the given key to the batch. A later event for the
+     * same file replaces the earlier one, so a file deleted and added again in
+     * the window is treated as changed. New directories are watched, and the
+     * files already inside them are treated as added.
+     *
+     * @param key the signalled watch key
+     * @param changes the changes of the batch
+     */
+    private void collectEvents(WatchKey key, PictureChanges changes) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (directory == null) {
+                break;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                logger.warn(MessageFormat.format("Events were lost while watching {0}.", directory));
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                changes.changedFiles.remove(path);
+                if (directories.containsValue(path)) {
+                    changes.deletedDirectories.add(path);
+                } else {
+                    changes.deletedFiles.add(path);
+                }
+            } else if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                changes.deletedDirectories.remove(path);
+                try {
+                    watchTree(path, changes.changedFiles);
+                } catch (IOException ioe) {
+                    logger.warn(MessageFormat.format("The directory {0} could not be watched.", path), ioe);
+                }
+            } else {
+                changes.deletedFiles.remove(path);
+                changes.changedFiles.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+            if (directory != null && Files.notExists(directory)) {
+                changes.deletedDirectories.add(directory);
+            }
+        }
+    }
+
+    /**
+     * Watches the given directory and its subdirectories, except the picture
+     * store.
+     *
+     * @param root the directory
+     * @param files the set receiving the files inside the directories, or
+     * null if the files are already known
+     * @throws IOException if the directory cannot be read
+     */
+    private void watchTree(Path root, Set<Path> files) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.equals(storeDirectory)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directories.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (files != null && attrs.isRegularFile()) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logger.warn(MessageFormat.format("The file {0} could not be read.", file), exc);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Applies the changes of a batch, removing the deleted pictures first and
+     * then registering the added and changed pictures of the cartoon folders.
+     *
+     * @param changes the changes of the batch
+     */
+    private void apply(PictureChanges changes) {
+        long startTime = System.nanoTime();
+        int removedCount = removePictures(changes);
+        int registeredCount = registerPictures(changes);
+        if (removedCount > 0 || registeredCount > 0) {
+            logger.info(MessageFormat.format("Applied the images directory changes in {0} ms: {1} pictures "
+                    + "registered, {2} picture records removed.", (System.nanoTime() - startTime) / 1000000,
+                    registeredCount, removedCount));
+        }
+    }
+
+    /**
+     * Removes the records, details, thumbnails, and cached images of the
+     * picture files deleted in the batch and of the pictures inside deleted
+     * folders. Files that exist again when the batch is applied are kept.
+     *
+     * @param changes the changes of the batch
+     * @return the number of picture records removed
+     */
+    private int removePictures(PictureChanges changes) {
+        Set<String> locations = new LinkedHashSet<>();
+        for (Path file : changes.deletedFiles) {
+            if (Files.notExists(file)) {
+                locations.add(getPictureLocation(file));
+            }
+        }
+        if (!changes.deletedDirectories.isEmpty()) {
+            PictureMetadataDataAccess metadataDataAccess = new PictureMetadataDataAccess();
+            for (Path directory : changes.deletedDirectories) {
+                if (Files.notExists(directory)) {
+                    locations.addAll(metadataDataAccess.findLocationsUnder(getPictureLocation(directory)));
+                }
+            }
+        }
+        if (locations.isEmpty()) {
+            return 0;
+        }
+        int removedCount = new PictureRemovalDataAccess().deletePictures(locations);
+        if (removedCount < 0) {
+            return 0;
+        }
+        for (String location : locations) {
+            ThumbnailStore.deleteThumbnails(FileUtil.getImageFile(location));
+            ImageCache.getInstance().remove(location);
+        }
+        return removedCount;
+    }
+
+    /**
+     * Registers the valid picture files added to the folder of a cartoon in
+     * the batch as pictures of the cartoon, records the details of the added
+     * and changed files, and discards their outdated thumbnails and cached
+     * images. Files already registered, such as the location and character
+     * pictures kept in the cartoon folders, are not registered again. Files in
+     * other folders are ignored.
+     *
+     * @param changes the changes of the batch
+     * @return the number of pictures newly registered
+     */
+    private int registerPictures(PictureChanges changes) {
+        Map<String, Cartoon> cartoons = new HashMap<>();
+        Map<String, Set<String>> registeredLocations = new HashMap<>();
+        Map<Long, List<String>> locationsByCartoon = new LinkedHashMap<>();
+        List<PictureMetadata> metadata = new ArrayList<>();
+        ImageFileValidator validator = new ImageFileValidator();
+        PictureInspector inspector = new PictureInspector();
+        SimpleCartoonDataAccess cartoonDataAccess = new SimpleCartoonDataAccess();
+        PictureMetadataDataAccess metadataDataAccess = new PictureMetadataDataAccess();
+        for (Path file : changes.changedFiles) {
+            if (!file.startsWith(imagesDirectory) || imagesDirectory.relativize(file).getNameCount() != 2
+                    || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                continue;
+            }
+            String title = imagesDirectory.relativize(file).getName(0).toString();
+            if (!cartoons.containsKey(title)) {
+                cartoons.put(title, cartoonDataAccess.findCartoon(title));
+                registeredLocations.put(title, new HashSet<>(metadataDataAccess.findLocationsUnder(
+                        getPictureLocation(file.getParent()))));
+            }
+            Cartoon cartoon = cartoons.get(title);
+            if (cartoon == null) {
+                continue;
+            }
+            String location = getPictureLocation(file);
+            try {
+                validator.validate(file.toFile());
+                metadata.add(inspector.inspect(location));
+            } catch (IllegalArgumentException | IOException ex) {
+                logger.info(MessageFormat.format("The file {0} was not registered: {1}", file, ex.getMessage()));
+                continue;
+            }
+            ThumbnailStore.deleteThumbnails(file.toFile());
+            ImageCache.getInstance().remove(location);
+            if (!registeredLocations.get(title).contains(location)) {
+                locationsByCartoon.computeIfAbsent(cartoon.getCartoonId(), (cartoonId) -> new ArrayList<>())
+                        .add(location);
+            }
+        }
+        int registeredCount = 0;
+        PictureRegistrationDataAccess registrationDataAccess = new PictureRegistrationDataAccess();
+        for (Map.Entry<Long, List<String>> entry : locationsByCartoon.entrySet()) {
+            List<String> registered = registrationDataAccess.registerPictures(PictureTable.CARTOON, entry.getKey(),
+                    entry.getValue());
+            if (registered != null) {
+                registeredCount += registered.size();
+            }
+        }
+        metadataDataAccess.saveMetadata(metadata);
+        return registeredCount;
+    }
+
+    /**
+     * Returns the path of the given file in the form of the picture paths
+     * stored in the database.
+     *
+     * @param file the file inside the images directory
+     * @return the picture path
+     */
+    private String getPictureLocation(Path file) {
+        return File.separator + FileUtil.IMAGES_DIRECTORY + File.separator + imagesDirectory.relativize(file);
+    }
+
+    /**
+     * This class holds the changes of the images directory tree collected in
+     * one batch window.
+     */
+    private static class PictureChanges {
+
+        /**
+         * The files added or changed
+         */
+        private final Set<Path> changedFiles = new LinkedHashSet<>();
+
+        /**
+         * The files deleted
+         */
+        private final Set<Path> deletedFiles = new LinkedHashSet<>();
+
+        /**
+         * The watched directories deleted
+         */
+        private final Set<Path> deletedDirectories = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.util.FileUtil;
+import com.daniel.cartooncharacters.validation.ImageFileValidator;
+import com.daniel.cartooncharacters.validation.ImageHeader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Date;
+
+/**
+ * This class reads the details of picture files to record in the picture
+ * metadata table. The size and modification time come from the file
+ * attributes and the format and dimensions from the image header, so the
+ * picture is not decoded. The content hash of a picture in the picture store is
+ * its file name, and other pictures are hashed. An instance may be shared
+ * between threads.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureInspector {
+
+    /**
+     * The reader of image headers
+     */
+    private final ImageFileValidator validator;
+
+    /**
+     * Creates the reader of image headers.
+     */
+    public PictureInspector() {
+        validator = new ImageFileValidator();
+    }
+
+    /**
+     * Reads the details of the picture with the given path.
+     *
+     * @param picturePath the picture path kept in the database
+     * @return the details of the picture file
+     * @throws IOException if the file cannot be read
+     */
+    public PictureMetadata inspect(String picturePath) throws IOException {
+        File imageFile = FileUtil.getImageFile(picturePath);
+        BasicFileAttributes attributes = Files.readAttributes(imageFile.toPath(), BasicFileAttributes.class);
+        PictureMetadata metadata = new PictureMetadata();
+        metadata.setPictureLocation(picturePath);
+        metadata.setByteSize(attributes.size());
+        metadata.setModifiedTime(new Date(attributes.lastModifiedTime().toMillis()));
+        ImageHeader header = validator.readHeader(imageFile);
+        if (header != null) {
+            metadata.setFormat(header.getFormatName());
+            if (header.getWidth() > 0 && header.getHeight() > 0) {
+                metadata.setWidth(header.getWidth());
+                metadata.setHeight(header.getHeight());
+            }
+        }
+        String contentHash = PictureStore.getContentHash(picturePath);
+        metadata.setContentHash(contentHash != null ? contentHash : PictureStore.hashFile(imageFile.toPath()));
+        return metadata;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.data.PictureMetadataDataAccess;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class records the details of the pictures that have none recorded,
+ * such as the pictures saved before the picture metadata table existed. The
+ * picture files are inspected in parallel on the given executor, which the
+ * application shares with the picture ingests, and the details are recorded in
+ * batches as the inspections complete.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureMetadataScanner {
+
+    /**
+     * The number of details recorded by one transaction
+     */
+    private static final int SAVE_BATCH_SIZE = 500;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public PictureMetadataScanner() {
+        logger = LogManager.getLogger(PictureMetadataScanner.class);
+    }
+
+    /**
+     * Records the details of every picture that has none recorded. Pictures
+     * whose files cannot be read are skipped and found again by the next
+     * scan. The executor is left running for the other tasks sharing it.
+     *
+     * @param executor the executor inspecting the picture files
+     * @return the number of pictures whose details were recorded
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * for the inspections
+     */
+    public int backfill(ExecutorService executor) throws InterruptedException {
+        long startTime = System.nanoTime();
+        PictureMetadataDataAccess dataAccess = new PictureMetadataDataAccess();
+        List<String> locations = dataAccess.findLocationsWithoutMetadata();
+        if (locations.isEmpty()) {
+            return 0;
+        }
+
+        CompletionService<PictureMetadata> completionService = new ExecutorCompletionService<>(executor);
+        PictureInspector inspector = new PictureInspector();
+        List<Future<PictureMetadata>> inspections = new ArrayList<>(locations.size());
+        for (String location : locations) {
+            inspections.add(completionService.submit(() -> inspect(inspector, location)));
+        }
+
+        int recordedCount = 0;
+        int skippedCount = 0;
+        List<PictureMetadata> batch = new ArrayList<>();
+        try {
+            for (int done = 0; done < locations.size(); done++) {
+                PictureMetadata metadata = completionService.take().get();
+                if (metadata == null) {
+                    skippedCount++;
+                    continue;
+                }
+                batch.add(metadata);
+                if (batch.size() == SAVE_BATCH_SIZE) {
+                    recordedCount += save(dataAccess, batch);
+                }
+            }
+            recordedCount += save(dataAccess, batch);
+        } catch (ExecutionException ee) {
+            logger.error("ExecutionException occurred during PictureMetadataScanner.backfill.", ee);
+        } finally {
+            // the inspections not started yet are skipped, and those running are left to finish
+            inspections.forEach((inspection) -> inspection.cancel(false));
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Recorded the details of {0} of {1} pictures in {2} ms ({3} per second), "
+                + "{4} skipped.", recordedCount, locations.size(), elapsedMillis,
+                recordedCount * 1000L / elapsedMillis, skippedCount));
+        return recordedCount;
+    }
+
+    /**
+     * Inspects the picture with the given path.
+     *
+     * @param inspector the picture inspector
+     * @param location the picture path
+     * @return the details of the picture, or null if the file cannot be read
+     */
+    private PictureMetadata inspect(PictureInspector inspector, String location) {
+        try {
+            return inspector.inspect(location);
+        } catch (IOException ioe) {
+            logger.warn(MessageFormat.format("The picture {0} could not be inspected: {1}", location,
+                    ioe.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Records the given batch of details and clears it.
+     *
+     * @param dataAccess the data access object
+     * @param batch the details to record
+     * @return the number of details recorded
+     */
+    private int save(PictureMetadataDataAccess dataAccess, List<PictureMetadata> batch) {
+        int savedCount = dataAccess.saveMetadata(batch) ? batch.size() : 0;
+        batch.clear();
+        return savedCount;
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.data.PictureRemovalDataAccess;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.util.FileUtil;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * This class stores picture files by content in the store directory inside
+ * the images directory. A picture is named after the SHA-256 hash of its
+ * content, without an extension since the image readers recognize the format
+ * from the content, and placed in two levels of subdirectories named after the
+ * first digits of the hash, so no directory grows too large. A picture attached
+ * several times, under any name and to any cartoon, location, or character,
+ * is stored once, and its records all hold the same path, so it is decoded
+ * and cached once. Since the path of a stored picture says nothing to the
+ * user, the views show the name of the file the picture was first added from.
+ * <p>
+ * Since a stored file may be shared, storing and deleting are coordinated per
+ * picture path. A stored picture is reserved until its caller releases it
+ * after registering it, and a picture is deleted only while its path is
+ * locked in the database and in the store, after its references are checked
+ * again and only if no caller holds a reservation. A picture whose deletion
+ * is skipped for a reservation is checked again when the last reservation is
+ * released.
+ *
+ * @author Bryan Daniel
+ */
+public class PictureStore {
+
+    /**
+     * The number of hexadecimal digits naming each level of subdirectories
+     */
+    private static final int SHARD_LENGTH = 2;
+
+    /**
+     * The number of levels of subdirectories
+     */
+    private static final int SHARD_LEVELS = 2;
+
+    /**
+     * The size of the buffer streaming a file into the store
+     */
+    private static final int BUFFER_LENGTH = 64 * 1024;
+
+    /**
+     * The number of hexadecimal digits of a SHA-256 hash
+     */
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * The number of locks guarding the stored files, each guarding the paths
+     * with the same hash code modulo the count
+     */
+    private static final int LOCK_COUNT = 64;
+
+    /**
+     * The locks guarding the stored files
+     */
+    private static final Object[] LOCKS = new Object[LOCK_COUNT];
+
+    /**
+     * The number of callers that stored each picture and have not released
+     * it, by picture path
+     */
+    private static final ConcurrentMap<String, Integer> RESERVATIONS = new ConcurrentHashMap<>();
+
+    /**
+     * The paths of the pictures whose deletion was skipped for a reservation
+     */
+    private static final Set<String> DEFERRED_DELETIONS = ConcurrentHashMap.newKeySet();
+
+    static {
+        for (int i = 0; i < LOCK_COUNT; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    /**
+     * Private constructor - not called
+     */
+    private PictureStore() {
+    }
+
+    /**
+     * Stores the given picture file unless a picture with the same content is
+     * stored already, and reserves the stored picture so it is not deleted
+     * before the caller registers it. The file is copied to a temporary file
+     * in the store and hashed in the same pass, and the temporary file is then
+     * renamed atomically to its content name, so a stored picture is always
+     * complete. The caller must release the picture once it is registered or
+     * its registration failed.
+     *
+     * @param original the picture file to store
+     * @return the path of the stored picture to keep in the database, and
+     * whether this call wrote the file
+     * @throws IOException if the file cannot be read or stored
+     */
+    public static StoredPicture store(File original) throws IOException {
+        Path storeDirectory = getStoreDirectory().toPath();
+        Files.createDirectories(storeDirectory);
+        Path temporaryFile = Files.createTempFile(storeDirectory, "picture", ".tmp");
+        try {
+            String hash = copyAndHash(original.toPath(), temporaryFile);
+            String picturePath = getPicturePath(hash);
+            Path storedFile = FileUtil.getImageFile(picturePath).toPath();
+            synchronized (getLock(picturePath)) {
+                RESERVATIONS.merge(picturePath, 1, Integer::sum);
+                boolean created = false;
+                try {
+                    if (!Files.exists(storedFile)) {
+                        Files.createDirectories(storedFile.getParent());
+                        Files.move(temporaryFile, storedFile, StandardCopyOption.ATOMIC_MOVE);
+                        created = true;
+                    }
+                } catch (IOException ioe) {
+                    release(Collections.singletonList(picturePath));
+                    throw ioe;
+                }
+                return new StoredPicture(picturePath, created);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Releases the reservations taken by storing the pictures with the given
+     * paths, and deletes the pictures whose deletion was skipped for them if
+     * no picture table uses them.
+     *
+     * @param picturePaths the paths returned by store, once each
+     */
+    public static void release(Collection<String> picturePaths) {
+        List<String> deferred = new ArrayList<>();
+        for (String picturePath : picturePaths) {
+            synchronized (getLock(picturePath)) {
+                RESERVATIONS.computeIfPresent(picturePath, (path, count) -> count > 1 ? count - 1 : null);
+                if (!RESERVATIONS.containsKey(picturePath) && DEFERRED_DELETIONS.remove(picturePath)) {
+                    deferred.add(picturePath);
+                }
+            }
+        }
+        if (!deferred.isEmpty()) {
+            deleteUnreferenced(deferred);
+        }
+    }
+
+    /**
+     * Deletes the pictures with the given paths that no picture table uses,
+     * with their thumbnails and recorded details, such as the pictures whose
+     * last record was removed or the pictures stored for a registration that
+     * failed or was cancelled. The references are checked while the paths are
+     * locked, and a reserved picture is kept until its last reservation is
+     * released.
+     *
+     * @param picturePaths the paths of the pictures
+     */
+    public static void deleteUnreferenced(Collection<String> picturePaths) {
+        if (picturePaths.isEmpty()) {
+            return;
+        }
+        new PictureRemovalDataAccess().deleteUnreferencedPictures(picturePaths, PictureStore::deleteFile);
+    }
+
+    /**
+     * Deletes the file, thumbnails, and cached image of the picture with the
+     * given path unless a caller holds a reservation of it, in which case the
+     * deletion is skipped until the reservation is released.
+     *
+     * @param picturePath the path of a picture no picture table uses
+     * @return true if the picture was deleted, false if it is reserved
+     */
+    private static boolean deleteFile(String picturePath) {
+        synchronized (getLock(picturePath)) {
+            if (RESERVATIONS.containsKey(picturePath)) {
+                DEFERRED_DELETIONS.add(picturePath);
+                return false;
+            }
+            File imageFile = FileUtil.getImageFile(picturePath);
+            if (imageFile.exists() && !FileUtil.deleteImage(imageFile)) {
+                LogManager.getLogger(PictureStore.class).warn("The image file " + imageFile
+                        + " of an unused picture could not be deleted.");
+            }
+            ThumbnailStore.deleteThumbnails(imageFile);
+            ImageCache.getInstance().remove(picturePath);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the name to show for the picture with the given path: the name
+     * of the file the picture was added from if it is recorded, or the file
+     * name of a picture outside the store.
+     *
+     * @param picturePath the picture path kept in the database
+     * @param metadata the recorded details of the picture, or null
+     * @return the name to show
+     */
+    public static String getDisplayName(String picturePath, PictureMetadata metadata) {
+        if (metadata != null && metadata.getOriginalName() != null) {
+            return metadata.getOriginalName();
+        }
+        if (picturePath == null) {
+            return "";
+        }
+        return getContentHash(picturePath) != null ? "Stored picture"
+                : picturePath.substring(picturePath.lastIndexOf(File.separatorChar) + 1);
+    }
+
+    /**
+     * Returns the store directory inside the images directory.
+     *
+     * @return the store directory
+     */
+    public static File getStoreDirectory() {
+        return new File(new File(new File(System.getProperty("user.dir")), FileUtil.IMAGES_DIRECTORY),
+                FileUtil.PICTURE_STORE_DIRECTORY);
+    }
+
+    /**
+     * Returns the content hash of the picture with the given path when the
+     * picture is in the store, where the hash is the name of the file.
+     *
+     * @param picturePath the picture path kept in the database
+     * @return the hexadecimal hash of the content, or null if the picture is
+     * not in the store
+     */
+    public static String getContentHash(String picturePath) {
+        String storePrefix = File.separator + FileUtil.IMAGES_DIRECTORY + File.separator
+                + FileUtil.PICTURE_STORE_DIRECTORY + File.separator;
+        if (picturePath == null || !picturePath.startsWith(storePrefix)) {
+            return null;
+        }
+        String hash = picturePath.substring(picturePath.lastIndexOf(File.separatorChar) + 1);
+        return hash.length() == HASH_LENGTH && hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)
+                ? hash : null;
+    }
+
+    /**
+     * Returns the lock guarding the stored file of the picture with the given
+     * path.
+     *
+     * @param picturePath the picture path
+     * @return the lock
+     */
+    private static Object getLock(String picturePath) {
+        return LOCKS[Math.floorMod(picturePath.hashCode(), LOCK_COUNT)];
+    }
+
+    /**
+     * Returns the SHA-256 hash of the given file, read through a file
+     * channel.
+     *
+     * @param file the file
+     * @return the hexadecimal hash of the content
+     * @throws IOException if the file cannot be read
+     */
+    public static String hashFile(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_LENGTH);
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Copies the source file to the target file through file channels and
+     * returns the SHA-256 hash of the bytes copied. The target is forced to
+     * the disk before it is renamed.
+     *
+     * @param source the source file
+     * @param target the target file
+     * @return the hexadecimal hash of the content
+     * @throws IOException if the copy fails
+     */
+    private static String copyAndHash(Path source, Path target) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel output = FileChannel.open(target, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_LENGTH);
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    output.write(buffer);
+                }
+                buffer.clear();
+            }
+            output.force(false);
+        } catch (IOException ioe) {
+            LogManager.getLogger(PictureStore.class).error("An exception occurred while storing the picture "
+                    + source + ".", ioe);
+            throw ioe;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns a new SHA-256 message digest.
+     *
+     * @return the message digest
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available.", nsae);
+        }
+    }
+
+    /**
+     * Returns the path of the picture with the given hash, in the form of the
+     * image paths stored in the database.
+     *
+     * @param hash the hexadecimal hash of the content
+     * @return the picture path
+     */
+    private static String getPicturePath(String hash) {
+        StringBuilder path = new StringBuilder(File.separator + FileUtil.IMAGES_DIRECTORY + File.separator
+                + FileUtil.PICTURE_STORE_DIRECTORY);
+        for (int level = 0; level < SHARD_LEVELS; level++) {
+            path.append(File.separator).append(hash, level * SHARD_LENGTH, (level + 1) * SHARD_LENGTH);
+        }
+        return path.append(File.separator).append(hash).toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+/**
+ * This class holds the outcome of adding a picture file to the picture store:
+ * the path of the stored picture and whether the file was written by the call
+ * or was stored already.
+ *
+ * @author Bryan Daniel
+ */
+public class StoredPicture {
+
+    /**
+     * The path of the stored picture to keep in the database
+     */
+    private final String picturePath;
+
+    /**
+     * The indication that the call wrote the stored file
+     */
+    private final boolean created;
+
+    /**
+     * Sets the values of the outcome.
+     *
+     * @param picturePath the path of the stored picture
+     * @param created true if the call wrote the stored file
+     */
+    public StoredPicture(String picturePath, boolean created) {
+        this.picturePath = picturePath;
+        this.created = created;
+    }
+
+    /**
+     * Get the value of picturePath
+     *
+     * @return the value of picturePath
+     */
+    public String getPicturePath() {
+        return picturePath;
+    }
+
+    /**
+     * Get the value of created
+     *
+     * @return the value of created
+     */
+    public boolean isCreated() {
+        return created;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.image;
+
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.FileUtil;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.imageio.ImageIO;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * This class keeps downscaled variants of the picture files in the thumbnails
+ * directory next to the images directory, so the picture views decode a small
+ * image instead of the original. A thumbnail is named after a hash of the
+ * image path, the modification time of the image, and the thumbnail size, so
+ * replacing an image or changing the size makes the old thumbnail unused.
+ * Thumbnails are created when a picture is saved and, for existing pictures,
+ * the first time they are shown.
+ *
+ * @author Bryan Daniel
+ */
+public class ThumbnailStore {
+
+    /**
+     * The format of the thumbnail files, which keeps transparency
+     */
+    private static final String THUMBNAIL_FORMAT = "png";
+
+    /**
+     * The number of hexadecimal digits of the path hash in the file names
+     */
+    private static final int PATH_HASH_LENGTH = 32;
+
+    /**
+     * The hexadecimal digits used in the path hash
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Private constructor - not called
+     */
+    private ThumbnailStore() {
+    }
+
+    /**
+     * Returns the current thumbnail of the given image file, creating it if
+     * it does not exist.
+     *
+     * @param imageFile the image file
+     * @return the thumbnail file, or null if the image cannot be read
+     */
+    public static File getThumbnail(File imageFile) {
+        File thumbnailFile = getThumbnailFile(imageFile);
+        if (thumbnailFile.isFile()) {
+            return thumbnailFile;
+        }
+        return createThumbnail(imageFile);
+    }
+
+    /**
+     * Creates the thumbnail of the given image file and removes the
+     * thumbnails of earlier versions of it. The thumbnail is written to a
+     * temporary file first, so a thumbnail under its final name is always
+     * complete.
+     *
+     * @param imageFile the image file
+     * @return the thumbnail file, or null if the image cannot be read
+     */
+    public static File createThumbnail(File imageFile) {
+        if (!imageFile.isFile()) {
+            return null;
+        }
+        int size = ConfigurationManager.getApplicationProperties().getInt(ApplicationProperties.THUMBNAIL_SIZE,
+                ApplicationProperties.DEFAULT_THUMBNAIL_SIZE);
+        File thumbnailFile = getThumbnailFile(imageFile);
+        Path temporaryFile = null;
+        try {
+            BufferedImage thumbnail = ImageDecoder.readScaled(imageFile, size, () -> false);
+            if (thumbnail == null) {
+                return null;
+            }
+            Files.createDirectories(thumbnailFile.toPath().getParent());
+            deleteThumbnails(imageFile);
+            temporaryFile = Files.createTempFile(thumbnailFile.toPath().getParent(), "thumbnail", ".tmp");
+            ImageIO.write(thumbnail, THUMBNAIL_FORMAT, temporaryFile.toFile());
+            Files.move(temporaryFile, thumbnailFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return thumbnailFile;
+        } catch (IOException | RuntimeException e) {
+            LogManager.getLogger(ThumbnailStore.class).error("An exception occurred while creating the thumbnail of "
+                    + imageFile + ".", e);
+            return null;
+        } finally {
+            if (temporaryFile != null) {
+                temporaryFile.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Deletes all thumbnails of the given image file.
+     *
+     * @param imageFile the image file
+     */
+    public static void deleteThumbnails(File imageFile) {
+        Path directory = getThumbnailsDirectory().toPath();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> thumbnails = Files.newDirectoryStream(directory,
+                hashPath(imageFile) + "-*." + THUMBNAIL_FORMAT)) {
+            for (Path thumbnail : thumbnails) {
+                Files.deleteIfExists(thumbnail);
+            }
+        } catch (IOException ioe) {
+            LogManager.getLogger(ThumbnailStore.class).warn("The thumbnails of " + imageFile
+                    + " could not be deleted.", ioe);
+        }
+    }
+
+    /**
+     * Returns the thumbnails directory next to the images directory.
+     *
+     * @return the thumbnails directory
+     */
+    public static File getThumbnailsDirectory() {
+        return new File(new File(System.getProperty("user.dir")), FileUtil.THUMBNAILS_DIRECTORY);
+    }
+
+    /**
+     * Returns the file of the thumbnail of the current version of the given
+     * image file at the configured size, which may not exist yet.
+     *
+     * @param imageFile the image file
+     * @return the thumbnail file
+     */
+    private static File getThumbnailFile(File imageFile) {
+        int size = ConfigurationManager.getApplicationProperties().getInt(ApplicationProperties.THUMBNAIL_SIZE,
+                ApplicationProperties.DEFAULT_THUMBNAIL_SIZE);
+        return new File(getThumbnailsDirectory(), hashPath(imageFile) + "-" + imageFile.lastModified() + "-"
+                + size + "." + THUMBNAIL_FORMAT);
+    }
+
+    /**
+     * Returns the leading hexadecimal digits of the SHA-256 hash of the
+     * absolute path of the given file.
+     *
+     * @param file the file
+     * @return the path hash
+     */
+    private static String hashPath(File file) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    file.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+            StringBuilder text = new StringBuilder(PATH_HASH_LENGTH);
+            for (int i = 0; i < PATH_HASH_LENGTH / 2; i++) {
+                text.append(HEX_DIGITS[(hash[i] >> 4) & 0xF]).append(HEX_DIGITS[hash[i] & 0xF]);
+            }
+            return text.toString();
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available.", nsae);
+        }
+    }
+}
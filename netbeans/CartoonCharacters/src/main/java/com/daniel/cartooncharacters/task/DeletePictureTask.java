@@ -15,143 +15,77 @@
  */
 package com.daniel.cartooncharacters.task;
 
-import com.daniel.cartooncharacters.data.CartoonPictureDataAccess;
-import com.daniel.cartooncharacters.data.CharacterPictureDataAccess;
-import com.daniel.cartooncharacters.data.LocationPictureDataAccess;
-import com.daniel.cartooncharacters.entity.CartoonPicture;
-import com.daniel.cartooncharacters.entity.CharacterPicture;
-import com.daniel.cartooncharacters.entity.LocationPicture;
-import com.daniel.cartooncharacters.util.FileUtil;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
+import com.daniel.cartooncharacters.data.PictureRemovalDataAccess;
+import com.daniel.cartooncharacters.image.PictureStore;
 import com.daniel.cartooncharacters.util.MessageStage;
-import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.concurrent.Task;
 import javafx.scene.control.Label;
 
 /**
- * Asynchronously deletes a picture file from the file system and removes all
- * records of the picture from the database.
+ * Asynchronously removes one or more pictures from a cartoon, location, or
+ * character and deletes the files no longer used. A stored picture may be
+ * shared by several owners, so only the records of the given owner are
+ * removed, and a file is deleted only if no record refers to it once they are
+ * removed, which the picture store checks again under lock. The records are
+ * removed in one transaction, and the files are deleted by the task only after
+ * it commits, so a failed removal never leaves records pointing at missing
+ * files, and the deletion cannot be dropped from a full task queue. The task
+ * value is true if the records were removed.
  *
  * @author Bryan Daniel
  */
-public class DeletePictureTask extends Task<Void> {
+public class DeletePictureTask extends Task<Boolean> {
 
     /**
-     * The image file
+     * The picture table of the owner
      */
-    private final File imageFile;
+    private final PictureTable table;
 
     /**
-     * The type of picture to delete
+     * The identifier of the cartoon, location, or character
      */
-    private final SavePictureTask.PictureType type;
+    private final Long ownerId;
 
     /**
-     * The cartoon image to delete
+     * The paths of the pictures to delete
      */
-    private final CartoonPicture cartoonPicture;
+    private final List<String> pictureLocations;
 
     /**
-     * The location image to delete
-     */
-    private final LocationPicture locationPicture;
-
-    /**
-     * The character image to delete
-     */
-    private final CharacterPicture characterPicture;
-
-    /**
-     * The indication of successful or failure
-     */
-    private boolean successful;
-
-    /**
-     * Sets values for the instance variables.
+     * Sets the owner and the paths of the pictures to delete.
      *
-     * @param imageFile the image file
-     * @param type the type of image to save
-     * @param cartoonPicture the cartoon picture
-     * @param locationPicture the location picture
-     * @param characterPicture the character picture
+     * @param table the picture table of the owner
+     * @param ownerId the identifier of the cartoon, location, or character
+     * @param pictureLocations the paths of the pictures
      */
-    public DeletePictureTask(File imageFile, SavePictureTask.PictureType type, CartoonPicture cartoonPicture,
-            LocationPicture locationPicture, CharacterPicture characterPicture) {
-        this.imageFile = imageFile;
-        this.type = type;
-        this.cartoonPicture = cartoonPicture;
-        this.locationPicture = locationPicture;
-        this.characterPicture = characterPicture;
+    public DeletePictureTask(PictureTable table, Long ownerId, List<String> pictureLocations) {
+        this.table = table;
+        this.ownerId = ownerId;
+        this.pictureLocations = new ArrayList<>(pictureLocations);
     }
 
     @Override
-    protected Void call() throws Exception {
-        successful = false;
-        if (FileUtil.deleteImage(imageFile)) {
-            switch (type) {
-                case CARTOON:
-                    deleteCartoonPicture(cartoonPicture.getPictureLocation());
-                    deleteLocationPicture(cartoonPicture.getPictureLocation());
-                    deleteCharacterPicture(cartoonPicture.getPictureLocation());
-                    break;
-                case LOCATION:
-                    deleteCartoonPicture(locationPicture.getPictureLocation());
-                    deleteLocationPicture(locationPicture.getPictureLocation());
-                    deleteCharacterPicture(locationPicture.getPictureLocation());
-                    break;
-                case CHARACTER:
-                    deleteCartoonPicture(characterPicture.getPictureLocation());
-                    deleteLocationPicture(characterPicture.getPictureLocation());
-                    deleteCharacterPicture(characterPicture.getPictureLocation());
-                    break;
-                default:
-                    break;
-            }
+    protected Boolean call() throws Exception {
+        if (new PictureRemovalDataAccess().deletePictures(table, ownerId, pictureLocations) < 0) {
+            return false;
         }
-        return null;
+        PictureStore.deleteUnreferenced(pictureLocations);
+        return true;
     }
 
     @Override
     protected void succeeded() {
         Label label;
-        if (successful) {
-            label = new Label("The picture was deleted successfully.");
+        if (getValue()) {
+            label = new Label(pictureLocations.size() == 1 ? "The picture was deleted successfully."
+                    : "The " + pictureLocations.size() + " pictures were deleted successfully.");
         } else {
             label = new Label("An error occurred while deleting the picture.");
         }
         MessageStage messageStage = new MessageStage(label);
         messageStage.show();
     }
-
-    /**
-     * Deletes the cartoon picture associated with the specified picture
-     * location.
-     *
-     * @param pictureLocation the path of the picture to delete
-     */
-    private void deleteCartoonPicture(String pictureLocation) {
-        CartoonPictureDataAccess cartoonPictureDataAccess = new CartoonPictureDataAccess();
-        successful = cartoonPictureDataAccess.deletePicture(pictureLocation);
-    }
-
-    /**
-     * Deletes the location picture associated with the specified picture
-     * location.
-     *
-     * @param pictureLocation the path of the picture to delete
-     */
-    private void deleteLocationPicture(String pictureLocation) {
-        LocationPictureDataAccess locationPictureDataAccess = new LocationPictureDataAccess();
-        successful = locationPictureDataAccess.deletePicture(pictureLocation);
-    }
-
-    /**
-     * Deletes the character picture associated with the specified picture
-     * location.
-     *
-     * @param pictureLocation the path of the picture to delete
-     */
-    private void deleteCharacterPicture(String pictureLocation) {
-        CharacterPictureDataAccess characterPictureDataAccess = new CharacterPictureDataAccess();
-        successful = characterPictureDataAccess.deletePicture(pictureLocation);
-    }
 }
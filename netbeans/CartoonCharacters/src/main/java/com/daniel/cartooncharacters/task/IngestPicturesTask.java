@@ -0,0 +1,350 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.task;
+
+import com.daniel.cartooncharacters.data.PictureMetadataDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.image.PictureInspector;
+import com.daniel.cartooncharacters.image.PictureStore;
+import com.daniel.cartooncharacters.image.StoredPicture;
+import com.daniel.cartooncharacters.image.ThumbnailStore;
+import com.daniel.cartooncharacters.task.SavePictureTask.PictureType;
+import com.daniel.cartooncharacters.util.FileUtil;
+import com.daniel.cartooncharacters.util.MessageStage;
+import com.daniel.cartooncharacters.validation.ImageFileValidator;
+import java.io.File;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.concurrent.Task;
+import javafx.scene.control.Label;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class adds many pictures to a cartoon, location, or character in a
+ * background thread. The chosen files, and the files of the chosen
+ * directories, are validated from their headers, added to the picture store,
+ * thumbnailed, and inspected in parallel on the picture executor of the task
+ * scheduler, which bounds the workers of all picture tasks together.
+ * The stored pictures are then registered together with batched inserts, and
+ * their details recorded together with the names of the chosen files. If the
+ * task is cancelled or the registration fails, the files the task added to the
+ * store are deleted again unless a record uses them, while the files it found
+ * stored already are left to the tasks that stored them. The progress message reports the pictures
+ * done and the throughput, and the value of the task lists the files that
+ * could not be added and why.
+ *
+ * @author Bryan Daniel
+ */
+public class IngestPicturesTask extends Task<List<String>> {
+
+    /**
+     * The chosen files and directories
+     */
+    private final List<File> files;
+
+    /**
+     * The type of the pictures to save
+     */
+    private final PictureType type;
+
+    /**
+     * The cartoon for the pictures, if the pictures are a cartoon type
+     */
+    private final Cartoon cartoon;
+
+    /**
+     * The location for the pictures, if the pictures are a location type
+     */
+    private final CartoonLocation cartoonLocation;
+
+    /**
+     * The character for the pictures, if the pictures are a character type
+     */
+    private final CartoonCharacter cartoonCharacter;
+
+    /**
+     * The number of pictures registered by the task
+     */
+    private int registeredCount;
+
+    /**
+     * The number of pictures that were registered already
+     */
+    private int existingCount;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets values for the instance variables.
+     *
+     * @param files the chosen files and directories
+     * @param type the type of pictures to save
+     * @param cartoon the cartoon
+     * @param cartoonLocation the location
+     * @param cartoonCharacter the character
+     */
+    public IngestPicturesTask(List<File> files, PictureType type, Cartoon cartoon,
+            CartoonLocation cartoonLocation, CartoonCharacter cartoonCharacter) {
+        logger = LogManager.getLogger(IngestPicturesTask.class);
+        this.files = new ArrayList<>(files);
+        this.type = type;
+        this.cartoon = cartoon;
+        this.cartoonLocation = cartoonLocation;
+        this.cartoonCharacter = cartoonCharacter;
+    }
+
+    @Override
+    protected List<String> call() throws Exception {
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        List<File> imageFiles = listFiles();
+        int total = imageFiles.size();
+        long startTime = System.nanoTime();
+        updateProgress(0, total);
+
+        CompletionService<String> completionService = new ExecutorCompletionService<>(
+                TaskScheduler.getInstance().getPictureExecutor());
+        ImageFileValidator validator = new ImageFileValidator();
+        PictureInspector inspector = new PictureInspector();
+        ConcurrentMap<String, PictureMetadata> metadata = new ConcurrentHashMap<>();
+        Set<String> createdPaths = ConcurrentHashMap.newKeySet();
+        List<String> reservedPaths = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Future<String>> jobs = new ArrayList<>(total);
+        for (File imageFile : imageFiles) {
+            jobs.add(completionService.submit(() -> storePicture(imageFile, validator, inspector, metadata,
+                    createdPaths, reservedPaths, stopped, errors)));
+        }
+
+        List<String> picturePaths = new ArrayList<>();
+        boolean storeComplete = false;
+        try {
+            for (int done = 1; done <= total; done++) {
+                Future<String> result = completionService.take();
+                if (isCancelled()) {
+                    break;
+                }
+                String picturePath = result.get();
+                if (picturePath != null) {
+                    picturePaths.add(picturePath);
+                }
+                long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+                updateProgress(done, total);
+                updateMessage(MessageFormat.format("{0} of {1} pictures stored, {2} per second", done, total,
+                        done * 1000L / elapsedMillis));
+            }
+            storeComplete = !isCancelled();
+        } catch (ExecutionException ee) {
+            logger.error("ExecutionException occurred during IngestPicturesTask.call.", ee);
+            errors.add("The pictures could not be stored: " + ee.getCause());
+        } finally {
+            // the executor is shared, so the jobs not started yet are skipped and the running ones awaited
+            stopped.set(true);
+            awaitJobs(jobs);
+        }
+        List<String> registered = null;
+        try {
+            if (storeComplete) {
+                updateMessage(MessageFormat.format("Registering {0} pictures", picturePaths.size()));
+                registered = register(picturePaths);
+            }
+        } finally {
+            // every worker has stopped, so the pictures stored so far are all known and released
+            PictureStore.release(reservedPaths);
+        }
+        if (registered == null) {
+            PictureStore.deleteUnreferenced(createdPaths);
+            if (!storeComplete) {
+                return errors;
+            }
+            errors.add("The stored pictures could not be registered.");
+        } else {
+            // the files created for pictures that failed afterwards are not registered
+            createdPaths.removeAll(picturePaths);
+            PictureStore.deleteUnreferenced(createdPaths);
+            registeredCount = registered.size();
+            existingCount = picturePaths.size() - registered.size();
+            new PictureMetadataDataAccess().saveMetadata(metadata.values());
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Ingested {0} files in {1} ms ({2} per second): {3} registered, "
+                + "{4} already registered, {5} failed.", total, elapsedMillis, total * 1000L / elapsedMillis,
+                registeredCount, existingCount, errors.size()));
+        updateMessage(MessageFormat.format("{0} of {1} pictures added", registeredCount, total));
+        return errors;
+    }
+
+    @Override
+    protected void succeeded() {
+        List<String> errors = getValue();
+        String summary = MessageFormat.format("{0} pictures added, {1} already present, {2} failed.",
+                registeredCount, existingCount, errors.size());
+        MessageStage messageStage;
+        if (errors.isEmpty()) {
+            messageStage = new MessageStage(new Label(summary));
+        } else {
+            List<String> report = new ArrayList<>(errors);
+            Collections.sort(report);
+            messageStage = new MessageStage(new Label(summary), report);
+        }
+        messageStage.show();
+    }
+
+    @Override
+    protected void failed() {
+        logger.error("Exception occurred during IngestPicturesTask.call.", getException());
+        MessageStage messageStage = new MessageStage(new Label("Error! The pictures could not be saved."));
+        messageStage.show();
+    }
+
+    /**
+     * Returns the chosen files and the files directly inside the chosen
+     * directories, in order of name.
+     *
+     * @return the files to add
+     */
+    private List<File> listFiles() {
+        List<File> imageFiles = new ArrayList<>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                File[] children = file.listFiles(File::isFile);
+                if (children != null) {
+                    Arrays.sort(children);
+                    imageFiles.addAll(Arrays.asList(children));
+                }
+            } else {
+                imageFiles.add(file);
+            }
+        }
+        return imageFiles;
+    }
+
+    /**
+     * Waits for each of the given jobs to finish, whatever its outcome.
+     *
+     * @param jobs the jobs
+     */
+    private void awaitJobs(List<Future<String>> jobs) {
+        boolean interrupted = false;
+        for (Future<String> job : jobs) {
+            while (!job.isDone()) {
+                try {
+                    job.get();
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Validates the given file and adds it to the picture store with its
+     * thumbnail, and reads the details of the stored file. A file that fails
+     * is added to the error report.
+     *
+     * @param imageFile the file
+     * @param validator the image file validator
+     * @param inspector the picture inspector
+     * @param metadata the details of the stored files by picture path
+     * @param createdPaths the paths of the files this task wrote to the store
+     * @param reservedPaths the paths of the pictures reserved by the store,
+     * once for each file stored
+     * @param stopped set when the task no longer waits for the pictures
+     * @param errors the error report
+     * @return the path of the stored picture, or null if the file failed
+     */
+    private String storePicture(File imageFile, ImageFileValidator validator, PictureInspector inspector,
+            ConcurrentMap<String, PictureMetadata> metadata, Set<String> createdPaths, List<String> reservedPaths,
+            AtomicBoolean stopped, List<String> errors) {
+        if (stopped.get() || isCancelled()) {
+            return null;
+        }
+        try {
+            validator.validate(imageFile);
+        } catch (IllegalArgumentException iae) {
+            errors.add(imageFile.getName() + ": " + iae.getMessage());
+            return null;
+        }
+        try {
+            StoredPicture storedPicture = PictureStore.store(imageFile);
+            String picturePath = storedPicture.getPicturePath();
+            reservedPaths.add(picturePath);
+            if (storedPicture.isCreated()) {
+                createdPaths.add(picturePath);
+            }
+            ThumbnailStore.getThumbnail(FileUtil.getImageFile(picturePath));
+            if (!metadata.containsKey(picturePath)) {
+                PictureMetadata pictureMetadata = inspector.inspect(picturePath);
+                pictureMetadata.setOriginalName(imageFile.getName());
+                metadata.putIfAbsent(picturePath, pictureMetadata);
+            }
+            return picturePath;
+        } catch (IOException ex) {
+            errors.add(imageFile.getName() + ": the file could not be stored (" + ex.getMessage() + ").");
+            return null;
+        }
+    }
+
+    /**
+     * Registers the stored pictures for the chosen cartoon, location, or
+     * character.
+     *
+     * @param picturePaths the paths of the stored pictures
+     * @return the paths of the pictures registered, or null if the insert
+     * failed
+     */
+    private List<String> register(List<String> picturePaths) {
+        PictureRegistrationDataAccess dataAccess = new PictureRegistrationDataAccess();
+        switch (type) {
+            case CARTOON:
+                return dataAccess.registerPictures(PictureTable.CARTOON, cartoon.getCartoonId(), picturePaths);
+            case LOCATION:
+                return dataAccess.registerPictures(PictureTable.LOCATION, cartoonLocation.getLocationId(),
+                        picturePaths);
+            case CHARACTER:
+                return dataAccess.registerPictures(PictureTable.CHARACTER, cartoonCharacter.getCharacterId(),
+                        picturePaths);
+            default:
+                return null;
+        }
+    }
+}
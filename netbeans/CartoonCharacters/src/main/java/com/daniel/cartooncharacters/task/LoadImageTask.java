@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.task;
+
+import com.daniel.cartooncharacters.image.ImageCache;
+import javafx.concurrent.Task;
+import javafx.scene.image.Image;
+
+/**
+ * This class loads the picture shown by a view in a background thread through
+ * the image cache. The thumbnail of the picture is decoded instead of the
+ * original, and created first if it does not exist. The original is decoded
+ * only if no thumbnail can be made. The picture returned may still be
+ * decoding in the background.
+ *
+ * @author Bryan Daniel
+ */
+public class LoadImageTask extends Task<Image> {
+
+    /**
+     * The path of the picture
+     */
+    private final String pictureLocation;
+
+    /**
+     * Sets the path of the picture.
+     *
+     * @param pictureLocation the path of the picture
+     */
+    public LoadImageTask(String pictureLocation) {
+        this.pictureLocation = pictureLocation;
+    }
+
+    @Override
+    protected Image call() throws Exception {
+        return ImageCache.getInstance().load(pictureLocation);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.task;
+
+import com.daniel.cartooncharacters.image.ImageDecoder;
+import com.daniel.cartooncharacters.validation.ImageFileValidator;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import javafx.concurrent.Task;
+import javafx.scene.image.Image;
+
+/**
+ * This class validates a chosen image file from its header and decodes its
+ * preview in a background thread. The file is decoded once, subsampled to about the size of the
+ * preview, so opening a large photo holds only a small image in memory.
+ * Cancelling the task stops the decoding. The task fails with an
+ * IllegalArgumentException giving the reason if the file is not valid, and
+ * its value is null if no image reader can decode the file.
+ *
+ * @author Bryan Daniel
+ */
+public class PreviewImageTask extends Task<Image> {
+
+    /**
+     * The image file
+     */
+    private final File imageFile;
+
+    /**
+     * The longest edge of the preview
+     */
+    private final int size;
+
+    /**
+     * Sets the image file and the preview size.
+     *
+     * @param imageFile the image file
+     * @param size the longest edge of the preview
+     */
+    public PreviewImageTask(File imageFile, int size) {
+        this.imageFile = imageFile;
+        this.size = size;
+    }
+
+    @Override
+    protected Image call() throws Exception {
+        new ImageFileValidator().validate(imageFile);
+        BufferedImage image = ImageDecoder.readScaled(imageFile, size, this::isCancelled);
+        return image == null ? null : ImageDecoder.toFXImage(image);
+    }
+}
@@ -15,20 +15,23 @@
  */
 package com.daniel.cartooncharacters.task;
 
-import com.daniel.cartooncharacters.data.CartoonPictureDataAccess;
-import com.daniel.cartooncharacters.data.CharacterPictureDataAccess;
-import com.daniel.cartooncharacters.data.LocationPictureDataAccess;
+import com.daniel.cartooncharacters.data.PictureMetadataDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess;
+import com.daniel.cartooncharacters.data.PictureRegistrationDataAccess.PictureTable;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 import com.daniel.cartooncharacters.entity.CartoonLocation;
-import com.daniel.cartooncharacters.entity.CartoonPicture;
-import com.daniel.cartooncharacters.entity.CharacterPicture;
-import com.daniel.cartooncharacters.entity.LocationPicture;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import com.daniel.cartooncharacters.image.PictureInspector;
+import com.daniel.cartooncharacters.image.PictureStore;
+import com.daniel.cartooncharacters.image.StoredPicture;
+import com.daniel.cartooncharacters.image.ThumbnailStore;
 import com.daniel.cartooncharacters.util.FileUtil;
 import com.daniel.cartooncharacters.util.MessageStage;
 import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.Collections;
 import javafx.concurrent.Task;
 import javafx.scene.control.Label;
 import org.apache.logging.log4j.LogManager;
@@ -36,7 +39,12 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * This class contains the logic for executing calls to the appropriate data
- * access object in a background thread to save a picture record.
+ * access object in a background thread to save a picture record. The image
+ * file is added to the picture store, which keeps one copy of each distinct
+ * image, and the record holds the path of the stored copy. The details of
+ * the stored file, with the name of the chosen file, are recorded once the
+ * picture is saved. If the picture cannot be saved, the stored copy is
+ * deleted unless another record uses it or another task has just stored it.
  *
  * @author Bryan Daniel
  */
@@ -119,31 +127,59 @@ public class SavePictureTask extends Task<Void> {
     @Override
     protected Void call() throws Exception {
         successful = false;
-        File newImageFile = FileUtil.getNewImageFile(cartoon.getTitle(), imageFile.getName());
-        if (!newImageFile.exists()) {
-            FileUtil.createCartoonImageDirectory(cartoon.getTitle());
-            try {
-                FileUtil.copyImage(imageFile, newImageFile);
-            } catch (IOException ex) {
-                logger.error(MessageFormat.format("An exception occured while saving the image, {0}.",
-                        imageFile.getName()), ex);
-            }
+        StoredPicture storedPicture;
+        try {
+            storedPicture = PictureStore.store(imageFile);
+        } catch (IOException ex) {
+            logger.error(MessageFormat.format("An exception occured while saving the image, {0}.",
+                    imageFile.getName()), ex);
+            return null;
+        }
+        try {
+            register(storedPicture.getPicturePath());
+        } finally {
+            PictureStore.release(Collections.singletonList(storedPicture.getPicturePath()));
+        }
+        if (!successful && storedPicture.isCreated()) {
+            PictureStore.deleteUnreferenced(Collections.singletonList(storedPicture.getPicturePath()));
         }
-        String newImagePath = FileUtil.getNewImagePath(cartoon.getTitle(), imageFile.getName());
+        return null;
+    }
+
+    /**
+     * Thumbnails the stored picture, registers it for the chosen cartoon,
+     * location, or character, and records its details.
+     *
+     * @param newImagePath the path of the stored picture
+     */
+    private void register(String newImagePath) {
+        ThumbnailStore.getThumbnail(FileUtil.getImageFile(newImagePath));
+        PictureRegistrationDataAccess dataAccess = new PictureRegistrationDataAccess();
         switch (type) {
             case CARTOON:
-                saveCartoonPicture(newImagePath);
+                successful = dataAccess.registerPicture(PictureTable.CARTOON, cartoon.getCartoonId(), newImagePath);
                 break;
             case LOCATION:
-                saveLocationPicture(newImagePath);
+                successful = dataAccess.registerPicture(PictureTable.LOCATION, cartoonLocation.getLocationId(),
+                        newImagePath);
                 break;
             case CHARACTER:
-                saveCharacterPicture(newImagePath);
+                successful = dataAccess.registerPicture(PictureTable.CHARACTER, cartoonCharacter.getCharacterId(),
+                        newImagePath);
                 break;
             default:
                 break;
         }
-        return null;
+        if (successful) {
+            try {
+                PictureMetadata metadata = new PictureInspector().inspect(newImagePath);
+                metadata.setOriginalName(imageFile.getName());
+                new PictureMetadataDataAccess().saveMetadata(Collections.singletonList(metadata));
+            } catch (IOException ex) {
+                logger.warn(MessageFormat.format("The details of the picture {0} could not be read.",
+                        newImagePath), ex);
+            }
+        }
     }
 
     @Override
@@ -157,61 +193,4 @@ public class SavePictureTask extends Task<Void> {
         MessageStage messageStage = new MessageStage(label);
         messageStage.show();
     }
-
-    /**
-     * Saves the new cartoon image to the specified file path.
-     *
-     * @param newImagePath the new image file path
-     */
-    private void saveCartoonPicture(String newImagePath) {
-        CartoonPictureDataAccess cartoonPictureDataAccess = new CartoonPictureDataAccess();
-        CartoonPicture existingCartoonPicture = cartoonPictureDataAccess.findCartoonPicture(newImagePath,
-                cartoon);
-        if (existingCartoonPicture == null) {
-            CartoonPicture cartoonPicture = new CartoonPicture();
-            cartoonPicture.setPictureLocation(newImagePath);
-            cartoonPicture.setCartoon(cartoon);
-            if (cartoonPictureDataAccess.savePicture(cartoonPicture)) {
-                successful = true;
-            }
-        }
-    }
-
-    /**
-     * Saves the new cartoon location image to the specified file path.
-     *
-     * @param newImagePath the new image file path
-     */
-    private void saveLocationPicture(String newImagePath) {
-        LocationPictureDataAccess locationPictureDataAccess = new LocationPictureDataAccess();
-        LocationPicture existingLocationPicture = locationPictureDataAccess.findLocationPicture(newImagePath,
-                cartoonLocation);
-        if (existingLocationPicture == null) {
-            LocationPicture locationPicture = new LocationPicture();
-            locationPicture.setPictureLocation(newImagePath);
-            locationPicture.setCartoonLocation(cartoonLocation);
-            if (locationPictureDataAccess.savePicture(locationPicture)) {
-                successful = true;
-            }
-        }
-    }
-
-    /**
-     * Saves the new cartoon character image to the specified file path.
-     *
-     * @param newImagePath the new image file path
-     */
-    private void saveCharacterPicture(String newImagePath) {
-        CharacterPictureDataAccess characterPictureDataAccess = new CharacterPictureDataAccess();
-        CharacterPicture existingCharacterPicture = characterPictureDataAccess.findCharacterPicture(newImagePath,
-                cartoonCharacter);
-        if (existingCharacterPicture == null) {
-            CharacterPicture characterPicture = new CharacterPicture();
-            characterPicture.setPictureLocation(newImagePath);
-            characterPicture.setCartoonCharacter(cartoonCharacter);
-            if (characterPictureDataAccess.savePicture(characterPicture)) {
-                successful = true;
-            }
-        }
-    }
 }
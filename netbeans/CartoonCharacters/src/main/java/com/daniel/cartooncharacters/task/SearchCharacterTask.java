@@ -16,31 +16,37 @@
 package com.daniel.cartooncharacters.task;
 
 import com.daniel.cartooncharacters.util.ScreenChangeManager;
+import java.util.ArrayList;
 import java.util.List;
+import com.daniel.cartooncharacters.data.CharacterPage;
+import com.daniel.cartooncharacters.data.CharacterSearchResult;
+import com.daniel.cartooncharacters.data.IndexedCharacterDataAccess;
+import com.daniel.cartooncharacters.data.PagedCharacterDataAccess;
+import com.daniel.cartooncharacters.data.QueryCanceller;
 import com.daniel.cartooncharacters.data.SimpleCharacterDataAccess;
+import com.daniel.cartooncharacters.data.TrigramCharacterDataAccess;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
 
-import javafx.collections.ObservableList;
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
-import com.daniel.cartooncharacters.data.CharacterDataAccess;
-import javafx.beans.property.SimpleListProperty;
-import javafx.collections.FXCollections;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import org.apache.logging.log4j.LogManager;
 
 /**
  * This class contains the logic for executing calls to the data access object
- * in a background thread and updating the character list on the FX application
- * thread.
+ * in a background thread to find one page of matching characters. The page
+ * holds search result rows only; the full character is loaded when its
+ * details are requested. Cancelling the task also cancels its running query.
  *
  * @author Bryan Daniel
  *
  */
-public class SearchCharacterTask extends Task<SimpleListProperty> {
-
-    /**
-     * The list of characters to show in the search results table
-     */
-    private final ObservableList<CartoonCharacter> characterList = FXCollections.observableArrayList();
+public class SearchCharacterTask extends Task<CharacterPage> {
 
     /**
      * The character name to search
@@ -52,10 +58,20 @@ public class SearchCharacterTask extends Task<SimpleListProperty> {
      */
     private final String cartoonTitle;
 
+    /**
+     * The continuation token of the previous page or null for the first page
+     */
+    private final String continuationToken;
+
+    /**
+     * The maximum number of characters on a page
+     */
+    private final int pageSize;
+
     /**
      * The data access object to retrieve character information
      */
-    private final CharacterDataAccess dataAccess;
+    private final PagedCharacterDataAccess dataAccess;
 
     /**
      * The screen changing object
@@ -63,47 +79,148 @@ public class SearchCharacterTask extends Task<SimpleListProperty> {
     private final ScreenChangeManager screenChangeManager;
 
     /**
-     * This constructor sets the value for the instance variables.
+     * The configured character search mode
+     */
+    private final String searchMode;
+
+    /**
+     * The permit shared by the searches that may not query at the same time,
+     * or null
+     */
+    private final Semaphore searchPermit;
+
+    /**
+     * The canceller of the running query
+     */
+    private final QueryCanceller canceller = new QueryCanceller();
+
+    /**
+     * This constructor sets the value for the instance variables. The data
+     * access object is chosen by the configured character search mode.
      *
      * @param characterName the character name
      * @param cartoonTitle the cartoon title
+     * @param continuationToken the token of the previous page or null
+     * @param pageSize the maximum number of characters on a page
      * @param screenChangeManager the screen change manager
      */
-    public SearchCharacterTask(String characterName, String cartoonTitle,
-            ScreenChangeManager screenChangeManager) {
+    public SearchCharacterTask(String characterName, String cartoonTitle, String continuationToken,
+            int pageSize, ScreenChangeManager screenChangeManager) {
+        this(characterName, cartoonTitle, continuationToken, pageSize, screenChangeManager, null);
+    }
+
+    /**
+     * This constructor sets the value for the instance variables. The data
+     * access object is chosen by the configured character search mode. A
+     * search holding the given permit runs its query only after the search
+     * holding it before has finished.
+     *
+     * @param characterName the character name
+     * @param cartoonTitle the cartoon title
+     * @param continuationToken the token of the previous page or null
+     * @param pageSize the maximum number of characters on a page
+     * @param screenChangeManager the screen change manager
+     * @param searchPermit the permit shared with other searches, or null
+     */
+    public SearchCharacterTask(String characterName, String cartoonTitle, String continuationToken,
+            int pageSize, ScreenChangeManager screenChangeManager, Semaphore searchPermit) {
+        this.searchPermit = searchPermit;
         this.characterName = characterName;
         this.cartoonTitle = cartoonTitle;
+        this.continuationToken = continuationToken;
+        this.pageSize = pageSize;
         this.screenChangeManager = screenChangeManager;
-        dataAccess = new SimpleCharacterDataAccess();
+        searchMode = ConfigurationManager.getApplicationProperties()
+                .getString(ApplicationProperties.CHARACTER_SEARCH_MODE);
+        if (ApplicationProperties.SEARCH_MODE_INDEX.equals(searchMode)) {
+            dataAccess = new IndexedCharacterDataAccess();
+        } else if (ApplicationProperties.SEARCH_MODE_TRIGRAM.equals(searchMode)) {
+            dataAccess = new TrigramCharacterDataAccess();
+        } else {
+            dataAccess = new SimpleCharacterDataAccess();
+        }
     }
 
     /**
      * This method calls the data access object's character search method. This
-     * task is not performed on the FX application thread. The update to the
-     * character list is.
+     * task is not performed on the FX application thread. The search time is
+     * logged with the search mode so the modes can be compared on the same
+     * data. With a shared permit, the search first waits for the previous
+     * search to finish, so only one of their queries runs at a time.
      *
-     * @return the list of matching characters
+     * @return the page of matching characters
      * @throws java.lang.Exception
      */
     @Override
-    protected SimpleListProperty call() throws Exception {
-        List<CartoonCharacter> matchingCharacters = dataAccess.findCartoonCharacters(characterName, cartoonTitle);
-        matchingCharacters.forEach((character) -> {
-            character.getViewButton().setOnAction((ActionEvent e) -> {
-                showDetails(character, e);
+    protected CharacterPage call() throws Exception {
+        if (searchPermit != null) {
+            searchPermit.acquire();
+        }
+        try {
+            return search();
+        } finally {
+            if (searchPermit != null) {
+                searchPermit.release();
+            }
+        }
+    }
+
+    /**
+     * Cancels the task and the query it is running. The statement is
+     * cancelled in the background because the driver sends the request over
+     * a connection of its own.
+     *
+     * @param mayInterruptIfRunning true to interrupt the thread running the
+     * task
+     * @return true if the task was cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            CompletableFuture.runAsync(canceller::cancel);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Finds the page of characters unless the task was cancelled while
+     * waiting for the permit.
+     *
+     * @return the page of matching characters
+     */
+    private CharacterPage search() {
+        if (isCancelled()) {
+            return new CharacterPage(new ArrayList<>(), null);
+        }
+        long startTime = System.nanoTime();
+        CharacterPage page = dataAccess.findCartoonCharacterPage(characterName, cartoonTitle, continuationToken,
+                pageSize, canceller);
+        List<CharacterSearchResult> results = page.getResults();
+        LogManager.getLogger(SearchCharacterTask.class).info(MessageFormat.format(
+                "Character search ({0}) returned {1} rows in {2} ms.", searchMode, results.size(),
+                (System.nanoTime() - startTime) / 1000000));
+        results.forEach((result) -> {
+            result.setViewHandler((ActionEvent e) -> {
+                showDetails(result, e);
             });
         });
-        characterList.addAll(matchingCharacters);
-        return new SimpleListProperty(characterList);
+        return page;
     }
 
     /**
-     * This method uses the ScreenChangeManager object to launch the view to
-     * show details of the given character.
+     * This method loads the character for the given search result and uses the
+     * ScreenChangeManager object to launch the view to show its details.
      *
-     * @param character the character to view
+     * @param result the search result to view
+     * @param event the action event
      */
-    private void showDetails(CartoonCharacter character, ActionEvent event) {
-        screenChangeManager.showCharacterDetails(character, event);
+    private void showDetails(CharacterSearchResult result, ActionEvent event) {
+        new SimpleCharacterDataAccess().findCartoonCharacterAsync(result.getCharacterId())
+                .thenAcceptAsync((CartoonCharacter character) -> {
+                    if (character != null) {
+                        screenChangeManager.showCharacterDetails(character, event);
+                    }
+                }, Platform::runLater);
     }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.task;
+
+import com.daniel.cartooncharacters.data.CartoonPictureDataAccess;
+import com.daniel.cartooncharacters.data.SimpleCartoonDataAccess;
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonPicture;
+import com.daniel.cartooncharacters.task.TaskScheduler.Pool;
+import com.daniel.cartooncharacters.task.TaskScheduler.Priority;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.FileUtil;
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.concurrent.Task;
+import javafx.scene.image.Image;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class compares the platform and virtual thread modes of the task
+ * scheduler. For each mode, it submits a burst of character searches to the
+ * database pool and picture loads to the file pool, then logs the throughput
+ * and the latency of each kind of request from submission to completion. A
+ * warm-up round runs first so both modes find the connection pool and the
+ * caches filled.
+ * <p>
+ * The tasks post their state changes to the JavaFX application thread, so
+ * the JavaFX toolkit must be running.
+ *
+ * @author Bryan Daniel
+ */
+public class TaskBenchmark {
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public TaskBenchmark() {
+        logger = LogManager.getLogger(TaskBenchmark.class);
+    }
+
+    /**
+     * Runs the given number of character searches and picture loads at once
+     * under each thread mode and logs the results.
+     *
+     * @param requests the number of searches and of picture loads per mode
+     * @return true if the benchmark ran, false otherwise
+     */
+    public boolean run(int requests) {
+        List<Cartoon> cartoons = new ArrayList<>();
+        SimpleCartoonDataAccess cartoonDataAccess = new SimpleCartoonDataAccess();
+        for (String title : cartoonDataAccess.findAllCartoonNames()) {
+            Cartoon cartoon = cartoonDataAccess.findCartoon(title);
+            if (cartoon != null) {
+                cartoons.add(cartoon);
+            }
+        }
+        if (cartoons.isEmpty() || requests < 1) {
+            logger.error("The benchmark requires at least one cartoon and one request.");
+            return false;
+        }
+        try {
+            runMode(ApplicationProperties.THREAD_MODE_PLATFORM, cartoons, Math.max(1, requests / 10), false);
+            runMode(ApplicationProperties.THREAD_MODE_PLATFORM, cartoons, requests, true);
+            runMode(ApplicationProperties.THREAD_MODE_VIRTUAL, cartoons, requests, true);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Submits the searches and picture loads to a scheduler of the given
+     * thread mode and waits for them to finish.
+     *
+     * @param threadMode the platform or virtual thread mode
+     * @param cartoons the cartoons searched and whose pictures are loaded
+     * @param requests the number of searches and of picture loads
+     * @param report true to log the results, false for a warm-up round
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void runMode(String threadMode, List<Cartoon> cartoons, int requests, boolean report)
+            throws InterruptedException {
+        int pageSize = ConfigurationManager.getApplicationProperties().getInt(
+                ApplicationProperties.SEARCH_PAGE_SIZE, ApplicationProperties.DEFAULT_SEARCH_PAGE_SIZE);
+        long[] searchLatencies = new long[requests];
+        long[] pictureLatencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(2 * requests);
+        TaskScheduler scheduler = new TaskScheduler(threadMode, 2 * requests);
+        long startTime = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                Cartoon cartoon = cartoons.get(i % cartoons.size());
+                SearchCharacterTask search = new SearchCharacterTask("", cartoon.getTitle(), null, pageSize, null);
+                scheduler.submit(new TimedTask(search::call, searchLatencies, i, failures, finished),
+                        Pool.DATABASE, Priority.INTERACTIVE, null);
+                scheduler.submit(new TimedTask(() -> loadPictures(cartoon.getCartoonId()), pictureLatencies, i,
+                        failures, finished), Pool.FILE, Priority.INTERACTIVE, null);
+            }
+            finished.await();
+        } finally {
+            scheduler.stop();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        if (report) {
+            logger.info(MessageFormat.format("{0} threads: {1} searches and {1} picture loads in {2} ms "
+                    + "({3} requests per second, {4} failed).", threadMode, requests, elapsedMillis,
+                    2L * requests * 1000 / elapsedMillis, failures.get()));
+            logLatencies(threadMode, "search", searchLatencies);
+            logLatencies(threadMode, "picture load", pictureLatencies);
+        }
+    }
+
+    /**
+     * Finds the pictures of the given cartoon and decodes their images, as
+     * the cartoon view does.
+     *
+     * @param cartoonId the cartoon identifier
+     * @return the number of images decoded
+     */
+    private int loadPictures(Long cartoonId) {
+        int imageCount = 0;
+        for (CartoonPicture picture : new CartoonPictureDataAccess().findPictures(cartoonId)) {
+            File imageFile = FileUtil.getImageFile(picture.getPictureLocation());
+            if (imageFile.isFile() && !new Image(imageFile.toURI().toString()).isError()) {
+                imageCount++;
+            }
+        }
+        return imageCount;
+    }
+
+    /**
+     * Logs the median, 95th percentile, and maximum of the given latencies.
+     *
+     * @param threadMode the thread mode
+     * @param requestName the name of the kind of request
+     * @param latencies the latencies in nanoseconds
+     */
+    private void logLatencies(String threadMode, String requestName, long[] latencies) {
+        Arrays.sort(latencies);
+        logger.info(MessageFormat.format("{0} threads: {1} latency {2} ms median, {3} ms 95th percentile, "
+                + "{4} ms maximum.", threadMode, requestName, latencies[(latencies.length - 1) / 2] / 1000000,
+                latencies[(int) Math.ceil(latencies.length * 0.95) - 1] / 1000000,
+                latencies[latencies.length - 1] / 1000000));
+    }
+
+    /**
+     * This class runs one request of the benchmark and records the time from
+     * its creation, just before it is submitted, to its completion.
+     */
+    private static class TimedTask extends Task<Void> {
+
+        /**
+         * The work of the request
+         */
+        private final Callable<?> work;
+
+        /**
+         * The latencies of the requests of this kind
+         */
+        private final long[] latencies;
+
+        /**
+         * The index of this request's latency
+         */
+        private final int index;
+
+        /**
+         * The number of failed requests
+         */
+        private final AtomicInteger failures;
+
+        /**
+         * The count of unfinished requests
+         */
+        private final CountDownLatch finished;
+
+        /**
+         * The time the request was created
+         */
+        private final long createTime = System.nanoTime();
+
+        /**
+         * Sets the values of the request.
+         *
+         * @param work the work of the request
+         * @param latencies the latencies of the requests of this kind
+         * @param index the index of this request's latency
+         * @param failures the number of failed requests
+         * @param finished the count of unfinished requests
+         */
+        TimedTask(Callable<?> work, long[] latencies, int index, AtomicInteger failures,
+                CountDownLatch finished) {
+            this.work = work;
+            this.latencies = latencies;
+            this.index = index;
+            this.failures = failures;
+            this.finished = finished;
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            try {
+                work.call();
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            } finally {
+                latencies[index] = System.nanoTime() - createTime;
+                finished.countDown();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,601 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.task;
+
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import com.daniel.cartooncharacters.util.ThreadUtil;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.concurrent.Task;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * This class runs the application's tasks on two bounded pools of daemon
+ * threads, one for database work and one for file and image work. Waiting
+ * tasks are ordered by priority, and each pool holds at most the configured
+ * number of waiting tasks; when a pool is full, the oldest waiting task of the
+ * lowest priority gives way to a new task of the same or higher priority.
+ * Tasks of HIGH priority are never dropped, so they wait beyond the limit
+ * when no other task can give way.
+ * <p>
+ * Tasks may be submitted on behalf of an owner, usually the controller of a
+ * view. When the view closes, cancelAll stops the owner's tasks that have not
+ * finished. Tasks that change data should be submitted without an owner so
+ * closing a view never abandons them.
+ * <p>
+ * In the virtual thread mode, each task runs on a virtual thread of its own
+ * instead of a pooled thread. A semaphore limits each pool to the configured
+ * number of running tasks, which cannot exceed the number of pooled database
+ * connections, and the tasks still start in order of priority.
+ * <p>
+ * Tasks that split their work into one job per picture file, such as picture
+ * ingests, run the jobs on the picture executor, which all such tasks share
+ * so that no more than the configured number of picture workers run at once.
+ *
+ * @author Bryan Daniel
+ */
+public class TaskScheduler {
+
+    /**
+     * The seconds the running tasks are given to finish when the scheduler
+     * stops
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    /**
+     * The pools running tasks
+     */
+    public enum Pool {
+
+        /**
+         * The pool for tasks querying or changing the database
+         */
+        DATABASE,
+        /**
+         * The pool for tasks reading or writing files and images
+         */
+        FILE
+    }
+
+    /**
+     * The priorities of waiting tasks, from highest to lowest
+     */
+    public enum Priority {
+
+        /**
+         * Changes requested by the user, which never give way to other tasks
+         */
+        HIGH,
+        /**
+         * Searches and selections the user is waiting for
+         */
+        INTERACTIVE,
+        /**
+         * Prefetching and other work nobody is waiting for
+         */
+        BACKGROUND
+    }
+
+    /**
+     * The scheduler, created on first use
+     */
+    private static volatile TaskScheduler instance;
+
+    /**
+     * The pools by pool type
+     */
+    private final Map<Pool, TaskPool> pools = new EnumMap<>(Pool.class);
+
+    /**
+     * The executor running the jobs of picture tasks, created on first use
+     */
+    private ExecutorService pictureExecutor;
+
+    /**
+     * The unfinished tasks of each owner
+     */
+    private final Map<Object, Set<ScheduledTask>> tasksByOwner = new HashMap<>();
+
+    /**
+     * The order of submission, which breaks ties between equal priorities
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger and creates the pools from the
+     * configured thread mode and sizes.
+     */
+    private TaskScheduler() {
+        this(ConfigurationManager.getApplicationProperties().getString(ApplicationProperties.TASK_THREAD_MODE),
+                -1);
+    }
+
+    /**
+     * Sets the value for the logger and creates the pools with the given
+     * thread mode and the configured sizes.
+     *
+     * @param threadMode the platform or virtual thread mode
+     * @param queueSize the maximum number of waiting tasks in each pool, or a
+     * negative number for the configured limits
+     */
+    TaskScheduler(String threadMode, int queueSize) {
+        logger = LogManager.getLogger(TaskScheduler.class);
+        ApplicationProperties properties = ConfigurationManager.getApplicationProperties();
+        boolean virtual = ApplicationProperties.THREAD_MODE_VIRTUAL.equals(threadMode);
+        int virtualConcurrency = Math.min(SessionUtil.CONNECTION_POOL_MAX_SIZE, properties.getInt(
+                ApplicationProperties.VIRTUAL_TASK_CONCURRENCY, SessionUtil.CONNECTION_POOL_MAX_SIZE));
+        pools.put(Pool.DATABASE, new TaskPool("database-task", virtual, virtual ? virtualConcurrency
+                : properties.getInt(ApplicationProperties.DATABASE_TASK_THREADS,
+                        ApplicationProperties.DEFAULT_DATABASE_TASK_THREADS),
+                queueSize >= 0 ? queueSize : properties.getInt(ApplicationProperties.DATABASE_TASK_QUEUE_SIZE,
+                        ApplicationProperties.DEFAULT_TASK_QUEUE_SIZE)));
+        pools.put(Pool.FILE, new TaskPool("file-task", virtual, virtual ? virtualConcurrency
+                : properties.getInt(ApplicationProperties.FILE_TASK_THREADS,
+                        ApplicationProperties.DEFAULT_FILE_TASK_THREADS),
+                queueSize >= 0 ? queueSize : properties.getInt(ApplicationProperties.FILE_TASK_QUEUE_SIZE,
+                        ApplicationProperties.DEFAULT_TASK_QUEUE_SIZE)));
+        logger.info(MessageFormat.format("Running tasks on {0} threads.", virtual
+                ? ApplicationProperties.THREAD_MODE_VIRTUAL : ApplicationProperties.THREAD_MODE_PLATFORM));
+    }
+
+    /**
+     * Returns the scheduler, creating it on first use.
+     *
+     * @return the scheduler
+     */
+    public static TaskScheduler getInstance() {
+        TaskScheduler scheduler = instance;
+        if (scheduler == null) {
+            synchronized (TaskScheduler.class) {
+                scheduler = instance;
+                if (scheduler == null) {
+                    scheduler = new TaskScheduler();
+                    instance = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Stops the pools of the scheduler, if it was created, as described for
+     * the stop method.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    /**
+     * Stops the pools. Waiting tasks are cancelled except changes requested by
+     * the user, which run with the running tasks. The pools are given a
+     * bounded time to finish these tasks before the tasks still running are
+     * interrupted.
+     */
+    void stop() {
+        pools.values().forEach(TaskPool::shutdown);
+        ExecutorService picture;
+        synchronized (this) {
+            picture = pictureExecutor;
+        }
+        if (picture != null) {
+            picture.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STOP_TIMEOUT_SECONDS);
+        for (TaskPool pool : pools.values()) {
+            awaitTermination(pool.executor, pool.name, deadline);
+        }
+        if (picture != null) {
+            awaitTermination(picture, "picture", deadline);
+        }
+    }
+
+    /**
+     * Returns the executor for the jobs of tasks that work on many picture
+     * files in parallel, creating it on first use. The executor runs the
+     * configured number of picture ingest workers, which all such tasks share,
+     * and it is stopped with the scheduler.
+     *
+     * @return the picture executor
+     */
+    public synchronized ExecutorService getPictureExecutor() {
+        if (pictureExecutor == null) {
+            pictureExecutor = Executors.newFixedThreadPool(Math.max(1, ConfigurationManager
+                    .getApplicationProperties().getInt(ApplicationProperties.PICTURE_INGEST_WORKERS,
+                            ApplicationProperties.DEFAULT_PICTURE_INGEST_WORKERS)),
+                    ThreadUtil.daemonThreadFactory("picture-worker"));
+        }
+        return pictureExecutor;
+    }
+
+    /**
+     * Waits until the given time for the running tasks of the executor to
+     * finish and interrupts those still running.
+     *
+     * @param executor the executor, already shut down
+     * @param name the name of the executor for the log
+     * @param deadline the System.nanoTime value after which the running
+     * tasks are interrupted
+     */
+    private void awaitTermination(ExecutorService executor, String name, long deadline) {
+        try {
+            if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                logger.warn("The " + name + " tasks did not finish in time and were interrupted.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ie) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submits the task to the given pool.
+     *
+     * @param <T> the task type
+     * @param task the task
+     * @param pool the pool to run the task
+     * @param priority the priority of the task while it waits
+     * @param owner the owner whose closing cancels the task, or null
+     * @return the task
+     */
+    public <T extends Task<?>> T submit(T task, Pool pool, Priority priority, Object owner) {
+        ScheduledTask scheduledTask = new ScheduledTask(task, pools.get(pool), priority, owner,
+                sequence.incrementAndGet());
+        track(scheduledTask);
+        scheduledTask.pool.execute(scheduledTask);
+        return task;
+    }
+
+    /**
+     * Submits the task to the given pool after cancelling the unfinished
+     * tasks of the same class submitted by the same owner, whose results the
+     * new task replaces.
+     *
+     * @param <T> the task type
+     * @param task the task
+     * @param pool the pool to run the task
+     * @param priority the priority of the task while it waits
+     * @param owner the owner of the task
+     * @return the task
+     */
+    public <T extends Task<?>> T submitLatest(T task, Pool pool, Priority priority, Object owner) {
+        List<ScheduledTask> superseded = new ArrayList<>();
+        synchronized (tasksByOwner) {
+            Set<ScheduledTask> tasks = tasksByOwner.get(owner);
+            if (tasks != null) {
+                tasks.stream().filter((scheduledTask) -> scheduledTask.task.getClass() == task.getClass())
+                        .forEach(superseded::add);
+            }
+        }
+        superseded.forEach(this::cancel);
+        return submit(task, pool, priority, owner);
+    }
+
+    /**
+     * Cancels the unfinished tasks of the given owner. Waiting tasks are
+     * removed from their pool; running tasks are marked cancelled without
+     * being interrupted, so their results are discarded when they finish.
+     *
+     * @param owner the owner
+     */
+    public void cancelAll(Object owner) {
+        Set<ScheduledTask> tasks;
+        synchronized (tasksByOwner) {
+            tasks = tasksByOwner.remove(owner);
+        }
+        if (tasks != null) {
+            tasks.forEach(this::cancel);
+        }
+    }
+
+    /**
+     * Removes the task from its pool if it is waiting and cancels it.
+     *
+     * @param scheduledTask the task
+     */
+    private void cancel(ScheduledTask scheduledTask) {
+        scheduledTask.pool.queue.remove(scheduledTask);
+        scheduledTask.task.cancel(false);
+        untrack(scheduledTask);
+    }
+
+    /**
+     * Records the task as unfinished for its owner.
+     *
+     * @param scheduledTask the task
+     */
+    private void track(ScheduledTask scheduledTask) {
+        if (scheduledTask.owner != null) {
+            synchronized (tasksByOwner) {
+                tasksByOwner.computeIfAbsent(scheduledTask.owner, (owner) -> new HashSet<>()).add(scheduledTask);
+            }
+        }
+    }
+
+    /**
+     * Removes the task from the unfinished tasks of its owner.
+     *
+     * @param scheduledTask the task
+     */
+    private void untrack(ScheduledTask scheduledTask) {
+        if (scheduledTask.owner != null) {
+            synchronized (tasksByOwner) {
+                Set<ScheduledTask> tasks = tasksByOwner.get(scheduledTask.owner);
+                if (tasks != null && tasks.remove(scheduledTask) && tasks.isEmpty()) {
+                    tasksByOwner.remove(scheduledTask.owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * This class holds a task with its pool, priority, and owner while it
+     * waits and runs.
+     */
+    private class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        /**
+         * The task
+         */
+        private final Task<?> task;
+
+        /**
+         * The pool running the task
+         */
+        private final TaskPool pool;
+
+        /**
+         * The priority of the task
+         */
+        private final Priority priority;
+
+        /**
+         * The owner of the task or null
+         */
+        private final Object owner;
+
+        /**
+         * The order of submission
+         */
+        private final long sequence;
+
+        /**
+         * Sets the values of the scheduled task.
+         *
+         * @param task the task
+         * @param pool the pool running the task
+         * @param priority the priority of the task
+         * @param owner the owner of the task or null
+         * @param sequence the order of submission
+         */
+        ScheduledTask(Task<?> task, TaskPool pool, Priority priority, Object owner, long sequence) {
+            this.task = task;
+            this.pool = pool;
+            this.priority = priority;
+            this.owner = owner;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                untrack(this);
+            }
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int comparison = priority.compareTo(other.priority);
+            return comparison != 0 ? comparison : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * This class holds the executor and the waiting tasks of one pool. In the
+     * platform thread mode, a fixed number of pooled threads take the waiting
+     * tasks. In the virtual thread mode, a dispatcher thread takes a waiting
+     * task whenever a permit is free and starts a virtual thread to run it.
+     */
+    private class TaskPool {
+
+        /**
+         * The tasks waiting for a thread, highest priority first
+         */
+        private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+
+        /**
+         * The executor running the tasks
+         */
+        private final ExecutorService executor;
+
+        /**
+         * The thread starting waiting tasks in the virtual thread mode, or
+         * null
+         */
+        private final Thread dispatcher;
+
+        /**
+         * The maximum number of waiting tasks
+         */
+        private final int queueLimit;
+
+        /**
+         * The prefix of the thread names
+         */
+        private final String name;
+
+        /**
+         * Creates the executor. Pooled platform threads are daemon threads
+         * that stop after a minute without work.
+         *
+         * @param name the prefix of the thread names
+         * @param virtual true to run each task on a virtual thread
+         * @param concurrency the number of tasks running at once
+         * @param queueLimit the maximum number of waiting tasks
+         */
+        TaskPool(String name, boolean virtual, int concurrency, int queueLimit) {
+            this.name = name;
+            this.queueLimit = Math.max(1, queueLimit);
+            if (virtual) {
+                executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+                Semaphore permits = new Semaphore(Math.max(1, concurrency));
+                dispatcher = new Thread(() -> dispatch(permits), name + "-dispatcher");
+                dispatcher.setDaemon(true);
+                dispatcher.start();
+            } else {
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(Math.max(1, concurrency), Math.max(1, concurrency),
+                        60, TimeUnit.SECONDS, queue, ThreadUtil.daemonThreadFactory(name));
+                pool.allowCoreThreadTimeOut(true);
+                executor = pool;
+                dispatcher = null;
+            }
+        }
+
+        /**
+         * Starts the highest-priority waiting task on a virtual thread
+         * whenever a permit is free, until the pool stops.
+         *
+         * @param permits the permits of the running tasks
+         */
+        private void dispatch(Semaphore permits) {
+            try {
+                while (!executor.isShutdown()) {
+                    permits.acquire();
+                    Runnable next = queue.take();
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                next.run();
+                            } finally {
+                                permits.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException ree) {
+                        cancel((ScheduledTask) next);
+                        permits.release();
+                    }
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Stops accepting tasks and cancels the waiting tasks other than those
+         * of HIGH priority, which are left to run. In the virtual thread mode,
+         * the dispatcher stops and the remaining tasks start at once.
+         */
+        synchronized void shutdown() {
+            if (dispatcher != null) {
+                dispatcher.interrupt();
+                try {
+                    dispatcher.join();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<ScheduledTask> cancelled = new ArrayList<>();
+            List<ScheduledTask> remaining = new ArrayList<>();
+            for (Runnable runnable : queue) {
+                ScheduledTask waiting = (ScheduledTask) runnable;
+                (waiting.priority == Priority.HIGH ? remaining : cancelled).add(waiting);
+            }
+            cancelled.forEach(TaskScheduler.this::cancel);
+            if (dispatcher != null) {
+                remaining.forEach((waiting) -> {
+                    queue.remove(waiting);
+                    executor.execute(waiting);
+                });
+            }
+            executor.shutdown();
+        }
+
+        /**
+         * Hands the task to the executor, first making room in a full queue
+         * by cancelling the oldest waiting task of the lowest priority if it
+         * does not outrank the new task. If no room can be made, a new task of
+         * HIGH priority waits beyond the limit and any other new task is
+         * cancelled instead.
+         *
+         * @param scheduledTask the task
+         */
+        synchronized void execute(ScheduledTask scheduledTask) {
+            if (queue.size() >= queueLimit) {
+                ScheduledTask victim = null;
+                for (Runnable runnable : queue) {
+                    ScheduledTask waiting = (ScheduledTask) runnable;
+                    if (victim == null || waiting.priority.compareTo(victim.priority) > 0
+                            || (waiting.priority == victim.priority && waiting.sequence < victim.sequence)) {
+                        victim = waiting;
+                    }
+                }
+                if (victim != null && victim.priority != Priority.HIGH
+                        && victim.priority.compareTo(scheduledTask.priority) >= 0) {
+                    logger.info("The " + name + " queue is full; cancelled a waiting "
+                            + victim.task.getClass().getSimpleName() + ".");
+                    cancel(victim);
+                } else if (scheduledTask.priority == Priority.HIGH) {
+                    logger.info("The " + name + " queue is full of changes; queued a "
+                            + scheduledTask.task.getClass().getSimpleName() + " beyond the limit.");
+                } else {
+                    logger.warn("The " + name + " queue is full; rejected a "
+                            + scheduledTask.task.getClass().getSimpleName() + ".");
+                    cancel(scheduledTask);
+                    return;
+                }
+            }
+            try {
+                if (dispatcher == null) {
+                    executor.execute(scheduledTask);
+                } else if (executor.isShutdown()) {
+                    throw new RejectedExecutionException("The " + name + " pool is stopped.");
+                } else {
+                    queue.add(scheduledTask);
+                }
+            } catch (RejectedExecutionException ree) {
+                logger.error("RejectedExecutionException occurred during TaskScheduler.TaskPool.execute.", ree);
+                cancel(scheduledTask);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * This class exports the cartoons, locations, characters with their
+ * demographics, and picture references to one file per table in a directory.
+ * Rows are read through forward-only cursors and written as they arrive, so
+ * memory use does not depend on the size of the tables. All files are read in
+ * one read-only transaction and therefore describe the same moment.
+ * <p>
+ * The cartoon, location, and character files use the field names of the
+ * CatalogImporter, so importing them in that order restores the catalog.
+ *
+ * @author Bryan Daniel
+ */
+public class CatalogExporter {
+
+    /**
+     * The format writing comma-separated files
+     */
+    public static final String FORMAT_CSV = "csv";
+
+    /**
+     * The format writing newline-delimited JSON files
+     */
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * The field holding the cartoon identifier
+     */
+    public static final String CARTOON_ID = "cartoonId";
+
+    /**
+     * The field holding the location identifier
+     */
+    public static final String LOCATION_ID = "locationId";
+
+    /**
+     * The field holding the character identifier
+     */
+    public static final String CHARACTER_ID = "characterId";
+
+    /**
+     * The field holding the picture identifier
+     */
+    public static final String PICTURE_ID = "pictureId";
+
+    /**
+     * The field holding the picture file location
+     */
+    public static final String PICTURE_LOCATION = "pictureLocation";
+
+    /**
+     * The number of rows fetched per round trip
+     */
+    private static final int FETCH_SIZE = 1000;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger.
+     */
+    public CatalogExporter() {
+        logger = LogManager.getLogger(CatalogExporter.class);
+    }
+
+    /**
+     * Exports the catalog to the given directory in the given format,
+     * replacing any files from an earlier export.
+     *
+     * @param directory the directory receiving the files
+     * @param format the csv or ndjson format
+     * @return true if all files were written, false otherwise
+     */
+    public boolean exportCatalog(Path directory, String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            logger.error("The export format must be " + FORMAT_CSV + " or " + FORMAT_NDJSON + ".");
+            return false;
+        }
+        long startTime = System.nanoTime();
+        long rowCount = 0;
+        Session session = null;
+        try {
+            Files.createDirectories(directory);
+            session = SessionUtil.getNewSession();
+            session.getTransaction().begin();
+            session.createSQLQuery("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY").executeUpdate();
+
+            rowCount += exportRows(session, "SELECT c.cartoonId, c.title, c.description FROM Cartoon c "
+                    + "ORDER BY c.cartoonId", directory.resolve("cartoons." + format), format,
+                    CARTOON_ID, CatalogRecord.CARTOON, CatalogRecord.CARTOON_DESCRIPTION);
+            rowCount += exportRows(session, "SELECT l.locationId, l.locationName, l.description, c.cartoonId, "
+                    + "c.title FROM CartoonLocation l JOIN l.cartoon c ORDER BY l.locationId",
+                    directory.resolve("locations." + format), format, LOCATION_ID, CatalogRecord.LOCATION,
+                    CatalogRecord.LOCATION_DESCRIPTION, CARTOON_ID, CatalogRecord.CARTOON);
+            rowCount += exportRows(session, "SELECT ch.characterId, ch.characterName, ch.description, "
+                    + "d.gender.gender, d.villain, l.locationId, l.locationName, c.cartoonId, c.title "
+                    + "FROM CharacterDemographic d RIGHT JOIN d.character ch JOIN ch.characterHome l "
+                    + "JOIN l.cartoon c ORDER BY ch.characterId", directory.resolve("characters." + format),
+                    format, CHARACTER_ID, CatalogRecord.CHARACTER, CatalogRecord.CHARACTER_DESCRIPTION,
+                    CatalogRecord.GENDER, CatalogRecord.VILLAIN, LOCATION_ID, CatalogRecord.LOCATION, CARTOON_ID,
+                    CatalogRecord.CARTOON);
+            rowCount += exportRows(session, "SELECT p.pictureId, p.pictureLocation, p.cartoon.cartoonId "
+                    + "FROM CartoonPicture p ORDER BY p.pictureId", directory.resolve("cartoon_pictures." + format),
+                    format, PICTURE_ID, PICTURE_LOCATION, CARTOON_ID);
+            rowCount += exportRows(session, "SELECT p.pictureId, p.pictureLocation, "
+                    + "p.cartoonLocation.locationId FROM LocationPicture p ORDER BY p.pictureId",
+                    directory.resolve("location_pictures." + format), format, PICTURE_ID, PICTURE_LOCATION,
+                    LOCATION_ID);
+            rowCount += exportRows(session, "SELECT p.pictureId, p.pictureLocation, "
+                    + "p.cartoonCharacter.characterId FROM CharacterPicture p ORDER BY p.pictureId",
+                    directory.resolve("character_pictures." + format), format, PICTURE_ID, PICTURE_LOCATION,
+                    CHARACTER_ID);
+            session.getTransaction().commit();
+        } catch (HibernateException he) {
+            logger.error("HibernateException exception occurred during CatalogExporter.exportCatalog.", he);
+            return false;
+        } catch (IOException ioe) {
+            logger.error("IOException occurred during CatalogExporter.exportCatalog.", ioe);
+            return false;
+        } catch (Exception e) {
+            logger.error("Exception occurred during CatalogExporter.exportCatalog.", e);
+            return false;
+        } finally {
+            if (session != null && session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Exported {0} rows to {1} in {2} ms ({3} rows per second).",
+                rowCount, directory, elapsedMillis, rowCount * 1000L / elapsedMillis));
+        return true;
+    }
+
+    /**
+     * Writes the rows of the given projection query to the given file. The
+     * rows are written to a temporary file that replaces the given file once
+     * it is complete, so a failed export never leaves a partial file under the
+     * final name.
+     *
+     * @param session the session of the export transaction
+     * @param hql the projection query selecting one column per field
+     * @param file the file receiving the rows
+     * @param format the csv or ndjson format
+     * @param fields the names of the selected columns
+     * @return the number of rows written
+     * @throws IOException if the file cannot be written
+     */
+    private long exportRows(Session session, String hql, Path file, String format, String... fields)
+            throws IOException {
+        long startTime = System.nanoTime();
+        long rowCount = 0;
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Query query = session.createQuery(hql);
+        query.setReadOnly(true);
+        query.setFetchSize(FETCH_SIZE);
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        RecordWriter writer = null;
+        try {
+            FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            writer = FORMAT_CSV.equals(format) ? new CsvRecordWriter(channel, fields)
+                    : new NdjsonRecordWriter(channel, fields);
+            while (results.next()) {
+                writer.write(results.get());
+                rowCount++;
+            }
+        } finally {
+            results.close();
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Exported {0} rows ({1} bytes) to {2} in {3} ms ({4} rows per second).",
+                rowCount, writer.getByteCount(), file.getFileName(), elapsedMillis, rowCount * 1000L / elapsedMillis));
+        return rowCount;
+    }
+}
@@ -0,0 +1,706 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import com.daniel.cartooncharacters.data.SimpleGenderDataAccess;
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.entity.CharacterDemographic;
+import com.daniel.cartooncharacters.entity.Gender;
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import com.daniel.cartooncharacters.util.ThreadUtil;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Query;
+import org.hibernate.Session;
+
+/**
+ * This class imports cartoons, locations, characters, and demographics from a
+ * CSV or NDJSON file. The file is read one record at a time and each record is
+ * handed to the worker owning its cartoon title, so a cartoon and everything in
+ * it is always written by the same worker. Each worker resolves titles and
+ * names through maps keyed like the unique constraints of the tables, loading
+ * the maps of a cartoon from the database the first time the cartoon is seen,
+ * and writes new and changed rows through batched inserts and updates.
+ * <p>
+ * Records that match the database are skipped, so importing the same file
+ * again changes nothing. Missing descriptions, genders, and villain flags
+ * leave existing values unchanged, and new characters without a gender are
+ * given the unknown gender.
+ *
+ * @author Bryan Daniel
+ */
+public class CatalogImporter {
+
+    /**
+     * The gender given to new characters without a gender
+     */
+    private static final String UNKNOWN_GENDER = "U";
+
+    /**
+     * The number of records waiting for each worker
+     */
+    private static final int QUEUE_CAPACITY = 1000;
+
+    /**
+     * The number of cartoons whose maps each worker keeps in memory
+     */
+    private static final int MAX_CACHED_CARTOONS = 100;
+
+    /**
+     * The milliseconds a worker waits for a record before checking whether the
+     * file is finished
+     */
+    private static final long POLL_TIMEOUT = 100;
+
+    /**
+     * The number of parallel workers
+     */
+    private final int workerCount;
+
+    /**
+     * The number of records written between flushes
+     */
+    private final int batchSize;
+
+    /**
+     * The number of records written in one transaction
+     */
+    private final int commitSize;
+
+    /**
+     * The number of records read from the file
+     */
+    private final AtomicLong readCount = new AtomicLong();
+
+    /**
+     * The number of committed records that inserted rows
+     */
+    private final AtomicLong insertedCount = new AtomicLong();
+
+    /**
+     * The number of committed records that only updated rows
+     */
+    private final AtomicLong updatedCount = new AtomicLong();
+
+    /**
+     * The number of records that matched the database
+     */
+    private final AtomicLong unchangedCount = new AtomicLong();
+
+    /**
+     * The number of records that were invalid or could not be written
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Indicates the whole file has been handed to the workers
+     */
+    private volatile boolean readFinished;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger;
+
+    /**
+     * Sets the value for the logger and reads the worker and batch settings.
+     */
+    public CatalogImporter() {
+        logger = LogManager.getLogger(CatalogImporter.class);
+        ApplicationProperties properties = ConfigurationManager.getApplicationProperties();
+        workerCount = Math.max(1, properties.getInt(ApplicationProperties.IMPORT_WORKERS,
+                ApplicationProperties.DEFAULT_IMPORT_WORKERS));
+        batchSize = Math.max(1, properties.getInt(ApplicationProperties.JDBC_BATCH_SIZE,
+                ApplicationProperties.DEFAULT_JDBC_BATCH_SIZE));
+        commitSize = Math.max(1, properties.getInt(ApplicationProperties.BULK_COMMIT_SIZE,
+                ApplicationProperties.DEFAULT_BULK_COMMIT_SIZE));
+    }
+
+    /**
+     * Imports the records of the given file. Files ending in .csv are read as
+     * CSV with a header row and files ending in .ndjson, .jsonl, or .json are
+     * read as one JSON object per line.
+     *
+     * @param file the file to import
+     * @return true if the whole file was imported without failed records,
+     * false otherwise
+     */
+    public boolean importFile(Path file) {
+        Set<String> genderCodes = new HashSet<>();
+        for (Gender gender : new SimpleGenderDataAccess().findAllGenders()) {
+            genderCodes.add(gender.getGender());
+        }
+        if (genderCodes.isEmpty()) {
+            logger.error("No genders were found for CatalogImporter.importFile.");
+            return false;
+        }
+
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount,
+                ThreadUtil.daemonThreadFactory("catalog-import"));
+        List<BlockingQueue<CatalogRecord>> queues = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<CatalogRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            executor.execute(new ImportWorker(queue));
+        }
+
+        boolean readComplete = false;
+        try (RecordReader reader = openReader(file)) {
+            while (true) {
+                CatalogRecord record;
+                try {
+                    Map<String, String> fields = reader.next();
+                    if (fields == null) {
+                        break;
+                    }
+                    record = CatalogRecord.fromFields(fields, reader.getLineNumber(), genderCodes);
+                } catch (IllegalArgumentException iae) {
+                    // a malformed line or an invalid record fails only that record
+                    readCount.incrementAndGet();
+                    failedCount.incrementAndGet();
+                    logger.warn(MessageFormat.format("Skipped the record on line {0}: {1}",
+                            reader.getLineNumber(), iae.getMessage()));
+                    continue;
+                }
+                readCount.incrementAndGet();
+                queues.get(Math.floorMod(record.getCartoonTitle().hashCode(), workerCount)).put(record);
+            }
+            readComplete = true;
+        } catch (IOException ioe) {
+            logger.error("IOException occurred during CatalogImporter.importFile.", ioe);
+        } catch (InterruptedException ie) {
+            logger.error("InterruptedException occurred during CatalogImporter.importFile.", ie);
+            Thread.currentThread().interrupt();
+        } finally {
+            readFinished = true;
+            executor.shutdown();
+        }
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            logger.error("InterruptedException occurred during CatalogImporter.importFile.", ie);
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        logger.info(MessageFormat.format("Imported {0} records from {1} in {2} ms ({3} records per second): "
+                + "{4} inserted, {5} updated, {6} unchanged, {7} failed.", readCount.get(), file.getFileName(),
+                elapsedMillis, readCount.get() * 1000L / elapsedMillis, insertedCount.get(), updatedCount.get(),
+                unchangedCount.get(), failedCount.get()));
+        return readComplete && failedCount.get() == 0;
+    }
+
+    /**
+     * Opens a reader for the given file based on its extension.
+     *
+     * @param file the file to read
+     * @return the record reader
+     * @throws IOException if the file cannot be opened or its type is unknown
+     */
+    private RecordReader openReader(Path file) throws IOException {
+        String fileName = file.getFileName().toString().toLowerCase();
+        if (fileName.endsWith(".csv")) {
+            return new CsvRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        }
+        if (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl") || fileName.endsWith(".json")) {
+            return new NdjsonRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        }
+        throw new IOException("The import file must end in .csv, .ndjson, .jsonl, or .json.");
+    }
+
+    /**
+     * This class writes the records of the cartoons assigned to one worker.
+     * Records are written in transactions of the configured commit size; if a
+     * transaction fails, its records are counted as failed and the maps are
+     * reloaded from the database.
+     */
+    private class ImportWorker implements Runnable {
+
+        /**
+         * The result of a record that matched the database
+         */
+        private static final int UNCHANGED = 0;
+
+        /**
+         * The result of a record that updated rows
+         */
+        private static final int UPDATED = 1;
+
+        /**
+         * The result of a record that inserted rows
+         */
+        private static final int INSERTED = 2;
+
+        /**
+         * The records assigned to this worker
+         */
+        private final BlockingQueue<CatalogRecord> queue;
+
+        /**
+         * The most recently used cartoons by title
+         */
+        private final Map<String, CartoonKeys> cartoons = new LinkedHashMap<String, CartoonKeys>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CartoonKeys> eldest) {
+                return size() > MAX_CACHED_CARTOONS;
+            }
+        };
+
+        /**
+         * The session of the open transaction
+         */
+        private Session session;
+
+        /**
+         * The records written in the open transaction by result
+         */
+        private final int[] pendingResults = new int[3];
+
+        /**
+         * The number of records written in the open transaction
+         */
+        private int pendingCount;
+
+        /**
+         * Sets the records assigned to this worker.
+         *
+         * @param queue the records assigned to this worker
+         */
+        ImportWorker(BlockingQueue<CatalogRecord> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    CatalogRecord record = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (record != null) {
+                        write(record);
+                    } else if (readFinished && queue.isEmpty()) {
+                        break;
+                    }
+                }
+                if (session != null) {
+                    session.getTransaction().commit();
+                    publishPending();
+                }
+            } catch (InterruptedException ie) {
+                logger.error("InterruptedException occurred during CatalogImporter.ImportWorker.run.", ie);
+                Thread.currentThread().interrupt();
+                abandonTransaction();
+            } catch (HibernateException he) {
+                logger.error("HibernateException exception occurred during CatalogImporter.ImportWorker.run.", he);
+                abandonTransaction();
+            } finally {
+                SessionUtil.close(session);
+            }
+        }
+
+        /**
+         * Writes the record in the open transaction, flushing the batch or
+         * committing the transaction when the configured sizes are reached.
+         *
+         * @param record the record
+         */
+        private void write(CatalogRecord record) {
+            pendingCount++;
+            try {
+                if (session == null) {
+                    session = SessionUtil.getNewSession();
+                    session.getTransaction().begin();
+                }
+                pendingResults[apply(record)]++;
+                if (pendingCount % commitSize == 0) {
+                    session.getTransaction().commit();
+                    publishPending();
+                    session.clear();
+                    session.getTransaction().begin();
+                } else if (pendingCount % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            } catch (HibernateException he) {
+                logger.error(MessageFormat.format("HibernateException exception occurred during "
+                        + "CatalogImporter.ImportWorker.write of the record on line {0}.", record.getLineNumber()), he);
+                abandonTransaction();
+            } catch (Exception e) {
+                logger.error(MessageFormat.format("Exception occurred during CatalogImporter.ImportWorker.write "
+                        + "of the record on line {0}.", record.getLineNumber()), e);
+                abandonTransaction();
+            }
+        }
+
+        /**
+         * Inserts or updates the cartoon, location, character, and demographic
+         * of the record as needed.
+         *
+         * @param record the record
+         * @return the result of the record
+         */
+        private int apply(CatalogRecord record) {
+            int result = UNCHANGED;
+            CartoonKeys cartoon = cartoons.get(record.getCartoonTitle());
+            if (cartoon == null) {
+                cartoon = loadCartoon(record.getCartoonTitle());
+            }
+            if (cartoon == null) {
+                Cartoon newCartoon = new Cartoon();
+                newCartoon.setTitle(record.getCartoonTitle());
+                newCartoon.setDescription(record.getCartoonDescription());
+                session.persist(newCartoon);
+                cartoon = new CartoonKeys(newCartoon.getCartoonId(), newCartoon.getDescription());
+                cartoons.put(record.getCartoonTitle(), cartoon);
+                result = INSERTED;
+            } else if (changes(record.getCartoonDescription(), cartoon.description)) {
+                Cartoon existingCartoon = (Cartoon) session.get(Cartoon.class, cartoon.id);
+                existingCartoon.setDescription(record.getCartoonDescription());
+                cartoon.description = record.getCartoonDescription();
+                result = UPDATED;
+            }
+            if (record.getLocationName() == null) {
+                return result;
+            }
+
+            LocationKeys location = cartoon.locations.get(record.getLocationName());
+            if (location == null) {
+                CartoonLocation newLocation = new CartoonLocation();
+                newLocation.setLocationName(record.getLocationName());
+                newLocation.setDescription(record.getLocationDescription());
+                newLocation.setCartoon((Cartoon) session.load(Cartoon.class, cartoon.id));
+                session.persist(newLocation);
+                location = new LocationKeys(newLocation.getLocationId(), newLocation.getDescription());
+                cartoon.locations.put(record.getLocationName(), location);
+                result = INSERTED;
+            } else if (changes(record.getLocationDescription(), location.description)) {
+                CartoonLocation existingLocation = (CartoonLocation) session.get(CartoonLocation.class, location.id);
+                existingLocation.setDescription(record.getLocationDescription());
+                location.description = record.getLocationDescription();
+                result = Math.max(result, UPDATED);
+            }
+            if (record.getCharacterName() == null) {
+                return result;
+            }
+
+            CharacterKeys character = location.characters.get(record.getCharacterName());
+            if (character == null) {
+                CartoonCharacter newCharacter = new CartoonCharacter();
+                newCharacter.setCharacterName(record.getCharacterName());
+                newCharacter.setDescription(record.getCharacterDescription());
+                newCharacter.setCharacterHome((CartoonLocation) session.load(CartoonLocation.class, location.id));
+                session.persist(newCharacter);
+                character = new CharacterKeys(newCharacter.getCharacterId(), newCharacter.getDescription());
+                location.characters.put(record.getCharacterName(), character);
+                addDemographic(newCharacter, record, character);
+                return INSERTED;
+            }
+            if (changes(record.getCharacterDescription(), character.description)) {
+                CartoonCharacter existingCharacter = (CartoonCharacter) session.get(CartoonCharacter.class,
+                        character.id);
+                existingCharacter.setDescription(record.getCharacterDescription());
+                character.description = record.getCharacterDescription();
+                result = Math.max(result, UPDATED);
+            }
+            if (!character.hasDemographic) {
+                addDemographic((CartoonCharacter) session.get(CartoonCharacter.class, character.id), record,
+                        character);
+                result = INSERTED;
+            } else if (changes(record.getGender(), character.gender) || changes(record.getVillain(),
+                    character.villain)) {
+                Query demographicQuery = session.createQuery(
+                        "FROM CharacterDemographic d WHERE d.character.characterId = :characterId");
+                demographicQuery.setLong("characterId", character.id);
+                CharacterDemographic demographic = (CharacterDemographic) demographicQuery.uniqueResult();
+                if (record.getGender() != null) {
+                    demographic.setGender((Gender) session.load(Gender.class, record.getGender()));
+                    character.gender = record.getGender();
+                }
+                if (record.getVillain() != null) {
+                    demographic.setVillain(record.getVillain());
+                    character.villain = record.getVillain();
+                }
+                result = Math.max(result, UPDATED);
+            }
+            return result;
+        }
+
+        /**
+         * Persists the demographic of the given character from the record.
+         *
+         * @param cartoonCharacter the character
+         * @param record the record
+         * @param character the keys of the character
+         */
+        private void addDemographic(CartoonCharacter cartoonCharacter, CatalogRecord record, CharacterKeys character) {
+            CharacterDemographic demographic = new CharacterDemographic();
+            demographic.setCharacter(cartoonCharacter);
+            String gender = record.getGender() == null ? UNKNOWN_GENDER : record.getGender();
+            demographic.setGender((Gender) session.load(Gender.class, gender));
+            demographic.setVillain(record.getVillain());
+            session.persist(demographic);
+            character.hasDemographic = true;
+            character.gender = gender;
+            character.villain = record.getVillain();
+        }
+
+        /**
+         * Loads the keys of the cartoon with the given title along with its
+         * locations, characters, and demographics.
+         *
+         * @param title the cartoon title
+         * @return the cartoon keys or null if the cartoon does not exist
+         */
+        private CartoonKeys loadCartoon(String title) {
+            Query cartoonQuery = session.createQuery(
+                    "SELECT c.cartoonId, c.description FROM Cartoon c WHERE c.title = :title");
+            cartoonQuery.setString("title", title);
+            Object[] cartoonRow = (Object[]) cartoonQuery.uniqueResult();
+            if (cartoonRow == null) {
+                return null;
+            }
+            CartoonKeys cartoon = new CartoonKeys((Long) cartoonRow[0], (String) cartoonRow[1]);
+
+            Map<Long, LocationKeys> locationsById = new HashMap<>();
+            Query locationQuery = session.createQuery("SELECT l.locationId, l.locationName, l.description "
+                    + "FROM CartoonLocation l WHERE l.cartoon.cartoonId = :cartoonId");
+            locationQuery.setLong("cartoonId", cartoon.id);
+            for (Object o : locationQuery.setReadOnly(true).list()) {
+                Object[] row = (Object[]) o;
+                LocationKeys location = new LocationKeys((Long) row[0], (String) row[2]);
+                cartoon.locations.put((String) row[1], location);
+                locationsById.put(location.id, location);
+            }
+
+            Map<Long, CharacterKeys> charactersById = new HashMap<>();
+            Query characterQuery = session.createQuery("SELECT ch.characterId, ch.characterHome.locationId, "
+                    + "ch.characterName, ch.description FROM CartoonCharacter ch "
+                    + "WHERE ch.characterHome.cartoon.cartoonId = :cartoonId");
+            characterQuery.setLong("cartoonId", cartoon.id);
+            for (Object o : characterQuery.setReadOnly(true).list()) {
+                Object[] row = (Object[]) o;
+                CharacterKeys character = new CharacterKeys((Long) row[0], (String) row[3]);
+                locationsById.get((Long) row[1]).characters.put((String) row[2], character);
+                charactersById.put(character.id, character);
+            }
+
+            Query demographicQuery = session.createQuery("SELECT d.character.characterId, d.gender.gender, "
+                    + "d.villain FROM CharacterDemographic d WHERE d.character.characterHome.cartoon.cartoonId "
+                    + "= :cartoonId");
+            demographicQuery.setLong("cartoonId", cartoon.id);
+            for (Object o : demographicQuery.setReadOnly(true).list()) {
+                Object[] row = (Object[]) o;
+                CharacterKeys character = charactersById.get((Long) row[0]);
+                character.hasDemographic = true;
+                character.gender = (String) row[1];
+                character.villain = (Boolean) row[2];
+            }
+            cartoons.put(title, cartoon);
+            return cartoon;
+        }
+
+        /**
+         * Determines whether the given record value differs from the stored
+         * value. A missing record value never changes the stored value.
+         *
+         * @param recordValue the value in the record
+         * @param storedValue the value in the database
+         * @return true if the value changes, false otherwise
+         */
+        private boolean changes(Object recordValue, Object storedValue) {
+            return recordValue != null && !Objects.equals(recordValue, storedValue);
+        }
+
+        /**
+         * Adds the results of the committed transaction to the totals.
+         */
+        private void publishPending() {
+            unchangedCount.addAndGet(pendingResults[UNCHANGED]);
+            updatedCount.addAndGet(pendingResults[UPDATED]);
+            insertedCount.addAndGet(pendingResults[INSERTED]);
+            clearPending();
+        }
+
+        /**
+         * Rolls back and closes the session of the open transaction, counts
+         * its records as failed, and forgets the cartoon maps, which may hold
+         * rows that were never committed.
+         */
+        private void abandonTransaction() {
+            if (session != null && session.getTransaction().isActive()) {
+                try {
+                    session.getTransaction().rollback();
+                } catch (HibernateException he) {
+                    logger.error("HibernateException exception occurred during "
+                            + "CatalogImporter.ImportWorker.abandonTransaction.", he);
+                }
+            }
+            SessionUtil.close(session);
+            session = null;
+            failedCount.addAndGet(pendingCount);
+            clearPending();
+            cartoons.clear();
+        }
+
+        /**
+         * Resets the results of the open transaction.
+         */
+        private void clearPending() {
+            pendingCount = 0;
+            pendingResults[UNCHANGED] = 0;
+            pendingResults[UPDATED] = 0;
+            pendingResults[INSERTED] = 0;
+        }
+    }
+
+    /**
+     * This class holds the identifier and description of a cartoon along with
+     * its locations by name.
+     */
+    private static class CartoonKeys {
+
+        /**
+         * The cartoon identifier
+         */
+        private final Long id;
+
+        /**
+         * The cartoon description
+         */
+        private String description;
+
+        /**
+         * The locations of the cartoon by location name
+         */
+        private final Map<String, LocationKeys> locations = new HashMap<>();
+
+        /**
+         * Sets the identifier and description.
+         *
+         * @param id the cartoon identifier
+         * @param description the cartoon description
+         */
+        CartoonKeys(Long id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+
+    /**
+     * This class holds the identifier and description of a location along
+     * with its characters by name.
+     */
+    private static class LocationKeys {
+
+        /**
+         * The location identifier
+         */
+        private final Long id;
+
+        /**
+         * The location description
+         */
+        private String description;
+
+        /**
+         * The characters living in the location by character name
+         */
+        private final Map<String, CharacterKeys> characters = new HashMap<>();
+
+        /**
+         * Sets the identifier and description.
+         *
+         * @param id the location identifier
+         * @param description the location description
+         */
+        LocationKeys(Long id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+
+    /**
+     * This class holds the identifier, description, and demographics of a
+     * character.
+     */
+    private static class CharacterKeys {
+
+        /**
+         * The character identifier
+         */
+        private final Long id;
+
+        /**
+         * The character description
+         */
+        private String description;
+
+        /**
+         * Indicates the character has a demographic row
+         */
+        private boolean hasDemographic;
+
+        /**
+         * The gender code
+         */
+        private String gender;
+
+        /**
+         * The villain flag
+         */
+        private Boolean villain;
+
+        /**
+         * Sets the identifier and description.
+         *
+         * @param id the character identifier
+         * @param description the character description
+         */
+        CharacterKeys(Long id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds one record of a catalog file. A record names a cartoon and
+ * optionally a location in the cartoon and a character living in the
+ * location, along with their descriptions and the character's demographics.
+ *
+ * @author Bryan Daniel
+ */
+public class CatalogRecord {
+
+    /**
+     * The field holding the cartoon title
+     */
+    public static final String CARTOON = "cartoon";
+
+    /**
+     * The field holding the cartoon description
+     */
+    public static final String CARTOON_DESCRIPTION = "cartoonDescription";
+
+    /**
+     * The field holding the location name
+     */
+    public static final String LOCATION = "location";
+
+    /**
+     * The field holding the location description
+     */
+    public static final String LOCATION_DESCRIPTION = "locationDescription";
+
+    /**
+     * The field holding the character name
+     */
+    public static final String CHARACTER = "character";
+
+    /**
+     * The field holding the character description
+     */
+    public static final String CHARACTER_DESCRIPTION = "characterDescription";
+
+    /**
+     * The field holding the gender code
+     */
+    public static final String GENDER = "gender";
+
+    /**
+     * The field holding the villain flag
+     */
+    public static final String VILLAIN = "villain";
+
+    /**
+     * The maximum length of a cartoon title
+     */
+    private static final int MAX_TITLE_LENGTH = 30;
+
+    /**
+     * The maximum length of a location or character name
+     */
+    private static final int MAX_NAME_LENGTH = 50;
+
+    /**
+     * The maximum length of a description
+     */
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    /**
+     * The line on which the record starts
+     */
+    private final long lineNumber;
+
+    /**
+     * The cartoon title
+     */
+    private String cartoonTitle;
+
+    /**
+     * The cartoon description
+     */
+    private String cartoonDescription;
+
+    /**
+     * The location name
+     */
+    private String locationName;
+
+    /**
+     * The location description
+     */
+    private String locationDescription;
+
+    /**
+     * The character name
+     */
+    private String characterName;
+
+    /**
+     * The character description
+     */
+    private String characterDescription;
+
+    /**
+     * The gender code
+     */
+    private String gender;
+
+    /**
+     * The villain flag
+     */
+    private Boolean villain;
+
+    /**
+     * Sets the line number of the record.
+     *
+     * @param lineNumber the line on which the record starts
+     */
+    private CatalogRecord(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Creates a record from the fields read from a catalog file. Values are
+     * trimmed and empty values are treated as missing.
+     *
+     * @param fields the field values by field name
+     * @param lineNumber the line on which the record starts
+     * @param genderCodes the valid gender codes
+     * @return the record
+     * @throws IllegalArgumentException if the record is not valid
+     */
+    public static CatalogRecord fromFields(Map<String, String> fields, long lineNumber, Set<String> genderCodes) {
+        CatalogRecord record = new CatalogRecord(lineNumber);
+        record.cartoonTitle = value(fields, CARTOON, MAX_TITLE_LENGTH);
+        record.cartoonDescription = value(fields, CARTOON_DESCRIPTION, MAX_DESCRIPTION_LENGTH);
+        record.locationName = value(fields, LOCATION, MAX_NAME_LENGTH);
+        record.locationDescription = value(fields, LOCATION_DESCRIPTION, MAX_DESCRIPTION_LENGTH);
+        record.characterName = value(fields, CHARACTER, MAX_NAME_LENGTH);
+        record.characterDescription = value(fields, CHARACTER_DESCRIPTION, MAX_DESCRIPTION_LENGTH);
+        record.gender = value(fields, GENDER, 1);
+        String villainValue = value(fields, VILLAIN, MAX_NAME_LENGTH);
+
+        if (record.cartoonTitle == null) {
+            throw new IllegalArgumentException("The cartoon title is missing.");
+        }
+        if (record.locationName == null && (record.locationDescription != null || record.characterName != null)) {
+            throw new IllegalArgumentException("The location name is missing.");
+        }
+        if (record.characterName == null && (record.characterDescription != null || record.gender != null
+                || villainValue != null)) {
+            throw new IllegalArgumentException("The character name is missing.");
+        }
+        if (record.gender != null) {
+            record.gender = record.gender.toUpperCase();
+            if (!genderCodes.contains(record.gender)) {
+                throw new IllegalArgumentException("The gender " + record.gender + " is not valid.");
+            }
+        }
+        if (villainValue != null) {
+            switch (villainValue.toLowerCase()) {
+                case "true":
+                case "yes":
+                case "y":
+                    record.villain = Boolean.TRUE;
+                    break;
+                case "false":
+                case "no":
+                case "n":
+                    record.villain = Boolean.FALSE;
+                    break;
+                default:
+                    throw new IllegalArgumentException("The villain value " + villainValue + " is not valid.");
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Returns the trimmed value of the given field, or null if it is missing or
+     * empty.
+     *
+     * @param fields the field values by field name
+     * @param name the field name
+     * @param maxLength the maximum length of the value
+     * @return the value or null
+     * @throws IllegalArgumentException if the value is too long
+     */
+    private static String value(Map<String, String> fields, String name, int maxLength) {
+        String value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException("The " + name + " value exceeds " + maxLength + " characters.");
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Get the value of lineNumber
+     *
+     * @return the value of lineNumber
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Get the value of cartoonTitle
+     *
+     * @return the value of cartoonTitle
+     */
+    public String getCartoonTitle() {
+        return cartoonTitle;
+    }
+
+    /**
+     * Get the value of cartoonDescription
+     *
+     * @return the value of cartoonDescription
+     */
+    public String getCartoonDescription() {
+        return cartoonDescription;
+    }
+
+    /**
+     * Get the value of locationName
+     *
+     * @return the value of locationName
+     */
+    public String getLocationName() {
+        return locationName;
+    }
+
+    /**
+     * Get the value of locationDescription
+     *
+     * @return the value of locationDescription
+     */
+    public String getLocationDescription() {
+        return locationDescription;
+    }
+
+    /**
+     * Get the value of characterName
+     *
+     * @return the value of characterName
+     */
+    public String getCharacterName() {
+        return characterName;
+    }
+
+    /**
+     * Get the value of characterDescription
+     *
+     * @return the value of characterDescription
+     */
+    public String getCharacterDescription() {
+        return characterDescription;
+    }
+
+    /**
+     * Get the value of gender
+     *
+     * @return the value of gender
+     */
+    public String getGender() {
+        return gender;
+    }
+
+    /**
+     * Get the value of villain
+     *
+     * @return the value of villain
+     */
+    public Boolean getVillain() {
+        return villain;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads comma-separated records whose first row names the fields.
+ * Values may be quoted with double quotes, in which case they can contain
+ * commas, line breaks, and doubled quotes. Empty values are treated as missing.
+ *
+ * @author Bryan Daniel
+ */
+public class CsvRecordReader implements RecordReader {
+
+    /**
+     * The byte order mark some editors write at the start of UTF-8 files
+     */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * The source of the records
+     */
+    private final BufferedReader reader;
+
+    /**
+     * The field names from the header row
+     */
+    private final List<String> header;
+
+    /**
+     * The current line number of the reader
+     */
+    private long currentLine = 1;
+
+    /**
+     * The line number on which the last record started
+     */
+    private long lineNumber;
+
+    /**
+     * Reads the header row from the given reader.
+     *
+     * @param reader the source of the records
+     * @throws IOException if the header cannot be read
+     */
+    public CsvRecordReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.reader.mark(1);
+        if (this.reader.read() != BYTE_ORDER_MARK) {
+            this.reader.reset();
+        }
+        List<String> names;
+        try {
+            names = readRow();
+        } catch (IllegalArgumentException iae) {
+            throw new IOException("The header row is malformed.", iae);
+        }
+        if (names == null) {
+            throw new IOException("The CSV file has no header row.");
+        }
+        header = new ArrayList<>();
+        for (String name : names) {
+            header.add(name.trim());
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> values;
+        do {
+            lineNumber = currentLine;
+            values = readRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Line " + lineNumber + " has more values than the header.");
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                record.put(header.get(i), values.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the values of one row, following quoted values across line breaks.
+     *
+     * @return the values or null at the end of the file
+     * @throws IOException if the row cannot be read
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " has an unclosed quote.");
+                }
+                break;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        value.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') {
+                        currentLine++;
+                    }
+                    value.append((char) c);
+                }
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n') {
+                currentLine++;
+                break;
+            } else if (c == '"' && value.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.nio.channels.FileChannel;
+
+/**
+ * This class writes comma-separated records after a header row naming the
+ * fields. Values containing commas, quotes, or line breaks are quoted so they
+ * can be read back by the CsvRecordReader.
+ *
+ * @author Bryan Daniel
+ */
+public class CsvRecordWriter extends RecordWriter {
+
+    /**
+     * Sets the channel and the field names and writes the header row.
+     *
+     * @param channel the channel receiving the records
+     * @param fields the names of the fields of each record
+     */
+    public CsvRecordWriter(FileChannel channel, String... fields) {
+        super(channel, fields);
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                header.append(',');
+            }
+            appendValue(header, fields[i]);
+        }
+        appendHeader(header.append('\n').toString());
+    }
+
+    @Override
+    protected void appendRecord(StringBuilder text, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            if (values[i] != null) {
+                appendValue(text, values[i].toString());
+            }
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Appends the value, quoting it if needed.
+     *
+     * @param text the buffer
+     * @param value the value
+     */
+    private static void appendValue(StringBuilder text, String value) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            text.append(value);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            text.append(c);
+        }
+        text.append('"');
+    }
+}
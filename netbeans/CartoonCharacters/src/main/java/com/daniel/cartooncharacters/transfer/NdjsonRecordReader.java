@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class reads newline-delimited JSON records, one flat object per line.
+ * String, number, and boolean values are returned as text and null values are
+ * treated as missing. Nested objects and arrays are not supported.
+ *
+ * @author Bryan Daniel
+ */
+public class NdjsonRecordReader implements RecordReader {
+
+    /**
+     * The source of the records
+     */
+    private final BufferedReader reader;
+
+    /**
+     * The line number of the last record
+     */
+    private long lineNumber;
+
+    /**
+     * The line being parsed
+     */
+    private String line;
+
+    /**
+     * The parse position in the line
+     */
+    private int position;
+
+    /**
+     * Sets the source of the records.
+     *
+     * @param reader the source of the records
+     */
+    public NdjsonRecordReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            line = line.trim();
+        } while (line.isEmpty());
+
+        Map<String, String> record = new HashMap<>();
+        position = 0;
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+        } else {
+            do {
+                skipWhitespace();
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                String value = readValue();
+                if (value != null) {
+                    record.put(name, value);
+                }
+                skipWhitespace();
+            } while (accept(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (position < line.length()) {
+            throw malformed("unexpected text after the object");
+        }
+        return record;
+    }
+
+    @Override
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads a string, number, boolean, or null value.
+     *
+     * @return the value as text or null for a null value
+     * @throws IllegalArgumentException if the value is malformed or not
+     * supported
+     */
+    private String readValue() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw malformed("nested values are not supported");
+        }
+        int start = position;
+        while (position < line.length() && ",} \t".indexOf(line.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = line.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            return literal;
+        }
+        throw malformed("invalid value " + literal);
+    }
+
+    /**
+     * Reads a quoted string, resolving escape sequences.
+     *
+     * @return the string
+     * @throws IllegalArgumentException if the string is malformed
+     */
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = peek();
+            position++;
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = peek();
+            position++;
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > line.length()) {
+                        throw malformed("incomplete unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+                    } catch (NumberFormatException nfe) {
+                        throw malformed("invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+    }
+
+    /**
+     * Returns the character at the parse position.
+     *
+     * @return the character
+     * @throws IllegalArgumentException if the end of the line is reached
+     */
+    private char peek() {
+        if (position >= line.length()) {
+            throw malformed("unexpected end of line");
+        }
+        return line.charAt(position);
+    }
+
+    /**
+     * Consumes the given character or fails.
+     *
+     * @param expected the expected character
+     * @throws IllegalArgumentException if the character is not found
+     */
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw malformed("expected " + expected);
+        }
+    }
+
+    /**
+     * Consumes the given character if it is at the parse position.
+     *
+     * @param expected the expected character
+     * @return true if the character was consumed, false otherwise
+     */
+    private boolean accept(char expected) {
+        if (position < line.length() && line.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the parse position past whitespace.
+     */
+    private void skipWhitespace() {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Creates an exception describing a malformed line.
+     *
+     * @param reason the reason the line is malformed
+     * @return the exception
+     */
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Line " + lineNumber + " is malformed: " + reason + ".");
+    }
+}
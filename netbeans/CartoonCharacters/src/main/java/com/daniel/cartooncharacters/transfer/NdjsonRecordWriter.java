@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.nio.channels.FileChannel;
+
+/**
+ * This class writes records as newline-delimited JSON, one flat object per
+ * line. Numbers and booleans are written as JSON literals and all other values
+ * as strings.
+ *
+ * @author Bryan Daniel
+ */
+public class NdjsonRecordWriter extends RecordWriter {
+
+    /**
+     * The hexadecimal digits used in unicode escapes
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Sets the channel and the field names.
+     *
+     * @param channel the channel receiving the records
+     * @param fields the names of the fields of each record
+     */
+    public NdjsonRecordWriter(FileChannel channel, String... fields) {
+        super(channel, fields);
+    }
+
+    @Override
+    protected void appendRecord(StringBuilder text, Object[] values) {
+        text.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            appendString(text, fields[i]);
+            text.append(':');
+            if (values[i] == null) {
+                text.append("null");
+            } else if (values[i] instanceof Number || values[i] instanceof Boolean) {
+                text.append(values[i]);
+            } else {
+                appendString(text, values[i].toString());
+            }
+        }
+        text.append("}\n");
+    }
+
+    /**
+     * Appends the value as a quoted string, escaping quotes, backslashes, and
+     * control characters.
+     *
+     * @param text the buffer
+     * @param value the value
+     */
+    private static void appendString(StringBuilder text, String value) {
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    text.append("\\\"");
+                    break;
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                case '\t':
+                    text.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        text.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        text.append(c);
+                    }
+            }
+        }
+        text.append('"');
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * This interface defines a reader returning the records of an import file one
+ * at a time so that the file never has to be held in memory.
+ *
+ * @author Bryan Daniel
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Reads the next record as a map of field names to values. Fields that are
+     * missing or null in the file are absent from the map. A malformed record
+     * is skipped by the reader, so the following call reads the next record.
+     *
+     * @return the next record or null at the end of the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the record is malformed, with the
+     * line number of the record in the message
+     */
+    public Map<String, String> next() throws IOException;
+
+    /**
+     * Returns the line number on which the last returned record started.
+     *
+     * @return the line number
+     */
+    public long getLineNumber();
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes records of a fixed set of fields to a file channel. The
+ * text of the records is collected in a buffer that is encoded and written to
+ * the channel whenever it fills, so memory use does not depend on the number
+ * of records written.
+ *
+ * @author Bryan Daniel
+ */
+public abstract class RecordWriter implements Closeable {
+
+    /**
+     * The number of characters collected before they are written
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The names of the fields of each record
+     */
+    protected final String[] fields;
+
+    /**
+     * The channel receiving the records
+     */
+    private final FileChannel channel;
+
+    /**
+     * The text waiting to be written
+     */
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+
+    /**
+     * The encoded bytes waiting to be written
+     */
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 2);
+
+    /**
+     * The encoder of the text
+     */
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    /**
+     * The number of bytes written to the channel
+     */
+    private long byteCount;
+
+    /**
+     * Sets the channel and the field names.
+     *
+     * @param channel the channel receiving the records
+     * @param fields the names of the fields of each record
+     */
+    protected RecordWriter(FileChannel channel, String... fields) {
+        this.channel = channel;
+        this.fields = fields;
+    }
+
+    /**
+     * Writes one record with a value for each field. Null values are written
+     * as missing values.
+     *
+     * @param values the field values
+     * @throws IOException if the record cannot be written
+     */
+    public void write(Object... values) throws IOException {
+        if (values.length != fields.length) {
+            throw new IllegalArgumentException("Expected " + fields.length + " values but found "
+                    + values.length + ".");
+        }
+        appendRecord(text, values);
+        if (text.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to the channel so far.
+     *
+     * @return the number of bytes
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Writes the buffered records and closes the channel.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends the text of one record, including its line break, to the given
+     * buffer.
+     *
+     * @param text the buffer
+     * @param values the field values
+     */
+    protected abstract void appendRecord(StringBuilder text, Object[] values);
+
+    /**
+     * Appends the given text to the buffer to be written before any record.
+     *
+     * @param header the header text
+     */
+    protected void appendHeader(String header) {
+        text.append(header);
+    }
+
+    /**
+     * Encodes the buffered text and writes it to the channel.
+     *
+     * @throws IOException if the text cannot be written
+     */
+    private void flush() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                byteCount += channel.write(bytes);
+            }
+            bytes.clear();
+        } while (result.isOverflow());
+        encoder.reset();
+        text.setLength(0);
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.util;
+
+import java.util.Properties;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * This properties class stores the application settings read from the
+ * configuration file. Settings not present in the file fall back to the
+ * default values defined here.
+ *
+ * @author Bryan Daniel
+ */
+public class ApplicationProperties extends Properties {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = -2405837164620364581L;
+
+    /**
+     * The key for the character search mode
+     */
+    public static final String CHARACTER_SEARCH_MODE = "characterSearchMode";
+
+    /**
+     * The value of the character search mode using the database LIKE query
+     */
+    public static final String SEARCH_MODE_DATABASE = "database";
+
+    /**
+     * The value of the character search mode using the in-memory n-gram index
+     */
+    public static final String SEARCH_MODE_INDEX = "index";
+
+    /**
+     * The value of the character search mode using the pg_trgm GIN indexes
+     */
+    public static final String SEARCH_MODE_TRIGRAM = "trigram";
+
+    /**
+     * The key for the number of characters loaded per search results page
+     */
+    public static final String SEARCH_PAGE_SIZE = "searchPageSize";
+
+    /**
+     * The default number of characters loaded per search results page
+     */
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * The key for the indication of searching while the user types
+     */
+    public static final String INCREMENTAL_SEARCH = "incrementalSearch";
+
+    /**
+     * The key for the milliseconds without typing before an incremental
+     * search starts
+     */
+    public static final String SEARCH_DEBOUNCE_MILLIS = "searchDebounceMillis";
+
+    /**
+     * The default milliseconds without typing before an incremental search
+     * starts
+     */
+    public static final int DEFAULT_SEARCH_DEBOUNCE_MILLIS = 300;
+
+    /**
+     * The key for the maximum number of cartoons in the second-level cache
+     */
+    public static final String CARTOON_CACHE_SIZE = "cartoonCacheSize";
+
+    /**
+     * The key for the seconds a cartoon stays in the second-level cache
+     */
+    public static final String CARTOON_CACHE_TIME_TO_LIVE = "cartoonCacheTimeToLive";
+
+    /**
+     * The key for the maximum number of locations in the second-level cache
+     */
+    public static final String LOCATION_CACHE_SIZE = "locationCacheSize";
+
+    /**
+     * The key for the seconds a location stays in the second-level cache
+     */
+    public static final String LOCATION_CACHE_TIME_TO_LIVE = "locationCacheTimeToLive";
+
+    /**
+     * The key for the maximum number of genders in the second-level cache
+     */
+    public static final String GENDER_CACHE_SIZE = "genderCacheSize";
+
+    /**
+     * The key for the seconds a gender stays in the second-level cache
+     */
+    public static final String GENDER_CACHE_TIME_TO_LIVE = "genderCacheTimeToLive";
+
+    /**
+     * The key for the maximum number of demographics in the second-level cache
+     */
+    public static final String DEMOGRAPHIC_CACHE_SIZE = "demographicCacheSize";
+
+    /**
+     * The key for the seconds a demographic stays in the second-level cache
+     */
+    public static final String DEMOGRAPHIC_CACHE_TIME_TO_LIVE = "demographicCacheTimeToLive";
+
+    /**
+     * The key for the maximum number of cached query results
+     */
+    public static final String QUERY_CACHE_SIZE = "queryCacheSize";
+
+    /**
+     * The key for the seconds a query result stays in the query cache
+     */
+    public static final String QUERY_CACHE_TIME_TO_LIVE = "queryCacheTimeToLive";
+
+    /**
+     * The key for the number of statements sent in one JDBC batch
+     */
+    public static final String JDBC_BATCH_SIZE = "jdbcBatchSize";
+
+    /**
+     * The default number of statements sent in one JDBC batch
+     */
+    public static final int DEFAULT_JDBC_BATCH_SIZE = 50;
+
+    /**
+     * The key for the number of characters committed together by bulk inserts
+     */
+    public static final String BULK_COMMIT_SIZE = "bulkCommitSize";
+
+    /**
+     * The default number of characters committed together by bulk inserts
+     */
+    public static final int DEFAULT_BULK_COMMIT_SIZE = 1000;
+
+    /**
+     * The key for the seconds between reloads of the catalog cache
+     */
+    public static final String CATALOG_REFRESH_INTERVAL = "catalogRefreshInterval";
+
+    /**
+     * The default seconds between reloads of the catalog cache
+     */
+    public static final long DEFAULT_CATALOG_REFRESH_INTERVAL = 600;
+
+    /**
+     * The key for the number of parallel workers writing imported records
+     */
+    public static final String IMPORT_WORKERS = "importWorkers";
+
+    /**
+     * The default number of parallel workers writing imported records
+     */
+    public static final int DEFAULT_IMPORT_WORKERS = 4;
+
+    /**
+     * The key for the number of threads running database tasks
+     */
+    public static final String DATABASE_TASK_THREADS = "databaseTaskThreads";
+
+    /**
+     * The default number of threads running database tasks
+     */
+    public static final int DEFAULT_DATABASE_TASK_THREADS = 8;
+
+    /**
+     * The key for the number of database tasks that may wait for a thread
+     */
+    public static final String DATABASE_TASK_QUEUE_SIZE = "databaseTaskQueueSize";
+
+    /**
+     * The key for the number of threads running file and image tasks
+     */
+    public static final String FILE_TASK_THREADS = "fileTaskThreads";
+
+    /**
+     * The default number of threads running file and image tasks
+     */
+    public static final int DEFAULT_FILE_TASK_THREADS = 4;
+
+    /**
+     * The key for the number of file and image tasks that may wait for a
+     * thread
+     */
+    public static final String FILE_TASK_QUEUE_SIZE = "fileTaskQueueSize";
+
+    /**
+     * The default number of tasks that may wait for a thread in each pool
+     */
+    public static final int DEFAULT_TASK_QUEUE_SIZE = 50;
+
+    /**
+     * The key for the number of threads running asynchronous data access
+     * lookups
+     */
+    public static final String DATA_ACCESS_THREADS = "dataAccessThreads";
+
+    /**
+     * The default number of threads running asynchronous data access lookups
+     */
+    public static final int DEFAULT_DATA_ACCESS_THREADS = 8;
+
+    /**
+     * The key for the kind of threads running tasks
+     */
+    public static final String TASK_THREAD_MODE = "taskThreadMode";
+
+    /**
+     * The value of the task thread mode using pools of platform threads
+     */
+    public static final String THREAD_MODE_PLATFORM = "platform";
+
+    /**
+     * The value of the task thread mode starting a virtual thread per task
+     */
+    public static final String THREAD_MODE_VIRTUAL = "virtual";
+
+    /**
+     * The key for the number of tasks each pool runs at once on virtual
+     * threads
+     */
+    public static final String VIRTUAL_TASK_CONCURRENCY = "virtualTaskConcurrency";
+
+    /**
+     * The key for the longest edge in pixels of the picture thumbnails
+     */
+    public static final String THUMBNAIL_SIZE = "thumbnailSize";
+
+    /**
+     * The default longest edge of the picture thumbnails, the height of the
+     * picture views
+     */
+    public static final int DEFAULT_THUMBNAIL_SIZE = 552;
+
+    /**
+     * The key for the megabytes of decoded pictures kept by the image cache
+     */
+    public static final String IMAGE_CACHE_MEGABYTES = "imageCacheMegabytes";
+
+    /**
+     * The default megabytes of decoded pictures kept by the image cache
+     */
+    public static final int DEFAULT_IMAGE_CACHE_MEGABYTES = 64;
+
+    /**
+     * The key for the number of parallel workers storing ingested pictures
+     */
+    public static final String PICTURE_INGEST_WORKERS = "pictureIngestWorkers";
+
+    /**
+     * The default number of parallel workers storing ingested pictures
+     */
+    public static final int DEFAULT_PICTURE_INGEST_WORKERS = 4;
+
+    /**
+     * The key for the largest image file accepted, in megabytes
+     */
+    public static final String MAX_IMAGE_FILE_MEGABYTES = "maxImageFileMegabytes";
+
+    /**
+     * The default largest image file accepted, in megabytes
+     */
+    public static final int DEFAULT_MAX_IMAGE_FILE_MEGABYTES = 50;
+
+    /**
+     * The key for the largest width or height of an image accepted, in pixels
+     */
+    public static final String MAX_IMAGE_DIMENSION = "maxImageDimension";
+
+    /**
+     * The default largest width or height of an image accepted, in pixels
+     */
+    public static final int DEFAULT_MAX_IMAGE_DIMENSION = 16384;
+
+    /**
+     * The key for the indication of recording at startup the details of the
+     * pictures that have none recorded
+     */
+    public static final String PICTURE_METADATA_BACKFILL = "pictureMetadataBackfill";
+
+    /**
+     * The key for the indication of watching the images directory for
+     * pictures added or deleted outside the application
+     */
+    public static final String PICTURE_DIRECTORY_WATCH = "pictureDirectoryWatch";
+
+    /**
+     * The key for the milliseconds of images directory changes applied
+     * together
+     */
+    public static final String PICTURE_WATCH_BATCH_MILLIS = "pictureWatchBatchMillis";
+
+    /**
+     * The default milliseconds of images directory changes applied together
+     */
+    public static final int DEFAULT_PICTURE_WATCH_BATCH_MILLIS = 500;
+
+    /**
+     * The default maximum number of entries in a cache region
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1000;
+
+    /**
+     * The default number of seconds an entry stays in a cache region
+     */
+    public static final long DEFAULT_CACHE_TIME_TO_LIVE = 3600;
+
+    /**
+     * This constructor sets the default values for the application settings.
+     */
+    public ApplicationProperties() {
+        super(createDefaults());
+    }
+
+    /**
+     * Returns the value of the specified setting as a string.
+     *
+     * @param key the setting key
+     * @return the setting value
+     */
+    public String getString(String key) {
+        return StringUtils.trimToEmpty(getProperty(key));
+    }
+
+    /**
+     * Returns the value of the specified setting as an integer. If the value
+     * is not a valid integer, the given default value is returned.
+     *
+     * @param key the setting key
+     * @param defaultValue the value returned if the setting is invalid
+     * @return the setting value
+     */
+    public int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(key));
+        } catch (NumberFormatException ex) {
+            LogManager.getLogger(ApplicationProperties.class).warn("Invalid value for setting " + key + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the value of the specified setting as a long. If the value is
+     * not a valid long, the given default value is returned.
+     *
+     * @param key the setting key
+     * @param defaultValue the value returned if the setting is invalid
+     * @return the setting value
+     */
+    public long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getString(key));
+        } catch (NumberFormatException ex) {
+            LogManager.getLogger(ApplicationProperties.class).warn("Invalid value for setting " + key + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the value of the specified setting as a boolean.
+     *
+     * @param key the setting key
+     * @return the setting value
+     */
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(getString(key));
+    }
+
+    /**
+     * Creates the default values for the application settings.
+     *
+     * @return the default properties
+     */
+    private static Properties createDefaults() {
+        Properties defaults = new Properties();
+        defaults.setProperty(CHARACTER_SEARCH_MODE, SEARCH_MODE_DATABASE);
+        defaults.setProperty(SEARCH_PAGE_SIZE, String.valueOf(DEFAULT_SEARCH_PAGE_SIZE));
+        defaults.setProperty(INCREMENTAL_SEARCH, String.valueOf(true));
+        defaults.setProperty(SEARCH_DEBOUNCE_MILLIS, String.valueOf(DEFAULT_SEARCH_DEBOUNCE_MILLIS));
+        defaults.setProperty(JDBC_BATCH_SIZE, String.valueOf(DEFAULT_JDBC_BATCH_SIZE));
+        defaults.setProperty(BULK_COMMIT_SIZE, String.valueOf(DEFAULT_BULK_COMMIT_SIZE));
+        defaults.setProperty(CATALOG_REFRESH_INTERVAL, String.valueOf(DEFAULT_CATALOG_REFRESH_INTERVAL));
+        defaults.setProperty(IMPORT_WORKERS, String.valueOf(DEFAULT_IMPORT_WORKERS));
+        defaults.setProperty(DATABASE_TASK_THREADS, String.valueOf(DEFAULT_DATABASE_TASK_THREADS));
+        defaults.setProperty(DATABASE_TASK_QUEUE_SIZE, String.valueOf(DEFAULT_TASK_QUEUE_SIZE));
+        defaults.setProperty(FILE_TASK_THREADS, String.valueOf(DEFAULT_FILE_TASK_THREADS));
+        defaults.setProperty(FILE_TASK_QUEUE_SIZE, String.valueOf(DEFAULT_TASK_QUEUE_SIZE));
+        defaults.setProperty(DATA_ACCESS_THREADS, String.valueOf(DEFAULT_DATA_ACCESS_THREADS));
+        defaults.setProperty(TASK_THREAD_MODE, THREAD_MODE_PLATFORM);
+        defaults.setProperty(VIRTUAL_TASK_CONCURRENCY, String.valueOf(SessionUtil.CONNECTION_POOL_MAX_SIZE));
+        defaults.setProperty(THUMBNAIL_SIZE, String.valueOf(DEFAULT_THUMBNAIL_SIZE));
+        defaults.setProperty(IMAGE_CACHE_MEGABYTES, String.valueOf(DEFAULT_IMAGE_CACHE_MEGABYTES));
+        defaults.setProperty(PICTURE_INGEST_WORKERS, String.valueOf(DEFAULT_PICTURE_INGEST_WORKERS));
+        defaults.setProperty(MAX_IMAGE_FILE_MEGABYTES, String.valueOf(DEFAULT_MAX_IMAGE_FILE_MEGABYTES));
+        defaults.setProperty(MAX_IMAGE_DIMENSION, String.valueOf(DEFAULT_MAX_IMAGE_DIMENSION));
+        defaults.setProperty(PICTURE_METADATA_BACKFILL, String.valueOf(false));
+        defaults.setProperty(PICTURE_DIRECTORY_WATCH, String.valueOf(false));
+        defaults.setProperty(PICTURE_WATCH_BATCH_MILLIS, String.valueOf(DEFAULT_PICTURE_WATCH_BATCH_MILLIS));
+        for (String key : new String[]{CARTOON_CACHE_SIZE, LOCATION_CACHE_SIZE, GENDER_CACHE_SIZE,
+            DEMOGRAPHIC_CACHE_SIZE, QUERY_CACHE_SIZE}) {
+            defaults.setProperty(key, String.valueOf(DEFAULT_CACHE_SIZE));
+        }
+        for (String key : new String[]{CARTOON_CACHE_TIME_TO_LIVE, LOCATION_CACHE_TIME_TO_LIVE,
+            GENDER_CACHE_TIME_TO_LIVE, DEMOGRAPHIC_CACHE_TIME_TO_LIVE, QUERY_CACHE_TIME_TO_LIVE}) {
+            defaults.setProperty(key, String.valueOf(DEFAULT_CACHE_TIME_TO_LIVE));
+        }
+        return defaults;
+    }
+}
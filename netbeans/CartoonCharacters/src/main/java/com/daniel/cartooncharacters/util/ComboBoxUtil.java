@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.util;
+
+import java.util.List;
+import javafx.scene.control.ComboBox;
+
+/**
+ * Provides utility methods for filling the name selection boxes of the views.
+ *
+ * @author Bryan Daniel
+ */
+public class ComboBoxUtil {
+
+    /**
+     * Private constructor - not called
+     */
+    private ComboBoxUtil() {
+    }
+
+    /**
+     * Replaces the choices of the given combo box with an empty choice
+     * followed by the given names, and selects the empty choice.
+     *
+     * @param comboBox the combo box
+     * @param names the names
+     */
+    public static void setChoices(ComboBox<String> comboBox, List<String> names) {
+        comboBox.getItems().clear();
+        comboBox.getItems().add("");
+        comboBox.getItems().addAll(names);
+        comboBox.getSelectionModel().selectFirst();
+    }
+}
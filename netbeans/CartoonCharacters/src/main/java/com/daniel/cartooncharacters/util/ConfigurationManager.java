@@ -66,6 +66,11 @@ public class ConfigurationManager {
      */
     private static ConnectionProperties connectionProperties;
 
+    /**
+     * The application settings
+     */
+    private static ApplicationProperties applicationProperties;
+
     /**
      * Private constructor - not called
      */
@@ -189,6 +194,65 @@ public class ConfigurationManager {
         return connectionProperties;
     }
 
+    /**
+     * This method reads the configuration file to find and set the
+     * application settings. Each child element of the root element is stored
+     * as a setting with the element name as the key.
+     */
+    public static void findApplicationProperties() {
+
+        Logger logger = LogManager.getLogger(ConfigurationManager.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        InputStream input = null;
+        try {
+            input = new FileInputStream(new File(new File(System.getProperty("user.dir")),
+                    CONFIGURATION_DIRECTORY + File.separator + CONFIGURATION_FILE));
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+            Document doc = dBuilder.parse(input);
+
+            /* Normalize the nodes */
+            doc.getDocumentElement().normalize();
+
+            /* Store every element under the root as a setting */
+            NodeList nodeList = doc.getDocumentElement().getChildNodes();
+            for (int i = 0; i < nodeList.getLength(); i++) {
+                Node n = nodeList.item(i);
+                if (n.getNodeType() == Node.ELEMENT_NODE) {
+                    Element e = (Element) n;
+                    properties.setProperty(e.getTagName(), e.getTextContent().trim());
+                }
+            }
+        } catch (ParserConfigurationException | SAXException | IOException ex) {
+            logger.error(
+                    "ParserConfigurationException or SAXException or IOException in findApplicationProperties method.", ex);
+        } catch (Exception ex) {
+            logger.error("Exception occurred in findApplicationProperties method.", ex);
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ex) {
+                    logger.error("An exception occurred in findApplicationProperties method.", ex);
+                }
+            }
+        }
+        applicationProperties = properties;
+    }
+
+    /**
+     * This method returns the application settings. If the settings have not
+     * been initialized, the findApplicationProperties method is called first.
+     *
+     * @return the application settings
+     */
+    public static ApplicationProperties getApplicationProperties() {
+        if (applicationProperties == null) {
+            findApplicationProperties();
+        }
+        return applicationProperties;
+    }
+
     /**
      * This method decrypts the given string.
      *
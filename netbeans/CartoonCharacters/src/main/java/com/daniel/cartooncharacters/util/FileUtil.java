@@ -40,6 +40,17 @@ public class FileUtil {
      */
     public static final String IMAGES_DIRECTORY = "img";
 
+    /**
+     * The name of the directory inside the images directory holding the
+     * pictures stored by content
+     */
+    public static final String PICTURE_STORE_DIRECTORY = "store";
+
+    /**
+     * The name of the directory holding the downscaled picture variants
+     */
+    public static final String THUMBNAILS_DIRECTORY = "thumbnails";
+
     /**
      * Private constructor - not called
      */
@@ -115,8 +126,9 @@ public class FileUtil {
                 OutputStream outputStream = new FileOutputStream(newFile)) {
 
             byte[] buffer = new byte[BUFFER_LENGTH];
-            while (inputStream.read(buffer) != -1) {
-                outputStream.write(buffer);
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
             }
         } catch (IOException ex) {
             LogManager.getLogger(FileUtil.class).error("An exception occurred while copying the image.", ex);
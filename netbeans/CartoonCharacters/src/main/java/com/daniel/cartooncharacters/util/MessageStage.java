@@ -15,11 +15,13 @@
  */
 package com.daniel.cartooncharacters.util;
 
+import java.util.List;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
@@ -60,4 +62,24 @@ public class MessageStage extends Stage {
         setScene(new Scene(root, MIN_SCENE_WIDTH, MIN_SCENE_HEIGHT));
         setTitle("Message");
     }
+
+    /**
+     * Creates the content for the scene to display a message indicating a task
+     * result followed by a list of details, such as the items that failed.
+     *
+     * @param label the label to display
+     * @param details the details to list below the label
+     */
+    public MessageStage(Label label, List<String> details) {
+        this(label);
+        BorderPane root = (BorderPane) getScene().getRoot();
+        ListView<String> detailsView = new ListView<>();
+        detailsView.getItems().setAll(details);
+        root.setTop(label);
+        BorderPane.setAlignment(label, Pos.CENTER);
+        BorderPane.setMargin(detailsView, new Insets(10, 0, 10, 0));
+        root.setCenter(detailsView);
+        setWidth(2 * MIN_SCENE_WIDTH);
+        setHeight(2 * MIN_SCENE_HEIGHT);
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+
+/**
+ * This class provides the pooled connections of the sessions, taking one of
+ * as many permits as there are pooled connections for every connection
+ * checked out and returning it when the connection is closed. Threads beyond
+ * the size of the connection pool wait on a semaphore rather than inside the
+ * pool. A virtual thread waiting on the semaphore releases its carrier thread,
+ * which it would keep while waiting in the pool's synchronized checkout.
+ *
+ * @author Bryan Daniel
+ */
+public class PermitConnectionProvider extends C3P0ConnectionProvider {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 3571046285927351640L;
+
+    /**
+     * The permits of the checked out connections, one per pooled connection
+     */
+    private final Semaphore permits = new Semaphore(SessionUtil.CONNECTION_POOL_MAX_SIZE, true);
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        permits.acquireUninterruptibly();
+        try {
+            return super.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        try {
+            super.closeConnection(connection);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.daniel.cartooncharacters.util;
 
+import com.daniel.cartooncharacters.data.CatalogListener;
 import com.daniel.cartooncharacters.data.CharacterListener;
 import com.daniel.cartooncharacters.entity.Cartoon;
 import com.daniel.cartooncharacters.entity.CartoonCharacter;
@@ -24,30 +25,57 @@ import com.daniel.cartooncharacters.entity.CharacterDemographic;
 import com.daniel.cartooncharacters.entity.CharacterPicture;
 import com.daniel.cartooncharacters.entity.Gender;
 import com.daniel.cartooncharacters.entity.LocationPicture;
+import com.daniel.cartooncharacters.entity.PictureMetadata;
+import java.text.MessageFormat;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.cache.internal.StandardQueryCache;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.event.spi.EventType;
 import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
 
 /**
  * This class establishes the configuration of the Hibernate session factory and
- * provides utility methods for accessing and closing sessions.
+ * provides utility methods for accessing and closing sessions. The cartoon,
+ * location, gender, and demographic entities are kept in a local second-level
+ * cache whose regions are sized from the application settings.
+ * <p>
+ * The connections of the sessions come from the PermitConnectionProvider,
+ * which holds one permit per checked out connection, so threads beyond the
+ * size of the connection pool wait on a semaphore rather than inside the pool.
  *
  * @author Bryan Daniel
  */
 public class SessionUtil {
 
+    /**
+     * The maximum number of pooled database connections
+     */
+    public static final int CONNECTION_POOL_MAX_SIZE = 100;
+
     /**
      * The Hibernate session factory
      */
     private static final SessionFactory SESSION_FACTORY;
 
+    /**
+     * The names of the cached entity regions
+     */
+    private static final String[] ENTITY_REGIONS = {Cartoon.class.getName(), CartoonLocation.class.getName(),
+        Gender.class.getName(), CharacterDemographic.class.getName()};
+
     static {
         ConnectionProperties properties = ConfigurationManager.getConnectionProperties();
         StringBuilder urlString = new StringBuilder();
@@ -67,17 +95,29 @@ public class SessionUtil {
         config.addAnnotatedClass(CharacterPicture.class);
         config.addAnnotatedClass(Gender.class);
         config.addAnnotatedClass(CharacterDemographic.class);
+        config.addAnnotatedClass(PictureMetadata.class);
         config.setProperty("hibernate.connection.driver_class", "org.postgresql.Driver");
         config.setProperty("hibernate.connection.url", urlString.toString());
         config.setProperty("hibernate.connection.username", properties.getProperty(ConnectionProperties.USERNAME));
         config.setProperty("hibernate.connection.password", properties.getProperty(ConnectionProperties.PASSWORD));
         config.setProperty("hibernate.show_sql", "true");
         config.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
-        config.setProperty("hibernate.cache.provider_class", "org.hibernate.cache.NoCacheProvider");
+        config.setProperty("hibernate.cache.use_second_level_cache", "true");
+        config.setProperty("hibernate.cache.use_query_cache", "true");
+        config.setProperty("hibernate.cache.region.factory_class",
+                "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        config.setProperty("hibernate.generate_statistics", "true");
         config.setProperty("hibernate.current_session_context_class", "thread");
-        config.setProperty("connection.provider_class", "org.hibernate.connection.C3P0ConnectionProvider");
+        config.setProperty("hibernate.id.new_generator_mappings", "true");
+        // each sequence value starts a block of identifiers, so rows inserted by the database default never collide
+        config.setProperty("hibernate.id.optimizer.pooled.prefer_lo", "true");
+        config.setProperty("hibernate.jdbc.batch_size", String.valueOf(ConfigurationManager.getApplicationProperties()
+                .getInt(ApplicationProperties.JDBC_BATCH_SIZE, ApplicationProperties.DEFAULT_JDBC_BATCH_SIZE)));
+        config.setProperty("hibernate.order_inserts", "true");
+        config.setProperty("hibernate.order_updates", "true");
+        config.setProperty("hibernate.connection.provider_class", PermitConnectionProvider.class.getName());
         config.setProperty("hibernate.c3p0.min_size", "10");
-        config.setProperty("hibernate.c3p0.max_size", "100");
+        config.setProperty("hibernate.c3p0.max_size", String.valueOf(CONNECTION_POOL_MAX_SIZE));
         config.setProperty("hibernate.c3p0.acquire_increment", "1");
         config.setProperty("hibernate.c3p0.max_statements", "100");
         config.setProperty("hibernate.c3p0.idle_test_period", "300");
@@ -85,6 +125,7 @@ public class SessionUtil {
         config.setProperty("hibernate.c3p0.testConnectionOnCheckout", "true");
         config.setProperty("hibernate.c3p0.preferredTestQuery", "SELECT 1");
 
+        configureCacheRegions(ConfigurationManager.getApplicationProperties());
         StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
                 .applySettings(config.getProperties()).build();
         SESSION_FACTORY = config.buildSessionFactory(serviceRegistry);
@@ -93,6 +134,56 @@ public class SessionUtil {
                 EventListenerRegistry.class);
         registry.getEventListenerGroup(EventType.PRE_UPDATE).appendListener(new CharacterListener());
         registry.getEventListenerGroup(EventType.PRE_INSERT).appendListener(new CharacterListener());
+        registry.getEventListenerGroup(EventType.POST_COMMIT_INSERT).appendListener(new CharacterListener());
+        registry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE).appendListener(new CharacterListener());
+        registry.getEventListenerGroup(EventType.POST_COMMIT_INSERT).appendListener(new CatalogListener());
+        registry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE).appendListener(new CatalogListener());
+    }
+
+    /**
+     * Creates the cache manager used by the Hibernate region factory with a
+     * size- and time-bounded region for each cached entity and the query cache.
+     * The update timestamps region is never evicted so that cached queries are
+     * invalidated reliably.
+     *
+     * @param properties the application settings
+     */
+    private static void configureCacheRegions(ApplicationProperties properties) {
+        net.sf.ehcache.config.Configuration cacheConfig = new net.sf.ehcache.config.Configuration();
+        cacheConfig.setUpdateCheck(false);
+        cacheConfig.addDefaultCache(new CacheConfiguration("default", ApplicationProperties.DEFAULT_CACHE_SIZE)
+                .timeToLiveSeconds(ApplicationProperties.DEFAULT_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(createRegion(properties, Cartoon.class.getName(),
+                ApplicationProperties.CARTOON_CACHE_SIZE, ApplicationProperties.CARTOON_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(createRegion(properties, CartoonLocation.class.getName(),
+                ApplicationProperties.LOCATION_CACHE_SIZE, ApplicationProperties.LOCATION_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(createRegion(properties, Gender.class.getName(),
+                ApplicationProperties.GENDER_CACHE_SIZE, ApplicationProperties.GENDER_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(createRegion(properties, CharacterDemographic.class.getName(),
+                ApplicationProperties.DEMOGRAPHIC_CACHE_SIZE, ApplicationProperties.DEMOGRAPHIC_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(createRegion(properties, StandardQueryCache.class.getName(),
+                ApplicationProperties.QUERY_CACHE_SIZE, ApplicationProperties.QUERY_CACHE_TIME_TO_LIVE));
+        cacheConfig.addCache(new CacheConfiguration(UpdateTimestampsCache.REGION_NAME, 0).eternal(true));
+        CacheManager.create(cacheConfig);
+    }
+
+    /**
+     * Creates the configuration of a cache region evicting the least recently
+     * used entries beyond the configured size and entries older than the
+     * configured time to live.
+     *
+     * @param properties the application settings
+     * @param regionName the region name
+     * @param sizeKey the setting key for the maximum number of entries
+     * @param timeToLiveKey the setting key for the time to live in seconds
+     * @return the region configuration
+     */
+    private static CacheConfiguration createRegion(ApplicationProperties properties, String regionName,
+            String sizeKey, String timeToLiveKey) {
+        return new CacheConfiguration(regionName,
+                properties.getInt(sizeKey, ApplicationProperties.DEFAULT_CACHE_SIZE))
+                .timeToLiveSeconds(properties.getLong(timeToLiveKey, ApplicationProperties.DEFAULT_CACHE_TIME_TO_LIVE))
+                .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU);
     }
 
     /**
@@ -124,4 +215,34 @@ public class SessionUtil {
             }
         }
     }
+
+    /**
+     * Returns the statistics of the session factory, such as the number of
+     * statements prepared.
+     *
+     * @return the session factory statistics
+     */
+    public static Statistics getStatistics() {
+        return SESSION_FACTORY.getStatistics();
+    }
+
+    /**
+     * Logs the hit, miss, and put counts of the second-level cache regions and
+     * the query cache.
+     */
+    public static void logCacheStatistics() {
+        Logger logger = LogManager.getLogger(SessionUtil.class);
+        Statistics statistics = SESSION_FACTORY.getStatistics();
+        for (String region : ENTITY_REGIONS) {
+            SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+            if (regionStatistics != null) {
+                logger.info(MessageFormat.format("Cache region {0}: {1} hits, {2} misses, {3} puts.", region,
+                        regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount()));
+            }
+        }
+        logger.info(MessageFormat.format("Query cache: {0} hits, {1} misses, {2} puts.",
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+    }
 }
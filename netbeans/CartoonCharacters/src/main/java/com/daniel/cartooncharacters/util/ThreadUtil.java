@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides utility methods for creating the threads of the application
+ * executors.
+ *
+ * @author Bryan Daniel
+ */
+public class ThreadUtil {
+
+    /**
+     * Private constructor - not called
+     */
+    private ThreadUtil() {
+    }
+
+    /**
+     * Returns a factory of daemon platform threads named with the given name
+     * and a number counting from one, such as name-1 and name-2, so the
+     * threads do not keep the application running after the window closes.
+     * The factory may be shared between threads.
+     *
+     * @param name the name of the threads
+     * @return the thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        return Thread.ofPlatform().name(name + "-", 1).daemon().factory();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.validation;
+
+import com.daniel.cartooncharacters.util.ApplicationProperties;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import javax.imageio.ImageIO;
+
+/**
+ * This class validates image files from their headers, without decoding
+ * them. The format is identified from the leading magic bytes and the
+ * dimensions are read from the header, reading only the first bytes of the
+ * file, or for JPEG files the few bytes that start each segment before the
+ * frame, through a channel that is closed before the method returns. JPEG, PNG,
+ * GIF, and BMP files are accepted, and WebP files when an image reader for
+ * them is installed. Files and images larger than the configured limits are
+ * rejected. An instance holds no state besides the limits and may be shared
+ * between threads.
+ *
+ * @author Bryan Daniel
+ */
+public class ImageFileValidator {
+
+    /**
+     * The number of bytes read at the start of each JPEG segment, which holds
+     * the marker and length, and the dimensions of a start of frame segment
+     */
+    private static final int JPEG_SEGMENT_PREFIX_LENGTH = 9;
+
+    /**
+     * The maximum number of JPEG markers and fill bytes passed before the
+     * start of frame segment
+     */
+    private static final int MAX_JPEG_MARKERS = 4096;
+
+    /**
+     * The number of bytes read first, which holds the header of every format
+     * except JPEG
+     */
+    private static final int PREFIX_LENGTH = 32;
+
+    /**
+     * The signature of PNG files
+     */
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The maximum size of an image file in bytes
+     */
+    private final long maxFileBytes;
+
+    /**
+     * The maximum width and height of an image in pixels
+     */
+    private final int maxDimension;
+
+    /**
+     * The indication that an image reader for WebP files is installed
+     */
+    private final boolean webpSupported;
+
+    /**
+     * Sets the limits from the configuration.
+     */
+    public ImageFileValidator() {
+        ApplicationProperties properties = ConfigurationManager.getApplicationProperties();
+        maxFileBytes = 1024L * 1024L * properties.getInt(ApplicationProperties.MAX_IMAGE_FILE_MEGABYTES,
+                ApplicationProperties.DEFAULT_MAX_IMAGE_FILE_MEGABYTES);
+        maxDimension = properties.getInt(ApplicationProperties.MAX_IMAGE_DIMENSION,
+                ApplicationProperties.DEFAULT_MAX_IMAGE_DIMENSION);
+        webpSupported = ImageIO.getImageReadersByFormatName("webp").hasNext();
+    }
+
+    /**
+     * This method ensures that the given file is a supported image within the
+     * configured limits and returns its header.
+     *
+     * @param imageFile the image file
+     * @return the header of the image
+     * @throws IllegalArgumentException with the reason if the file is not a
+     * valid image
+     */
+    public ImageHeader validate(File imageFile) {
+        ImageHeader header;
+        try {
+            header = readHeader(imageFile);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("The file could not be read.", ioe);
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("The file format is not recognized.");
+        }
+        if ("WebP".equals(header.getFormatName()) && !webpSupported) {
+            throw new IllegalArgumentException("WebP pictures are not supported.");
+        }
+        if (header.getByteSize() > maxFileBytes) {
+            throw new IllegalArgumentException(MessageFormat.format("The file is larger than {0} MB.",
+                    maxFileBytes / (1024 * 1024)));
+        }
+        if (header.getWidth() <= 0 || header.getHeight() <= 0) {
+            throw new IllegalArgumentException("The image dimensions are missing from the file.");
+        }
+        if (header.getWidth() > maxDimension || header.getHeight() > maxDimension) {
+            throw new IllegalArgumentException(MessageFormat.format("The image is {0,number,#} by {1,number,#} "
+                    + "pixels, more than {2,number,#} pixels in width or height.", header.getWidth(),
+                    header.getHeight(), maxDimension));
+        }
+        return header;
+    }
+
+    /**
+     * Reads the format and dimensions of the given file from its header.
+     *
+     * @param imageFile the image file
+     * @return the header, or null if the format is not recognized
+     * @throws IOException if the file cannot be read
+     */
+    public ImageHeader readHeader(File imageFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(imageFile.toPath(), StandardOpenOption.READ)) {
+            long byteSize = channel.size();
+            ByteBuffer prefix = read(channel, 0, PREFIX_LENGTH);
+            if (startsWith(prefix, PNG_SIGNATURE) && prefix.limit() >= 24) {
+                prefix.order(ByteOrder.BIG_ENDIAN);
+                return new ImageHeader("PNG", prefix.getInt(16), prefix.getInt(20), byteSize);
+            }
+            if ((startsWith(prefix, "GIF87a") || startsWith(prefix, "GIF89a")) && prefix.limit() >= 10) {
+                prefix.order(ByteOrder.LITTLE_ENDIAN);
+                return new ImageHeader("GIF", prefix.getShort(6) & 0xFFFF, prefix.getShort(8) & 0xFFFF, byteSize);
+            }
+            if (startsWith(prefix, "BM") && prefix.limit() >= 26) {
+                return readBmpHeader(prefix, byteSize);
+            }
+            if (startsWith(prefix, "RIFF") && prefix.limit() >= 30 && matches(prefix, 8, "WEBP")) {
+                return readWebpHeader(prefix, byteSize);
+            }
+            if (prefix.limit() >= 3 && (prefix.get(0) & 0xFF) == 0xFF && (prefix.get(1) & 0xFF) == 0xD8
+                    && (prefix.get(2) & 0xFF) == 0xFF) {
+                return readJpegHeader(channel, byteSize);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads the dimensions of a BMP file from its information header, whose
+     * height is negative for images stored top down.
+     *
+     * @param prefix the start of the file
+     * @param byteSize the size of the file
+     * @return the header
+     */
+    private ImageHeader readBmpHeader(ByteBuffer prefix, long byteSize) {
+        prefix.order(ByteOrder.LITTLE_ENDIAN);
+        if (prefix.getInt(14) == 12) {
+            return new ImageHeader("BMP", prefix.getShort(18) & 0xFFFF, prefix.getShort(20) & 0xFFFF, byteSize);
+        }
+        return new ImageHeader("BMP", prefix.getInt(18), Math.abs(prefix.getInt(22)), byteSize);
+    }
+
+    /**
+     * Reads the dimensions of a WebP file from its first chunk, which is a
+     * lossy, a lossless, or an extended format chunk.
+     *
+     * @param prefix the start of the file
+     * @param byteSize the size of the file
+     * @return the header, or null if the first chunk is not recognized
+     */
+    private ImageHeader readWebpHeader(ByteBuffer prefix, long byteSize) {
+        prefix.order(ByteOrder.LITTLE_ENDIAN);
+        if (matches(prefix, 12, "VP8 ")) {
+            return new ImageHeader("WebP", prefix.getShort(26) & 0x3FFF, prefix.getShort(28) & 0x3FFF, byteSize);
+        }
+        if (matches(prefix, 12, "VP8L")) {
+            int bits = prefix.getInt(21);
+            return new ImageHeader("WebP", (bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1, byteSize);
+        }
+        if (matches(prefix, 12, "VP8X")) {
+            int width = (prefix.get(24) & 0xFF) | (prefix.get(25) & 0xFF) << 8 | (prefix.get(26) & 0xFF) << 16;
+            int height = (prefix.get(27) & 0xFF) | (prefix.get(28) & 0xFF) << 8 | (prefix.get(29) & 0xFF) << 16;
+            return new ImageHeader("WebP", width + 1, height + 1, byteSize);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the dimensions of a JPEG file from its start of frame segment,
+     * skipping the segments before it by their lengths. Only the start of each
+     * segment is read, at the position computed from the length of the one
+     * before, so segments of any size, such as large metadata segments, are
+     * passed without reading them.
+     *
+     * @param channel the file channel
+     * @param byteSize the size of the file
+     * @return the header, with no dimensions if the file ends or the image
+     * data starts before a start of frame segment
+     * @throws IOException if the channel cannot be read
+     */
+    private ImageHeader readJpegHeader(FileChannel channel, long byteSize) throws IOException {
+        long position = 2;
+        for (int markerCount = 0; markerCount < MAX_JPEG_MARKERS; markerCount++) {
+            ByteBuffer segment = read(channel, position, JPEG_SEGMENT_PREFIX_LENGTH);
+            if (segment.limit() < 4 || (segment.get(0) & 0xFF) != 0xFF) {
+                break;
+            }
+            segment.order(ByteOrder.BIG_ENDIAN);
+            int marker = segment.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                position++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                position += 2;
+                continue;
+            }
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                if (segment.limit() < JPEG_SEGMENT_PREFIX_LENGTH) {
+                    break;
+                }
+                return new ImageHeader("JPEG", segment.getShort(7) & 0xFFFF, segment.getShort(5) & 0xFFFF,
+                        byteSize);
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                break;
+            }
+            position += 2 + (segment.getShort(2) & 0xFFFF);
+        }
+        return new ImageHeader("JPEG", 0, 0, byteSize);
+    }
+
+    /**
+     * Reads up to the given number of bytes from the given position of the
+     * channel.
+     *
+     * @param channel the file channel
+     * @param position the position of the first byte
+     * @param length the maximum number of bytes
+     * @return the bytes read, from position zero to the limit
+     * @throws IOException if the channel cannot be read
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, Math.max(0, channel.size() - position)));
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) != -1) {
+            // reading until the buffer is full or the file ends
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns true if the buffer starts with the given bytes.
+     *
+     * @param buffer the buffer
+     * @param bytes the bytes
+     * @return true if the buffer starts with the bytes, false otherwise
+     */
+    private static boolean startsWith(ByteBuffer buffer, byte[] bytes) {
+        if (buffer.limit() < bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the buffer starts with the given ASCII text.
+     *
+     * @param buffer the buffer
+     * @param text the text
+     * @return true if the buffer starts with the text, false otherwise
+     */
+    private static boolean startsWith(ByteBuffer buffer, String text) {
+        return matches(buffer, 0, text);
+    }
+
+    /**
+     * Returns true if the buffer holds the given ASCII text at the given
+     * position.
+     *
+     * @param buffer the buffer
+     * @param position the position of the text
+     * @param text the text
+     * @return true if the buffer holds the text there, false otherwise
+     */
+    private static boolean matches(ByteBuffer buffer, int position, String text) {
+        if (buffer.limit() < position + text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.get(position + i) != (byte) text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.validation;
+
+/**
+ * This class holds what the header of an image file tells about the image:
+ * its format, its dimensions, and the size of the file.
+ *
+ * @author Bryan Daniel
+ */
+public class ImageHeader {
+
+    /**
+     * The format name, such as JPEG or PNG
+     */
+    private final String formatName;
+
+    /**
+     * The width in pixels
+     */
+    private final int width;
+
+    /**
+     * The height in pixels
+     */
+    private final int height;
+
+    /**
+     * The size of the file in bytes
+     */
+    private final long byteSize;
+
+    /**
+     * Sets the values of the header.
+     *
+     * @param formatName the format name
+     * @param width the width in pixels
+     * @param height the height in pixels
+     * @param byteSize the size of the file in bytes
+     */
+    public ImageHeader(String formatName, int width, int height, long byteSize) {
+        this.formatName = formatName;
+        this.width = width;
+        this.height = height;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Get the value of formatName
+     *
+     * @return the value of formatName
+     */
+    public String getFormatName() {
+        return formatName;
+    }
+
+    /**
+     * Get the value of width
+     *
+     * @return the value of width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the value of height
+     *
+     * @return the value of height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the value of byteSize
+     *
+     * @return the value of byteSize
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+}
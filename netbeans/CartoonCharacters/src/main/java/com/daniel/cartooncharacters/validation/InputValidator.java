@@ -15,17 +15,11 @@
  */
 package com.daniel.cartooncharacters.validation;
 
-import com.daniel.cartooncharacters.entity.CartoonCharacter;
-import java.io.File;
-import java.io.IOException;
-import java.util.Iterator;
+import com.daniel.cartooncharacters.data.CharacterSearchResult;
 import javafx.beans.property.SimpleListProperty;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.Region;
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 
 /**
  * This class validates input for controller functions.
@@ -138,7 +132,7 @@ public class InputValidator {
      * @return true if a valid result is selected
      */
     public boolean validateStatisticsSelection(SimpleListProperty characterList,
-            TableView<CartoonCharacter> characterTable) {
+            TableView<CharacterSearchResult> characterTable) {
         if (characterList.isEmpty()) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setResizable(true);
@@ -162,34 +156,19 @@ public class InputValidator {
     }
 
     /**
-     * This method ensures that the given file read from the file system is a
-     * valid image. The file format name is returned after validation.
+     * This method shows the alert dialog for a file that is not a valid
+     * image, for callers that validated the file in a background thread with
+     * the image file validator.
      *
-     * @param image the image to validate
-     * @return the format for the image file or null if validation fails
+     * @param reason the reason the file is not valid
      */
-    public String imageFileValid(File image) {
-        String formatName = null;
-        ImageInputStream imageInputStream;
-        try {
-            imageInputStream = ImageIO.createImageInputStream(image);
-            Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
-            while (imageReaders.hasNext()) {
-                ImageReader reader = (ImageReader) imageReaders.next();
-                formatName = reader.getFormatName();
-            }
-            if (formatName == null) {
-                throw new IllegalArgumentException("Invalid File Format.");
-            }
-        } catch (IOException | IllegalArgumentException ex) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setResizable(true);
-            alert.setTitle("Invalid File");
-            alert.setHeaderText("File Format Not Recognized");
-            alert.setContentText("An image file must be selected.");
-            alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
-            alert.showAndWait();
-        }
-        return formatName;
+    public void showImageFileInvalid(String reason) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setResizable(true);
+        alert.setTitle("Invalid File");
+        alert.setHeaderText("Invalid Image File");
+        alert.setContentText(reason + " An image file must be selected.");
+        alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
+        alert.showAndWait();
     }
 }
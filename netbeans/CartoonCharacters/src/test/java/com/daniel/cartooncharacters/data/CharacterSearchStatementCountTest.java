@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.cartooncharacters.data;
+
+import com.daniel.cartooncharacters.entity.Cartoon;
+import com.daniel.cartooncharacters.entity.CartoonCharacter;
+import com.daniel.cartooncharacters.entity.CartoonLocation;
+import com.daniel.cartooncharacters.util.ConfigurationManager;
+import com.daniel.cartooncharacters.util.ConnectionProperties;
+import com.daniel.cartooncharacters.util.SessionUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * This class verifies that each page of a character search is read with a
+ * single statement, whatever the number of characters on the page, and that
+ * the pages of an indexed search are read without any statement. The test
+ * runs against the database of the configuration file and is skipped when the
+ * database cannot be reached. It adds its own cartoon, location, and
+ * characters and removes them afterwards.
+ *
+ * @author Bryan Daniel
+ */
+public class CharacterSearchStatementCountTest {
+
+    /**
+     * The title of the cartoon added for the test
+     */
+    private static final String CARTOON_TITLE = "Statement Count Fixture";
+
+    /**
+     * The number of characters added for the test
+     */
+    private static final int CHARACTER_COUNT = 5;
+
+    /**
+     * The number of characters on a page, so the search spans three pages
+     */
+    private static final int PAGE_SIZE = 2;
+
+    /**
+     * The seconds to wait for a connection before skipping the test
+     */
+    private static final int LOGIN_TIMEOUT = 5;
+
+    /**
+     * Skips the test if the configured database cannot be reached, and adds
+     * the cartoon, location, and characters searched.
+     */
+    @BeforeAll
+    public static void addCharacters() {
+        assumeTrue(isDatabaseReachable(), "The configured database cannot be reached.");
+        removeCharacters();
+        Session session = SessionUtil.getNewSession();
+        try {
+            session.getTransaction().begin();
+            Cartoon cartoon = new Cartoon();
+            cartoon.setTitle(CARTOON_TITLE);
+            cartoon.setDescription("A cartoon added by the statement count test.");
+            session.save(cartoon);
+            CartoonLocation location = new CartoonLocation();
+            location.setLocationName("Fixture Location");
+            location.setDescription("A location added by the statement count test.");
+            location.setCartoon(cartoon);
+            session.save(location);
+            for (int i = 1; i <= CHARACTER_COUNT; i++) {
+                CartoonCharacter character = new CartoonCharacter();
+                character.setCharacterName("Fixture Character " + i);
+                character.setDescription("A character added by the statement count test.");
+                character.setCharacterHome(location);
+                session.save(character);
+            }
+            session.getTransaction().commit();
+        } finally {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+    }
+
+    /**
+     * Removes the cartoon, location, and characters added for the test.
+     */
+    @AfterAll
+    public static void removeCharacters() {
+        if (!isDatabaseReachable()) {
+            return;
+        }
+        Session session = SessionUtil.getNewSession();
+        try {
+            session.getTransaction().begin();
+            session.createQuery("DELETE FROM CartoonCharacter ch WHERE ch.characterHome.locationId IN "
+                    + "(SELECT l.locationId FROM CartoonLocation l WHERE l.cartoon.title = :title)")
+                    .setString("title", CARTOON_TITLE).executeUpdate();
+            session.createQuery("DELETE FROM CartoonLocation l WHERE l.cartoon.cartoonId IN "
+                    + "(SELECT c.cartoonId FROM Cartoon c WHERE c.title = :title)")
+                    .setString("title", CARTOON_TITLE).executeUpdate();
+            session.createQuery("DELETE FROM Cartoon c WHERE c.title = :title")
+                    .setString("title", CARTOON_TITLE).executeUpdate();
+            session.getTransaction().commit();
+        } finally {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            SessionUtil.close(session);
+        }
+    }
+
+    /**
+     * Each page of the database search is read with one statement.
+     */
+    @Test
+    public void databaseSearchPreparesOneStatementPerPage() {
+        assertStatementsPerPage(new SimpleCharacterDataAccess(), 1);
+    }
+
+    /**
+     * Each page of the trigram search is read with one statement.
+     */
+    @Test
+    public void trigramSearchPreparesOneStatementPerPage() {
+        assertStatementsPerPage(new TrigramCharacterDataAccess(), 1);
+    }
+
+    /**
+     * Each page of the indexed search is read from the index alone.
+     */
+    @Test
+    public void indexedSearchPreparesNoStatementPerPage() {
+        assumeTrue(CharacterSearchIndex.initialize() != null, "The character search index cannot be built.");
+        assertStatementsPerPage(new IndexedCharacterDataAccess(), 0);
+    }
+
+    /**
+     * Reads every page of the search for the characters of the test cartoon
+     * and asserts that each page prepared the given number of statements.
+     *
+     * @param dataAccess the data access object searched
+     * @param statementCount the number of statements expected for each page
+     */
+    private void assertStatementsPerPage(PagedCharacterDataAccess dataAccess, long statementCount) {
+        Statistics statistics = SessionUtil.getStatistics();
+        List<String> characterNames = new ArrayList<>();
+        String continuationToken = null;
+        int pageCount = 0;
+        do {
+            statistics.clear();
+            CharacterPage page = dataAccess.findCartoonCharacterPage("Fixture Character", CARTOON_TITLE,
+                    continuationToken, PAGE_SIZE, null);
+            assertEquals(statementCount, statistics.getPrepareStatementCount(), "statements prepared for page " + pageCount);
+            page.getResults().forEach((result) -> characterNames.add(result.getCharacterName()));
+            continuationToken = page.getContinuationToken();
+            pageCount++;
+        } while (continuationToken != null && pageCount <= CHARACTER_COUNT);
+
+        assertNull(continuationToken);
+        assertEquals((CHARACTER_COUNT + PAGE_SIZE - 1) / PAGE_SIZE, pageCount);
+        assertEquals(CHARACTER_COUNT, characterNames.size());
+        for (int i = 1; i <= CHARACTER_COUNT; i++) {
+            assertEquals("Fixture Character " + i, characterNames.get(i - 1));
+        }
+    }
+
+    /**
+     * Returns true if a connection to the configured database can be opened.
+     *
+     * @return true if the database can be reached, false otherwise
+     */
+    private static boolean isDatabaseReachable() {
+        ConnectionProperties properties = ConfigurationManager.getConnectionProperties();
+        if (properties == null) {
+            return false;
+        }
+        String url = properties.getProperty(ConnectionProperties.DRIVER_STRING)
+                + properties.getProperty(ConnectionProperties.HOST) + ":"
+                + properties.getProperty(ConnectionProperties.PORT) + "/"
+                + properties.getProperty(ConnectionProperties.DATABASE_NAME);
+        DriverManager.setLoginTimeout(LOGIN_TIMEOUT);
+        try (Connection connection = DriverManager.getConnection(url,
+                properties.getProperty(ConnectionProperties.USERNAME),
+                properties.getProperty(ConnectionProperties.PASSWORD))) {
+            return connection.isValid(LOGIN_TIMEOUT);
+        } catch (SQLException sqle) {
+            return false;
+        }
+    }
+}